@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.engine.assets.AssetDescriptor;
+import com.guidebee.game.engine.assets.AssetLoaderParameters;
+import com.guidebee.game.engine.assets.AssetManager;
+import com.guidebee.game.engine.assets.loaders.AsynchronousAssetLoader;
+import com.guidebee.game.engine.assets.loaders.FileHandleResolver;
+import com.guidebee.game.files.FileHandle;
+import com.guidebee.utils.collections.Array;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Measures the time to load 330 assets with 1 to 8 loading threads, see
+ * {@link AssetManager#setLoadingThreads(int)}. The assets are 30 groups
+ * depending on 10 blobs each, loaded by headless loaders. The asynchronous
+ * part of a blob sleeps to stand for reading the file, then hashes to stand
+ * for decoding it. The synchronous parts only hand the results over, so no
+ * GL context is needed.
+ * <p/>
+ * Usage: AssetManagerBenchmark [readMillis] [decodeIterations]
+ */
+public class AssetManagerBenchmark {
+
+    public static class Blob {
+        long hash;
+    }
+
+    public static class Group {
+    }
+
+    static class BlobParameter extends AssetLoaderParameters<Blob> {
+    }
+
+    static class GroupParameter extends AssetLoaderParameters<Group> {
+    }
+
+    static class BlobLoader extends AsynchronousAssetLoader<Blob, BlobParameter> {
+        private final int readMillis;
+        private final int decodeIterations;
+        // blobs decoded by loadAsync, by file name, the loader is concurrent
+        private final ConcurrentHashMap<String, Blob> decoded
+                = new ConcurrentHashMap<String, Blob>();
+
+        BlobLoader(FileHandleResolver resolver, int readMillis, int decodeIterations) {
+            super(resolver);
+            this.readMillis = readMillis;
+            this.decodeIterations = decodeIterations;
+        }
+
+        @Override
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file,
+                                                      BlobParameter parameter) {
+            return null;
+        }
+
+        @Override
+        public void loadAsync(AssetManager manager, String fileName, FileHandle file,
+                              BlobParameter parameter) {
+            try {
+                Thread.sleep(readMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            decoded.put(fileName, decode(fileName));
+        }
+
+        @Override
+        public Blob loadSync(AssetManager manager, String fileName, FileHandle file,
+                             BlobParameter parameter) {
+            return decoded.remove(fileName);
+        }
+
+        @Override
+        public boolean isConcurrent() {
+            return true;
+        }
+
+        Blob decode(String fileName) {
+            Blob blob = new Blob();
+            long hash = fileName.hashCode();
+            for (int i = 0; i < decodeIterations; i++) {
+                hash = hash * 6364136223846793005L + 1442695040888963407L;
+            }
+            blob.hash = hash;
+            return blob;
+        }
+    }
+
+    static class GroupLoader extends AsynchronousAssetLoader<Group, GroupParameter> {
+
+        GroupLoader(FileHandleResolver resolver) {
+            super(resolver);
+        }
+
+        @Override
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file,
+                                                      GroupParameter parameter) {
+            Array<AssetDescriptor> dependencies = new Array<AssetDescriptor>();
+            for (int i = 0; i < 10; i++) {
+                dependencies.add(new AssetDescriptor<Blob>(fileName + "/blob" + i, Blob.class));
+            }
+            return dependencies;
+        }
+
+        @Override
+        public void loadAsync(AssetManager manager, String fileName, FileHandle file,
+                              GroupParameter parameter) {
+        }
+
+        @Override
+        public Group loadSync(AssetManager manager, String fileName, FileHandle file,
+                              GroupParameter parameter) {
+            return new Group();
+        }
+
+        @Override
+        public boolean isConcurrent() {
+            return true;
+        }
+    }
+
+    public static void main(String[] args) {
+        int readMillis = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int decodeIterations = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+        FileHandleResolver resolver = new FileHandleResolver() {
+            @Override
+            public FileHandle resolve(String fileName) {
+                return new FileHandle(fileName);
+            }
+        };
+        for (int run = 0; run < 2; run++) {
+            for (int threads = 1; threads <= 8; threads *= 2) {
+                AssetManager manager = new AssetManager(resolver);
+                manager.setLoader(Blob.class, new BlobLoader(resolver, readMillis,
+                        decodeIterations));
+                manager.setLoader(Group.class, new GroupLoader(resolver));
+                manager.setLoadingThreads(threads);
+                long start = System.nanoTime();
+                for (int i = 0; i < 30; i++) {
+                    manager.load("group" + i, Group.class);
+                }
+                manager.finishLoading();
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("threads=%d %d assets %.0f ms%n", threads,
+                        manager.getLoadedAssets(), elapsed / 1e6);
+                manager.dispose();
+            }
+        }
+    }
+}
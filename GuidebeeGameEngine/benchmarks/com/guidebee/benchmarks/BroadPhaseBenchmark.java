@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.Collidable;
+import com.guidebee.game.scene.collision.BroadPhase;
+import com.guidebee.game.scene.collision.UniformGridBroadPhase;
+import com.guidebee.math.geometry.Circle;
+import com.guidebee.math.geometry.Polygon;
+import com.guidebee.math.geometry.Rectangle;
+
+import java.util.Random;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Compares the all-pairs AABB check of the stage with a
+ * {@link UniformGridBroadPhase} for 1k to 16k collidables, a quarter of
+ * which move every frame. Prints the time per frame, the pairs handed to the
+ * narrow phase and the overlapping pairs found, which must be the same.
+ * <p/>
+ * Usage: BroadPhaseBenchmark [frames]
+ */
+public class BroadPhaseBenchmark {
+
+    static class Box implements Collidable {
+        final Rectangle bounds = new Rectangle();
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public String getName() {
+            return "box";
+        }
+
+        @Override
+        public Rectangle getBoundingAABB() {
+            return bounds;
+        }
+
+        @Override
+        public Polygon getBoundingPolygon() {
+            return null;
+        }
+
+        @Override
+        public Circle getBoundingCircle() {
+            return null;
+        }
+    }
+
+    static class OverlapCounter implements BroadPhase.PairListener {
+        int overlaps;
+
+        @Override
+        public void candidatePair(Collidable objectA, Collidable objectB) {
+            if (objectA.getBoundingAABB().overlaps(objectB.getBoundingAABB())) overlaps++;
+        }
+    }
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        for (int n = 1000; n <= 16000; n *= 2) {
+            Random random = new Random(n);
+            Box[] boxes = new Box[n];
+            // about 40 boxes per 512x512 area
+            float world = (float) Math.sqrt(n / 40.0) * 512;
+            for (int i = 0; i < n; i++) {
+                boxes[i] = new Box();
+                boxes[i].bounds.set(random.nextFloat() * world, random.nextFloat() * world,
+                        8 + random.nextInt(24), 8 + random.nextInt(24));
+            }
+            UniformGridBroadPhase broadPhase = new UniformGridBroadPhase(32);
+            OverlapCounter counter = new OverlapCounter();
+            long allPairsTime = 0, gridTime = 0;
+            int allPairsOverlaps = 0, gridOverlaps = 0, candidates = 0;
+            for (int f = 0; f < frames; f++) {
+                for (int i = 0; i < n; i += 4) {
+                    boxes[i].bounds.x += random.nextFloat() * 6 - 3;
+                }
+                long start = System.nanoTime();
+                allPairsOverlaps = 0;
+                for (int i = 0; i < n; i++) {
+                    Rectangle a = boxes[i].bounds;
+                    for (int j = i + 1; j < n; j++) {
+                        if (a.overlaps(boxes[j].bounds)) allPairsOverlaps++;
+                    }
+                }
+                long time1 = System.nanoTime();
+                broadPhase.beginUpdate();
+                for (int i = 0; i < n; i++) {
+                    broadPhase.update(boxes[i]);
+                }
+                broadPhase.endUpdate();
+                counter.overlaps = 0;
+                candidates = broadPhase.queryPairs(counter);
+                gridOverlaps = counter.overlaps;
+                long time2 = System.nanoTime();
+                if (f >= frames / 2) {
+                    allPairsTime += time1 - start;
+                    gridTime += time2 - time1;
+                }
+            }
+            int measured = frames - frames / 2;
+            System.out.printf("%5d collidables all pairs %8.2f ms %10d pairs,"
+                            + " grid %6.2f ms %7d pairs, overlaps %d/%d%n",
+                    n, allPairsTime / 1e6 / measured, (long) n * (n - 1) / 2,
+                    gridTime / 1e6 / measured, candidates, allPairsOverlaps, gridOverlaps);
+        }
+    }
+}
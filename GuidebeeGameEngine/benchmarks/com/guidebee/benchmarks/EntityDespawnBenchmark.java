@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.entity.DataTrait;
+import com.guidebee.game.entity.Entity;
+import com.guidebee.game.entity.EntityEngine;
+import com.guidebee.game.entity.Role;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Spawns and despawns waves of 5k to 80k entities in two families, and
+ * times the bulk add and remove. With families backed by sparse sets both
+ * should grow linearly with the wave size.
+ * <p/>
+ * Usage: EntityDespawnBenchmark
+ */
+public class EntityDespawnBenchmark {
+
+    public static class Bullet extends DataTrait {
+    }
+
+    public static class Tracer extends DataTrait {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) {
+        for (int run = 0; run < 3; run++) {
+            for (int n = 5000; n <= 80000; n *= 2) {
+                EntityEngine engine = new EntityEngine();
+                Role bullets = Role.getFor(Bullet.class);
+                Role tracers = Role.getFor(Tracer.class);
+                engine.getEntitiesFor(bullets);
+                engine.getEntitiesFor(tracers);
+                Entity[] entities = new Entity[n];
+                long start = System.nanoTime();
+                for (int i = 0; i < n; i++) {
+                    Entity entity = new Entity();
+                    entity.add(new Bullet());
+                    if (i % 2 == 0) entity.add(new Tracer());
+                    engine.addEntity(entity);
+                    entities[i] = entity;
+                }
+                long time1 = System.nanoTime();
+                // despawn in spawn order, the worst case for a linear scan
+                for (int i = 0; i < n; i++) {
+                    engine.removeEntity(entities[i]);
+                }
+                long time2 = System.nanoTime();
+                System.out.printf("%6d entities spawn %7.2f ms despawn %7.2f ms,"
+                                + " left %d %d%n", n, (time1 - start) / 1e6,
+                        (time2 - time1) / 1e6, engine.getEntitiesFor(bullets).size(),
+                        engine.getEntitiesFor(tracers).size());
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.entity.Archetype;
+import com.guidebee.game.entity.DataTrait;
+import com.guidebee.game.entity.DataTraitMapper;
+import com.guidebee.game.entity.Entity;
+import com.guidebee.game.entity.EntityEngine;
+import com.guidebee.game.entity.Role;
+import com.guidebee.game.entity.directors.IteratingDirector;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Compares the default storage of {@link EntityEngine} with archetype
+ * storage at 10k and 100k entities. Each frame a director moves every
+ * entity with a position and a velocity, and a tenth of the entities gain
+ * or lose a tag trait, which changes their archetype. The sum of the
+ * positions must be the same for both storages.
+ * <p/>
+ * Usage: EntityEngineBenchmark [frames]
+ */
+public class EntityEngineBenchmark {
+
+    public static class Position extends DataTrait {
+        float x, y;
+    }
+
+    public static class Velocity extends DataTrait {
+        float x, y;
+    }
+
+    public static class Tag extends DataTrait {
+    }
+
+    static class MovementDirector extends IteratingDirector {
+        private final DataTraitMapper<Position> positions = DataTraitMapper.getFor(Position.class);
+        private final DataTraitMapper<Velocity> velocities = DataTraitMapper.getFor(Velocity.class);
+
+        @SuppressWarnings("unchecked")
+        MovementDirector() {
+            super(Role.getFor(Position.class, Velocity.class));
+        }
+
+        @Override
+        protected void processEntity(Entity entity, float deltaTime) {
+            Position position = positions.get(entity);
+            Velocity velocity = velocities.get(entity);
+            position.x += velocity.x * deltaTime;
+            position.y += velocity.y * deltaTime;
+        }
+
+        @Override
+        protected void processArchetype(Archetype archetype, float deltaTime) {
+            DataTrait[] positions = archetype.getColumnData(archetype.getColumn(Position.class));
+            DataTrait[] velocities = archetype.getColumnData(archetype.getColumn(Velocity.class));
+            for (int i = 0, n = archetype.size(); i < n; i++) {
+                Position position = (Position) positions[i];
+                Velocity velocity = (Velocity) velocities[i];
+                position.x += velocity.x * deltaTime;
+                position.y += velocity.y * deltaTime;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        for (int run = 0; run < 3; run++) {
+            for (int n = 10000; n <= 100000; n *= 10) {
+                for (boolean archetypes : new boolean[]{false, true}) {
+                    run(n, archetypes, frames);
+                }
+            }
+        }
+    }
+
+    private static void run(int n, boolean archetypes, int frames) {
+        EntityEngine engine = new EntityEngine(archetypes);
+        engine.addDirector(new MovementDirector());
+        Entity[] entities = new Entity[n];
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            Entity entity = new Entity();
+            Position position = new Position();
+            position.x = i;
+            entity.add(position);
+            if (i % 8 != 0) {
+                Velocity velocity = new Velocity();
+                velocity.x = 1 + i % 5;
+                velocity.y = 2;
+                entity.add(velocity);
+            }
+            engine.addEntity(entity);
+            entities[i] = entity;
+        }
+        long time1 = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            engine.update(1 / 60f);
+        }
+        long time2 = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            for (int i = f % 10; i < n; i += 10) {
+                if ((f / 10 & 1) == 0) {
+                    entities[i].add(new Tag());
+                } else {
+                    entities[i].remove(Tag.class);
+                }
+            }
+            engine.update(1 / 60f);
+        }
+        long time3 = System.nanoTime();
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            Position position = entities[i].getDataTrait(Position.class);
+            sum += position.x + position.y;
+        }
+        System.out.printf("%6d entities %-10s add %6.1f ms update %6.2f ms/frame"
+                        + " update with trait changes %6.2f ms/frame sum %.1f%n",
+                n, archetypes ? "archetypes" : "default", (time1 - start) / 1e6,
+                (time2 - time1) / 1e6 / frames, (time3 - time2) / 1e6 / frames, sum);
+        engine.removeAllEntities();
+    }
+}
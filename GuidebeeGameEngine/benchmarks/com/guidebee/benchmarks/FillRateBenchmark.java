@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.drawing.Brush;
+import com.guidebee.drawing.Color;
+import com.guidebee.drawing.Graphics2D;
+import com.guidebee.drawing.LinearGradientBrush;
+import com.guidebee.drawing.RadialGradientBrush;
+import com.guidebee.drawing.SolidBrush;
+import com.guidebee.drawing.TextureBrush;
+import com.guidebee.drawing.geometry.Rectangle;
+import com.guidebee.game.engine.drawing.core.GraphicsFP;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Measures the fill rate of the fixed point renderer in Mpixels/s for
+ * solid, translucent, gradient and texture brushes, and of
+ * {@link GraphicsFP#finalizeBuffer(int)}. Run it on two versions of the
+ * engine to compare them, the hash of the pixels must stay the same.
+ * <p/>
+ * Usage: FillRateBenchmark [size] [fills]
+ */
+public class FillRateBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 512;
+        int fills = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int[] texture = new int[64 * 64];
+        for (int i = 0; i < texture.length; i++) {
+            texture[i] = 0xFF000000 | (i * 977);
+        }
+        Color[] colors = {new Color(0xFFFF0000, true), new Color(0xFF0000FF, true)};
+        Brush[] brushes = {
+                new SolidBrush(new Color(0xFF336699, true)),
+                new SolidBrush(new Color(0x80336699, true)),
+                new LinearGradientBrush(0, 0, size, size, new int[]{0, 255}, colors, 0),
+                new RadialGradientBrush(size / 2, size / 2, size / 2,
+                        new int[]{0, 255}, colors),
+                new TextureBrush(texture, 64, 64)};
+        String[] names = {"solid", "solid 50%", "linear", "radial", "texture"};
+        Rectangle rectangle = new Rectangle(0, 0, size, size);
+
+        for (int run = 0; run < 3; run++) {
+            for (int b = 0; b < brushes.length; b++) {
+                Graphics2D graphics = new Graphics2D(size, size);
+                graphics.clear(0xFFFFFFFF);
+                for (int i = 0; i < fills / 4; i++) {
+                    graphics.fill(brushes[b], rectangle);
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < fills; i++) {
+                    graphics.fill(brushes[b], rectangle);
+                }
+                long elapsed = System.nanoTime() - start;
+                print(names[b], size, fills, elapsed, hash(graphics.getRGB()));
+            }
+            GraphicsFP graphics = new GraphicsFP(size, size);
+            graphics.clear(0x80336699);
+            long start = System.nanoTime();
+            for (int i = 0; i < fills; i++) {
+                graphics.finalizeBuffer(0xFFFFFFFF);
+            }
+            long elapsed = System.nanoTime() - start;
+            print("finalize", size, fills, elapsed, hash(graphics.getRGB()));
+        }
+    }
+
+    private static void print(String name, int size, int fills, long elapsed, long hash) {
+        System.out.printf("%-10s %7.1f Mpixels/s hash %d%n", name,
+                (double) size * size * fills / (elapsed / 1e3), hash);
+    }
+
+    private static long hash(int[] pixels) {
+        long hash = 1;
+        for (int pixel : pixels) {
+            hash = hash * 31 + pixel;
+        }
+        return hash;
+    }
+}
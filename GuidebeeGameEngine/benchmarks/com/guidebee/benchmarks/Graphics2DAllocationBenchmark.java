@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.drawing.Color;
+import com.guidebee.drawing.Graphics2D;
+import com.guidebee.drawing.Pen;
+import com.guidebee.drawing.SolidBrush;
+import com.guidebee.drawing.geometry.Ellipse;
+import com.guidebee.drawing.geometry.IShape;
+import com.guidebee.drawing.geometry.Line;
+import com.guidebee.drawing.geometry.Polygon;
+import com.guidebee.drawing.geometry.Rectangle;
+import com.guidebee.drawing.geometry.RoundRectangle;
+
+import java.lang.management.ManagementFactory;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Counts the bytes allocated by {@link Graphics2D#fill} and
+ * {@link Graphics2D#draw} per call for the common shapes, and prints a hash
+ * of a scene so the pixels can be compared between versions. Needs a JVM
+ * with com.sun.management.ThreadMXBean.
+ * <p/>
+ * Usage: Graphics2DAllocationBenchmark [calls]
+ */
+public class Graphics2DAllocationBenchmark {
+
+    public static void main(String[] args) {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Graphics2D graphics = new Graphics2D(400, 400);
+        graphics.clear(0xFFFFFFFF);
+        drawScene(graphics, 0);
+        drawScene(graphics, 11);
+        long hash = 1;
+        for (int pixel : graphics.getRGB()) {
+            hash = hash * 31 + pixel;
+        }
+        System.out.println("scene hash " + hash);
+
+        SolidBrush brush = new SolidBrush(new Color(0xFF336699, true));
+        Pen pen = new Pen(new Color(0xFF00AA00, true), 2);
+        IShape[] shapes = {
+                new Rectangle(10, 10, 100, 60),
+                new Polygon(new int[]{5, 200, 90, 30}, new int[]{5, 40, 190, 120}, 4),
+                new Ellipse(20, 20, 150, 90),
+                new RoundRectangle(30, 30, 120, 80, 16, 16),
+                new Line(0, 0, 300, 200)};
+        for (IShape shape : shapes) {
+            for (int i = 0; i < calls * 10; i++) {
+                graphics.fill(brush, shape);
+                graphics.draw(pen, shape);
+            }
+            long allocated0 = allocatedBytes();
+            for (int i = 0; i < calls; i++) {
+                graphics.fill(brush, shape);
+            }
+            long allocated1 = allocatedBytes();
+            for (int i = 0; i < calls; i++) {
+                graphics.draw(pen, shape);
+            }
+            long allocated2 = allocatedBytes();
+            System.out.printf("%-15s fill %7.1f bytes/call draw %8.1f bytes/call%n",
+                    shape.getClass().getSimpleName(),
+                    (allocated1 - allocated0) / (double) calls,
+                    (allocated2 - allocated1) / (double) calls);
+        }
+    }
+
+    private static void drawScene(Graphics2D graphics, int offset) {
+        SolidBrush red = new SolidBrush(new Color(0x80FF0000, true));
+        SolidBrush blue = new SolidBrush(new Color(0xFF0000FF, true));
+        Pen pen = new Pen(new Color(0xFF00AA00, true), 3);
+        Pen dash = new Pen(new Color(0xFF000000, true), 2, Pen.CAP_ROUND,
+                Pen.JOIN_ROUND, new int[]{6, 3}, 0);
+        for (int i = 0; i < 40; i++) {
+            int o = (i * 37 + offset) % 300;
+            graphics.fill(red, new Rectangle(o, o / 2, 50 + i, 30));
+            graphics.fill(blue, new Polygon(new int[]{o, o + 60, o + 20},
+                    new int[]{10 + i, 80, 150 - i}, 3));
+            graphics.fill(red, new Ellipse(o, 200 - o / 3, 40, 25 + i));
+            graphics.fill(blue, new RoundRectangle(300 - o, o, 60, 40, 12, 10));
+            graphics.draw(pen, new Line(o, 0, 399 - o, 399));
+            graphics.draw(pen, new Rectangle(o + 5, o + 7, 33, 21));
+            graphics.draw(dash, new Ellipse(o, o, 70, 50));
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
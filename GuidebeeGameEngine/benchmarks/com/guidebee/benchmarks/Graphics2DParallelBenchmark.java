@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.drawing.Color;
+import com.guidebee.drawing.Graphics2D;
+import com.guidebee.drawing.LinearGradientBrush;
+import com.guidebee.drawing.Pen;
+import com.guidebee.drawing.SolidBrush;
+
+import java.util.Arrays;
+import java.util.Random;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Draws the same ellipses serially and with 1 to 8 worker threads, see
+ * {@link Graphics2D#setParallelism(int)}, and checks that the pixels are the
+ * same. Each surface is drawn twice so the second frame reuses the recorded
+ * paths. Optionally one ellipse is filled with a gradient, which flushes the
+ * recorded paths.
+ * <p/>
+ * Usage: Graphics2DParallelBenchmark [size]
+ */
+public class Graphics2DParallelBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 2048;
+        long[] time = new long[1];
+        for (boolean gradient : new boolean[]{false, true}) {
+            int[] reference = render(size, 0, gradient, time);
+            System.out.printf("%dx%d gradient=%b serial %.0f ms%n",
+                    size, size, gradient, time[0] / 1e6);
+            for (int threads = 1; threads <= 8; threads *= 2) {
+                int[] pixels = render(size, threads, gradient, time);
+                System.out.printf("  threads=%d %.0f ms same=%b%n", threads,
+                        time[0] / 1e6, Arrays.equals(reference, pixels));
+            }
+        }
+    }
+
+    private static int[] render(int size, int threads, boolean gradient, long[] time) {
+        Graphics2D graphics = new Graphics2D(size, size);
+        graphics.setParallelism(threads);
+        Pen pen = new Pen(new Color(0xFF000000), 3);
+        int[] pixels = null;
+        for (int frame = 0; frame < 2; frame++) {
+            graphics.setClip(0, 0, size, size);
+            graphics.clear(0xFFFFFFFF);
+            Random random = new Random(1);
+            long start = System.nanoTime();
+            for (int i = 0; i < 400; i++) {
+                int x = random.nextInt(size - 100);
+                int y = random.nextInt(size - 100);
+                int width = 20 + random.nextInt(size / 3);
+                int height = 20 + random.nextInt(size / 3);
+                if (gradient && i == 200) {
+                    graphics.fillOval(new LinearGradientBrush(0, 0, size, size,
+                            new int[]{0, 255}, new Color[]{new Color(0xFFFF0000),
+                            new Color(0xFF0000FF)}, 0), x, y, width, height);
+                } else {
+                    graphics.fillOval(new SolidBrush(new Color(0x80000000
+                            | random.nextInt(0xFFFFFF))), x, y, width, height);
+                }
+                if (i % 4 == 0) graphics.drawOval(pen, x, y, width, height);
+                if (i == 100) graphics.setClip(50, 50, size - 200, size - 300);
+            }
+            pixels = graphics.getRGB().clone();
+            time[0] = System.nanoTime() - start;
+        }
+        graphics.setParallelism(0);
+        return pixels;
+    }
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.drawing.Color;
+import com.guidebee.drawing.Graphics2D;
+import com.guidebee.drawing.Pen;
+import com.guidebee.drawing.SolidBrush;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Rasterizes independent {@link Graphics2D} surfaces on 1 to 8 threads at
+ * the same time and compares each surface with the one drawn serially. Any
+ * renderer state shared between surfaces shows up as mismatching surfaces.
+ * <p/>
+ * Usage: Graphics2DSurfacesBenchmark [surfaces]
+ */
+public class Graphics2DSurfacesBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int surfaces = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int[][] reference = new int[surfaces][];
+        for (int i = 0; i < surfaces; i++) {
+            reference[i] = render(i);
+        }
+        for (int threads = 1; threads <= 8; threads *= 2) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            for (int run = 0; run < 3; run++) {
+                long start = System.nanoTime();
+                List<Future<int[]>> results = new ArrayList<Future<int[]>>();
+                for (int i = 0; i < surfaces; i++) {
+                    final int seed = i;
+                    results.add(executor.submit(new Callable<int[]>() {
+                        @Override
+                        public int[] call() {
+                            return render(seed);
+                        }
+                    }));
+                }
+                int mismatches = 0;
+                for (int i = 0; i < surfaces; i++) {
+                    if (!Arrays.equals(results.get(i).get(), reference[i])) mismatches++;
+                }
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("threads=%d %d surfaces %.1f ms mismatches=%d%n",
+                        threads, surfaces, elapsed / 1e6, mismatches);
+            }
+            executor.shutdown();
+        }
+    }
+
+    private static int[] render(int seed) {
+        Graphics2D graphics = new Graphics2D(256, 256);
+        graphics.clear(0xFFFFFFFF);
+        Random random = new Random(seed);
+        Pen pen = new Pen(new Color(0xFF000000), 2);
+        for (int i = 0; i < 150; i++) {
+            int x = random.nextInt(220);
+            int y = random.nextInt(220);
+            int width = 10 + random.nextInt(80);
+            int height = 10 + random.nextInt(80);
+            graphics.fillOval(new SolidBrush(new Color(0x80000000
+                    | random.nextInt(0xFFFFFF))), x, y, width, height);
+            graphics.drawOval(pen, x, y, width, height);
+        }
+        return graphics.getRGB().clone();
+    }
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.graphics.ParticleEffect;
+import com.guidebee.game.graphics.ParticleEffectUpdater;
+import com.guidebee.game.graphics.ParticleEmitter;
+import com.guidebee.game.graphics.Sprite;
+import com.guidebee.math.collision.BoundingBox;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Measures how {@link ParticleEffectUpdater} scales from 1 to 8 updating
+ * threads, the calling thread plus 0 to 7 workers, for sprite and packed
+ * emitters. The checksum of the bounding boxes must be the same for every
+ * thread count.
+ * <p/>
+ * Usage: ParticleEffectUpdaterBenchmark [effects] [frames]
+ */
+public class ParticleEffectUpdaterBenchmark {
+
+    public static void main(String[] args) {
+        int effects = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        for (boolean packed : new boolean[]{false, true}) {
+            for (int threads = 1; threads <= 8; threads++) {
+                run(packed, threads, effects, frames);
+            }
+        }
+    }
+
+    private static void run(boolean packed, int threads, int effects, int frames) {
+        ParticleEffectUpdater updater = new ParticleEffectUpdater(threads - 1);
+        for (int i = 0; i < effects; i++) {
+            ParticleEffect effect = new ParticleEffect();
+            effect.getEmitters().add(createEmitter(packed));
+            effect.setSeed(1000 + i);
+            effect.setPosition(i * 10, i);
+            effect.start();
+            updater.add(effect);
+        }
+        // warm up until the emitters are full.
+        for (int f = 0; f < 60; f++) {
+            updater.update(1 / 60f);
+        }
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            updater.update(1 / 60f);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double checksum = 0;
+        int particles = 0;
+        for (ParticleEffect effect : updater.getEffects()) {
+            BoundingBox bounds = effect.getBoundingBox();
+            checksum += bounds.min.x + bounds.max.y * 3;
+            particles += effect.getEmitters().get(0).getActiveCount();
+        }
+        System.out.printf("%s threads=%d particles=%d %.3f ms/update checksum=%.6f%n",
+                packed ? "packed" : "sprite", threads, particles,
+                elapsed / 1e6 / frames, checksum);
+        updater.dispose();
+    }
+
+    private static ParticleEmitter createEmitter(boolean packed) {
+        ParticleEmitter emitter = new ParticleEmitter();
+        emitter.setMaxParticleCount(600);
+        emitter.getDuration().setLow(1000);
+        emitter.setContinuous(true);
+        emitter.getEmission().setHigh(600);
+        emitter.getLife().setHigh(800, 1200);
+        emitter.getVelocity().setActive(true);
+        emitter.getVelocity().setHigh(50, 150);
+        emitter.getAngle().setActive(true);
+        emitter.getAngle().setHigh(0, 360);
+        emitter.getAngle().setTimeline(new float[]{0, 1});
+        emitter.getAngle().setScaling(new float[]{1, 0.5f});
+        emitter.getRotation().setActive(true);
+        emitter.getRotation().setHigh(0, 720);
+        emitter.getRotation().setTimeline(new float[]{0, 1});
+        emitter.getRotation().setScaling(new float[]{0, 1});
+        emitter.getTint().setTimeline(new float[]{0, 1});
+        emitter.getTint().setColors(new float[]{1, 0.5f, 0, 0, 0.5f, 1});
+        emitter.getScale().setHigh(32);
+        emitter.getTransparency().setHigh(1);
+        emitter.getGravity().setActive(true);
+        emitter.getGravity().setHigh(-50);
+        emitter.getSpawnShape().setShape(ParticleEmitter.SpawnShape.ellipse);
+        emitter.getSpawnWidth().setHigh(40);
+        emitter.getSpawnHeight().setHigh(40);
+        // the update only needs the size of the sprite, no texture.
+        Sprite sprite = new Sprite();
+        sprite.setSize(64, 64);
+        sprite.setOrigin(32, 32);
+        emitter.setSprite(sprite);
+        emitter.setPacked(packed);
+        return emitter;
+    }
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.graphics.Batch;
+import com.guidebee.game.graphics.ParticleEmitter;
+import com.guidebee.game.graphics.Sprite;
+import com.guidebee.math.MathUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Compares a sprite emitter with a packed emitter at 10k particles, see
+ * {@link ParticleEmitter#setPacked(boolean)}. Each frame updates the
+ * emitter and draws it into a batch that only sums the vertices, so the
+ * checksums of both modes can be compared. The memory held by the
+ * particles is printed as well.
+ * <p/>
+ * Usage: ParticleEmitterBenchmark [particles] [frames]
+ */
+public class ParticleEmitterBenchmark {
+
+    private static double checksum;
+    private static int vertices;
+
+    public static void main(String[] args) throws InterruptedException {
+        int particles = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        Batch batch = (Batch) Proxy.newProxyInstance(Batch.class.getClassLoader(),
+                new Class<?>[]{Batch.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("draw") && args.length == 4
+                                && args[1] instanceof float[]) {
+                            float[] spriteVertices = (float[]) args[1];
+                            int offset = (Integer) args[2];
+                            int count = (Integer) args[3];
+                            for (int i = offset; i < offset + count; i += 5) {
+                                checksum += spriteVertices[i] + spriteVertices[i + 1] * 3;
+                            }
+                            vertices += count;
+                        }
+                        Class<?> type = method.getReturnType();
+                        if (type == boolean.class) return false;
+                        if (type == int.class) return 0;
+                        return null;
+                    }
+                });
+
+        for (boolean packed : new boolean[]{false, true}) {
+            long memory0 = usedMemory();
+            ParticleEmitter emitter = createEmitter(particles, packed);
+            for (int f = 0; f < 120; f++) {
+                emitter.update(1 / 60f);
+            }
+            long memory1 = usedMemory();
+            System.out.println((packed ? "packed " : "sprite ") + emitter.getActiveCount()
+                    + " particles " + (memory1 - memory0) / 1024 + "KB");
+        }
+        for (int run = 0; run < 4; run++) {
+            for (boolean packed : new boolean[]{false, true}) {
+                ParticleEmitter emitter = createEmitter(particles, packed);
+                for (int f = 0; f < 120; f++) {
+                    emitter.update(1 / 60f);
+                }
+                checksum = 0;
+                vertices = 0;
+                long start = System.nanoTime();
+                for (int f = 0; f < frames; f++) {
+                    emitter.draw(batch, 1 / 60f);
+                }
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("%s active=%d %.2f ms/frame checksum=%.6e vertices=%d%n",
+                        packed ? "packed" : "sprite", emitter.getActiveCount(),
+                        elapsed / 1e6 / frames, checksum, vertices);
+            }
+        }
+    }
+
+    private static ParticleEmitter createEmitter(int particles, boolean packed) {
+        MathUtils.random.setSeed(42);
+        ParticleEmitter emitter = new ParticleEmitter();
+        emitter.setMaxParticleCount(particles);
+        emitter.setMinParticleCount(0);
+        emitter.getDuration().setLow(1000);
+        emitter.setContinuous(true);
+        emitter.getEmission().setHigh(particles * 2);
+        emitter.getLife().setHigh(800, 1200);
+        emitter.getVelocity().setActive(true);
+        emitter.getVelocity().setHigh(50, 150);
+        emitter.getAngle().setActive(true);
+        emitter.getAngle().setHigh(0, 360);
+        emitter.getAngle().setTimeline(new float[]{0, 1});
+        emitter.getAngle().setScaling(new float[]{1, 0.5f});
+        emitter.getRotation().setActive(true);
+        emitter.getRotation().setHigh(0, 720);
+        emitter.getRotation().setTimeline(new float[]{0, 1});
+        emitter.getRotation().setScaling(new float[]{0, 1});
+        emitter.getScale().setHigh(32);
+        emitter.getScale().setTimeline(new float[]{0, 1});
+        emitter.getScale().setScaling(new float[]{1, 0.2f});
+        emitter.getTransparency().setHigh(1);
+        emitter.getTransparency().setTimeline(new float[]{0, 1});
+        emitter.getTransparency().setScaling(new float[]{1, 0});
+        emitter.getGravity().setActive(true);
+        emitter.getGravity().setHigh(-50);
+        // the batch ignores the texture.
+        Sprite sprite = new Sprite();
+        sprite.setSize(64, 64);
+        sprite.setOrigin(32, 32);
+        emitter.setSprite(sprite);
+        emitter.setPacked(packed);
+        emitter.start();
+        return emitter;
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.drawing.geometry.Area;
+import com.guidebee.math.Intersector;
+import com.guidebee.math.geometry.Polygon;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Compares the float polygon narrow phase,
+ * {@link Intersector#overlapPolygons}, with the former Area based check,
+ * which rounded the vertices to ints and intersected two {@link Area}s, on
+ * pairs of convex and of concave polygons. Prints the time and the bytes
+ * allocated per pair, and how many pairs the two checks disagree on, from
+ * the rounding of the Area check. Needs a JVM with
+ * com.sun.management.ThreadMXBean.
+ * <p/>
+ * Usage: PolygonCollisionBenchmark [pairs]
+ */
+public class PolygonCollisionBenchmark {
+
+    public static void main(String[] args) {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        for (boolean concave : new boolean[]{false, true}) {
+            Random random = new Random(7);
+            Polygon[] polygons = new Polygon[pairs * 2];
+            for (int i = 0; i < polygons.length; i++) {
+                polygons[i] = createPolygon(concave);
+                polygons[i].setPosition(random.nextFloat() * 200, random.nextFloat() * 200);
+                polygons[i].setRotation(random.nextFloat() * 360);
+            }
+            Intersector.MinimumTranslationVector contact
+                    = new Intersector.MinimumTranslationVector();
+            for (int run = 0; run < 3; run++) {
+                int overlaps = 0, areaOverlaps = 0, mismatches = 0;
+                long allocated0 = allocatedBytes();
+                long start = System.nanoTime();
+                for (int i = 0; i < pairs; i++) {
+                    if (Intersector.overlapPolygons(polygons[i * 2].getTransformedVertices(),
+                            polygons[i * 2 + 1].getTransformedVertices(), contact)) {
+                        overlaps++;
+                    }
+                }
+                long time1 = System.nanoTime();
+                long allocated1 = allocatedBytes();
+                for (int i = 0; i < pairs; i++) {
+                    if (overlapAreas(polygons[i * 2].getTransformedVertices(),
+                            polygons[i * 2 + 1].getTransformedVertices())) {
+                        areaOverlaps++;
+                    }
+                }
+                long time2 = System.nanoTime();
+                long allocated2 = allocatedBytes();
+                for (int i = 0; i < pairs; i++) {
+                    float[] vertices1 = polygons[i * 2].getTransformedVertices();
+                    float[] vertices2 = polygons[i * 2 + 1].getTransformedVertices();
+                    if (Intersector.overlapPolygons(vertices1, vertices2, null)
+                            != overlapAreas(vertices1, vertices2)) {
+                        mismatches++;
+                    }
+                }
+                System.out.printf("%s float %6.0f ns/pair %5.0f bytes/pair,"
+                                + " area %7.0f ns/pair %6.0f bytes/pair,"
+                                + " overlaps %d/%d mismatches %d%n",
+                        concave ? "concave" : "convex ",
+                        (time1 - start) / (double) pairs,
+                        (allocated1 - allocated0) / (double) pairs,
+                        (time2 - time1) / (double) pairs,
+                        (allocated2 - allocated1) / (double) pairs,
+                        overlaps, areaOverlaps, mismatches);
+            }
+        }
+    }
+
+    /**
+     * The Area based check the stage used before the float narrow phase.
+     */
+    private static boolean overlapAreas(float[] vertices1, float[] vertices2) {
+        int[] xpoints1 = new int[vertices1.length / 2];
+        int[] ypoints1 = new int[vertices1.length / 2];
+        int[] xpoints2 = new int[vertices2.length / 2];
+        int[] ypoints2 = new int[vertices2.length / 2];
+        for (int i = 0; i < xpoints1.length; i++) {
+            xpoints1[i] = Math.round(vertices1[i * 2]);
+            ypoints1[i] = Math.round(vertices1[i * 2 + 1]);
+        }
+        for (int i = 0; i < xpoints2.length; i++) {
+            xpoints2[i] = Math.round(vertices2[i * 2]);
+            ypoints2[i] = Math.round(vertices2[i * 2 + 1]);
+        }
+        Area area1 = new Area(new com.guidebee.drawing.geometry.Polygon(
+                xpoints1, ypoints1, xpoints1.length));
+        Area area2 = new Area(new com.guidebee.drawing.geometry.Polygon(
+                xpoints2, ypoints2, xpoints2.length));
+        area1.intersect(area2);
+        return !area1.isEmpty();
+    }
+
+    /**
+     * @return a hexagon, or a star with six points when concave.
+     */
+    private static Polygon createPolygon(boolean concave) {
+        int points = concave ? 12 : 6;
+        float[] vertices = new float[points * 2];
+        for (int i = 0; i < points; i++) {
+            double angle = Math.PI * 2 * i / points;
+            float radius = concave && (i & 1) == 1 ? 10 : 24;
+            vertices[i * 2] = (float) (Math.cos(angle) * radius);
+            vertices[i * 2 + 1] = (float) (Math.sin(angle) * radius);
+        }
+        return new Polygon(vertices);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.Application;
+import com.guidebee.game.GameEngine;
+import com.guidebee.game.Graphics;
+import com.guidebee.game.engine.graphics.opengles.IGL20;
+import com.guidebee.game.engine.utils.GameEngineiNativesLoader;
+import com.guidebee.game.graphics.Pixmap;
+import com.guidebee.game.graphics.SpriteBatch;
+import com.guidebee.game.graphics.Texture;
+import com.guidebee.game.graphics.TextureData;
+import com.guidebee.math.Matrix4;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Counts the draw calls of {@link SpriteBatch} with and without deferred
+ * mode through a stub {@link IGL20}, no GPU is needed. Sprites of 4
+ * textures are drawn interleaved, partly inside a transformed group. The
+ * sprites of each texture stay in one quarter of the screen, so none of
+ * them overlaps a sprite of another texture and deferred mode must render
+ * them in one draw call per texture.
+ * <p/>
+ * Needs the native library of the engine, see
+ * {@link GameEngineiNativesLoader}.
+ */
+public class SpriteBatchFlushCheck {
+
+    private static final int TEXTURES = 4;
+    private static final int SPRITES = 400;
+    private static final int GROUP_SPRITES = 100;
+
+    public static void main(String[] args) {
+        GameEngineiNativesLoader.load();
+        GLStub stub = new GLStub();
+        GameEngine.gl = (IGL20) Proxy.newProxyInstance(IGL20.class.getClassLoader(),
+                new Class[]{IGL20.class}, stub);
+        GameEngine.gl20 = GameEngine.gl;
+        GameEngine.graphics = (Graphics) Proxy.newProxyInstance(
+                Graphics.class.getClassLoader(), new Class[]{Graphics.class},
+                new GraphicsStub());
+        // managed GL resources are kept by application
+        GameEngine.app = (Application) Proxy.newProxyInstance(
+                Application.class.getClassLoader(), new Class[]{Application.class},
+                new GraphicsStub());
+
+        Texture[] textures = new Texture[TEXTURES];
+        for (int i = 0; i < TEXTURES; i++) {
+            textures[i] = new Texture(new StubTextureData(64, 64));
+        }
+        SpriteBatch batch = new SpriteBatch(1000);
+        int immediateDraws = run(batch, textures, stub, false);
+        int deferredDraws = run(batch, textures, stub, true);
+        batch.dispose();
+
+        boolean ok = immediateDraws == SPRITES + GROUP_SPRITES
+                && deferredDraws == TEXTURES;
+        System.out.println(ok ? "ok" : "FAILED");
+        if (!ok) System.exit(1);
+    }
+
+    private static int run(SpriteBatch batch, Texture[] textures, GLStub stub,
+                           boolean deferred) {
+        batch.setDeferred(deferred);
+        stub.drawCalls = 0;
+        batch.begin();
+        for (int i = 0; i < SPRITES; i++) {
+            draw(batch, textures, i);
+        }
+        // a transformed group above the sprites
+        Matrix4 transform = new Matrix4().translate(0, 120, 0);
+        batch.setTransformMatrix(transform);
+        for (int i = 0; i < GROUP_SPRITES; i++) {
+            draw(batch, textures, i);
+        }
+        batch.setTransformMatrix(transform.idt());
+        batch.end();
+        System.out.println((deferred ? "deferred" : "immediate")
+                + " sprites=" + (SPRITES + GROUP_SPRITES)
+                + " flushes=" + batch.flushCalls
+                + " renderCalls=" + batch.renderCalls
+                + " drawCalls=" + stub.drawCalls);
+        return stub.drawCalls;
+    }
+
+    /**
+     * Draws the sprite i of the texture i % TEXTURES in the quarter of the
+     * screen of the texture.
+     */
+    private static void draw(SpriteBatch batch, Texture[] textures, int i) {
+        int texture = i % TEXTURES;
+        int n = i / TEXTURES;
+        batch.draw(textures[texture], texture % 2 * 400 + n % 20 * 16,
+                texture / 2 * 240 + n / 20 * 16, 16, 16);
+    }
+
+    /**
+     * Default value of a return type.
+     */
+    private static Object defaultValue(Class type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        if (type == String.class) return "";
+        return null;
+    }
+
+    /**
+     * GL which compiles every shader and counts the draw calls.
+     */
+    private static class GLStub implements InvocationHandler {
+        int drawCalls;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.equals("glDrawElements") || name.equals("glDrawArrays")) {
+                drawCalls++;
+            } else if (name.equals("glCreateShader") || name.equals("glCreateProgram")
+                    || name.equals("glGenTexture")) {
+                return 1;
+            } else if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+                int pname = (Integer) args[1];
+                boolean status = pname == IGL20.GL_COMPILE_STATUS
+                        || pname == IGL20.GL_LINK_STATUS;
+                ((IntBuffer) args[2]).put(0, status ? 1 : 0);
+            }
+            return defaultValue(method.getReturnType());
+        }
+    }
+
+    /**
+     * Graphics of an 800x480 screen, default values for anything else.
+     */
+    private static class GraphicsStub implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.equals("getWidth")) return 800;
+            if (name.equals("getHeight")) return 480;
+            return defaultValue(method.getReturnType());
+        }
+    }
+
+    /**
+     * Texture data uploading nothing.
+     */
+    private static class StubTextureData implements TextureData {
+        private final int width;
+        private final int height;
+
+        StubTextureData(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public TextureDataType getType() {
+            return TextureDataType.Custom;
+        }
+
+        @Override
+        public boolean isPrepared() {
+            return true;
+        }
+
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public Pixmap consumePixmap() {
+            return null;
+        }
+
+        @Override
+        public boolean disposePixmap() {
+            return false;
+        }
+
+        @Override
+        public void consumeCustomData(int target) {
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public Pixmap.Format getFormat() {
+            return Pixmap.Format.RGBA8888;
+        }
+
+        @Override
+        public boolean useMipMaps() {
+            return false;
+        }
+
+        @Override
+        public boolean isManaged() {
+            return false;
+        }
+    }
+}
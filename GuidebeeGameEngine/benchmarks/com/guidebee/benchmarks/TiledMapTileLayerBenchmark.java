@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.graphics.TextureRegion;
+import com.guidebee.game.maps.tiled.TiledMapTileLayer;
+import com.guidebee.game.maps.tiled.TiledMapTileSet;
+import com.guidebee.game.maps.tiled.TiledMapTileSets;
+import com.guidebee.game.maps.tiled.tiles.StaticTiledMapTile;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Compares the memory and the iteration time of a tile layer storing one
+ * cell object per cell with a packed layer, iterated through the packed
+ * cells and through the cell views of {@link TiledMapTileLayer#getCell}.
+ * <p/>
+ * Usage: TiledMapTileLayerBenchmark [size]
+ */
+public class TiledMapTileLayerBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        TiledMapTileSets tileSets = new TiledMapTileSets();
+        TiledMapTileSet tileSet = new TiledMapTileSet();
+        for (int id = 1; id <= 64; id++) {
+            StaticTiledMapTile tile = new StaticTiledMapTile((TextureRegion) null);
+            tile.setId(id);
+            tileSet.putTile(id, tile);
+        }
+        tileSets.addTileSet(tileSet);
+
+        long memory0 = usedMemory();
+        TiledMapTileLayer cells = new TiledMapTileLayer(n, n, 16, 16);
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+                cell.setTile(tileSet.getTile(tileId(x, y)));
+                cell.setFlipHorizontally((x & 1) == 0);
+                cells.setCell(x, y, cell);
+            }
+        }
+        long memory1 = usedMemory();
+        TiledMapTileLayer packed = new TiledMapTileLayer(n, n, 16, 16, tileSets);
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                packed.setPackedCell(x, y, TiledMapTileLayer.packCell(tileId(x, y),
+                        (x & 1) == 0, false, TiledMapTileLayer.Cell.ROTATE_0));
+            }
+        }
+        long memory2 = usedMemory();
+        System.out.println(n + "x" + n + " cells " + (memory1 - memory0) / 1024
+                + "KB packed " + (memory2 - memory1) / 1024 + "KB");
+
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            long sum1 = 0;
+            for (int y = 0; y < n; y++) {
+                for (int x = 0; x < n; x++) {
+                    TiledMapTileLayer.Cell cell = cells.getCell(x, y);
+                    sum1 += cell.getTile().getId() + (cell.getFlipHorizontally() ? 1 : 0);
+                }
+            }
+            long time1 = System.nanoTime();
+            long sum2 = 0;
+            int[] packedCells = packed.getPackedCells();
+            for (int i = 0; i < packedCells.length; i++) {
+                int cell = packedCells[i];
+                sum2 += packed.getTile(cell).getId()
+                        + ((cell & TiledMapTileLayer.PACKED_FLIP_HORIZONTALLY) != 0 ? 1 : 0);
+            }
+            long time2 = System.nanoTime();
+            long sum3 = 0;
+            for (int y = 0; y < n; y++) {
+                for (int x = 0; x < n; x++) {
+                    TiledMapTileLayer.Cell cell = packed.getCell(x, y);
+                    sum3 += cell.getTile().getId() + (cell.getFlipHorizontally() ? 1 : 0);
+                }
+            }
+            long time3 = System.nanoTime();
+            System.out.printf("cells %.2f ms packed %.2f ms cell views %.2f ms same=%b%n",
+                    (time1 - start) / 1e6, (time2 - time1) / 1e6, (time3 - time2) / 1e6,
+                    sum1 == sum2 && sum2 == sum3);
+        }
+    }
+
+    private static int tileId(int x, int y) {
+        return 1 + (x * 31 + y) % 64;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.GameEngineRuntimeException;
+import com.guidebee.game.maps.tiled.TmxMapHelper;
+import com.guidebee.utils.Base64Coder;
+import com.guidebee.utils.XmlReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Compares {@link TmxMapHelper#getTileIds} with the former decoder, which
+ * split the csv text into strings and decoded base64 into a byte array
+ * read through a stream, on a 1000x1000 layer in csv, base64, gzip and zlib
+ * encodings. Prints the time and the bytes allocated per layer, the ids
+ * must be the same. Needs a JVM with com.sun.management.ThreadMXBean.
+ * <p/>
+ * Usage: TmxDecodeBenchmark [size]
+ */
+public class TmxDecodeBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int[] ids = new int[size * size];
+        Random random = new Random(1);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = random.nextInt(5000) | (random.nextInt(8) == 0 ? 0x80000000 : 0);
+        }
+        byte[] raw = new byte[ids.length * 4];
+        for (int i = 0; i < ids.length; i++) {
+            for (int k = 0; k < 4; k++) {
+                raw[i * 4 + k] = (byte) (ids[i] >>> (8 * k));
+            }
+        }
+        StringBuilder csv = new StringBuilder("\n");
+        for (int i = 0; i < ids.length; i++) {
+            csv.append(ids[i] & 0xffffffffL);
+            if (i < ids.length - 1) csv.append(',');
+            if (i % size == size - 1) csv.append('\n');
+        }
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        GZIPOutputStream gzipStream = new GZIPOutputStream(gzip);
+        gzipStream.write(raw);
+        gzipStream.close();
+        ByteArrayOutputStream zlib = new ByteArrayOutputStream();
+        DeflaterOutputStream zlibStream = new DeflaterOutputStream(zlib);
+        zlibStream.write(raw);
+        zlibStream.close();
+        String[][] layers = {
+                {"csv", null, csv.toString()},
+                {"base64", null, new String(Base64Coder.encode(raw))},
+                {"base64", "gzip", new String(Base64Coder.encode(gzip.toByteArray()))},
+                {"base64", "zlib", new String(Base64Coder.encode(zlib.toByteArray()))}};
+
+        for (String[] layer : layers) {
+            String xml = "<layer><data encoding=\"" + layer[0] + "\""
+                    + (layer[1] != null ? " compression=\"" + layer[1] + "\"" : "")
+                    + ">\n" + layer[2] + "\n</data></layer>";
+            XmlReader.Element element = new XmlReader().parse(xml);
+            boolean same = Arrays.equals(ids, TmxMapHelper.getTileIds(element, size, size))
+                    && Arrays.equals(ids, getTileIdsBySplitting(element, size, size));
+            long oldTime = 0, newTime = 0, oldBytes = 0, newBytes = 0;
+            int runs = 8;
+            for (int run = 0; run < runs; run++) {
+                long allocated0 = allocatedBytes();
+                long start = System.nanoTime();
+                getTileIdsBySplitting(element, size, size);
+                long time1 = System.nanoTime();
+                long allocated1 = allocatedBytes();
+                TmxMapHelper.getTileIds(element, size, size);
+                long time2 = System.nanoTime();
+                long allocated2 = allocatedBytes();
+                oldTime += time1 - start;
+                newTime += time2 - time1;
+                oldBytes += allocated1 - allocated0;
+                newBytes += allocated2 - allocated1;
+            }
+            System.out.printf("%-6s %-4s old %6.1f ms %7d KB, new %6.1f ms %7d KB, same=%b%n",
+                    layer[0], layer[1] != null ? layer[1] : "", oldTime / 1e6 / runs,
+                    oldBytes / runs / 1024, newTime / 1e6 / runs, newBytes / runs / 1024, same);
+        }
+    }
+
+    /**
+     * The decoder TmxMapHelper used before it decoded the text in place.
+     */
+    private static int[] getTileIdsBySplitting(XmlReader.Element element, int width,
+                                               int height) {
+        XmlReader.Element data = element.getChildByName("data");
+        String encoding = data.getAttribute("encoding", null);
+        int[] ids = new int[width * height];
+        if (encoding.equals("csv")) {
+            String[] array = data.getText().split(",");
+            for (int i = 0; i < array.length; i++) {
+                ids[i] = (int) Long.parseLong(array[i].trim());
+            }
+            return ids;
+        }
+        InputStream is = null;
+        try {
+            String compression = data.getAttribute("compression", null);
+            byte[] bytes = Base64Coder.decode(data.getText());
+            if (compression == null) {
+                is = new ByteArrayInputStream(bytes);
+            } else if (compression.equals("gzip")) {
+                is = new GZIPInputStream(new ByteArrayInputStream(bytes), bytes.length);
+            } else {
+                is = new InflaterInputStream(new ByteArrayInputStream(bytes));
+            }
+            byte[] temp = new byte[4];
+            for (int i = 0; i < ids.length; i++) {
+                int read = is.read(temp);
+                while (read < temp.length) {
+                    int current = is.read(temp, read, temp.length - read);
+                    if (current == -1) break;
+                    read += current;
+                }
+                if (read != temp.length) {
+                    throw new GameEngineRuntimeException("Premature end of tile data");
+                }
+                ids[i] = (temp[0] & 0xff) | (temp[1] & 0xff) << 8
+                        | (temp[2] & 0xff) << 16 | (temp[3] & 0xff) << 24;
+            }
+            is.close();
+        } catch (IOException e) {
+            throw new GameEngineRuntimeException("Error reading tile data", e);
+        }
+        return ids;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.tween.Tween;
+import com.guidebee.game.tween.TweenAccessor;
+import com.guidebee.game.tween.TweenBatch;
+import com.guidebee.game.tween.TweenManager;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Compares the update time of tweens of the x, y position of many objects
+ * run by a {@link TweenManager} with the same tweens run by a
+ * {@link TweenBatch}. Also checks that a tween of the first value leaves
+ * the second value alone.
+ * <p/>
+ * Usage: TweenBatchBenchmark [tweens]
+ */
+public class TweenBatchBenchmark {
+
+    static class Point {
+        float x, y;
+    }
+
+    static class PointAccessor implements TweenAccessor<Point> {
+
+        @Override
+        public int getValues(Point target, int tweenType, float[] returnValues) {
+            returnValues[0] = target.x;
+            returnValues[1] = target.y;
+            return 2;
+        }
+
+        @Override
+        public void setValues(Point target, int tweenType, float[] newValues) {
+            target.x = newValues[0];
+            target.y = newValues[1];
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        Tween.registerAccessor(Point.class, new PointAccessor());
+
+        float[] column = new float[2];
+        TweenBatch check = new TweenBatch(column, 2, 1);
+        check.add(0, 10, 1);
+        check.update(0.5f);
+        column[1] = 5;
+        check.update(0.5f);
+        System.out.println("x " + column[0] + " (10) y " + column[1] + " (5)");
+
+        for (int run = 0; run < 5; run++) {
+            TweenManager manager = new TweenManager();
+            Point[] points = new Point[n];
+            for (int i = 0; i < n; i++) {
+                points[i] = new Point();
+                Tween.to(points[i], 0, 1).target(100, 200).start(manager);
+            }
+            long start = System.nanoTime();
+            for (int frame = 0; frame < 60; frame++) {
+                manager.update(1 / 120f);
+            }
+            long time1 = System.nanoTime();
+
+            TweenBatch batch = new TweenBatch(new float[n * 2], 2, n);
+            for (int i = 0; i < n; i++) {
+                batch.add(i, 100, 200, 1);
+            }
+            long time2 = System.nanoTime();
+            for (int frame = 0; frame < 60; frame++) {
+                batch.update(1 / 120f);
+            }
+            long time3 = System.nanoTime();
+            System.out.printf("%d tweens manager %.1f us/frame batch %.1f us/frame%n",
+                    n, (time1 - start) / 60e3, (time3 - time2) / 60e3);
+        }
+    }
+}
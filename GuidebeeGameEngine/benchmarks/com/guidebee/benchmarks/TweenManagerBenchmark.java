@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.benchmarks;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.tween.Timeline;
+import com.guidebee.game.tween.Tween;
+import com.guidebee.game.tween.TweenAccessor;
+import com.guidebee.game.tween.TweenManager;
+
+import java.lang.management.ManagementFactory;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Measures {@link TweenManager#killTarget(Object)} with thousands of tweens
+ * and counts the bytes allocated by {@link TweenManager#update(float)} until
+ * all tweens are finished. Once the tween pool is warm the update path
+ * should not allocate. Needs a JVM with com.sun.management.ThreadMXBean.
+ * <p/>
+ * Usage: TweenManagerBenchmark [tweens]
+ */
+public class TweenManagerBenchmark {
+
+    static class Point {
+        float x;
+    }
+
+    static class PointAccessor implements TweenAccessor<Point> {
+
+        @Override
+        public int getValues(Point target, int tweenType, float[] returnValues) {
+            returnValues[0] = target.x;
+            return 1;
+        }
+
+        @Override
+        public void setValues(Point target, int tweenType, float[] newValues) {
+            target.x = newValues[0];
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        Tween.registerAccessor(Point.class, new PointAccessor());
+        com.sun.management.ThreadMXBean threads
+                = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        TweenManager manager = new TweenManager();
+        Point[] points = new Point[1000];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point();
+        }
+        for (int run = 0; run < 5; run++) {
+            for (int i = 0; i < n; i++) {
+                manager.add(Tween.to(points[i % points.length], 0,
+                        0.5f + (i % 7) * 0.1f).target(100));
+            }
+            manager.add(Timeline.createSequence()
+                    .push(Tween.to(points[1], 0, 1).target(5))
+                    .push(Tween.to(points[2], 0, 1).target(6)));
+
+            long start = System.nanoTime();
+            for (int i = 0; i < points.length; i += 2) {
+                manager.killTarget(points[i]);
+            }
+            long time = System.nanoTime() - start;
+
+            long before = threads.getThreadAllocatedBytes(thread);
+            int frames = 0;
+            while (manager.size() > 0) {
+                manager.update(1 / 60f);
+                frames++;
+            }
+            long allocated = threads.getThreadAllocatedBytes(thread) - before;
+            System.out.printf("%d tweens killTarget x%d %d us, %d frames, %d bytes allocated%n",
+                    n, points.length / 2, time / 1000, frames, allocated);
+        }
+    }
+}
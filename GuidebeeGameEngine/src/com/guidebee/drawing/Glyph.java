@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.drawing;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.drawing.geometry.Path;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Outline of a character of a {@link VectorFont}.
+ *
+ * @author James Shen.
+ */
+final class Glyph {
+
+    public Path path;
+    public int width;
+}
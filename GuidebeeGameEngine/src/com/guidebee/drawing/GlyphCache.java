@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.drawing;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.utils.collections.LongMap;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Least recently used cache of font data keyed by a long, when the cache
+ * is full the entry not used for the longest time is dropped. It's safe to
+ * use from several threads.
+ *
+ * @author James Shen.
+ */
+final class GlyphCache<V> {
+
+    /**
+     * cache entry, linked in the order of use.
+     */
+    private static class Entry<V> {
+        long key;
+        V value;
+        Entry<V> previous;
+        Entry<V> next;
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of entries.
+     */
+    GlyphCache(int capacity) {
+        this.capacity = capacity;
+        head.previous = head;
+        head.next = head;
+    }
+
+
+    /**
+     * get the value of the key and mark it as the most recently used one.
+     *
+     * @param key the key.
+     * @return the value, null if it's not cached.
+     */
+    synchronized V get(long key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (head.next != entry) {
+            unlink(entry);
+            linkFirst(entry);
+        }
+        return entry.value;
+    }
+
+
+    /**
+     * add or replace the value of the key.
+     *
+     * @param key   the key.
+     * @param value the value.
+     */
+    synchronized void put(long key, V value) {
+        if (capacity <= 0) {
+            return;
+        }
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            unlink(entry);
+        } else {
+            if (entries.size >= capacity) {
+                entry = head.previous;
+                unlink(entry);
+                entries.remove(entry.key);
+            } else {
+                entry = new Entry<V>();
+            }
+            entry.key = key;
+            entries.put(key, entry);
+        }
+        entry.value = value;
+        linkFirst(entry);
+    }
+
+
+    /**
+     * set the maximum number of entries, the least recently used entries
+     * are dropped when the cache holds more.
+     *
+     * @param capacity maximum number of entries.
+     */
+    synchronized void setCapacity(int capacity) {
+        this.capacity = capacity;
+        while (entries.size > Math.max(capacity, 0)) {
+            Entry<V> entry = head.previous;
+            unlink(entry);
+            entries.remove(entry.key);
+        }
+    }
+
+
+    private void unlink(Entry<V> entry) {
+        entry.previous.next = entry.next;
+        entry.next.previous = entry.previous;
+    }
+
+    private void linkFirst(Entry<V> entry) {
+        entry.previous = head;
+        entry.next = head.next;
+        head.next.previous = entry;
+        head.next = entry;
+    }
+
+    private final LongMap<Entry<V>> entries = new LongMap<Entry<V>>();
+    // sentinel of the list, next is the most recently used entry.
+    private final Entry<V> head = new Entry<V>();
+    private int capacity;
+}
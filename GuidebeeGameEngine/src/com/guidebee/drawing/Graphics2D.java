@@ -187,54 +187,9 @@ public final class Graphics2D {
      * @param shape the IShape to be rendered.
      */
     public final void draw(Pen pen, IShape shape) {
-        setGraphicsFPPenAttribute(pen);
-        IPathIterator pathIterator = shape.getPathIterator(null);
-        int[] coords = new int[6];
-        int type;
-        GraphicsPathFP graphicsPathFP = new GraphicsPathFP();
-        PointFP pointFP1 = new PointFP();
-        PointFP pointFPCtl1 = new PointFP();
-        PointFP pointFPCtl2 = new PointFP();
-
-        while (!pathIterator.isDone()) {
-            type = pathIterator.currentSegment(coords);
-            switch (type) {
-                case IPathIterator.SEG_MOVETO:
-                    pointFP1.reset(coords[0] << SingleFP.DECIMAL_BITS,
-                            coords[1] << SingleFP.DECIMAL_BITS);
-                    graphicsPathFP.addMoveTo(pointFP1);
-                    break;
-                case IPathIterator.SEG_CLOSE:
-                    graphicsPathFP.addClose();
-                    break;
-                case IPathIterator.SEG_LINETO:
-                    pointFP1.reset(coords[0] << SingleFP.DECIMAL_BITS,
-                            coords[1] << SingleFP.DECIMAL_BITS);
-                    graphicsPathFP.addLineTo(pointFP1);
-                    break;
-                case IPathIterator.SEG_QUADTO:
-                    pointFPCtl1.reset(coords[0] << SingleFP.DECIMAL_BITS,
-                            coords[1] << SingleFP.DECIMAL_BITS);
-                    pointFP1.reset(coords[2] << SingleFP.DECIMAL_BITS,
-                            coords[3] << SingleFP.DECIMAL_BITS);
-                    graphicsPathFP.addQuadTo(pointFPCtl1, pointFP1);
-                    break;
-                case IPathIterator.SEG_CUBICTO:
-                    pointFPCtl1.reset(coords[0] << SingleFP.DECIMAL_BITS,
-                            coords[1] << SingleFP.DECIMAL_BITS);
-                    pointFPCtl2.reset(coords[2] << SingleFP.DECIMAL_BITS,
-                            coords[3] << SingleFP.DECIMAL_BITS);
-                    pointFP1.reset(coords[4] << SingleFP.DECIMAL_BITS,
-                            coords[5] << SingleFP.DECIMAL_BITS);
-                    graphicsPathFP.addCurveTo(pointFPCtl1, pointFPCtl2, pointFP1);
-                    break;
-
-            }
-            pathIterator.next();
-
-        }
         synchronized (graphicsFP) {
-            graphicsFP.drawPath(graphicsPathFP);
+            setGraphicsFPPenAttribute(pen);
+            graphicsFP.drawPath(toGraphicsPath(shape));
         }
 
     }
@@ -248,60 +203,12 @@ public final class Graphics2D {
      * @param shape the IShape to be rendered.
      */
     public final void fill(Brush brush, IShape shape) {
-        if (brush != null) {
-            synchronized (graphicsFP) {
+        synchronized (graphicsFP) {
+            if (brush != null) {
                 graphicsFP.setBrush(brush.wrappedBrushFP);
+                defaultBrush = brush;
             }
-            defaultBrush = brush;
-        }
-
-        IPathIterator pathIterator = shape.getPathIterator(null);
-        int[] coords = new int[6];
-        int type;
-        GraphicsPathFP graphicsPathFP = new GraphicsPathFP();
-        PointFP pointFP1 = new PointFP();
-        PointFP pointFPCtl1 = new PointFP();
-        PointFP pointFPCtl2 = new PointFP();
-
-        while (!pathIterator.isDone()) {
-            type = pathIterator.currentSegment(coords);
-            switch (type) {
-                case IPathIterator.SEG_MOVETO:
-                    pointFP1.reset(coords[0] << SingleFP.DECIMAL_BITS,
-                            coords[1] << SingleFP.DECIMAL_BITS);
-                    graphicsPathFP.addMoveTo(pointFP1);
-                    break;
-                case IPathIterator.SEG_CLOSE:
-                    graphicsPathFP.addClose();
-                    break;
-                case IPathIterator.SEG_LINETO:
-                    pointFP1.reset(coords[0] << SingleFP.DECIMAL_BITS,
-                            coords[1] << SingleFP.DECIMAL_BITS);
-                    graphicsPathFP.addLineTo(pointFP1);
-                    break;
-                case IPathIterator.SEG_QUADTO:
-                    pointFPCtl1.reset(coords[0] << SingleFP.DECIMAL_BITS,
-                            coords[1] << SingleFP.DECIMAL_BITS);
-                    pointFP1.reset(coords[2] << SingleFP.DECIMAL_BITS,
-                            coords[3] << SingleFP.DECIMAL_BITS);
-                    graphicsPathFP.addQuadTo(pointFPCtl1, pointFP1);
-                    break;
-                case IPathIterator.SEG_CUBICTO:
-                    pointFPCtl1.reset(coords[0] << SingleFP.DECIMAL_BITS,
-                            coords[1] << SingleFP.DECIMAL_BITS);
-                    pointFPCtl2.reset(coords[2] << SingleFP.DECIMAL_BITS,
-                            coords[3] << SingleFP.DECIMAL_BITS);
-                    pointFP1.reset(coords[4] << SingleFP.DECIMAL_BITS,
-                            coords[5] << SingleFP.DECIMAL_BITS);
-                    graphicsPathFP.addCurveTo(pointFPCtl1, pointFPCtl2, pointFP1);
-                    break;
-
-            }
-            pathIterator.next();
-
-        }
-        synchronized (graphicsFP) {
-            graphicsFP.fillPath(graphicsPathFP);
+            graphicsFP.fillPath(toGraphicsPath(shape));
         }
 
     }
@@ -413,6 +320,13 @@ public final class Graphics2D {
     public void drawChars(VectorFont font, Brush brush, Pen pen, int fontSize,
                           char[] data, int offset,
                           int length, int x, int y, int tdir) {
+        synchronized (graphicsFP) {
+            if (canUseGlyphMasks(brush, pen, fontSize)) {
+                drawGlyphMasks(font, brush, pen, fontSize, data, offset,
+                        length, x, y, tdir);
+                return;
+            }
+        }
         AffineTransform transfrom = new AffineTransform();
         transfrom.translate(x, y);
         IShape[] shapes = font.getGlyphArray(fontSize, data, offset, length,
@@ -849,6 +763,56 @@ public final class Graphics2D {
         }
     }
 
+
+    /**
+     * Sets the number of worker threads rasterizing this graphics. With
+     * workers, shapes filled or stroked with a solid color are recorded and
+     * rasterized in bands of pixel rows at the same time, when the content
+     * is read with {@link #getRGB()} or on {@link #flush()}. The result is
+     * the same as drawing serially. The workers are shared by all graphics
+     * objects.
+     *
+     * @param threads number of worker threads, 0 to draw immediately.
+     */
+    public void setParallelism(int threads) {
+        synchronized (graphicsFP) {
+            graphicsFP.setParallelism(threads);
+        }
+    }
+
+
+    /**
+     * Get the number of worker threads rasterizing this graphics.
+     *
+     * @return the number of worker threads, 0 when drawing immediately.
+     */
+    public int getParallelism() {
+        return graphicsFP.getParallelism();
+    }
+
+
+    /**
+     * Set the number of pixel rows of a band rasterized by one worker at a
+     * time.
+     *
+     * @param rows number of pixel rows, default is 32.
+     */
+    public void setTileHeight(int rows) {
+        synchronized (graphicsFP) {
+            graphicsFP.setTileHeight(rows);
+        }
+    }
+
+
+    /**
+     * Rasterizes the shapes recorded when drawing in parallel.
+     */
+    public void flush() {
+        synchronized (graphicsFP) {
+            graphicsFP.flush();
+        }
+    }
+
     /**
      * graphics width
      */
@@ -869,6 +833,14 @@ public final class Graphics2D {
      * default brush for filling.
      */
     private Brush defaultBrush = null;
+    /**
+     * path and segment buffers reused by draw and fill.
+     */
+    private final GraphicsPathFP graphicsPathFP = new GraphicsPathFP();
+    private final int[] coords = new int[6];
+    private final PointFP pointFP1 = new PointFP();
+    private final PointFP pointFPCtl1 = new PointFP();
+    private final PointFP pointFPCtl2 = new PointFP();
 
 
     /**
@@ -913,6 +885,225 @@ public final class Graphics2D {
     }
 
 
+    /**
+     * Converts the shape into the reused path of this graphics object.
+     * Rectangles, polygons and lines are read directly, other shapes through
+     * their path iterator. The caller must hold the graphicsFP lock.
+     *
+     * @param shape the shape.
+     * @return the path, valid until the next call.
+     */
+    private GraphicsPathFP toGraphicsPath(IShape shape) {
+        GraphicsPathFP graphicsPathFP = this.graphicsPathFP;
+        graphicsPathFP.reset();
+        Class<?> shapeClass = shape.getClass();
+        if (shapeClass == Rectangle.class) {
+            Rectangle rectangle = (Rectangle) shape;
+            int x = rectangle.x;
+            int y = rectangle.y;
+            int w = rectangle.width;
+            int h = rectangle.height;
+            if (w >= 0 && h >= 0) {
+                addMoveTo(x, y);
+                addLineTo(x + w, y);
+                addLineTo(x + w, y + h);
+                addLineTo(x, y + h);
+                addLineTo(x, y);
+                graphicsPathFP.addClose();
+            }
+        } else if (shapeClass == Polygon.class) {
+            Polygon polygon = (Polygon) shape;
+            int npoints = polygon.npoints;
+            if (npoints > 0) {
+                int[] xpoints = polygon.xpoints;
+                int[] ypoints = polygon.ypoints;
+                addMoveTo(xpoints[0], ypoints[0]);
+                for (int i = 1; i < npoints; i++) {
+                    addLineTo(xpoints[i], ypoints[i]);
+                }
+                graphicsPathFP.addClose();
+            }
+        } else if (shapeClass == Line.class) {
+            Line line = (Line) shape;
+            addMoveTo(line.x1, line.y1);
+            addLineTo(line.x2, line.y2);
+        } else {
+            IPathIterator pathIterator = shape.getPathIterator(null);
+            int[] coords = this.coords;
+            PointFP pointFP1 = this.pointFP1;
+            PointFP pointFPCtl1 = this.pointFPCtl1;
+            PointFP pointFPCtl2 = this.pointFPCtl2;
+            while (!pathIterator.isDone()) {
+                switch (pathIterator.currentSegment(coords)) {
+                    case IPathIterator.SEG_MOVETO:
+                        addMoveTo(coords[0], coords[1]);
+                        break;
+                    case IPathIterator.SEG_CLOSE:
+                        graphicsPathFP.addClose();
+                        break;
+                    case IPathIterator.SEG_LINETO:
+                        addLineTo(coords[0], coords[1]);
+                        break;
+                    case IPathIterator.SEG_QUADTO:
+                        pointFPCtl1.reset(coords[0] << SingleFP.DECIMAL_BITS,
+                                coords[1] << SingleFP.DECIMAL_BITS);
+                        pointFP1.reset(coords[2] << SingleFP.DECIMAL_BITS,
+                                coords[3] << SingleFP.DECIMAL_BITS);
+                        graphicsPathFP.addQuadTo(pointFPCtl1, pointFP1);
+                        break;
+                    case IPathIterator.SEG_CUBICTO:
+                        pointFPCtl1.reset(coords[0] << SingleFP.DECIMAL_BITS,
+                                coords[1] << SingleFP.DECIMAL_BITS);
+                        pointFPCtl2.reset(coords[2] << SingleFP.DECIMAL_BITS,
+                                coords[3] << SingleFP.DECIMAL_BITS);
+                        pointFP1.reset(coords[4] << SingleFP.DECIMAL_BITS,
+                                coords[5] << SingleFP.DECIMAL_BITS);
+                        graphicsPathFP.addCurveTo(pointFPCtl1, pointFPCtl2, pointFP1);
+                        break;
+
+                }
+                pathIterator.next();
+
+            }
+        }
+        return graphicsPathFP;
+    }
+
+
+    /**
+     * Check if the characters can be drawn with the glyph masks cached by
+     * the font, which needs solid colors, no dash and no matrix. The caller
+     * must hold the graphicsFP lock.
+     *
+     * @param brush
+     * @param pen
+     * @param fontSize
+     * @return true if glyph masks can be used.
+     */
+    private boolean canUseGlyphMasks(Brush brush, Pen pen, int fontSize) {
+        MatrixFP matrix = graphicsFP.getMatrix();
+        return (matrix == null || matrix.isIdentity())
+                && fontSize > 0 && fontSize <= 0xFFFF
+                && (brush == null || brush.wrappedBrushFP.isMonoColor())
+                && (pen == null || pen.dash == null
+                && pen.width >= 0 && pen.width < 1024
+                && (pen.brush == null || pen.brush.wrappedBrushFP.isMonoColor()));
+    }
+
+
+    /**
+     * Draws the characters with the glyph masks cached by the font, the
+     * glyphs are laid out the same way as
+     * {@link VectorFont#getGlyphArray(int, char[], int, int, int, AffineTransform)}.
+     * A glyph mask is kept for each fraction of a pixel a glyph starts at,
+     * so the pixels are the same as the ones of the glyph shapes. The caller
+     * must hold the graphicsFP lock.
+     */
+    private void drawGlyphMasks(VectorFont font, Brush brush, Pen pen,
+                                int fontSize, char[] data, int offset,
+                                int length, int x, int y, int tdir) {
+        int fillColor = 0;
+        if (brush != null) {
+            graphicsFP.setBrush(brush.wrappedBrushFP);
+            defaultBrush = brush;
+            fillColor = brush.wrappedBrushFP.getNextColor();
+        }
+        int penColor = 0;
+        long penKey = 0;
+        if (pen != null) {
+            setGraphicsFPPenAttribute(pen);
+            penColor = graphicsFP.getPen().brush.getNextColor();
+            penKey = 3L << 48 | (long) pen.cap << 50 | (long) pen.join << 52
+                    | (long) pen.width << 54;
+        }
+        long fillKey = (long) graphicsFP.getPaintMode() << 48;
+        int i = tdir == VectorFont.TEXT_DIR_RL ? offset + length - 1 : offset;
+        int step = tdir == VectorFont.TEXT_DIR_RL ? -1 : 1;
+        int offsetX = 0, offsetY = 0;
+        for (int counter = 0; counter < length; counter++, i += step) {
+            Glyph glyph = font.getGlyph(data[i]);
+            if (glyph != null) {
+                // the glyph origin in 1/256 pixel, split into whole pixels
+                // and the fraction the mask is rasterized at.
+                long ff_x = (long) fontSize * offsetX;
+                long ff_y = -(long) fontSize * offsetY;
+                long key = data[i] | (long) fontSize << 16
+                        | (ff_x & 0xFF) << 32 | (ff_y & 0xFF) << 40;
+                int glyphX = x + (int) (ff_x >> 8);
+                int glyphY = y + (int) (ff_y >> 8);
+                if (brush != null) {
+                    graphicsFP.drawMask(getGlyphMask(font, glyph, fontSize,
+                            key | fillKey, false), glyphX, glyphY, fillColor);
+                }
+                if (pen != null) {
+                    graphicsFP.drawMask(getGlyphMask(font, glyph, fontSize,
+                            key | penKey, true), glyphX, glyphY, penColor);
+                }
+                if (tdir == VectorFont.TEXT_DIR_TB) {
+                    offsetX = 0;
+                    offsetY -= 256;
+                } else {
+                    offsetX += glyph.width;
+                    offsetY = 0;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Get the glyph mask of the key from the font, or rasterize it.
+     *
+     * @param font
+     * @param glyph
+     * @param fontSize
+     * @param key      the key made by drawGlyphMasks.
+     * @param stroke   rasterize the outline drawn with the current pen.
+     * @return the glyph mask.
+     */
+    private AlphaMaskFP getGlyphMask(VectorFont font, Glyph glyph,
+                                     int fontSize, long key, boolean stroke) {
+        AlphaMaskFP mask = font.getGlyphMask(key);
+        if (mask == null) {
+            double scale = (double) fontSize / 256.0;
+            AffineTransform matrix = AffineTransform.getTranslateInstance(
+                    ((key >> 32) & 0xFF) / 256.0, ((key >> 40) & 0xFF) / 256.0);
+            matrix.scale(scale, -scale);
+            matrix.translate(0, -200);
+            GraphicsPathFP path = toGraphicsPath(
+                    matrix.createTransformedShape(glyph.path));
+            mask = stroke ? graphicsFP.createDrawMask(path)
+                    : graphicsFP.createFillMask(path);
+            font.putGlyphMask(key, mask);
+        }
+        return mask;
+    }
+
+
+    /**
+     * add a move to the reused path.
+     *
+     * @param x
+     * @param y
+     */
+    private void addMoveTo(int x, int y) {
+        graphicsPathFP.addMoveTo(pointFP1.reset(x << SingleFP.DECIMAL_BITS,
+                y << SingleFP.DECIMAL_BITS));
+    }
+
+
+    /**
+     * add a line to the reused path.
+     *
+     * @param x
+     * @param y
+     */
+    private void addLineTo(int x, int y) {
+        graphicsPathFP.addLineTo(pointFP1.reset(x << SingleFP.DECIMAL_BITS,
+                y << SingleFP.DECIMAL_BITS));
+    }
+
+
     /**
      * set graphics pen attribute.
      *
@@ -21,18 +21,25 @@ package com.guidebee.drawing;
 import com.guidebee.drawing.geometry.AffineTransform;
 import com.guidebee.drawing.geometry.IShape;
 import com.guidebee.drawing.geometry.Path;
-import com.guidebee.game.engine.collections.Hashtable;
+import com.guidebee.game.engine.drawing.core.AlphaMaskFP;
 import com.guidebee.game.engine.drawing.parser.PathParser;
+import com.guidebee.utils.StreamUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 //[------------------------------ MAIN CLASS ----------------------------------]
 
 /**
  * Vector font class. each font is described by SVG path string internally.
  * <p/>
+ * Glyphs are read on demand through the index table of the font data and
+ * kept parsed in a least recently used cache, the glyphs rasterized by
+ * {@link Graphics2D} are cached as alpha masks per size the same way.
  *
  * @author James Shen.
  */
@@ -57,31 +64,45 @@ public class VectorFont {
 
 
     /**
-     * Constructor.
+     * Constructor. the whole stream is read into memory, the stream is not
+     * closed.
      *
      * @param inputStream input stream which the font is stored.
      * @throws IOException
      */
     public VectorFont(InputStream inputStream) throws IOException {
-        if (inputStream == null) {
+        this(inputStream == null ? null
+                : ByteBuffer.wrap(StreamUtils.copyStreamToByteArray(inputStream)));
+    }
+
+
+    /**
+     * Constructor. the font data starts at the position of the buffer, a
+     * font file can be used without reading it with a buffer returned by
+     * {@link java.nio.channels.FileChannel#map}.
+     *
+     * @param fontData buffer which the font is stored.
+     * @throws IOException
+     */
+    public VectorFont(ByteBuffer fontData) throws IOException {
+        if (fontData == null) {
             return;
         }
-        fontStream = inputStream;
-        if (inputStream.markSupported() == false) {
-            throw new IOException("Mark not supported");
-        }
-        dis = new DataInputStream(fontStream);
-        dis.mark(100000000);
+        this.fontData = fontData.slice().order(ByteOrder.BIG_ENDIAN);
         fontHeader = new FontHeader();
-        fontHeader.name = dis.readUTF();
-        fontHeader.type = dis.readInt();
-        fontHeader.leading = dis.readInt();
-        fontHeader.ascent = dis.readInt();
-        fontHeader.descent = dis.readInt();
-        fontHeader.height = dis.readInt();
-        fontHeader.maxAdvance = dis.readInt();
-        fontHeader.maxDescent = dis.readInt();
-        fontHeader.maxAscent = dis.readInt();
+        fontHeader.name = readUTF(0);
+        int offset = 2 + (this.fontData.getShort(0) & 0xFFFF);
+        if (offset + 32 > this.fontData.limit()) {
+            throw new IOException("Invalid font header");
+        }
+        fontHeader.type = this.fontData.getInt(offset);
+        fontHeader.leading = this.fontData.getInt(offset + 4);
+        fontHeader.ascent = this.fontData.getInt(offset + 8);
+        fontHeader.descent = this.fontData.getInt(offset + 12);
+        fontHeader.height = this.fontData.getInt(offset + 16);
+        fontHeader.maxAdvance = this.fontData.getInt(offset + 20);
+        fontHeader.maxDescent = this.fontData.getInt(offset + 24);
+        fontHeader.maxAscent = this.fontData.getInt(offset + 28);
 
     }
 
@@ -136,11 +157,6 @@ public class VectorFont {
      */
     public IShape[] getGlyphArray(int fontSize, char[] ac, int off, int len,
                                   int tdir, AffineTransform transform) {
-        if (this != VectorFont.systemFont) {
-            for (int i = off; i < off + len; i++) {
-                loadGlyph(ac[i]);
-            }
-        }
         IShape[] shapes = new IShape[len];
         double scale = (double) fontSize / 256.0;
         int startIndex = off, step = 1, counter = 0;
@@ -162,7 +178,7 @@ public class VectorFont {
         int i = startIndex;
         int offsetX = 0, offsetY = 0;
         while (counter < len) {
-            Glyph glyph = (Glyph) glyphs.get(new Integer(ac[i]));
+            Glyph glyph = getGlyph(ac[i]);
             if (glyph != null) {
                 AffineTransform matrix = new AffineTransform();
                 matrix.scale(scale, -scale);
@@ -212,11 +228,8 @@ public class VectorFont {
      * @return the widht of the given character
      */
     public int charWidth(char ch, int fontSize) {
-        if (this != VectorFont.systemFont) {
-            loadGlyph(ch);
-        }
         double scale = (double) fontSize / 256.0;
-        Glyph glyph = (Glyph) glyphs.get(new Integer(ch));
+        Glyph glyph = getGlyph(ch);
         if (glyph != null) {
             return (int) (glyph.width * scale + 0.5);
         } else {
@@ -242,13 +255,89 @@ public class VectorFont {
         return retVal;
     }
 
-    private InputStream fontStream;
+    /**
+     * Set the number of parsed glyphs kept by this font.
+     *
+     * @param size the number of glyphs, default is 256.
+     */
+    public void setGlyphCacheSize(int size) {
+        glyphs.setCapacity(size);
+    }
+
+
+    /**
+     * Set the number of rasterized glyphs kept by this font, a glyph drawn
+     * in different sizes or pens takes one entry for each.
+     *
+     * @param size the number of rasterized glyphs, default is 256.
+     */
+    public void setMaskCacheSize(int size) {
+        masks.setCapacity(size);
+    }
+
+
+    /**
+     * Get the glyph of the character.
+     *
+     * @param unicode the character.
+     * @return the glyph, null if the font has no such glyph.
+     */
+    Glyph getGlyph(int unicode) {
+        Glyph glyph = glyphs.get(unicode);
+        if (glyph == null) {
+            if (this == VectorFont.systemFont) {
+                if (unicode < GLYPH_PATHDATA.length) {
+                    glyph = new Glyph();
+                    glyph.path = parsePath(GLYPH_PATHDATA[unicode]);
+                    glyph.width = 136;
+                }
+            } else {
+                switch (fontHeader.type) {
+                    case 1:
+                        glyph = loadEnglishGlyph(unicode);
+                        break;
+                    case 2:
+                        glyph = loadChineseGlyph(unicode);
+                        break;
+                }
+            }
+            glyphs.put(unicode, glyph == null ? MISSING_GLYPH : glyph);
+        }
+        return glyph == MISSING_GLYPH ? null : glyph;
+    }
+
+
+    /**
+     * Get a rasterized glyph.
+     *
+     * @param key the key of the glyph, size and pen.
+     * @return the mask, null if it's not cached.
+     */
+    AlphaMaskFP getGlyphMask(long key) {
+        return masks.get(key);
+    }
+
+
+    /**
+     * Keep a rasterized glyph.
+     *
+     * @param key  the key of the glyph, size and pen.
+     * @param mask the mask.
+     */
+    void putGlyphMask(long key, AlphaMaskFP mask) {
+        masks.put(key, mask);
+    }
+
+    private ByteBuffer fontData;
     private FontHeader fontHeader;
-    private DataInputStream dis;
     private static int CACHE_SIZE = 256;
     private static int FONT_HEAD_SIZE = 128;
     private final static PathParser pathParser = new PathParser();
-    private final Hashtable glyphs = new Hashtable(CACHE_SIZE);
+    // cached for the characters the font has no glyph for.
+    private final static Glyph MISSING_GLYPH = new Glyph();
+    private final GlyphCache<Glyph> glyphs = new GlyphCache<Glyph>(CACHE_SIZE);
+    private final GlyphCache<AlphaMaskFP> masks
+            = new GlyphCache<AlphaMaskFP>(CACHE_SIZE);
     private static VectorFont systemFont;
     private static String[] GLYPH_PATHDATA = {
             "M 12 0L 12 160L 140 160L 140 0L 12 0ZM 16 4L 136 4L 136 156L 16 156L 16 4Z",
@@ -509,105 +598,82 @@ public class VectorFont {
             "M 12 0L 12 160L 140 160L 140 0L 12 0ZM 16 4L 136 4L 136 156L 16 156L 16 4Z"
     };
 
-    private void loadGlyph(int unicode) {
-        switch (fontHeader.type) {
-            case 1:
-                loadEnglishGlyph(unicode);
-                break;
-            case 2:
-                loadChineseGlyph(unicode);
-                break;
-        }
+    private Glyph loadEnglishGlyph(int unicode) {
+        return loadGlyph(FONT_HEAD_SIZE + unicode * 8);
     }
 
-    private void loadEnglishGlyph(int unicode) {
-        Integer key = new Integer(unicode);
-        if (glyphs.get(key) == null) {
-            try {
-                FontIndex fontIndex = new FontIndex();
-                dis.reset();
-                dis.skipBytes(FONT_HEAD_SIZE + unicode * 8);
-                fontIndex.offset = dis.readInt();
-                fontIndex.length = dis.readShort();
-                fontIndex.width = dis.readShort();
-                dis.reset();
-                dis.skipBytes(fontIndex.offset);
-                fontIndex.pathString = dis.readUTF();
-
-                Glyph glyph = new Glyph();
-                glyph.path = pathParser.parsePath(fontIndex.pathString);
-                glyph.width = fontIndex.width;
-                glyphs.put(key, glyph);
-            } catch (IOException e) {
-                //ingore the exception;
-                System.out.println(e.getMessage());
+    private Glyph loadChineseGlyph(int unicode) {
+        int indexOffset = 0;
+        if (unicode < 256) {
+            indexOffset = FONT_HEAD_SIZE + unicode * 8;
+        } else {
+            char[] chinese = new char[1];
+            chinese[0] = (char) unicode;
+            String chin = new String(chinese);
+            byte[] china = chin.getBytes();
+            int q = (china[0] + 256) % 256;
+            int w = (china[1] + 256) % 256;
+            int index = (q - 0xB0) * 94 + w - 0xA1 + 256;
+            if (index < 0) {
+                return null;
             }
-        }
+            indexOffset = FONT_HEAD_SIZE + index * 8;
 
+        }
+        return loadGlyph(indexOffset);
     }
 
-    private void loadChineseGlyph(int unicode) {
-        Integer key = new Integer(unicode);
-        if (glyphs.get(key) == null) {
-            try {
-
-                int skipbytes = 0;
-                if (unicode < 256) {
-                    skipbytes = FONT_HEAD_SIZE + unicode * 8;
-                } else {
-                    char[] chinese = new char[1];
-                    chinese[0] = (char) unicode;
-                    String chin = new String(chinese);
-                    byte[] china = chin.getBytes();
-                    int q = (china[0] + 256) % 256;
-                    int w = (china[1] + 256) % 256;
-                    int index = (q - 0xB0) * 94 + w - 0xA1 + 256;
-                    if (index < 0) {
-                        return;
-                    }
-                    skipbytes = FONT_HEAD_SIZE + index * 8;
-
-                }
+    private Glyph loadGlyph(int indexOffset) {
+        if (indexOffset < 0 || indexOffset + 8 > fontData.limit()) {
+            return null;
+        }
+        FontIndex fontIndex = new FontIndex();
+        fontIndex.offset = fontData.getInt(indexOffset);
+        fontIndex.length = fontData.getShort(indexOffset + 4);
+        fontIndex.width = fontData.getShort(indexOffset + 6);
+        try {
+            fontIndex.pathString = readUTF(fontIndex.offset);
+        } catch (IOException e) {
+            //the font has no such glyph.
+            return null;
+        }
+        Glyph glyph = new Glyph();
+        glyph.path = parsePath(fontIndex.pathString);
+        glyph.width = fontIndex.width;
+        return glyph;
+    }
 
-                FontIndex fontIndex = new FontIndex();
-                dis.reset();
-                dis.skipBytes(skipbytes);
-                fontIndex.offset = dis.readInt();
-                fontIndex.length = dis.readShort();
-                fontIndex.width = dis.readShort();
-                dis.reset();
-                dis.skipBytes(fontIndex.offset);
-                fontIndex.pathString = dis.readUTF();
-                Glyph glyph = new Glyph();
-                glyph.path = pathParser.parsePath(fontIndex.pathString);
-                glyph.width = fontIndex.width;
-                glyphs.put(key, glyph);
-            } catch (IOException e) {
-                //ingore the exception;
-                System.out.println(e.getMessage());
-            }
+    /**
+     * read a string in modified UTF-8 at the offset of the font data.
+     */
+    private String readUTF(int offset) throws IOException {
+        if (offset < 0 || offset + 2 > fontData.limit()) {
+            throw new IOException("String out of font data");
         }
+        int length = 2 + (fontData.getShort(offset) & 0xFFFF);
+        if (offset + length > fontData.limit()) {
+            throw new IOException("String out of font data");
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = fontData.get(offset + i);
+        }
+        return new DataInputStream(new ByteArrayInputStream(bytes)).readUTF();
+    }
 
+    private static Path parsePath(String pathString) {
+        synchronized (pathParser) {
+            return pathParser.parsePath(pathString);
+        }
     }
 
     static {
         try {
-            systemFont = new VectorFont(null);
+            systemFont = new VectorFont((ByteBuffer) null);
         } catch (IOException ex) {
             ex.printStackTrace();
         }
 
-            /* Read glyph data and fill the glyph table for this TinyFont. */
-        for (int i = 0; i < 256; i++) {
-
-
-            Glyph glyph = new Glyph();
-            glyph.path = pathParser.parsePath(GLYPH_PATHDATA[i]);
-            glyph.width = 136;
-            systemFont.glyphs.put(new Integer(i), glyph);
-
-        }
-
     }
 }
 
@@ -645,10 +711,3 @@ class FontIndex {
     public short width;
     public String pathString;
 }
-
-class Glyph {
-
-    public Path path;
-    public int width;
-}
-
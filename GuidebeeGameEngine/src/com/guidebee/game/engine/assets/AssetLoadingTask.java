@@ -30,6 +30,8 @@ import com.guidebee.utils.Logger;
 import com.guidebee.utils.TimeUtils;
 import com.guidebee.utils.collections.Array;
 
+import java.util.Stack;
+
 //[------------------------------ MAIN CLASS ----------------------------------]
 /**
  * Responsible for loading an asset through an {@link AssetLoader} based on an
@@ -42,6 +44,7 @@ class AssetLoadingTask implements AsyncTask<Void> {
     final AssetDescriptor assetDesc;
     final AssetLoader loader;
     final AsyncExecutor executor;
+    final Stack<AssetLoadingTask> lane;
     final long startTime;
 
     volatile boolean asyncDone = false;
@@ -55,11 +58,13 @@ class AssetLoadingTask implements AsyncTask<Void> {
     volatile boolean cancel = false;
 
     public AssetLoadingTask(AssetManager manager, AssetDescriptor assetDesc,
-                            AssetLoader loader, AsyncExecutor threadPool) {
+                            AssetLoader loader, AsyncExecutor threadPool,
+                            Stack<AssetLoadingTask> lane) {
         this.manager = manager;
         this.assetDesc = assetDesc;
         this.loader = loader;
         this.executor = threadPool;
+        this.lane = lane;
         startTime = manager.log.getLevel() == Logger.DEBUG ? TimeUtils.nanoTime() : 0;
     }
 
@@ -74,7 +79,7 @@ class AssetLoadingTask implements AsyncTask<Void> {
             dependencies = asyncLoader.getDependencies(assetDesc.fileName,
                     resolve(loader, assetDesc), assetDesc.params);
             if (dependencies != null) {
-                manager.injectDependencies(assetDesc.fileName, dependencies);
+                manager.injectDependencies(this, dependencies);
             } else {
                 // if we have no dependencies, we load the async
                 // part of the task immediately.
@@ -123,7 +128,7 @@ class AssetLoadingTask implements AsyncTask<Void> {
                         resolve(loader, assetDesc), assetDesc.params);
                 return;
             }
-            manager.injectDependencies(assetDesc.fileName, dependencies);
+            manager.injectDependencies(this, dependencies);
         } else {
             asset = syncLoader.load(manager, assetDesc.fileName,
                     resolve(loader, assetDesc), assetDesc.params);
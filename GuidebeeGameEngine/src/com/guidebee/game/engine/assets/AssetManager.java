@@ -28,6 +28,7 @@ import com.guidebee.game.engine.maps.tiled.TmxMapLoader;
 import com.guidebee.game.engine.utils.async.AsyncExecutor;
 import com.guidebee.game.engine.utils.async.ThreadUtils;
 import com.guidebee.game.engine.utils.reflect.ClassReflection;
+import com.guidebee.game.files.FileHandle;
 import com.guidebee.game.graphics.*;
 import com.guidebee.game.maps.tiled.TiledMap;
 import com.guidebee.game.ui.Skin;
@@ -36,11 +37,14 @@ import com.guidebee.utils.I18NBundle;
 import com.guidebee.utils.Logger;
 import com.guidebee.utils.TimeUtils;
 import com.guidebee.utils.collections.Array;
+import com.guidebee.utils.collections.IdentityMap;
 import com.guidebee.utils.collections.ObjectIntMap;
 import com.guidebee.utils.collections.ObjectMap;
 import com.guidebee.utils.collections.ObjectSet;
 
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 //[------------------------------ MAIN CLASS ----------------------------------]
 /**
@@ -53,18 +57,61 @@ public class AssetManager implements Disposable {
     final ObjectMap<Class, ObjectMap<String, RefCountedContainer>>
             assets = new ObjectMap();
     final ObjectMap<String, Class> assetTypes = new ObjectMap();
+    /**
+     * Loaded assets by file name, read without locking the manager so lookups
+     * don't wait for {@link #update()}. Only changed while holding the lock.
+     */
+    final ConcurrentHashMap<String, LoadedAsset> loadedAssets
+            = new ConcurrentHashMap<String, LoadedAsset>();
     final ObjectMap<String, Array<String>> assetDependencies = new ObjectMap();
     final ObjectSet<String> injected = new ObjectSet();
 
     final ObjectMap<Class, ObjectMap<String, AssetLoader>> loaders
             = new ObjectMap();
     final Array<AssetDescriptor> loadQueue = new Array();
-    final AsyncExecutor executor;
+    AsyncExecutor executor;
 
-    final Stack<AssetLoadingTask> tasks = new Stack();
+    /**
+     * Task stacks of the assets loaded at the same time, one per loading
+     * thread. tasks is the stack currently updated.
+     */
+    final Array<Stack<AssetLoadingTask>> lanes = new Array();
+    Stack<AssetLoadingTask> tasks;
+    private int nextLane;
+    /**
+     * Non concurrent loaders with an unfinished asset, by the task stack loading it
+     */
+    final IdentityMap<AssetLoader, Stack<AssetLoadingTask>> busyLoaders = new IdentityMap();
     AssetErrorListener listener = null;
-    int loaded = 0;
-    int toLoad = 0;
+    volatile int loaded = 0;
+    volatile int toLoad = 0;
+    /**
+     * Thread calling {@link #update()}, the only one evicted assets are
+     * reloaded on while waiting for them.
+     */
+    private volatile Thread updateThread;
+
+    /**
+     * Streaming mode, in bytes, 0 to keep every asset until it is unloaded.
+     */
+    private volatile long memoryBudget;
+    private long residentBytes;
+    /**
+     * Loaded assets with a reference count of 0 kept for reuse in streaming mode.
+     */
+    final ObjectSet<String> released = new ObjectSet();
+    /**
+     * Descriptors of loaded assets, and of evicted assets to reload them.
+     */
+    final ObjectMap<String, AssetDescriptor> descriptors = new ObjectMap();
+    final ObjectMap<String, AssetDescriptor> evicted = new ObjectMap();
+    /**
+     * Evicted assets queued again by a lookup, released once loaded.
+     */
+    final Array<String> reloads = new Array<String>();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private volatile long evictions;
 
     Logger log = new Logger("AssetManager", Application.LOG_NONE);
 
@@ -92,26 +139,185 @@ public class AssetManager implements Disposable {
         setLoader(I18NBundle.class, new I18NBundleLoader(resolver));
         setLoader(TiledMap.class,new TmxMapLoader(resolver));
         executor = new AsyncExecutor(1);
+        tasks = new Stack();
+        lanes.add(tasks);
+    }
+
+    /**
+     * Sets the number of assets loaded at the same time. Each asset with its
+     * dependencies is loaded on one of the loading threads, so the
+     * asynchronous parts of independent assets run concurrently, while the
+     * synchronous parts still run in {@link #update()} on the rendering
+     * thread. Assets whose loader is not {@link AssetLoader#isConcurrent()
+     * concurrent} are loaded one at a time per loader. Default is 1.
+     *
+     * @param threads the number of loading threads, at least 1.
+     * @throws GameEngineRuntimeException if assets are being loaded.
+     */
+    public synchronized void setLoadingThreads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be >= 1: " + threads);
+        if (threads == lanes.size) return;
+        for (int i = 0; i < lanes.size; i++) {
+            if (lanes.get(i).size() > 0)
+                throw new GameEngineRuntimeException(
+                        "Can't change the number of loading threads while loading.");
+        }
+        executor.dispose();
+        executor = new AsyncExecutor(threads);
+        lanes.clear();
+        for (int i = 0; i < threads; i++) {
+            lanes.add(new Stack<AssetLoadingTask>());
+        }
+        tasks = lanes.first();
+        nextLane = 0;
+    }
+
+    /**
+     * @return the number of assets loaded at the same time.
+     */
+    public synchronized int getLoadingThreads() {
+        return lanes.size;
+    }
+
+    /**
+     * Sets the memory budget of the streaming mode. In streaming mode an
+     * asset whose reference count drops to 0 is not disposed but kept, and
+     * the least recently used of those assets are disposed once the
+     * estimated size of all loaded assets exceeds the budget. An evicted
+     * asset is loaded again by the next {@link #get(String)}, which blocks
+     * until it is loaded: on the thread calling {@link #update()} it updates
+     * the manager itself, other threads wait for that thread to load it, so
+     * it must not wait for them in turn. A reloaded asset is released again,
+     * like the resident released assets {@link #get(String)} returns, and
+     * may be evicted once it is the least recently used.
+     *
+     * @param bytes the budget in bytes, 0 to disable streaming and dispose
+     *              the kept assets.
+     */
+    public synchronized void setMemoryBudget(long bytes) {
+        if (bytes < 0) throw new IllegalArgumentException("bytes must be >= 0: " + bytes);
+        memoryBudget = bytes;
+        if (bytes == 0) {
+            evict(-1);
+            evicted.clear();
+        } else if (residentBytes > bytes) {
+            evict(bytes);
+        }
+    }
+
+    /**
+     * @return the memory budget in bytes, 0 if streaming is disabled.
+     */
+    public synchronized long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * @return the estimated size in bytes of all loaded assets.
+     */
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * @return the number of lookups of loaded assets in streaming mode.
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * @return the number of evicted assets loaded again by a lookup.
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * @return the number of evicted assets.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Disposes released assets, least recently used first, until the
+     * resident size is within the given size. Evicted dependencies are
+     * released and may be evicted in turn.
+     */
+    private void evict(long bytes) {
+        while (residentBytes > bytes && released.size > 0) {
+            String oldest = null;
+            long oldestAccess = Long.MAX_VALUE;
+            for (String fileName : released) {
+                long lastAccess = loadedAssets.get(fileName).lastAccess;
+                if (oldest == null || lastAccess < oldestAccess) {
+                    oldest = fileName;
+                    oldestAccess = lastAccess;
+                }
+            }
+            AssetDescriptor assetDesc = descriptors.get(oldest);
+            log.debug("Evict: " + oldest);
+            unload(oldest);
+            if (bytes >= 0 && assetDesc != null) evicted.put(oldest, assetDesc);
+            evictions++;
+        }
+    }
+
+    /**
+     * Estimates the memory used by a loaded asset for the streaming mode.
+     * Textures and pixmaps are counted by their dimensions and format, other
+     * assets by the size of their file. Assets like texture atlases whose
+     * data is held by dependencies count the dependencies only.
+     *
+     * @return the estimated size in bytes.
+     */
+    protected long estimateSize(String fileName, Class type, Object asset) {
+        if (asset instanceof Texture) {
+            Texture texture = (Texture) asset;
+            TextureData data = texture.getTextureData();
+            long size = (long) texture.getWidth() * texture.getHeight()
+                    * bytesPerPixel(data.getFormat());
+            return data.useMipMaps() ? size + size / 3 : size;
+        }
+        if (asset instanceof Pixmap) {
+            Pixmap pixmap = (Pixmap) asset;
+            return (long) pixmap.getWidth() * pixmap.getHeight()
+                    * bytesPerPixel(pixmap.getFormat());
+        }
+        if (asset instanceof TextureAtlas || asset instanceof BitmapFont) return 0;
+        AssetLoader loader = getLoader(type, fileName);
+        if (loader == null) return 0;
+        FileHandle file = loader.resolve(fileName);
+        return file.exists() ? file.length() : 0;
+    }
+
+    private static int bytesPerPixel(Pixmap.Format format) {
+        if (format == null) return 4;
+        switch (format) {
+            case Alpha:
+            case Intensity:
+                return 1;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                return 2;
+            case RGB888:
+                return 3;
+            default:
+                return 4;
+        }
     }
 
     /**
      * @param fileName the asset file name
      * @return the asset
      */
-    public synchronized <T> T get(String fileName) {
-        Class<T> type = assetTypes.get(fileName);
-        if (type == null) throw new GameEngineRuntimeException("Asset not loaded: "
-                + fileName);
-        ObjectMap<String, RefCountedContainer> assetsByType = assets.get(type);
-        if (assetsByType == null) throw new GameEngineRuntimeException("Asset not loaded: "
-                + fileName);
-        RefCountedContainer assetContainer = assetsByType.get(fileName);
-        if (assetContainer == null) throw new GameEngineRuntimeException("Asset not loaded: "
+    public <T> T get(String fileName) {
+        LoadedAsset loadedAsset = lookup(fileName);
+        if (loadedAsset == null) throw new GameEngineRuntimeException("Asset not loaded: "
                 + fileName);
-        T asset = assetContainer.getObject(type);
-        if (asset == null) throw new GameEngineRuntimeException("Asset not loaded: "
-                + fileName);
-        return asset;
+        return (T) loadedAsset.asset;
     }
 
     /**
@@ -119,17 +325,97 @@ public class AssetManager implements Disposable {
      * @param type     the asset type
      * @return the asset
      */
-    public synchronized <T> T get(String fileName, Class<T> type) {
-        ObjectMap<String, RefCountedContainer> assetsByType = assets.get(type);
-        if (assetsByType == null) throw new GameEngineRuntimeException("Asset not loaded: "
-                + fileName);
-        RefCountedContainer assetContainer = assetsByType.get(fileName);
-        if (assetContainer == null) throw new GameEngineRuntimeException("Asset not loaded: "
-                + fileName);
-        T asset = assetContainer.getObject(type);
-        if (asset == null) throw new GameEngineRuntimeException("Asset not loaded: "
-                + fileName);
-        return asset;
+    public <T> T get(String fileName, Class<T> type) {
+        LoadedAsset loadedAsset = lookup(fileName);
+        if (loadedAsset == null || loadedAsset.type != type)
+            throw new GameEngineRuntimeException("Asset not loaded: " + fileName);
+        return (T) loadedAsset.asset;
+    }
+
+    /**
+     * Finds a loaded asset, in streaming mode marks it as used and reloads it
+     * if it was evicted.
+     */
+    private LoadedAsset lookup(String fileName) {
+        LoadedAsset loadedAsset = loadedAssets.get(fileName);
+        if (memoryBudget <= 0) return loadedAsset;
+        if (loadedAsset == null) return reload(fileName);
+        loadedAsset.lastAccess = TimeUtils.nanoTime();
+        cacheHits.incrementAndGet();
+        return loadedAsset;
+    }
+
+    /**
+     * Loads an evicted asset again and blocks until it is loaded. The thread
+     * updating the manager updates it, other threads wait for that thread.
+     * The asset is released again once loaded, see {@link #releaseReloads()}.
+     *
+     * @return the asset or null if it was not evicted.
+     */
+    private synchronized LoadedAsset reload(String fileName) {
+        LoadedAsset loadedAsset = loadedAssets.get(fileName);
+        boolean requested = false;
+        while (loadedAsset == null) {
+            if (!isQueued(fileName)) {
+                AssetDescriptor assetDesc = evicted.get(fileName);
+                // not evicted, or failed to load again
+                if (assetDesc == null || requested) return null;
+                requested = true;
+                cacheMisses.incrementAndGet();
+                log.debug("Reload: " + assetDesc);
+                load(assetDesc);
+                reloads.add(fileName);
+            }
+            Thread thread = updateThread;
+            if (thread == null || thread == Thread.currentThread()) {
+                update();
+            } else {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new GameEngineRuntimeException("Interrupted while reloading: "
+                            + fileName, e);
+                }
+            }
+            loadedAsset = loadedAssets.get(fileName);
+        }
+        return loadedAsset;
+    }
+
+    /**
+     * Drops the reference of the reloaded assets which finished loading, so
+     * they are released like before their eviction, and wakes the threads
+     * waiting for them.
+     */
+    private void releaseReloads() {
+        for (int i = reloads.size - 1; i >= 0; i--) {
+            String fileName = reloads.get(i);
+            if (loadedAssets.get(fileName) != null) {
+                reloads.removeIndex(i);
+                unload(fileName);
+            } else if (!isQueued(fileName)) {
+                // failed to load, the error was reported by the update.
+                reloads.removeIndex(i);
+            }
+        }
+        notifyAll();
+    }
+
+    /**
+     * @return whether the asset is in the load queue or in a task stack.
+     */
+    private boolean isQueued(String fileName) {
+        for (int i = 0; i < loadQueue.size; i++) {
+            if (loadQueue.get(i).fileName.equals(fileName)) return true;
+        }
+        for (int l = 0; l < lanes.size; l++) {
+            Stack<AssetLoadingTask> lane = lanes.get(l);
+            for (int i = 0; i < lane.size(); i++) {
+                if (lane.get(i).assetDesc.fileName.equals(fileName)) return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -151,7 +437,7 @@ public class AssetManager implements Disposable {
      * @param assetDescriptor the asset descriptor
      * @return the asset
      */
-    public synchronized <T> T get(AssetDescriptor<T> assetDescriptor) {
+    public <T> T get(AssetDescriptor<T> assetDescriptor) {
         return get(assetDescriptor.fileName, assetDescriptor.type);
     }
 
@@ -180,8 +466,10 @@ public class AssetManager implements Disposable {
         // check if it's currently processed (and the first element
         // in the stack, thus not a dependency)
         // and cancel if necessary
-        if (tasks.size() > 0) {
-            AssetLoadingTask currAsset = tasks.firstElement();
+        for (int i = 0; i < lanes.size; i++) {
+            Stack<AssetLoadingTask> lane = lanes.get(i);
+            if (lane.size() == 0) continue;
+            AssetLoadingTask currAsset = lane.firstElement();
             if (currAsset.assetDesc.fileName.equals(fileName)) {
                 currAsset.cancel = true;
                 log.debug("Unload (from tasks): " + fileName);
@@ -199,9 +487,22 @@ public class AssetManager implements Disposable {
         // if it is reference counted, decrement ref count and check if we
         // can really get rid of it.
         assetRef.decRefCount();
+        if (assetRef.getRefCount() == 0 && memoryBudget > 0) {
+            // keep it and its dependencies until it gets evicted.
+            log.debug("Unload (release): " + fileName);
+            released.add(fileName);
+            loadedAssets.get(fileName).lastAccess = TimeUtils.nanoTime();
+            return;
+        }
         if (assetRef.getRefCount() <= 0) {
             log.debug("Unload (dispose): " + fileName);
 
+            // remove the asset from the lookup before it is disposed.
+            loadedAssets.remove(fileName);
+            released.remove(fileName);
+            descriptors.remove(fileName);
+            residentBytes -= assetRef.size;
+
             // if it is disposable dispose it
             if (assetRef.getObject(Object.class) instanceof Disposable)
                 ((Disposable) assetRef.getObject(Object.class)).dispose();
@@ -230,12 +531,11 @@ public class AssetManager implements Disposable {
      * @param asset the asset
      * @return whether the asset is contained in this manager
      */
-    public synchronized <T> boolean containsAsset(T asset) {
-        ObjectMap<String, RefCountedContainer> typedAssets
-                = assets.get(asset.getClass());
-        if (typedAssets == null) return false;
-        for (String fileName : typedAssets.keys()) {
-            T otherAsset = (T) typedAssets.get(fileName).getObject(Object.class);
+    public <T> boolean containsAsset(T asset) {
+        Class type = asset.getClass();
+        for (LoadedAsset loadedAsset : loadedAssets.values()) {
+            if (loadedAsset.type != type) continue;
+            Object otherAsset = loadedAsset.asset;
             if (otherAsset == asset || asset.equals(otherAsset)) return true;
         }
         return false;
@@ -260,21 +560,19 @@ public class AssetManager implements Disposable {
      * @param fileName the file name of the asset
      * @return whether the asset is loaded
      */
-    public synchronized boolean isLoaded(String fileName) {
+    public boolean isLoaded(String fileName) {
         if (fileName == null) return false;
-        return assetTypes.containsKey(fileName);
+        return loadedAssets.containsKey(fileName);
     }
 
     /**
      * @param fileName the file name of the asset
      * @return whether the asset is loaded
      */
-    public synchronized boolean isLoaded(String fileName, Class type) {
-        ObjectMap<String, RefCountedContainer> assetsByType = assets.get(type);
-        if (assetsByType == null) return false;
-        RefCountedContainer assetContainer = assetsByType.get(fileName);
-        if (assetContainer == null) return false;
-        return assetContainer.getObject(type) != null;
+    public boolean isLoaded(String fileName, Class type) {
+        if (fileName == null) return false;
+        LoadedAsset loadedAsset = loadedAssets.get(fileName);
+        return loadedAsset != null && loadedAsset.type == type;
     }
 
     /**
@@ -358,13 +656,16 @@ public class AssetManager implements Disposable {
         }
 
         // check task list
-        for (int i = 0; i < tasks.size(); i++) {
-            AssetDescriptor desc = tasks.get(i).assetDesc;
-            if (desc.fileName.equals(fileName) && !desc.type.equals(type))
-                throw new GameEngineRuntimeException("Asset with name '" + fileName
-                        + "' already in task list, but has different type (expected: "
-                        + ClassReflection.getSimpleName(type) + ", found: "
-                        + ClassReflection.getSimpleName(desc.type) + ")");
+        for (int l = 0; l < lanes.size; l++) {
+            Stack<AssetLoadingTask> lane = lanes.get(l);
+            for (int i = 0; i < lane.size(); i++) {
+                AssetDescriptor desc = lane.get(i).assetDesc;
+                if (desc.fileName.equals(fileName) && !desc.type.equals(type))
+                    throw new GameEngineRuntimeException("Asset with name '" + fileName
+                            + "' already in task list, but has different type (expected: "
+                            + ClassReflection.getSimpleName(type) + ", found: "
+                            + ClassReflection.getSimpleName(desc.type) + ")");
+            }
         }
 
         // check loaded assets
@@ -414,20 +715,47 @@ public class AssetManager implements Disposable {
      * @return true if all loading is finished.
      */
     public synchronized boolean update() {
+        return updateLanes(Long.MAX_VALUE);
+    }
+
+    /**
+     * Updates the current task of each task stack, starting a new asset
+     * from the queue on empty stacks, until the deadline has passed.
+     *
+     * @return true if all loading is finished.
+     */
+    private synchronized boolean updateLanes(long deadline) {
+        updateThread = Thread.currentThread();
+        int laneCount = lanes.size;
+        int first = nextLane;
+        nextLane = (nextLane + 1) % laneCount;
         try {
-            if (tasks.size() == 0) {
-                // loop until we have a new task ready to be processed
-                while (loadQueue.size != 0 && tasks.size() == 0) {
-                    nextTask();
+            for (int i = 0; i < laneCount; i++) {
+                tasks = lanes.get((first + i) % laneCount);
+                try {
+                    if (tasks.size() == 0) {
+                        // loop until we have a new task ready to be processed
+                        while (loadQueue.size != 0 && tasks.size() == 0) {
+                            nextTask();
+                        }
+                        if (tasks.size() == 0) continue;
+                    }
+                    updateTask();
+                } catch (Throwable t) {
+                    handleTaskError(t);
                 }
-                // have we not found a task? We are done!
-                if (tasks.size() == 0) return true;
+                if (TimeUtils.nanoTime() > deadline) break;
             }
-            return updateTask() && loadQueue.size == 0 && tasks.size() == 0;
-        } catch (Throwable t) {
-            handleTaskError(t);
-            return loadQueue.size == 0;
+        } finally {
+            tasks = lanes.first();
+        }
+        if (residentBytes > memoryBudget && memoryBudget > 0) evict(memoryBudget);
+        releaseReloads();
+        if (loadQueue.size != 0) return false;
+        for (int i = 0; i < laneCount; i++) {
+            if (lanes.get(i).size() != 0) return false;
         }
+        return true;
     }
 
     /**
@@ -440,10 +768,10 @@ public class AssetManager implements Disposable {
      * @return true if all loading is finished.
      */
     public boolean update(int millis) {
-        long endTime = TimeUtils.millis() + millis;
+        long endTime = TimeUtils.nanoTime() + millis * 1000000L;
         while (true) {
-            boolean done = update();
-            if (done || TimeUtils.millis() > endTime) return done;
+            boolean done = updateLanes(endTime);
+            if (done || TimeUtils.nanoTime() > endTime) return done;
             ThreadUtils.yield();
         }
     }
@@ -458,6 +786,21 @@ public class AssetManager implements Disposable {
         log.debug("Loading complete.");
     }
 
+    /**
+     * Injects the dependencies of the task's asset into the task stack
+     * loading it, may be called on a loading thread.
+     */
+    synchronized void injectDependencies(AssetLoadingTask parent,
+                                         Array<AssetDescriptor> dependendAssetDescs) {
+        Stack<AssetLoadingTask> current = tasks;
+        tasks = parent.lane;
+        try {
+            injectDependencies(parent.assetDesc.fileName, dependendAssetDescs);
+        } finally {
+            tasks = current;
+        }
+    }
+
     synchronized void injectDependencies(String parentAssetFilename,
                                          Array<AssetDescriptor> dependendAssetDescs) {
         ObjectSet<String> injected = this.injected;
@@ -483,10 +826,12 @@ public class AssetManager implements Disposable {
         // if the asset is already loaded, increase its reference count.
         if (isLoaded(dependendAssetDesc.fileName)) {
             log.debug("Dependency already loaded: " + dependendAssetDesc);
-            Class type = assetTypes.get(dependendAssetDesc.fileName);
-            RefCountedContainer assetRef = assets.get(type).get(dependendAssetDesc.fileName);
-            assetRef.incRefCount();
-            incrementRefCountedDependencies(dependendAssetDesc.fileName);
+            retain(dependendAssetDesc.fileName);
+        }
+        // wait for it if it is loaded by another task stack.
+        else if (isLoading(dependendAssetDesc.fileName)) {
+            log.debug("Dependency already loading: " + dependendAssetDesc);
+            tasks.push(new AssetLoadingTask(this, dependendAssetDesc, null, executor, tasks));
         }
         // else add a new task for the asset.
         else {
@@ -508,15 +853,16 @@ public class AssetManager implements Disposable {
         // increase its reference count
         if (isLoaded(assetDesc.fileName)) {
             log.debug("Already loaded: " + assetDesc);
-            Class type = assetTypes.get(assetDesc.fileName);
-            RefCountedContainer assetRef = assets.get(type).get(assetDesc.fileName);
-            assetRef.incRefCount();
-            incrementRefCountedDependencies(assetDesc.fileName);
+            retain(assetDesc.fileName);
             if (assetDesc.params != null && assetDesc.params.loadedCallback != null) {
                 assetDesc.params.loadedCallback.finishedLoading(this,
                         assetDesc.fileName, assetDesc.type);
             }
             loaded++;
+        } else if (isLoading(assetDesc.fileName)) {
+            // wait for the other task stack loading it.
+            log.debug("Already loading: " + assetDesc);
+            tasks.push(new AssetLoadingTask(this, assetDesc, null, executor, tasks));
         } else {
             // else add a new task for the asset.
             log.info("Loading: " + assetDesc);
@@ -524,6 +870,21 @@ public class AssetManager implements Disposable {
         }
     }
 
+    /**
+     * @return whether a task of another task stack is loading the asset.
+     */
+    private boolean isLoading(String fileName) {
+        for (int l = 0; l < lanes.size; l++) {
+            Stack<AssetLoadingTask> lane = lanes.get(l);
+            if (lane == tasks) continue;
+            for (int i = 0; i < lane.size(); i++) {
+                AssetLoadingTask task = lane.get(i);
+                if (task.loader != null && task.assetDesc.fileName.equals(fileName)) return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Adds a {@link AssetLoadingTask} to the task stack for the given asset.
      *
@@ -534,7 +895,7 @@ public class AssetManager implements Disposable {
         if (loader == null)
             throw new GameEngineRuntimeException("No loader for type: "
                     + ClassReflection.getSimpleName(assetDesc.type));
-        tasks.push(new AssetLoadingTask(this, assetDesc, loader, executor));
+        tasks.push(new AssetLoadingTask(this, assetDesc, loader, executor, tasks));
     }
 
     /**
@@ -550,7 +911,14 @@ public class AssetManager implements Disposable {
             typeToAssets = new ObjectMap<String, RefCountedContainer>();
             assets.put(type, typeToAssets);
         }
-        typeToAssets.put(fileName, new RefCountedContainer(asset));
+        RefCountedContainer assetRef = new RefCountedContainer(asset);
+        assetRef.size = estimateSize(fileName, type, asset);
+        residentBytes += assetRef.size;
+        typeToAssets.put(fileName, assetRef);
+        evicted.remove(fileName);
+
+        // publish the asset for lookups
+        loadedAssets.put(fileName, new LoadedAsset(type, asset));
     }
 
     /**
@@ -560,13 +928,22 @@ public class AssetManager implements Disposable {
      */
     private boolean updateTask() {
         AssetLoadingTask task = tasks.peek();
+        if (task.loader == null) return updateSharedTask(task);
+        // wait if another task stack is using the loader
+        if (!task.loader.isConcurrent()) {
+            Stack<AssetLoadingTask> owner = busyLoaders.get(task.loader);
+            if (owner == null) busyLoaders.put(task.loader, tasks);
+            else if (owner != tasks) return false;
+        }
         // if the task has finished loading
         if (task.update()) {
             addAsset(task.assetDesc.fileName, task.assetDesc.type, task.getAsset());
+            descriptors.put(task.assetDesc.fileName, task.assetDesc);
 
             // increase the number of loaded assets and pop the task from the stack
             if (tasks.size() == 1) loaded++;
             tasks.pop();
+            releaseLoader(task.loader);
 
             // remove the asset if it was canceled.
             if (task.cancel) {
@@ -590,18 +967,80 @@ public class AssetManager implements Disposable {
         }
     }
 
+    /**
+     * Updates a task waiting for an asset loaded by another task stack.
+     *
+     * @return true if the asset is loaded.
+     */
+    private boolean updateSharedTask(AssetLoadingTask task) {
+        String fileName = task.assetDesc.fileName;
+        if (!isLoaded(fileName)) {
+            if (!isLoading(fileName))
+                throw new GameEngineRuntimeException("Couldn't load asset: " + fileName);
+            return false;
+        }
+        boolean root = tasks.size() == 1;
+        tasks.pop();
+        if (root) loaded++;
+        if (task.cancel) return true;
+
+        retain(fileName);
+        if (root && task.assetDesc.params != null
+                && task.assetDesc.params.loadedCallback != null) {
+            task.assetDesc.params.loadedCallback.finishedLoading(this,
+                    fileName, task.assetDesc.type);
+        }
+        return true;
+    }
+
+    /**
+     * Frees the loader for other task stacks once the current stack has no
+     * other task using it.
+     */
+    private void releaseLoader(AssetLoader loader) {
+        if (busyLoaders.get(loader) != tasks) return;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).loader == loader) return;
+        }
+        busyLoaders.remove(loader);
+    }
+
+    /**
+     * Frees all loaders used by the given task stack.
+     */
+    private void releaseLoaders(Stack<AssetLoadingTask> lane) {
+        Array<AssetLoader> released = null;
+        for (IdentityMap.Entry<AssetLoader, Stack<AssetLoadingTask>> entry : busyLoaders.entries()) {
+            if (entry.value != lane) continue;
+            if (released == null) released = new Array();
+            released.add(entry.key);
+        }
+        if (released == null) return;
+        for (int i = 0; i < released.size; i++) {
+            busyLoaders.remove(released.get(i));
+        }
+    }
+
     private void incrementRefCountedDependencies(String parent) {
         Array<String> dependencies = assetDependencies.get(parent);
         if (dependencies == null) return;
 
         for (String dependency : dependencies) {
-            Class type = assetTypes.get(dependency);
-            RefCountedContainer assetRef = assets.get(type).get(dependency);
-            assetRef.incRefCount();
-            incrementRefCountedDependencies(dependency);
+            retain(dependency);
         }
     }
 
+    /**
+     * Increases the reference count of a loaded asset and its dependencies.
+     * The dependencies of a released asset still hold its reference.
+     */
+    private void retain(String fileName) {
+        Class type = assetTypes.get(fileName);
+        RefCountedContainer assetRef = assets.get(type).get(fileName);
+        assetRef.incRefCount();
+        if (!released.remove(fileName)) incrementRefCountedDependencies(fileName);
+    }
+
     /**
      * Handles a runtime/loading error in {@link #update()} by optionally
      * invoking the {@link AssetErrorListener}.
@@ -626,6 +1065,7 @@ public class AssetManager implements Disposable {
 
         // clear the rest of the stack
         tasks.clear();
+        releaseLoaders(tasks);
 
         // inform the listener that something bad happened
         if (listener != null) {
@@ -670,23 +1110,28 @@ public class AssetManager implements Disposable {
     /**
      * @return the number of loaded assets
      */
-    public synchronized int getLoadedAssets() {
-        return assetTypes.size;
+    public int getLoadedAssets() {
+        return loadedAssets.size();
     }
 
     /**
      * @return the number of currently queued assets
      */
     public synchronized int getQueuedAssets() {
-        return loadQueue.size + (tasks.size());
+        int queued = loadQueue.size;
+        for (int i = 0; i < lanes.size; i++) {
+            queued += lanes.get(i).size();
+        }
+        return queued;
     }
 
     /**
      * @return the progress in percent of completion.
      */
-    public synchronized float getProgress() {
+    public float getProgress() {
+        int toLoad = this.toLoad;
         if (toLoad == 0) return 1;
-        return Math.min(1, loaded / (float) toLoad);
+        return Math.min(1, this.loaded / (float) toLoad);
     }
 
     /**
@@ -745,11 +1190,20 @@ public class AssetManager implements Disposable {
 
         this.assets.clear();
         this.assetTypes.clear();
+        this.loadedAssets.clear();
+        this.released.clear();
+        this.descriptors.clear();
+        this.evicted.clear();
+        this.reloads.clear();
+        this.residentBytes = 0;
         this.assetDependencies.clear();
         this.loaded = 0;
         this.toLoad = 0;
         this.loadQueue.clear();
-        this.tasks.clear();
+        for (int i = 0; i < lanes.size; i++) {
+            lanes.get(i).clear();
+        }
+        this.busyLoaders.clear();
     }
 
     /**
@@ -833,8 +1287,22 @@ public class AssetManager implements Disposable {
     /**
      * @return the type of a loaded asset.
      */
-    public synchronized Class getAssetType(String fileName) {
-        return assetTypes.get(fileName);
+    public Class getAssetType(String fileName) {
+        LoadedAsset loadedAsset = loadedAssets.get(fileName);
+        return loadedAsset == null ? null : loadedAsset.type;
     }
 
+    /**
+     * Entry of a loaded asset and the type it was loaded as.
+     */
+    static final class LoadedAsset {
+        final Class type;
+        final Object asset;
+        volatile long lastAccess = TimeUtils.nanoTime();
+
+        LoadedAsset(Class type, Object asset) {
+            this.type = type;
+            this.asset = asset;
+        }
+    }
 }
@@ -22,6 +22,10 @@ package com.guidebee.game.engine.assets;
 public class RefCountedContainer {
     Object object;
     int refCount = 1;
+    /**
+     * Estimated memory size in bytes.
+     */
+    long size;
 
     public RefCountedContainer(Object object) {
         if (object == null) throw new IllegalArgumentException("Object must not be null");
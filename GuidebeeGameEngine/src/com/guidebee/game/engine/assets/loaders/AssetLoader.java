@@ -68,4 +68,17 @@ public abstract class AssetLoader<T, P extends AssetLoaderParameters<T>> {
      */
     public abstract Array<AssetDescriptor> getDependencies(String fileName,
                                                            FileHandle file, P parameter);
+
+    /**
+     * Returns whether the loader can load several assets at the same time,
+     * see {@link com.guidebee.game.engine.assets.AssetManager#setLoadingThreads(int)}.
+     * Loaders keeping the state of an asset in fields between
+     * {@link #getDependencies(String, FileHandle, AssetLoaderParameters)} and
+     * the final load step must return false, the default.
+     *
+     * @return true if assets may be loaded concurrently with this loader.
+     */
+    public boolean isConcurrent() {
+        return false;
+    }
 }
@@ -23,6 +23,7 @@ import com.guidebee.game.engine.assets.AssetManager;
 import com.guidebee.game.files.FileHandle;
 import com.guidebee.game.graphics.Pixmap;
 import com.guidebee.utils.collections.Array;
+import com.guidebee.utils.collections.ObjectMap;
 
 //[------------------------------ MAIN CLASS ----------------------------------]
 /**
@@ -37,21 +38,26 @@ public class PixmapLoader extends AsynchronousAssetLoader<Pixmap,
         super(resolver);
     }
 
-    Pixmap pixmap;
+    /**
+     * Decoded pixmaps by file name, pixmaps are loaded concurrently
+     */
+    private final ObjectMap<String, Pixmap> pixmaps = new ObjectMap<String, Pixmap>();
 
     @Override
     public void loadAsync(AssetManager manager, String fileName,
                           FileHandle file, PixmapParameter parameter) {
-        pixmap = null;
-        pixmap = new Pixmap(file);
+        Pixmap pixmap = new Pixmap(file);
+        synchronized (pixmaps) {
+            pixmaps.put(fileName, pixmap);
+        }
     }
 
     @Override
     public Pixmap loadSync(AssetManager manager, String fileName,
                            FileHandle file, PixmapParameter parameter) {
-        Pixmap pixmap = this.pixmap;
-        this.pixmap = null;
-        return pixmap;
+        synchronized (pixmaps) {
+            return pixmaps.remove(fileName);
+        }
     }
 
     @Override
@@ -61,6 +67,11 @@ public class PixmapLoader extends AsynchronousAssetLoader<Pixmap,
         return null;
     }
 
+    @Override
+    public boolean isConcurrent() {
+        return true;
+    }
+
     static public class PixmapParameter extends AssetLoaderParameters<Pixmap> {
     }
 }
@@ -31,6 +31,7 @@ import com.guidebee.game.graphics.Texture.TextureFilter;
 import com.guidebee.game.graphics.Texture.TextureWrap;
 import com.guidebee.game.graphics.TextureData;
 import com.guidebee.utils.collections.Array;
+import com.guidebee.utils.collections.ObjectMap;
 
 //[------------------------------ MAIN CLASS ----------------------------------]
 /**
@@ -55,7 +56,11 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture,
 
     ;
 
-    TextureLoaderInfo info = new TextureLoaderInfo();
+    /**
+     * Loading state by file name, textures are loaded concurrently
+     */
+    private final ObjectMap<String, TextureLoaderInfo> infos
+            = new ObjectMap<String, TextureLoaderInfo>();
 
     public TextureLoader(FileHandleResolver resolver) {
         super(resolver);
@@ -64,6 +69,7 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture,
     @Override
     public void loadAsync(AssetManager manager, String fileName,
                           FileHandle file, TextureParameter parameter) {
+        TextureLoaderInfo info = new TextureLoaderInfo();
         info.filename = fileName;
         if (parameter == null || parameter.textureData == null) {
             Pixmap pixmap = null;
@@ -91,11 +97,18 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture,
             info.texture = parameter.texture;
         }
         if (!info.data.isPrepared()) info.data.prepare();
+        synchronized (infos) {
+            infos.put(fileName, info);
+        }
     }
 
     @Override
     public Texture loadSync(AssetManager manager, String fileName,
                             FileHandle file, TextureParameter parameter) {
+        TextureLoaderInfo info;
+        synchronized (infos) {
+            info = infos.remove(fileName);
+        }
         if (info == null) return null;
         Texture texture = info.texture;
         if (texture != null) {
@@ -117,6 +130,11 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture,
         return null;
     }
 
+    @Override
+    public boolean isConcurrent() {
+        return true;
+    }
+
     static public class TextureParameter extends AssetLoaderParameters<Texture> {
         /**
          * the format of the final Texture. Uses the source images format if null *
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.engine.drawing.core;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * The coverage of a rasterized path, one byte per pixel. A mask is created
+ * once with {@link GraphicsFP#createFillMask(GraphicsPathFP)} or
+ * {@link GraphicsFP#createDrawMask(GraphicsPathFP)} and can then be drawn
+ * many times in any solid color with
+ * {@link GraphicsFP#drawMask(AlphaMaskFP, int, int, int)}.
+ *
+ * @author James Shen.
+ */
+public final class AlphaMaskFP {
+
+
+    /**
+     * Constructor.
+     *
+     * @param x      x of the top left of the mask in path coordinates.
+     * @param y      y of the top left of the mask in path coordinates.
+     * @param width  the width of the mask.
+     * @param height the height of the mask.
+     */
+    AlphaMaskFP(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        alpha = new byte[width * height];
+    }
+
+
+    /**
+     * get x of the top left of the mask in path coordinates.
+     *
+     * @return the x coordinate.
+     */
+    public int getX() {
+        return x;
+    }
+
+
+    /**
+     * get y of the top left of the mask in path coordinates.
+     *
+     * @return the y coordinate.
+     */
+    public int getY() {
+        return y;
+    }
+
+
+    /**
+     * get the width of the mask.
+     *
+     * @return the width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+
+    /**
+     * get the height of the mask.
+     *
+     * @return the height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+    final byte[] alpha;
+}
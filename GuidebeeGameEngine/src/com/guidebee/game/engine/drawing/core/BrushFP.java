@@ -115,6 +115,24 @@ public abstract class BrushFP {
     public abstract int getNextColor();
 
 
+    /**
+     * Get the colors of a horizontal span of pixels, the same colors as
+     * {@link #getColorAt(int, int, boolean)} followed by
+     * {@link #getNextColor()} calls, which is what this default does.
+     *
+     * @param x      x coordinate of the first pixel.
+     * @param y      y coordinate of the span.
+     * @param colors array receiving the colors.
+     * @param count  number of pixels.
+     */
+    public void getColors(int x, int y, int[] colors, int count) {
+        colors[0] = getColorAt(x, y, count == 1);
+        for (int i = 1; i < count; i++) {
+            colors[i] = getNextColor();
+        }
+    }
+
+
     /**
      * get the matrix associated with the graphics object.
      *
@@ -18,6 +18,14 @@ package com.guidebee.game.engine.drawing.core;
 
 //--------------------------------- IMPORTS ------------------------------------
 
+import com.guidebee.game.engine.utils.async.AsyncExecutor;
+import com.guidebee.game.engine.utils.async.AsyncResult;
+import com.guidebee.game.engine.utils.async.AsyncTask;
+import com.guidebee.utils.collections.Array;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
 //[------------------------------ MAIN CLASS ----------------------------------]
 
 /**
@@ -62,10 +70,92 @@ public final class GraphicsFP {
      * @return the ARGB array of the image content.
      */
     public int[] getRGB() {
+        flush();
         return renderer.buffer;
     }
 
 
+    /**
+     * Sets the number of worker threads used to rasterize. With workers,
+     * paths filled with a solid color are recorded, and their edges are
+     * binned into bands of {@link #getTileHeight()} pixel rows. The bands are
+     * rasterized at the same time when the surface is read or
+     * {@link #flush()} is called. Pixel rows are rasterized independently,
+     * so the result is the same as drawing serially. Paths drawn with other
+     * brushes flush the recorded paths and are drawn on the calling thread.
+     * <p/>
+     * The workers come from one pool shared by all graphics objects, with a
+     * thread per processor, so nothing has to be released.
+     *
+     * @param threads number of worker threads, 0 to draw immediately on the
+     *                calling thread.
+     */
+    public void setParallelism(int threads) {
+        flush();
+        parallelism = Math.max(0, threads);
+        executor = parallelism > 0 ? getSharedExecutor() : null;
+    }
+
+
+    /**
+     * @return the number of worker threads, 0 when drawing immediately.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+
+    /**
+     * Sets the number of pixel rows of a band, default is 32.
+     *
+     * @param rows number of pixel rows.
+     */
+    public void setTileHeight(int rows) {
+        flush();
+        tileHeight = Math.max(1, rows);
+    }
+
+
+    /**
+     * @return the number of pixel rows of a band.
+     */
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+
+    /**
+     * Rasterizes the recorded paths, if any.
+     */
+    public void flush() {
+        if (commandCount == 0) return;
+        int bands = (renderer.getHeight() + tileHeight - 1) / tileHeight;
+        int tasks = Math.min(parallelism + 1, bands);
+        nextBand.set(0);
+        while (bandTasks.size < tasks) {
+            bandTasks.add(new BandTask());
+        }
+        try {
+            for (int i = 1; i < tasks; i++) {
+                results.add(executor.submit(bandTasks.get(i)));
+            }
+            drawBands(bandTasks.get(0).bandRenderer);
+        } finally {
+            try {
+                for (int i = 0; i < results.size; i++) {
+                    results.get(i).get();
+                }
+            } finally {
+                results.clear();
+                for (int i = 0; i < commandCount; i++) {
+                    commands.get(i).brush = null;
+                }
+                commandCount = 0;
+            }
+        }
+    }
+
+
     /**
      * Get the brush object of the graphics.
      *
@@ -154,6 +244,7 @@ public final class GraphicsFP {
      * @param height the new height of the graphics object.
      */
     public void resize(int width, int height) {
+        flush();
         renderer.reset(width, height);
     }
 
@@ -164,6 +255,7 @@ public final class GraphicsFP {
      * @param color the clear color.
      */
     public void clear(int color) {
+        flush();
         renderer.clear(color);
     }
 
@@ -312,22 +404,8 @@ public final class GraphicsFP {
      * @param path
      */
     public void drawPath(GraphicsPathFP path) {
-        if (lineStyle.dashArray != null) {
-            PenFP newlineStyle = new PenFP(lineStyle.brush, lineStyle.width,
-                    PenFP.LINECAP_BUTT, PenFP.LINECAP_BUTT, PenFP.LINEJOIN_MITER);
-
-            newlineStyle.dashArray = lineStyle.dashArray;
-            GraphicsPathDasherFP dasher = new GraphicsPathDasherFP(path,
-                    newlineStyle.dashArray, 0);
-            GraphicsPathFP newPath = dasher.GetDashedGraphicsPath();
-            renderer.drawPath(newPath.calcOutline(newlineStyle), matrix,
-                    lineStyle.brush, GraphicsPathRendererFP.MODE_ZERO);
-
-        } else {
-
-            renderer.drawPath(path.calcOutline(lineStyle), matrix,
-                    lineStyle.brush, GraphicsPathRendererFP.MODE_ZERO);
-        }
+        render(calcOutline(path), lineStyle.brush,
+                GraphicsPathRendererFP.MODE_ZERO);
     }
 
 
@@ -428,7 +506,47 @@ public final class GraphicsFP {
      * @param path
      */
     public void fillPath(GraphicsPathFP path) {
-        renderer.drawPath(path, matrix, fillStyle, paintMode);
+        render(path, fillStyle, paintMode);
+    }
+
+
+    /**
+     * Rasterizes the filled path into a new alpha mask with the current
+     * paint mode, the matrix of this graphics object is not applied.
+     *
+     * @param path
+     * @return the mask covering the path.
+     */
+    public AlphaMaskFP createFillMask(GraphicsPathFP path) {
+        return createMask(path, paintMode);
+    }
+
+
+    /**
+     * Rasterizes the outline of the path drawn with the current pen into a
+     * new alpha mask, the matrix of this graphics object is not applied.
+     *
+     * @param path
+     * @return the mask covering the outline.
+     */
+    public AlphaMaskFP createDrawMask(GraphicsPathFP path) {
+        return createMask(calcOutline(path), GraphicsPathRendererFP.MODE_ZERO);
+    }
+
+
+    /**
+     * draw the alpha mask in given color, the pixels are the same as the
+     * ones of the path of the mask moved by (x, y) and filled with a solid
+     * brush of that color.
+     *
+     * @param mask  the alpha mask.
+     * @param x     x offset of the path.
+     * @param y     y offset of the path.
+     * @param color the ARGB color.
+     */
+    public void drawMask(AlphaMaskFP mask, int x, int y, int color) {
+        flush();
+        renderer.drawMask(mask, x + mask.getX(), y + mask.getY(), color);
     }
 
 
@@ -492,14 +610,202 @@ public final class GraphicsFP {
      * @param color
      */
     public void finalizeBuffer(int color) {
+        flush();
         renderer.finalizeBuffer(color);
     }
 
+
+    /**
+     * Calculates the outline of the path with the current pen.
+     */
+    private GraphicsPathFP calcOutline(GraphicsPathFP path) {
+        if (lineStyle.dashArray != null) {
+            PenFP newlineStyle = new PenFP(lineStyle.brush, lineStyle.width,
+                    PenFP.LINECAP_BUTT, PenFP.LINECAP_BUTT, PenFP.LINEJOIN_MITER);
+
+            newlineStyle.dashArray = lineStyle.dashArray;
+            GraphicsPathDasherFP dasher = new GraphicsPathDasherFP(path,
+                    newlineStyle.dashArray, 0);
+            GraphicsPathFP newPath = dasher.GetDashedGraphicsPath();
+            return newPath.calcOutline(newlineStyle, outline);
+        }
+        return path.calcOutline(lineStyle, outline);
+    }
+
+
+    /**
+     * Rasterizes the path into a new mask, one pixel larger than the path
+     * on each side so no edge is clamped.
+     */
+    private AlphaMaskFP createMask(GraphicsPathFP path, int mode) {
+        if (path.pntsSize == 0) {
+            return new AlphaMaskFP(0, 0, 0, 0);
+        }
+        int ff_xmin = Integer.MAX_VALUE;
+        int ff_ymin = Integer.MAX_VALUE;
+        int ff_xmax = Integer.MIN_VALUE;
+        int ff_ymax = Integer.MIN_VALUE;
+        PointFP[] pnts = path.pnts;
+        for (int i = 0; i < path.pntsSize; i++) {
+            PointFP point = pnts[i];
+            ff_xmin = MathFP.min(ff_xmin, point.x);
+            ff_ymin = MathFP.min(ff_ymin, point.y);
+            ff_xmax = MathFP.max(ff_xmax, point.x);
+            ff_ymax = MathFP.max(ff_ymax, point.y);
+        }
+        int x = (ff_xmin >> SingleFP.DECIMAL_BITS) - 1;
+        int y = (ff_ymin >> SingleFP.DECIMAL_BITS) - 1;
+        AlphaMaskFP mask = new AlphaMaskFP(x, y,
+                (ff_xmax >> SingleFP.DECIMAL_BITS) - x + 2,
+                (ff_ymax >> SingleFP.DECIMAL_BITS) - y + 2);
+        if (maskRenderer == null) {
+            maskRenderer = new GraphicsPathRendererFP();
+        }
+        maskRenderer.setMask(mask);
+        maskRenderer.drawPath(path, new MatrixFP(SingleFP.ONE, SingleFP.ONE,
+                        0, 0, -x << SingleFP.DECIMAL_BITS, -y << SingleFP.DECIMAL_BITS),
+                null, mode);
+        maskRenderer.setMask(null);
+        return mask;
+    }
+
+
+    /**
+     * Draws the path, or records its edges binned by band when rasterizing
+     * in parallel.
+     */
+    private void render(GraphicsPathFP path, BrushFP brush, int mode) {
+        if (executor == null || !brush.isMonoColor()) {
+            flush();
+            renderer.drawPath(path, matrix, brush, mode);
+            return;
+        }
+        int count = renderer.scanPath(path, matrix);
+        if (matrix != null) {
+            brush.setGraphicsMatrix(matrix);
+        }
+        int[] edges = renderer.getEdges();
+        int bands = (renderer.getHeight() + tileHeight - 1) / tileHeight;
+
+        // the commands and their arrays are kept and reused after a flush
+        if (commandCount == commands.size) {
+            commands.add(new PathCommand());
+        }
+        PathCommand command = commands.get(commandCount++);
+        if (command.bandStarts.length < bands + 1) {
+            command.bandStarts = new int[bands + 1];
+        }
+        if (command.edges.length < count) {
+            command.edges = new int[Math.max(count, command.edges.length * 2)];
+        }
+        if (nextEdges.length < bands) {
+            nextEdges = new int[bands];
+        }
+        int[] bandStarts = command.bandStarts;
+        int[] binned = command.edges;
+        int[] next = nextEdges;
+        Arrays.fill(bandStarts, 0, bands + 1, 0);
+        for (int i = 0; i < count; i++) {
+            bandStarts[GraphicsPathRendererFP.getEdgeRow(edges[i]) / tileHeight + 1]++;
+        }
+        for (int b = 0; b < bands; b++) {
+            bandStarts[b + 1] += bandStarts[b];
+        }
+        System.arraycopy(bandStarts, 0, next, 0, bands);
+        for (int i = 0; i < count; i++) {
+            int edge = edges[i];
+            binned[next[GraphicsPathRendererFP.getEdgeRow(edge) / tileHeight]++] = edge;
+        }
+
+        command.brush = brush;
+        command.mode = mode;
+        command.clipX = renderer.clipX;
+        command.clipY = renderer.clipY;
+        command.clipWidth = renderer.clipWidth;
+        command.clipHeight = renderer.clipHeight;
+    }
+
+
+    /**
+     * Rasterizes the recorded paths band after band, until no band is left.
+     */
+    private void drawBands(GraphicsPathRendererFP bandRenderer) {
+        bandRenderer.setTarget(renderer);
+        Array<PathCommand> commands = this.commands;
+        int bands = (renderer.getHeight() + tileHeight - 1) / tileHeight;
+        int band;
+        while ((band = nextBand.getAndIncrement()) < bands) {
+            for (int i = 0, n = commandCount; i < n; i++) {
+                PathCommand command = commands.get(i);
+                int start = command.bandStarts[band];
+                int count = command.bandStarts[band + 1] - start;
+                if (count == 0) continue;
+                bandRenderer.setClip(command.clipX, command.clipY,
+                        command.clipWidth, command.clipHeight);
+                bandRenderer.fillEdges(command.edges, start, count,
+                        command.brush, command.mode);
+            }
+        }
+    }
+
+
+    /**
+     * A recorded path, its edges are sorted by band.
+     */
+    private static final class PathCommand {
+        int[] edges = new int[0];
+        int[] bandStarts = new int[0];
+        BrushFP brush;
+        int mode;
+        int clipX, clipY, clipWidth, clipHeight;
+    }
+
+
+    /**
+     * Rasterizes bands with a renderer of its own.
+     */
+    private final class BandTask implements AsyncTask<Void> {
+        final GraphicsPathRendererFP bandRenderer = new GraphicsPathRendererFP();
+
+        @Override
+        public Void call() throws Exception {
+            drawBands(bandRenderer);
+            return null;
+        }
+    }
+
+
+    /**
+     * @return the worker pool shared by all graphics objects.
+     */
+    private static synchronized AsyncExecutor getSharedExecutor() {
+        if (sharedExecutor == null) {
+            sharedExecutor = new AsyncExecutor(
+                    Math.max(1, Runtime.getRuntime().availableProcessors()));
+        }
+        return sharedExecutor;
+    }
+
+    private static AsyncExecutor sharedExecutor;
+
     private PenFP lineStyle;
     private BrushFP fillStyle;
     private GraphicsPathRendererFP renderer = new GraphicsPathRendererFP();
+    // outline of the path being drawn, rendered or scanned before drawPath
+    // returns so it is reused by the next one.
+    private final GraphicsPathFP outline = new GraphicsPathFP();
+    private GraphicsPathRendererFP maskRenderer;
     private int paintMode;
     private MatrixFP matrix = null;
+    private AsyncExecutor executor;
+    private int parallelism;
+    private int tileHeight = 32;
+    private final Array<PathCommand> commands = new Array<PathCommand>();
+    private int commandCount;
+    private int[] nextEdges = new int[0];
+    private final Array<BandTask> bandTasks = new Array<BandTask>();
+    private final Array<AsyncResult<Void>> results = new Array<AsyncResult<Void>>();
+    private final AtomicInteger nextBand = new AtomicInteger();
 
 
     /**
@@ -359,6 +359,16 @@ public final class GraphicsPathFP {
     }
 
 
+    /**
+     * Removes all commands from this path. The storage, points included, is
+     * kept and reused by the commands added next, so a path can be rebuilt
+     * many times without allocating.
+     */
+    public void reset() {
+        cmdsSize = pntsSize = 0;
+    }
+
+
     /**
      * Add a path to this path.
      *
@@ -368,11 +378,10 @@ public final class GraphicsPathFP {
         if (path.cmdsSize > 0) {
             extendIfNeeded(path.cmdsSize, path.pntsSize);
             System.arraycopy(path.cmds, 0, cmds, cmdsSize, path.cmdsSize);
-            for (int i = 0; i < path.pntsSize; i++) {
-                pnts[i + pntsSize] = new PointFP(path.pnts[i]);
-            }
             cmdsSize += path.cmdsSize;
-            pntsSize += path.pntsSize;
+            for (int i = 0, n = path.pntsSize; i < n; i++) {
+                addPoint(path.pnts[i]);
+            }
         }
     }
 
@@ -385,7 +394,7 @@ public final class GraphicsPathFP {
     public void addMoveTo(PointFP point) {
         extendIfNeeded(1, 1);
         cmds[cmdsSize++] = CMD_MOVETO;
-        pnts[pntsSize++] = new PointFP(point);
+        addPoint(point);
     }
 
 
@@ -397,7 +406,7 @@ public final class GraphicsPathFP {
     public void addLineTo(PointFP point) {
         extendIfNeeded(1, 1);
         cmds[cmdsSize++] = CMD_LINETO;
-        pnts[pntsSize++] = new PointFP(point);
+        addPoint(point);
     }
 
 
@@ -414,8 +423,8 @@ public final class GraphicsPathFP {
         }
         extendIfNeeded(1, 2);
         cmds[cmdsSize++] = CMD_QCURVETO;
-        pnts[pntsSize++] = new PointFP(control);
-        pnts[pntsSize++] = new PointFP(point);
+        addPoint(control);
+        addPoint(point);
     }
 
 
@@ -435,9 +444,9 @@ public final class GraphicsPathFP {
         }
         extendIfNeeded(1, 3);
         cmds[cmdsSize++] = CMD_CCURVETO;
-        pnts[pntsSize++] = new PointFP(control1);
-        pnts[pntsSize++] = new PointFP(control2);
-        pnts[pntsSize++] = new PointFP(point);
+        addPoint(control1);
+        addPoint(control2);
+        addPoint(point);
     }
 
 
@@ -457,7 +466,20 @@ public final class GraphicsPathFP {
      * @return
      */
     public GraphicsPathFP calcOutline(PenFP lineStyle) {
-        GraphicsPathFP outline = new GraphicsPathFP();
+        return calcOutline(lineStyle, new GraphicsPathFP());
+    }
+
+
+    /**
+     * Calculate outline with given pen into the given path, the path is
+     * reset first.
+     *
+     * @param lineStyle
+     * @param outline   the path receiving the outline.
+     * @return the outline path.
+     */
+    public GraphicsPathFP calcOutline(PenFP lineStyle, GraphicsPathFP outline) {
+        outline.reset();
         GraphicsPathOutlineFP outlineGenerator =
                 new GraphicsPathOutlineFP(outline, lineStyle);
         visit(outlineGenerator);
@@ -601,6 +623,21 @@ public final class GraphicsPathFP {
     }
 
 
+    /**
+     * Appends a copy of the point, reusing the point object left in the slot
+     * by a previous {@link #reset()}.
+     */
+    private void addPoint(PointFP point) {
+        PointFP pnt = pnts[pntsSize];
+        if (pnt == null) {
+            pnts[pntsSize] = new PointFP(point);
+        } else {
+            pnt.reset(point);
+        }
+        pntsSize++;
+    }
+
+
     void extendIfNeeded(int cmdsAddNum, int pntsAddNum) {
         if (cmds == null) {
             cmds = new int[BLOCKSIZE];
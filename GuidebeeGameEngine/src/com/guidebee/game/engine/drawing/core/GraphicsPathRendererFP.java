@@ -94,7 +94,7 @@ class GraphicsPathRendererFP extends GraphicsPathSketchFP {
         path.visit(this);
         radixSort(scanbuf, scanbuf_tmp, scanIndex);
         fillStyle = style;
-        if (transformMatrix != null) {
+        if (transformMatrix != null && fillStyle != null) {
             fillStyle.setGraphicsMatrix(transformMatrix);
         }
         drawBuffer();
@@ -116,6 +116,145 @@ class GraphicsPathRendererFP extends GraphicsPathSketchFP {
     }
 
 
+    /**
+     * Scans the path into the edge buffer without drawing it, the edges can
+     * then be read with {@link #getEdges()} and drawn with
+     * {@link #fillEdges(int[], int, int, BrushFP, int)}, by this or another
+     * renderer.
+     *
+     * @param path   the path.
+     * @param matrix the transform matrix, can be null.
+     * @return the number of edges.
+     */
+    int scanPath(GraphicsPathFP path, MatrixFP matrix) {
+        scanIndex = 0;
+        transformMatrix = matrix;
+        path.visit(this);
+        transformMatrix = null;
+        return scanIndex;
+    }
+
+
+    /**
+     * @return the edge buffer filled by {@link #scanPath(GraphicsPathFP, MatrixFP)}.
+     */
+    int[] getEdges() {
+        return scanbuf;
+    }
+
+
+    /**
+     * Gets the pixel row of an edge.
+     *
+     * @param edge an edge from the edge buffer.
+     * @return the row of the edge.
+     */
+    static int getEdgeRow(int edge) {
+        return (edge >> (RENDERER_REAL_X + RENDERER_FRAC_X + 1)) & RENDERER_REAL_Y_MASK;
+    }
+
+
+    /**
+     * Draws scanned edges. Pixel rows are rasterized independently of each
+     * other, so drawing the edges of a range of rows gives the same pixels
+     * as drawing the whole path.
+     *
+     * @param edges  the edges.
+     * @param offset index of the first edge.
+     * @param count  number of edges.
+     * @param style  the brush.
+     * @param mode   paint mode.
+     */
+    void fillEdges(int[] edges, int offset, int count, BrushFP style, int mode) {
+        if (count > scanbuf.length) {
+            int bufSize = (count + BUFFERSIZE - 1) / BUFFERSIZE * BUFFERSIZE;
+            scanbuf = new int[bufSize];
+            scanbuf_tmp = new int[bufSize];
+        }
+        System.arraycopy(edges, offset, scanbuf, 0, count);
+        scanIndex = count;
+        drawMode = mode;
+        radixSort(scanbuf, scanbuf_tmp, scanIndex);
+        fillStyle = style;
+        drawBuffer();
+        fillStyle = null;
+    }
+
+
+    /**
+     * Draws into the pixel buffer of another renderer.
+     *
+     * @param target the renderer owning the pixel buffer.
+     */
+    void setTarget(GraphicsPathRendererFP target) {
+        buffer = target.buffer;
+        width = target.width;
+        height = target.height;
+    }
+
+
+    /**
+     * Renders coverage into the alpha mask instead of pixels, or back into
+     * pixels when the mask is null. No brush is needed while a mask is set.
+     *
+     * @param mask the mask.
+     */
+    void setMask(AlphaMaskFP mask) {
+        if (mask != null) {
+            this.mask = mask.alpha;
+            width = mask.getWidth();
+            height = mask.getHeight();
+            setClip(0, 0, width, height);
+        } else {
+            this.mask = null;
+        }
+    }
+
+
+    /**
+     * Merges a color through an alpha mask, each pixel is merged the same
+     * way as a pixel of a path filled with the color and the coverage kept
+     * in the mask.
+     *
+     * @param mask  the mask.
+     * @param x     x of the top left of the mask.
+     * @param y     y of the top left of the mask.
+     * @param color the color.
+     */
+    void drawMask(AlphaMaskFP mask, int x, int y, int color) {
+        byte[] alpha = mask.alpha;
+        int maskWidth = mask.getWidth();
+        int xmin = MathFP.max(MathFP.max(x, clipX), 0);
+        int xmax = MathFP.min(MathFP.min(x + maskWidth - 1, clipX + clipWidth),
+                width - 1);
+        int ymin = MathFP.max(MathFP.max(y, clipY), 0);
+        int ymax = MathFP.min(MathFP.min(y + mask.getHeight() - 1,
+                clipY + clipHeight), height - 1);
+        int[] buffer = this.buffer;
+        int colorAlpha = (color >> 24) & 0xFF;
+        int rgb = color & 0xFFFFFF;
+        for (int py = ymin; py <= ymax; py++) {
+            int src = xmin - x + (py - y) * maskWidth;
+            int lastOpacity = 0;
+            int lastBackColor = 0;
+            int lastMergedColor = 0;
+            for (int i = xmin + py * width, n = xmax + py * width; i <= n; i++, src++) {
+                int opacity = alpha[src] & 0xFF;
+                if (opacity != 0) {
+                    int bkColor = buffer[i];
+                    if (opacity != lastOpacity || bkColor != lastBackColor) {
+                        lastOpacity = opacity;
+                        lastBackColor = bkColor;
+                        lastMergedColor = merge(bkColor,
+                                ((colorAlpha * opacity) >> 8) << 24 | rgb);
+                    }
+                    buffer[i] = lastMergedColor;
+                }
+            }
+        }
+    }
+
+
     /**
      * @param width
      * @param height
@@ -145,25 +284,28 @@ class GraphicsPathRendererFP extends GraphicsPathSketchFP {
      */
     public void finalizeBuffer(int color) {
         backGroundColor = color;
-        ColorFP bk = ColorFP.fromArgb(color);
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (clipContains(x, y)) {
-                    ColorFP c = ColorFP.fromArgb(buffer[x + y * width]);
-                    if (c.alpha != 0x00) {
-                        if (c.alpha != 0xFF) {
-
-                            buffer[x + y * width] = ColorFP.fromArgb(
-                                    (c.red * c.alpha +
-                                            (0xFF - c.alpha) * bk.red) >> 8,
-                                    (c.green * c.alpha
-                                            + (0xFF - c.alpha) * bk.green) >> 8,
-                                    (c.blue * c.alpha
-                                            + (0xFF - c.alpha) * bk.blue) >> 8).value;
-                        }
-                    } else {
-                        buffer[x + y * width] = color;
+        int bkRed = (color >> 16) & 0xFF;
+        int bkGreen = (color >> 8) & 0xFF;
+        int bkBlue = color & 0xFF;
+        int xmin = MathFP.max(0, clipX);
+        int xmax = MathFP.min(width - 1, clipX + clipWidth);
+        int ymin = MathFP.max(0, clipY);
+        int ymax = MathFP.min(height - 1, clipY + clipHeight);
+        int[] buffer = this.buffer;
+        for (int y = ymin; y <= ymax; y++) {
+            for (int i = xmin + y * width, n = xmax + y * width; i <= n; i++) {
+                int c = buffer[i];
+                int alpha = (c >> 24) & 0xFF;
+                if (alpha != 0x00) {
+                    if (alpha != 0xFF) {
+                        int beta = 0xFF - alpha;
+                        int red = (((c >> 16) & 0xFF) * alpha + beta * bkRed) >> 8;
+                        int green = (((c >> 8) & 0xFF) * alpha + beta * bkGreen) >> 8;
+                        int blue = ((c & 0xFF) * alpha + beta * bkBlue) >> 8;
+                        buffer[i] = red << 16 | green << 8 | blue;
                     }
+                } else {
+                    buffer[i] = color;
                 }
             }
         }
@@ -174,7 +316,7 @@ class GraphicsPathRendererFP extends GraphicsPathSketchFP {
      * @param point
      */
     public void moveTo(PointFP point) {
-        transformedPoint = new PointFP(point);
+        transformedPoint.reset(point);
         if (transformMatrix != null) {
             transformedPoint.transform(transformMatrix);
         }
@@ -186,7 +328,7 @@ class GraphicsPathRendererFP extends GraphicsPathSketchFP {
      * @param point
      */
     public void lineTo(PointFP point) {
-        PointFP pntTemp = new PointFP(point);
+        PointFP pntTemp = nextPoint.reset(point);
 
         ff_xmin = MathFP.min(ff_xmin, currentPoint().x);
         ff_xmax = MathFP.max(ff_xmax, point.x);
@@ -198,6 +340,7 @@ class GraphicsPathRendererFP extends GraphicsPathSketchFP {
         }
 
         scanline(transformedPoint.x, transformedPoint.y, pntTemp.x, pntTemp.y);
+        nextPoint = transformedPoint;
         transformedPoint = pntTemp;
         super.lineTo(point);
     }
@@ -222,18 +365,6 @@ class GraphicsPathRendererFP extends GraphicsPathSketchFP {
     }
 
 
-    /**
-     * Check to see if this rectangle contains given point.
-     *
-     * @param x
-     * @return
-     */
-    private boolean clipContains(int x, int y) {
-        return clipX <= x && x <= clipX + clipWidth
-                && clipY <= y && y <= clipY + clipHeight;
-    }
-
-
     int[] buffer = null;
     int backGroundColor = 0x00FFFFFF;
     private final static int RENDERER_FRAC_Y = 4;
@@ -247,11 +378,19 @@ class GraphicsPathRendererFP extends GraphicsPathSketchFP {
     private final static int RENDERER_FRAC_X_MASK = (1 << RENDERER_FRAC_X) - 1;
     private MatrixFP transformMatrix = null;
     private BrushFP fillStyle = null;
-    private static int[] scanbuf = null;
-    private static int[] scanbuf_tmp = null;
-    private static int[] counts = new int[256];
-    private static int[] index = new int[256];
-    private PointFP transformedPoint;
+    // edge buffers of this renderer, renderers are independent of each other
+    // and can rasterize on different threads.
+    private int[] scanbuf = null;
+    private int[] scanbuf_tmp = null;
+    private final int[] counts = new int[256];
+    private final int[] index = new int[256];
+    // the last point and the next point in device space, swapped by lineTo.
+    private PointFP transformedPoint = new PointFP();
+    private PointFP nextPoint = new PointFP();
+    // coverage target of setMask, pixels are not touched while it is set.
+    private byte[] mask;
+    // colors of the span being merged for brushes which are not mono color.
+    private int[] spanColors = new int[0];
     private int width = 0;
     private int height = 0;
     private int drawMode = MODE_XOR;
@@ -266,11 +405,13 @@ class GraphicsPathRendererFP extends GraphicsPathSketchFP {
     int clipWidth = 0;
     int clipHeight = 0;
 
-    private static void radixSort(int[] data_src, int[] data_tmp, int num) {
+    private void radixSort(int[] data_src, int[] data_tmp, int num) {
         int shift, i;
         int[] src = data_src;
         int[] dst = data_tmp;
         int[] tmp;
+        int[] counts = this.counts;
+        int[] index = this.index;
         for (shift = 0; shift <= 24; shift += 8) {
             for (i = 0; i < 256; i++) {
                 counts[i] = 0;
@@ -396,19 +537,7 @@ class GraphicsPathRendererFP extends GraphicsPathSketchFP {
         for (int y = ymin; y < ymax; y++) {
             if (y >= 0) {
                 if (scanIndex >= scanbuf.length) {
-                    int bufSize = scanIndex / BUFFERSIZE;
-                    if ((scanIndex + 1) % BUFFERSIZE != 0) {
-                        bufSize += 1;
-                    }
-                    scanbuf_tmp = new int[bufSize * BUFFERSIZE];
-                    System.arraycopy(scanbuf, 0, scanbuf_tmp, 0, scanIndex);
-                    scanbuf = new int[bufSize * BUFFERSIZE];
-
-
-                    System.arraycopy(scanbuf_tmp, 0, scanbuf, 0, scanIndex);
-                    System.gc();
-                    System.gc();
-
+                    growScanBuffer();
                 }
                 scanbuf[scanIndex++] = ((y / RENDERER_FRAC_Y)
                         << (RENDERER_REAL_X + RENDERER_FRAC_X + 1))
@@ -426,6 +555,19 @@ class GraphicsPathRendererFP extends GraphicsPathSketchFP {
     }
 
 
+    /**
+     * Doubles the edge buffers, rounded up to a multiple of BUFFERSIZE. The
+     * buffers are kept for the next paths drawn by this renderer.
+     */
+    private void growScanBuffer() {
+        int bufSize = (scanbuf.length * 2 + BUFFERSIZE - 1) / BUFFERSIZE * BUFFERSIZE;
+        int[] newBuffer = new int[bufSize];
+        System.arraycopy(scanbuf, 0, newBuffer, 0, scanIndex);
+        scanbuf = newBuffer;
+        scanbuf_tmp = new int[bufSize];
+    }
+
+
     /**
      * @param x
      * @param y
@@ -433,34 +575,51 @@ class GraphicsPathRendererFP extends GraphicsPathSketchFP {
      * @param opacity
      */
     private void mergePixels(int x, int y, int count, int opacity) {
-        boolean isMonoColor = fillStyle.isMonoColor();
-        int color = 0;
-        if (isMonoColor) {
-            color = fillStyle.getNextColor();
+        if (y < clipY || y > clipY + clipHeight) {
+            return;
+        }
+        int start = MathFP.max(x, clipX);
+        int end = MathFP.min(x + count, clipX + clipWidth + 1);
+        if (start >= end) {
+            return;
+        }
+        int offset = y * width;
+        if (mask != null) {
+            for (int i = start + offset, n = end + offset; i < n; i++) {
+                mask[i] = (byte) opacity;
+            }
+            return;
+        }
+        int[] buffer = this.buffer;
+        if (fillStyle.isMonoColor()) {
+            int color = fillStyle.getNextColor();
             color = ((((color >> 24) & 0xFF) * opacity) >> 8)
                     << 24 | color & 0xFFFFFF;
-        }
-        int lastBackColor = 0;
-        int lastMergedColor = 0;
-        for (int i = 0; i < count; i++) {
-            if (clipContains(x + i, y)) {
-                int bkColor = buffer[x + i + y * width];
-                if (!isMonoColor) {
-                    color = i == 0 ? fillStyle.getColorAt(x + i, y, count == 1)
-                            : fillStyle.getNextColor();
-                    if (opacity != 0xFF) {
-                        color = ((((color >> 24) & 0xFF) * opacity) >> 8)
-                                << 24 | color & 0xFFFFFF;
-                    }
+            // runs of the same background give the same merged color.
+            int bkColor = buffer[start + offset];
+            int mergedColor = merge(bkColor, color);
+            for (int i = start + offset, n = end + offset; i < n; i++) {
+                int c = buffer[i];
+                if (c != bkColor) {
+                    bkColor = c;
+                    mergedColor = merge(c, color);
                 }
-                if (lastBackColor == bkColor && isMonoColor) {
-                    buffer[x + i + y * width] = lastMergedColor;
-
-                } else {
-                    buffer[x + i + y * width] = merge(bkColor, color);
-                    lastBackColor = bkColor;
-                    lastMergedColor = buffer[x + i + y * width];
+                buffer[i] = mergedColor;
+            }
+        } else {
+            int n = end - start;
+            int[] colors = spanColors;
+            if (colors.length < n) {
+                colors = spanColors = new int[MathFP.max(n, width)];
+            }
+            fillStyle.getColors(start, y, colors, n);
+            for (int i = 0, j = start + offset; i < n; i++, j++) {
+                int color = colors[i];
+                if (opacity != 0xFF) {
+                    color = ((((color >> 24) & 0xFF) * opacity) >> 8)
+                            << 24 | color & 0xFFFFFF;
                 }
+                buffer[j] = merge(buffer[j], color);
             }
         }
     }
@@ -98,12 +98,12 @@ public class GraphicsPathSketchFP implements IGraphicsPathIteratorFP {
         // Compute forward difference values for a quadratic
         // curve of type A*(1-t)^2 + 2*B*t*(1-t) + C*t^2
 
-        PointFP f = new PointFP(currPoint);
-        PointFP tmp = new PointFP((currPoint.x - control.x * 2 + point.x)
+        PointFP f = this.f.reset(currPoint);
+        PointFP tmp = tmp1.reset((currPoint.x - control.x * 2 + point.x)
                 / SUBDIVIDE2, (currPoint.y - control.y * 2 + point.y)
                 / SUBDIVIDE2);
-        PointFP ddf = new PointFP(tmp.x * 2, tmp.y * 2);
-        PointFP df = new PointFP(tmp.x + (control.x - currPoint.x) * 2
+        PointFP ddf = this.ddf.reset(tmp.x * 2, tmp.y * 2);
+        PointFP df = this.df.reset(tmp.x + (control.x - currPoint.x) * 2
                 / SUBDIVIDE, tmp.y + (control.y - currPoint.y) * 2 / SUBDIVIDE);
 
         for (int c = 0; c < SUBDIVIDE - 1; c++) {
@@ -123,19 +123,19 @@ public class GraphicsPathSketchFP implements IGraphicsPathIteratorFP {
      * @inheritDoc
      */
     public void curveTo(PointFP control1, PointFP control2, PointFP point) {
-        PointFP tmp1 = new PointFP(currPoint.x - control1.x * 2 + control2.x,
+        PointFP tmp1 = this.tmp1.reset(currPoint.x - control1.x * 2 + control2.x,
                 currPoint.y - control1.y * 2 + control2.y);
-        PointFP tmp2 = new PointFP((control1.x - control2.x) * 3 - currPoint.x
+        PointFP tmp2 = this.tmp2.reset((control1.x - control2.x) * 3 - currPoint.x
                 + point.x, (control1.y - control2.y) * 3 - currPoint.y + point.y);
 
-        PointFP f = new PointFP(currPoint);
-        PointFP df = new PointFP((control1.x - currPoint.x) * 3 / SUBDIVIDE
+        PointFP f = this.f.reset(currPoint);
+        PointFP df = this.df.reset((control1.x - currPoint.x) * 3 / SUBDIVIDE
                 + tmp1.x * 3 / SUBDIVIDE2 + tmp2.x / SUBDIVIDE3,
                 (control1.y - currPoint.y) * 3 / SUBDIVIDE + tmp1.y * 3
                         / SUBDIVIDE2 + tmp2.y / SUBDIVIDE3);
-        PointFP ddf = new PointFP(tmp1.x * 6 / SUBDIVIDE2 + tmp2.x * 6
+        PointFP ddf = this.ddf.reset(tmp1.x * 6 / SUBDIVIDE2 + tmp2.x * 6
                 / SUBDIVIDE3, tmp1.y * 6 / SUBDIVIDE2 + tmp2.y * 6 / SUBDIVIDE3);
-        PointFP dddf = new PointFP(tmp2.x * 6
+        PointFP dddf = this.dddf.reset(tmp2.x * 6
                 / SUBDIVIDE3, tmp2.y * 6 / SUBDIVIDE3);
 
         for (int c = 0; c < SUBDIVIDE - 1; c++) {
@@ -164,4 +164,11 @@ public class GraphicsPathSketchFP implements IGraphicsPathIteratorFP {
     protected final PointFP startPoint = new PointFP();
     protected final PointFP currPoint = new PointFP();
     protected boolean started;
+    // forward difference state of the curve being flattened.
+    private final PointFP f = new PointFP();
+    private final PointFP df = new PointFP();
+    private final PointFP ddf = new PointFP();
+    private final PointFP dddf = new PointFP();
+    private final PointFP tmp1 = new PointFP();
+    private final PointFP tmp2 = new PointFP();
 }
\ No newline at end of file
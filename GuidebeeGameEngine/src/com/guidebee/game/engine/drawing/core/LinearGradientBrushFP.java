@@ -135,12 +135,11 @@ public class LinearGradientBrushFP extends BrushFP {
      * @inheritDoc
      */
     public int getColorAt(int x, int y, boolean singlePoint) {
-        int pos;
-        PointFP p = new PointFP(x << SingleFP.DECIMAL_BITS,
+        PointFP p = this.p.reset(x << SingleFP.DECIMAL_BITS,
                 y << SingleFP.DECIMAL_BITS);
         PointFP p1 = null;
         if (!singlePoint) {
-            p1 = new PointFP(p.x + SingleFP.ONE, p.y);
+            p1 = this.p1.reset(p.x + SingleFP.ONE, p.y);
         }
         if (finalMatrix != null) {
             p.transform(finalMatrix);
@@ -156,25 +155,7 @@ public class LinearGradientBrushFP extends BrushFP {
             ff_deltapos = (int) (((long) (p1.x - p.x)
                     << RATIO_BITS + SingleFP.DECIMAL_BITS) / ff_length);
         }
-        pos = ff_currpos >> SingleFP.DECIMAL_BITS;
-        pos -= 512;
-
-        switch (fillMode) {
-            case REFLECT:
-                pos = pos % (RATIO_MAX * 2);
-                pos = pos < 0 ? pos + RATIO_MAX * 2 : pos;
-                pos = (pos < RATIO_MAX) ? pos : RATIO_MAX * 2 - pos;
-                break;
-            case REPEAT:
-                pos = pos % RATIO_MAX;
-                pos = pos < 0 ? pos + RATIO_MAX : pos;
-                break;
-            case NO_CYCLE:
-                pos = pos < 0 ? 0 : (pos > RATIO_MAX ? RATIO_MAX : pos);
-                break;
-        }
-
-        return gradientColors[pos];
+        return colorAt(ff_currpos);
     }
 
 
@@ -184,8 +165,30 @@ public class LinearGradientBrushFP extends BrushFP {
      */
     public int getNextColor() {
         ff_currpos += ff_deltapos;
-        int pos = ff_currpos >> SingleFP.DECIMAL_BITS;
+        return colorAt(ff_currpos);
+    }
+
+
+    /**
+     * @inheritDoc
+     */
+    public void getColors(int x, int y, int[] colors, int count) {
+        colors[0] = getColorAt(x, y, count == 1);
+        int ff_pos = ff_currpos;
+        int ff_delta = ff_deltapos;
+        for (int i = 1; i < count; i++) {
+            ff_pos += ff_delta;
+            colors[i] = colorAt(ff_pos);
+        }
+        ff_currpos = ff_pos;
+    }
 
+
+    /**
+     * Get the gradient color at given position along the gradient.
+     */
+    private int colorAt(int ff_pos) {
+        int pos = ff_pos >> SingleFP.DECIMAL_BITS;
         pos -= 512;
 
         switch (fillMode) {
@@ -214,6 +217,8 @@ public class LinearGradientBrushFP extends BrushFP {
     private int ff_length;
     private int ff_currpos;
     private int ff_deltapos;
+    private final PointFP p = new PointFP();
+    private final PointFP p1 = new PointFP();
     protected PointFP centerPt = new PointFP();
     protected RectangleFP bounds = new RectangleFP();
 
@@ -124,37 +124,9 @@ public class RadialGradientBrushFP extends BrushFP {
      * @inheritDoc
      */
     public int getColorAt(int x, int y, boolean singlePoint) {
-        int pos;
-        PointFP p = new PointFP(x << SingleFP.DECIMAL_BITS,
-                y << SingleFP.DECIMAL_BITS);
-        nextPt.x = p.x + SingleFP.ONE;
-        nextPt.y = p.y;
-        PointFP newCenterPt = new PointFP(centerPt);
-        if (finalMatrix != null) {
-            p.transform(finalMatrix);
-            //newCenterPt.transform(finalMatrix);
-
-        }
-        ff_currpos = MathFP.div(PointFP.distance(p.x - newCenterPt.x,
-                p.y - newCenterPt.y), ff_radius);
-        pos = ff_currpos >> SingleFP.DECIMAL_BITS - RATIO_BITS;
-
-        switch (fillMode) {
-            case REFLECT:
-                pos = pos % (RATIO_MAX * 2);
-                pos = pos < 0 ? pos + RATIO_MAX * 2 : pos;
-                pos = (pos < RATIO_MAX) ? pos : RATIO_MAX * 2 - pos;
-                break;
-            case REPEAT:
-                pos = pos % RATIO_MAX;
-                pos = pos < 0 ? pos + RATIO_MAX : pos;
-                break;
-            case NO_CYCLE:
-                pos = pos < 0 ? 0 : (pos > RATIO_MAX ? RATIO_MAX : pos);
-                break;
-        }
-
-        return gradientColors[pos];
+        nextPt.x = (x << SingleFP.DECIMAL_BITS) + SingleFP.ONE;
+        nextPt.y = y << SingleFP.DECIMAL_BITS;
+        return colorAt(x << SingleFP.DECIMAL_BITS, y << SingleFP.DECIMAL_BITS);
     }
 
 
@@ -163,19 +135,38 @@ public class RadialGradientBrushFP extends BrushFP {
      * @inheritDoc
      */
     public int getNextColor() {
-        int pos;
-        PointFP p = new PointFP(nextPt);
-        nextPt.x = p.x + SingleFP.ONE;
-        nextPt.y = p.y;
-        PointFP newCenterPt = new PointFP(centerPt);
+        int ff_x = nextPt.x;
+        nextPt.x = ff_x + SingleFP.ONE;
+        return colorAt(ff_x, nextPt.y);
+    }
+
+
+    /**
+     * @inheritDoc
+     */
+    public void getColors(int x, int y, int[] colors, int count) {
+        int ff_x = x << SingleFP.DECIMAL_BITS;
+        int ff_y = y << SingleFP.DECIMAL_BITS;
+        for (int i = 0; i < count; i++) {
+            colors[i] = colorAt(ff_x, ff_y);
+            ff_x += SingleFP.ONE;
+        }
+        nextPt.x = ff_x;
+        nextPt.y = ff_y;
+    }
+
+
+    /**
+     * Get the gradient color at given point.
+     */
+    private int colorAt(int ff_x, int ff_y) {
+        PointFP p = this.p.reset(ff_x, ff_y);
         if (finalMatrix != null) {
             p.transform(finalMatrix);
-            //newCenterPt.transform(finalMatrix);
-
         }
-        ff_currpos = MathFP.div(PointFP.distance(p.x - newCenterPt.x,
-                p.y - newCenterPt.y), ff_radius);
-        pos = ff_currpos >> SingleFP.DECIMAL_BITS - RATIO_BITS;
+        ff_currpos = MathFP.div(PointFP.distance(p.x - centerPt.x,
+                p.y - centerPt.y), ff_radius);
+        int pos = ff_currpos >> SingleFP.DECIMAL_BITS - RATIO_BITS;
 
         switch (fillMode) {
             case REFLECT:
@@ -205,6 +196,7 @@ public class RadialGradientBrushFP extends BrushFP {
     private int ff_currpos;
     protected PointFP centerPt = new PointFP();
     private final PointFP nextPt = new PointFP(0, 0);
+    private final PointFP p = new PointFP();
 
 
     /**
@@ -58,21 +58,9 @@ public final class TextureBrushFP extends BrushFP {
      * @inheritDoc
      */
     public int getColorAt(int x, int y, boolean singlePoint) {
-        PointFP p = new PointFP(x << SingleFP.DECIMAL_BITS,
-                y << SingleFP.DECIMAL_BITS);
-        nextPt.x = p.x + SingleFP.ONE;
-        nextPt.y = p.y;
-        if (finalMatrix != null) {
-            p.transform(finalMatrix);
-
-        }
-        int xPos = (p.x >> SingleFP.DECIMAL_BITS) % width;
-        int yPos = (p.y >> SingleFP.DECIMAL_BITS) % height;
-
-        if (xPos < 0) xPos += width;
-        if (yPos < 0) yPos += height;
-
-        return textureBuffer[(xPos + yPos * width)];
+        nextPt.x = (x << SingleFP.DECIMAL_BITS) + SingleFP.ONE;
+        nextPt.y = y << SingleFP.DECIMAL_BITS;
+        return colorAt(x << SingleFP.DECIMAL_BITS, y << SingleFP.DECIMAL_BITS);
     }
 
 
@@ -81,11 +69,32 @@ public final class TextureBrushFP extends BrushFP {
      * @inheritDoc
      */
     public int getNextColor() {
-        PointFP p = new PointFP(nextPt);
+        int ff_x = nextPt.x;
+        nextPt.x = ff_x + SingleFP.ONE;
+        return colorAt(ff_x, nextPt.y);
+    }
 
-        nextPt.x += SingleFP.ONE;
-        nextPt.y = p.y;
 
+    /**
+     * @inheritDoc
+     */
+    public void getColors(int x, int y, int[] colors, int count) {
+        int ff_x = x << SingleFP.DECIMAL_BITS;
+        int ff_y = y << SingleFP.DECIMAL_BITS;
+        for (int i = 0; i < count; i++) {
+            colors[i] = colorAt(ff_x, ff_y);
+            ff_x += SingleFP.ONE;
+        }
+        nextPt.x = ff_x;
+        nextPt.y = ff_y;
+    }
+
+
+    /**
+     * Get the texture color at given point.
+     */
+    private int colorAt(int ff_x, int ff_y) {
+        PointFP p = this.p.reset(ff_x, ff_y);
         if (finalMatrix != null) {
             p.transform(finalMatrix);
 
@@ -119,4 +128,9 @@ public final class TextureBrushFP extends BrushFP {
      * next point position.
      */
     private final PointFP nextPt = new PointFP(0, 0);
+
+    /**
+     * the pixel being looked up.
+     */
+    private final PointFP p = new PointFP();
 }
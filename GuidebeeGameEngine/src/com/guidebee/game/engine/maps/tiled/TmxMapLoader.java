@@ -83,6 +83,11 @@ public class TmxMapLoader
          * to the equivalent in tile space. *
          */
         public boolean convertObjectToTileSpace = false;
+        /**
+         * Whether to store tile layers packed, one int per cell instead of
+         * one cell object. *
+         */
+        public boolean packTileLayers = false;
     }
 
     protected static final int FLAG_FLIP_HORIZONTALLY = 0x80000000;
@@ -93,6 +98,7 @@ public class TmxMapLoader
     protected XmlReader xml = new XmlReader();
     protected XmlReader.Element root;
     protected boolean convertObjectToTileSpace;
+    protected boolean packTileLayers;
 
     protected int mapTileWidth;
     protected int mapTileHeight;
@@ -140,6 +146,7 @@ public class TmxMapLoader
     public TiledMap load(String fileName, TmxMapLoader.Parameters parameters) {
         try {
             this.convertObjectToTileSpace = parameters.convertObjectToTileSpace;
+            this.packTileLayers = parameters.packTileLayers;
             FileHandle tmxFile = resolve(fileName);
             root = xml.parse(tmxFile);
             ObjectMap<String, Texture> textures = new ObjectMap<String, Texture>();
@@ -165,8 +172,10 @@ public class TmxMapLoader
 
         if (parameter != null) {
             convertObjectToTileSpace = parameter.convertObjectToTileSpace;
+            packTileLayers = parameter.packTileLayers;
         } else {
             convertObjectToTileSpace = false;
+            packTileLayers = false;
         }
         try {
             map = loadTilemap(root, tmxFile, new AssetManagerImageResolver(manager));
@@ -478,26 +487,33 @@ public class TmxMapLoader
             int tileHeight = element.getParent().getIntAttribute("tileheight", 0);
             boolean visible = element.getIntAttribute("visible", 1) == 1;
             float opacity = element.getFloatAttribute("opacity", 1.0f);
-            TiledMapTileLayer layer = new TiledMapTileLayer(width, height, tileWidth, tileHeight);
+            TiledMapTileLayer layer = packTileLayers
+                    ? new TiledMapTileLayer(width, height, tileWidth, tileHeight,
+                    map.getTileSets())
+                    : new TiledMapTileLayer(width, height, tileWidth, tileHeight);
             layer.setVisible(visible);
             layer.setOpacity(opacity);
             layer.setName(name);
 
-            int[] ids = TmxMapHelper.getTileIds(element, width, height);
-            TiledMapTileSets tilesets = map.getTileSets();
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    int id = ids[y * width + x];
-                    boolean flipHorizontally = ((id & FLAG_FLIP_HORIZONTALLY) != 0);
-                    boolean flipVertically = ((id & FLAG_FLIP_VERTICALLY) != 0);
-                    boolean flipDiagonally = ((id & FLAG_FLIP_DIAGONALLY) != 0);
-
-                    TiledMapTile tile = tilesets.getTile(id & ~MASK_CLEAR);
-                    if (tile != null) {
-                        TiledMapTileLayer.Cell cell = createTileLayerCell(flipHorizontally,
-                                flipVertically, flipDiagonally);
-                        cell.setTile(tile);
-                        layer.setCell(x, height - 1 - y, cell);
+            if (packTileLayers) {
+                TmxMapHelper.loadPackedCells(layer, element, width, height);
+            } else {
+                int[] ids = TmxMapHelper.getTileIds(element, width, height);
+                TiledMapTileSets tilesets = map.getTileSets();
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        int id = ids[y * width + x];
+                        boolean flipHorizontally = ((id & FLAG_FLIP_HORIZONTALLY) != 0);
+                        boolean flipVertically = ((id & FLAG_FLIP_VERTICALLY) != 0);
+                        boolean flipDiagonally = ((id & FLAG_FLIP_DIAGONALLY) != 0);
+
+                        TiledMapTile tile = tilesets.getTile(id & ~MASK_CLEAR);
+                        if (tile != null) {
+                            TiledMapTileLayer.Cell cell = createTileLayerCell(flipHorizontally,
+                                    flipVertically, flipDiagonally);
+                            cell.setTile(tile);
+                            layer.setCell(x, height - 1 - y, cell);
+                        }
                     }
                 }
             }
@@ -544,24 +560,14 @@ public class TmxMapLoader
             if (element.getChildCount() > 0) {
                 XmlReader.Element child = null;
                 if ((child = element.getChildByName("polygon")) != null) {
-                    String[] points = child.getAttribute("points").split(" ");
-                    float[] vertices = new float[points.length * 2];
-                    for (int i = 0; i < points.length; i++) {
-                        String[] point = points[i].split(",");
-                        vertices[i * 2] = Float.parseFloat(point[0]) * scaleX;
-                        vertices[i * 2 + 1] = -Float.parseFloat(point[1]) * scaleY;
-                    }
+                    float[] vertices = TmxMapHelper.getPoints(child.getAttribute("points"),
+                            scaleX, scaleY);
                     Polygon polygon = new Polygon(vertices);
                     polygon.setPosition(x, y);
                     object = new PolygonMapObject(polygon);
                 } else if ((child = element.getChildByName("polyline")) != null) {
-                    String[] points = child.getAttribute("points").split(" ");
-                    float[] vertices = new float[points.length * 2];
-                    for (int i = 0; i < points.length; i++) {
-                        String[] point = points[i].split(",");
-                        vertices[i * 2] = Float.parseFloat(point[0]) * scaleX;
-                        vertices[i * 2 + 1] = -Float.parseFloat(point[1]) * scaleY;
-                    }
+                    float[] vertices = TmxMapHelper.getPoints(child.getAttribute("points"),
+                            scaleX, scaleY);
                     Polyline polyline = new Polyline(vertices);
                     polyline.setPosition(x, y);
                     object = new PolylineMapObject(polyline);
@@ -19,6 +19,7 @@ package com.guidebee.game.engine.maps.tiled.renderers;
 //--------------------------------- IMPORTS ------------------------------------
 
 import com.guidebee.game.GameEngine;
+import com.guidebee.game.GameEngineRuntimeException;
 import com.guidebee.game.camera.OrthographicCamera;
 import com.guidebee.game.engine.graphics.opengles.IGL20;
 import com.guidebee.game.engine.maps.tiled.TiledMapRenderer;
@@ -32,6 +33,10 @@ import com.guidebee.game.maps.tiled.TiledMapTileLayer;
 import com.guidebee.math.Matrix4;
 import com.guidebee.math.geometry.Rectangle;
 import com.guidebee.utils.Disposable;
+import com.guidebee.utils.collections.Array;
+import com.guidebee.utils.collections.IntArray;
+import com.guidebee.utils.collections.LongMap;
+import com.guidebee.utils.collections.ObjectIntMap;
 
 //[------------------------------ MAIN CLASS ----------------------------------]
 
@@ -43,12 +48,14 @@ import com.guidebee.utils.Disposable;
  * <p/>
  * This class may have poor performance when tiles are often changed
  * dynamically, since the cache must be rebuilt after each
- * change.
+ * change. With {@link #setChunkSize(int)} the tile layers are cached in
+ * chunks instead, and only new or changed chunks are rebuilt.
  *
  * @author Justin Shapcott
  * @author Nathan Sweet
  */
-public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable {
+public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable,
+        TiledMapTileLayer.CellListener {
     static private final float tolerance = 0.00001f;
 
     protected final TiledMap map;
@@ -66,6 +73,24 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
     protected int count;
     protected boolean canCacheMoreN, canCacheMoreE, canCacheMoreW, canCacheMoreS;
 
+    protected final int cacheSize;
+    protected int chunkSize;
+    protected int maxChunks;
+    protected final LongMap<Chunk> chunks = new LongMap<Chunk>();
+    protected final IntArray freeSlots = new IntArray();
+    private final Array<Chunk> visibleChunks = new Array<Chunk>(false, 64);
+    /**
+     * Ids of the tile layers in the chunk keys, so the keys stay valid when
+     * layers are added, removed or moved.
+     */
+    private final ObjectIntMap<TiledMapTileLayer> layerIds = new ObjectIntMap<TiledMapTileLayer>();
+    private int nextLayerId;
+    // range of the chunks in view of the last findVisibleChunks, inclusive.
+    private int chunkX1, chunkX2, chunkY1, chunkY2;
+    private boolean slotsCreated;
+    private long frame;
+    private int chunksBuilt;
+
     /**
      * Creates a renderer with a unit scale of 1 and cache size of 2000.
      */
@@ -86,6 +111,7 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
     public OrthoCachedTiledMapRenderer(TiledMap map, float unitScale, int cacheSize) {
         this.map = map;
         this.unitScale = unitScale;
+        this.cacheSize = cacheSize;
         spriteCache = new SpriteCache(cacheSize, true);
     }
 
@@ -132,6 +158,10 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 
     @Override
     public void render() {
+        if (chunkSize > 0) {
+            renderChunks(null);
+            return;
+        }
         if (!cached) {
             cached = true;
             count = 0;
@@ -174,6 +204,10 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 
     @Override
     public void render(int[] layers) {
+        if (chunkSize > 0) {
+            renderChunks(layers);
+            return;
+        }
         if (!cached) {
             cached = true;
             count = 0;
@@ -241,125 +275,387 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
         canCacheMoreW = col1 > 0;
         canCacheMoreS = row1 > 0;
 
-        float[] vertices = this.vertices;
         for (int row = row2; row >= row1; row--) {
             for (int col = col1; col < col2; col++) {
-                final TiledMapTileLayer.Cell cell = layer.getCell(col, row);
-                if (cell == null) continue;
-
-                final TiledMapTile tile = cell.getTile();
-                if (tile == null) continue;
-
-                count++;
-                final boolean flipX = cell.getFlipHorizontally();
-                final boolean flipY = cell.getFlipVertically();
-                final int rotations = cell.getRotation();
-
-                final TextureRegion region = tile.getTextureRegion();
-                final Texture texture = region.getTexture();
-
-                final float x1 = col * layerTileWidth + tile.getOffsetX() * unitScale;
-                final float y1 = row * layerTileHeight + tile.getOffsetY() * unitScale;
-                final float x2 = x1 + region.getRegionWidth() * unitScale;
-                final float y2 = y1 + region.getRegionHeight() * unitScale;
-
-                final float adjustX = 0.5f / texture.getWidth();
-                final float adjustY = 0.5f / texture.getHeight();
-                final float u1 = region.getU() + adjustX;
-                final float v1 = region.getV2() - adjustY;
-                final float u2 = region.getU2() - adjustX;
-                final float v2 = region.getV() + adjustY;
-
-                vertices[Batch.X1] = x1;
-                vertices[Batch.Y1] = y1;
-                vertices[Batch.C1] = color;
-                vertices[Batch.U1] = u1;
-                vertices[Batch.V1] = v1;
-
-                vertices[Batch.X2] = x1;
-                vertices[Batch.Y2] = y2;
-                vertices[Batch.C2] = color;
-                vertices[Batch.U2] = u1;
-                vertices[Batch.V2] = v2;
-
-                vertices[Batch.X3] = x2;
-                vertices[Batch.Y3] = y2;
-                vertices[Batch.C3] = color;
-                vertices[Batch.U3] = u2;
-                vertices[Batch.V3] = v2;
-
-                vertices[Batch.X4] = x2;
-                vertices[Batch.Y4] = y1;
-                vertices[Batch.C4] = color;
-                vertices[Batch.U4] = u2;
-                vertices[Batch.V4] = v1;
-
-                if (flipX) {
-                    float temp = vertices[Batch.U1];
+                addCell(layer, col, row, color, layerTileWidth, layerTileHeight);
+            }
+        }
+    }
+
+    /**
+     * Adds the tile of a cell to the cache being defined.
+     */
+    protected void addCell(TiledMapTileLayer layer, int col, int row, float color,
+                           float layerTileWidth, float layerTileHeight) {
+        final float[] vertices = this.vertices;
+        final TiledMapTileLayer.Cell cell = layer.getCell(col, row);
+        if (cell == null) return;
+
+        final TiledMapTile tile = cell.getTile();
+        if (tile == null) return;
+
+        count++;
+        final boolean flipX = cell.getFlipHorizontally();
+        final boolean flipY = cell.getFlipVertically();
+        final int rotations = cell.getRotation();
+
+        final TextureRegion region = tile.getTextureRegion();
+        final Texture texture = region.getTexture();
+
+        final float x1 = col * layerTileWidth + tile.getOffsetX() * unitScale;
+        final float y1 = row * layerTileHeight + tile.getOffsetY() * unitScale;
+        final float x2 = x1 + region.getRegionWidth() * unitScale;
+        final float y2 = y1 + region.getRegionHeight() * unitScale;
+
+        final float adjustX = 0.5f / texture.getWidth();
+        final float adjustY = 0.5f / texture.getHeight();
+        final float u1 = region.getU() + adjustX;
+        final float v1 = region.getV2() - adjustY;
+        final float u2 = region.getU2() - adjustX;
+        final float v2 = region.getV() + adjustY;
+
+        vertices[Batch.X1] = x1;
+        vertices[Batch.Y1] = y1;
+        vertices[Batch.C1] = color;
+        vertices[Batch.U1] = u1;
+        vertices[Batch.V1] = v1;
+
+        vertices[Batch.X2] = x1;
+        vertices[Batch.Y2] = y2;
+        vertices[Batch.C2] = color;
+        vertices[Batch.U2] = u1;
+        vertices[Batch.V2] = v2;
+
+        vertices[Batch.X3] = x2;
+        vertices[Batch.Y3] = y2;
+        vertices[Batch.C3] = color;
+        vertices[Batch.U3] = u2;
+        vertices[Batch.V3] = v2;
+
+        vertices[Batch.X4] = x2;
+        vertices[Batch.Y4] = y1;
+        vertices[Batch.C4] = color;
+        vertices[Batch.U4] = u2;
+        vertices[Batch.V4] = v1;
+
+        if (flipX) {
+            float temp = vertices[Batch.U1];
+            vertices[Batch.U1] = vertices[Batch.U3];
+            vertices[Batch.U3] = temp;
+            temp = vertices[Batch.U2];
+            vertices[Batch.U2] = vertices[Batch.U4];
+            vertices[Batch.U4] = temp;
+        }
+        if (flipY) {
+            float temp = vertices[Batch.V1];
+            vertices[Batch.V1] = vertices[Batch.V3];
+            vertices[Batch.V3] = temp;
+            temp = vertices[Batch.V2];
+            vertices[Batch.V2] = vertices[Batch.V4];
+            vertices[Batch.V4] = temp;
+        }
+        if (rotations != 0) {
+            switch (rotations) {
+                case TiledMapTileLayer.Cell.ROTATE_90: {
+                    float tempV = vertices[Batch.V1];
+                    vertices[Batch.V1] = vertices[Batch.V2];
+                    vertices[Batch.V2] = vertices[Batch.V3];
+                    vertices[Batch.V3] = vertices[Batch.V4];
+                    vertices[Batch.V4] = tempV;
+
+                    float tempU = vertices[Batch.U1];
+                    vertices[Batch.U1] = vertices[Batch.U2];
+                    vertices[Batch.U2] = vertices[Batch.U3];
+                    vertices[Batch.U3] = vertices[Batch.U4];
+                    vertices[Batch.U4] = tempU;
+                    break;
+                }
+                case TiledMapTileLayer.Cell.ROTATE_180: {
+                    float tempU = vertices[Batch.U1];
                     vertices[Batch.U1] = vertices[Batch.U3];
-                    vertices[Batch.U3] = temp;
-                    temp = vertices[Batch.U2];
+                    vertices[Batch.U3] = tempU;
+                    tempU = vertices[Batch.U2];
                     vertices[Batch.U2] = vertices[Batch.U4];
-                    vertices[Batch.U4] = temp;
-                }
-                if (flipY) {
-                    float temp = vertices[Batch.V1];
+                    vertices[Batch.U4] = tempU;
+                    float tempV = vertices[Batch.V1];
                     vertices[Batch.V1] = vertices[Batch.V3];
-                    vertices[Batch.V3] = temp;
-                    temp = vertices[Batch.V2];
+                    vertices[Batch.V3] = tempV;
+                    tempV = vertices[Batch.V2];
                     vertices[Batch.V2] = vertices[Batch.V4];
-                    vertices[Batch.V4] = temp;
+                    vertices[Batch.V4] = tempV;
+                    break;
+                }
+                case TiledMapTileLayer.Cell.ROTATE_270: {
+                    float tempV = vertices[Batch.V1];
+                    vertices[Batch.V1] = vertices[Batch.V4];
+                    vertices[Batch.V4] = vertices[Batch.V3];
+                    vertices[Batch.V3] = vertices[Batch.V2];
+                    vertices[Batch.V2] = tempV;
+
+                    float tempU = vertices[Batch.U1];
+                    vertices[Batch.U1] = vertices[Batch.U4];
+                    vertices[Batch.U4] = vertices[Batch.U3];
+                    vertices[Batch.U3] = vertices[Batch.U2];
+                    vertices[Batch.U2] = tempU;
+                    break;
+                }
+            }
+        }
+        spriteCache.add(texture, vertices, 0, 20);
+    }
+
+    /**
+     * Sets the size of the chunks the tile layers are split into. Each
+     * chunk is cached on its own and only the chunks in view are drawn, so
+     * scrolling only caches the newly visible chunks, and setting a cell
+     * only rebuilds its chunk. The least recently drawn chunks are dropped
+     * when the cache is full, the cache size given to the constructor
+     * allows cacheSize / (chunkSize * chunkSize) chunks, which must cover
+     * the chunks in view of all rendered layers.
+     *
+     * @param chunkSize chunk size in tiles, 0 (default) caches one region
+     *                  around the view, see {@link #setOverCache(float)}.
+     * @throws IllegalArgumentException if the cache can't hold the chunks
+     *                                  in the current view.
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 0)
+            throw new IllegalArgumentException("chunkSize must be >= 0: " + chunkSize);
+        if (chunkSize * chunkSize > cacheSize)
+            throw new IllegalArgumentException("cache size " + cacheSize
+                    + " can't hold a chunk of " + chunkSize + "x" + chunkSize + " tiles");
+        int maxChunks = chunkSize > 0 ? cacheSize / (chunkSize * chunkSize) : 0;
+        if (chunkSize > 0 && viewBounds.width > 0 && viewBounds.height > 0) {
+            int visible = 0;
+            for (MapLayer layer : map.getLayers()) {
+                if (layer.isVisible() && layer instanceof TiledMapTileLayer) {
+                    visible += findVisibleChunks((TiledMapTileLayer) layer, chunkSize);
+                }
+            }
+            if (visible > maxChunks)
+                throw new IllegalArgumentException(chunkSlotsMessage(chunkSize,
+                        maxChunks, visible));
+        }
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        spriteCache.clear();
+        chunks.clear();
+        layerIds.clear();
+        freeSlots.clear();
+        slotsCreated = false;
+        cached = false;
+        for (MapLayer layer : map.getLayers()) {
+            if (layer instanceof TiledMapTileLayer) {
+                TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+                if (chunkSize > 0) tileLayer.setCellListener(this);
+                else if (tileLayer.getCellListener() == this) tileLayer.setCellListener(null);
+            }
+        }
+    }
+
+    /**
+     * @return the chunk size in tiles, 0 if the tiles are not cached in chunks.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return the number of chunks cached by the last render.
+     */
+    public int getChunksBuilt() {
+        return chunksBuilt;
+    }
+
+    @Override
+    public void cellChanged(TiledMapTileLayer layer, int x, int y) {
+        if (chunkSize == 0) return;
+        int layerId = layerIds.get(layer, -1);
+        if (layerId < 0) return;
+        Chunk chunk = chunks.get(chunkKey(layerId, x / chunkSize, y / chunkSize));
+        if (chunk != null) chunk.dirty = true;
+    }
+
+    /**
+     * Reserves one cache of chunkSize * chunkSize tiles per chunk, so a
+     * chunk can be cached again in its slot with any number of tiles.
+     */
+    private void createSlots() {
+        int chunkTiles = chunkSize * chunkSize;
+        float[] empty = new float[20];
+        for (int slot = 0; slot < maxChunks; slot++) {
+            spriteCache.beginCache();
+            for (int i = 0; i < chunkTiles; i++) {
+                spriteCache.add(null, empty, 0, 20);
+            }
+            spriteCache.endCache();
+        }
+        for (int slot = maxChunks - 1; slot >= 0; slot--) {
+            spriteCache.beginCache(slot);
+            spriteCache.endCache();
+            freeSlots.add(slot);
+        }
+        slotsCreated = true;
+    }
+
+    private void renderChunks(int[] layers) {
+        if (!slotsCreated) createSlots();
+        frame++;
+        chunksBuilt = 0;
+        MapLayers mapLayers = map.getLayers();
+        int layerCount = layers != null ? layers.length : mapLayers.getCount();
+
+        int visible = 0;
+        for (int n = 0; n < layerCount; n++) {
+            MapLayer layer = mapLayers.get(layers != null ? layers[n] : n);
+            if (layer.isVisible() && layer instanceof TiledMapTileLayer) {
+                visible += findVisibleChunks((TiledMapTileLayer) layer, chunkSize);
+            }
+        }
+        if (visible > maxChunks)
+            throw new GameEngineRuntimeException(chunkSlotsMessage(chunkSize,
+                    maxChunks, visible));
+
+        // cache the visible chunks first, a null ends the chunks of a layer
+        visibleChunks.clear();
+        for (int n = 0; n < layerCount; n++) {
+            int i = layers != null ? layers[n] : n;
+            MapLayer layer = mapLayers.get(i);
+            if (layer.isVisible() && layer instanceof TiledMapTileLayer) {
+                collectChunks((TiledMapTileLayer) layer);
+            }
+            visibleChunks.add(null);
+        }
+
+        if (blending) {
+            GameEngine.gl.glEnable(IGL20.GL_BLEND);
+            GameEngine.gl.glBlendFunc(IGL20.GL_SRC_ALPHA, IGL20.GL_ONE_MINUS_SRC_ALPHA);
+        }
+        spriteCache.begin();
+        int c = 0;
+        for (int n = 0; n < layerCount; n++) {
+            MapLayer layer = mapLayers.get(layers != null ? layers[n] : n);
+            Chunk chunk;
+            while ((chunk = visibleChunks.get(c++)) != null) {
+                spriteCache.draw(chunk.slot);
+            }
+            if (layer.isVisible()) {
+                for (MapObject object : layer.getObjects()) {
+                    renderObject(object);
                 }
-                if (rotations != 0) {
-                    switch (rotations) {
-                        case TiledMapTileLayer.Cell.ROTATE_90: {
-                            float tempV = vertices[Batch.V1];
-                            vertices[Batch.V1] = vertices[Batch.V2];
-                            vertices[Batch.V2] = vertices[Batch.V3];
-                            vertices[Batch.V3] = vertices[Batch.V4];
-                            vertices[Batch.V4] = tempV;
-
-                            float tempU = vertices[Batch.U1];
-                            vertices[Batch.U1] = vertices[Batch.U2];
-                            vertices[Batch.U2] = vertices[Batch.U3];
-                            vertices[Batch.U3] = vertices[Batch.U4];
-                            vertices[Batch.U4] = tempU;
-                            break;
-                        }
-                        case TiledMapTileLayer.Cell.ROTATE_180: {
-                            float tempU = vertices[Batch.U1];
-                            vertices[Batch.U1] = vertices[Batch.U3];
-                            vertices[Batch.U3] = tempU;
-                            tempU = vertices[Batch.U2];
-                            vertices[Batch.U2] = vertices[Batch.U4];
-                            vertices[Batch.U4] = tempU;
-                            float tempV = vertices[Batch.V1];
-                            vertices[Batch.V1] = vertices[Batch.V3];
-                            vertices[Batch.V3] = tempV;
-                            tempV = vertices[Batch.V2];
-                            vertices[Batch.V2] = vertices[Batch.V4];
-                            vertices[Batch.V4] = tempV;
-                            break;
-                        }
-                        case TiledMapTileLayer.Cell.ROTATE_270: {
-                            float tempV = vertices[Batch.V1];
-                            vertices[Batch.V1] = vertices[Batch.V4];
-                            vertices[Batch.V4] = vertices[Batch.V3];
-                            vertices[Batch.V3] = vertices[Batch.V2];
-                            vertices[Batch.V2] = tempV;
-
-                            float tempU = vertices[Batch.U1];
-                            vertices[Batch.U1] = vertices[Batch.U4];
-                            vertices[Batch.U4] = vertices[Batch.U3];
-                            vertices[Batch.U3] = vertices[Batch.U2];
-                            vertices[Batch.U2] = tempU;
-                            break;
-                        }
+            }
+        }
+        spriteCache.end();
+        if (blending) GameEngine.gl.glDisable(IGL20.GL_BLEND);
+    }
+
+    private void collectChunks(TiledMapTileLayer layer) {
+        if (findVisibleChunks(layer, chunkSize) == 0) return;
+        int layerId = layerIds.get(layer, -1);
+        if (layerId < 0) {
+            layerId = nextLayerId++;
+            layerIds.put(layer, layerId);
+            // layers added after setChunkSize
+            if (layer.getCellListener() == null) layer.setCellListener(this);
+        }
+        for (int cy = chunkY2; cy >= chunkY1; cy--) {
+            for (int cx = chunkX1; cx <= chunkX2; cx++) {
+                Chunk chunk = obtainChunk(layerId, cx, cy);
+                if (chunk.dirty) buildChunk(layer, chunk);
+                visibleChunks.add(chunk);
+            }
+        }
+    }
+
+    /**
+     * Finds the chunks of the layer in view, see chunkX1, chunkX2, chunkY1
+     * and chunkY2.
+     *
+     * @return the number of chunks in view.
+     */
+    private int findVisibleChunks(TiledMapTileLayer layer, int chunkSize) {
+        final int layerWidth = layer.getWidth();
+        final int layerHeight = layer.getHeight();
+        final float layerTileWidth = layer.getTileWidth() * unitScale;
+        final float layerTileHeight = layer.getTileHeight() * unitScale;
+
+        final int col1 = Math.max(0, (int) (viewBounds.x / layerTileWidth));
+        final int col2 = Math.min(layerWidth,
+                (int) ((viewBounds.x + viewBounds.width + layerTileWidth) / layerTileWidth));
+        final int row1 = Math.max(0, (int) (viewBounds.y / layerTileHeight));
+        final int row2 = Math.min(layerHeight - 1,
+                (int) ((viewBounds.y + viewBounds.height + layerTileHeight) / layerTileHeight));
+        if (col1 >= col2 || row1 > row2) return 0;
+
+        chunkX1 = col1 / chunkSize;
+        chunkX2 = (col2 - 1) / chunkSize;
+        chunkY1 = row1 / chunkSize;
+        chunkY2 = row2 / chunkSize;
+        return (chunkX2 - chunkX1 + 1) * (chunkY2 - chunkY1 + 1);
+    }
+
+    private String chunkSlotsMessage(int chunkSize, int maxChunks, int visible) {
+        return "cache size " + cacheSize + " holds " + maxChunks + " chunks of "
+                + chunkSize + "x" + chunkSize + " tiles but " + visible
+                + " are in view, use a larger cache size or smaller chunks";
+    }
+
+    /**
+     * Finds the chunk or gives it a slot, dropping the least recently drawn
+     * chunk if needed.
+     *
+     * @return the chunk.
+     */
+    private Chunk obtainChunk(int layerId, int cx, int cy) {
+        long key = chunkKey(layerId, cx, cy);
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            if (freeSlots.size > 0) {
+                chunk = new Chunk();
+                chunk.slot = freeSlots.pop();
+            } else {
+                for (Chunk other : chunks.values()) {
+                    if (other.lastUsed != frame
+                            && (chunk == null || other.lastUsed < chunk.lastUsed)) {
+                        chunk = other;
                     }
                 }
-                spriteCache.add(texture, vertices, 0, 20);
+                if (chunk == null)
+                    throw new GameEngineRuntimeException("All chunk slots are in view");
+                chunks.remove(chunk.key);
             }
+            chunk.key = key;
+            chunk.x = cx;
+            chunk.y = cy;
+            chunk.dirty = true;
+            chunks.put(key, chunk);
         }
+        chunk.lastUsed = frame;
+        return chunk;
+    }
+
+    private void buildChunk(TiledMapTileLayer layer, Chunk chunk) {
+        final float color = Color.toFloatBits(1, 1, 1, layer.getOpacity());
+        final float layerTileWidth = layer.getTileWidth() * unitScale;
+        final float layerTileHeight = layer.getTileHeight() * unitScale;
+        final int col1 = chunk.x * chunkSize;
+        final int col2 = Math.min(layer.getWidth(), col1 + chunkSize);
+        final int row1 = chunk.y * chunkSize;
+        final int row2 = Math.min(layer.getHeight(), row1 + chunkSize);
+
+        spriteCache.beginCache(chunk.slot);
+        for (int row = row2 - 1; row >= row1; row--) {
+            for (int col = col1; col < col2; col++) {
+                addCell(layer, col, row, color, layerTileWidth, layerTileHeight);
+            }
+        }
+        spriteCache.endCache();
+        chunk.dirty = false;
+        chunksBuilt++;
+    }
+
+    private static long chunkKey(int layerId, int cx, int cy) {
+        return ((long) layerId << 42) | ((long) cx << 21) | cy;
     }
 
     /**
@@ -367,6 +663,9 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
      */
     public void invalidateCache() {
         cached = false;
+        for (Chunk chunk : chunks.values()) {
+            chunk.dirty = true;
+        }
     }
 
     /**
@@ -411,6 +710,18 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 
     @Override
     public void dispose() {
+        if (chunkSize > 0) setChunkSize(0);
         spriteCache.dispose();
     }
+
+    /**
+     * chunk of a tile layer cached in one slot of the sprite cache.
+     */
+    protected static class Chunk {
+        long key;
+        int x, y;
+        int slot;
+        long lastUsed;
+        boolean dirty;
+    }
 }
@@ -77,21 +77,35 @@ public class OrthogonalTiledMapRenderer extends BatchTiledMapRenderer {
         float y = row2 * layerTileHeight;
         float xStart = col1 * layerTileWidth;
         final float[] vertices = this.vertices;
+        final int[] packedCells = layer.getPackedCells();
 
         for (int row = row2; row >= row1; row--) {
             float x = xStart;
             for (int col = col1; col < col2; col++) {
-                final TiledMapTileLayer.Cell cell = layer.getCell(col, row);
-                if (cell == null) {
-                    x += layerTileWidth;
-                    continue;
+                final TiledMapTile tile;
+                final boolean flipX;
+                final boolean flipY;
+                final int rotations;
+                if (packedCells != null) {
+                    final int packed = row < layerHeight
+                            ? packedCells[row * layerWidth + col] : 0;
+                    tile = layer.getTile(packed);
+                    flipX = (packed & TiledMapTileLayer.PACKED_FLIP_HORIZONTALLY) != 0;
+                    flipY = (packed & TiledMapTileLayer.PACKED_FLIP_VERTICALLY) != 0;
+                    rotations = TiledMapTileLayer.getPackedRotation(packed);
+                } else {
+                    final TiledMapTileLayer.Cell cell = layer.getCell(col, row);
+                    if (cell == null) {
+                        x += layerTileWidth;
+                        continue;
+                    }
+                    tile = cell.getTile();
+                    flipX = cell.getFlipHorizontally();
+                    flipY = cell.getFlipVertically();
+                    rotations = cell.getRotation();
                 }
-                final TiledMapTile tile = cell.getTile();
 
                 if (tile != null) {
-                    final boolean flipX = cell.getFlipHorizontally();
-                    final boolean flipY = cell.getFlipVertically();
-                    final int rotations = cell.getRotation();
 
                     TextureRegion region = tile.getTextureRegion();
 
@@ -87,6 +87,14 @@ public class Actor {
     final Color color = new Color(1, 1, 1, 1);
     private Object userObject;
 
+    /**
+     * Bounds of this actor (and its children) in the parent's coordinates,
+     * cached for culling until the actor is transformed
+     */
+    private final Rectangle cullingBounds = new Rectangle();
+    private boolean cullingBoundsValid;
+    static private final Vector2 boundsCorner = new Vector2();
+
 
     /**
      * Construct ,default name is class name
@@ -433,7 +441,10 @@ public class Actor {
      * @param parent May be null if the actor has been removed from the parent.
      */
     protected void setParent(Group parent) {
+        if (this.parent != null) this.parent.invalidateCullingBounds();
         this.parent = parent;
+        cullingBoundsValid = false;
+        if (parent != null) parent.invalidateCullingBounds();
     }
 
     /**
@@ -489,6 +500,7 @@ public class Actor {
     }
 
     public void setX(float x) {
+        invalidateCullingBounds();
         if (this.x != x) {
             this.x = x;
             positionChanged();
@@ -503,6 +515,7 @@ public class Actor {
     }
 
     public void setY(float y) {
+        invalidateCullingBounds();
         if (this.y != y) {
             this.y = y;
             positionChanged();
@@ -513,6 +526,7 @@ public class Actor {
      * Set position of Actor to x, y (using bottom left corner of Actor)
      */
     public void setPosition(float x, float y) {
+        invalidateCullingBounds();
         if (this.x != x || this.y != y) {
             this.x = x;
             this.y = y;
@@ -524,6 +538,7 @@ public class Actor {
      * Set position of Actor centered on x, y
      */
     public void setCenterPosition(float x, float y) {
+        invalidateCullingBounds();
         float newX = x - width / 2;
         float newY = y - height / 2;
         if (this.x != newX || this.y != newY) {
@@ -545,6 +560,7 @@ public class Actor {
      * Add x and y to current position
      */
     public void moveBy(float x, float y) {
+        invalidateCullingBounds();
         if (x != 0 || y != 0) {
             this.x += x;
             this.y += y;
@@ -557,6 +573,7 @@ public class Actor {
     }
 
     public void setWidth(float width) {
+        invalidateCullingBounds();
         float oldWidth = this.width;
         this.width = width;
         if (width != oldWidth) sizeChanged();
@@ -567,6 +584,7 @@ public class Actor {
     }
 
     public void setHeight(float height) {
+        invalidateCullingBounds();
         float oldHeight = this.height;
         this.height = height;
         if (height != oldHeight) sizeChanged();
@@ -602,6 +620,7 @@ public class Actor {
      * Sets the width and height.
      */
     public void setSize(float width, float height) {
+        invalidateCullingBounds();
         float oldWidth = this.width;
         float oldHeight = this.height;
         this.width = width;
@@ -613,6 +632,7 @@ public class Actor {
      * Adds the specified size to the current size.
      */
     public void sizeBy(float size) {
+        invalidateCullingBounds();
         width += size;
         height += size;
         sizeChanged();
@@ -622,6 +642,7 @@ public class Actor {
      * Adds the specified size to the current size.
      */
     public void sizeBy(float width, float height) {
+        invalidateCullingBounds();
         this.width += width;
         this.height += height;
         sizeChanged();
@@ -631,6 +652,7 @@ public class Actor {
      * Set bounds the x, y, width, and height.
      */
     public void setBounds(float x, float y, float width, float height) {
+        invalidateCullingBounds();
         if (this.x != x || this.y != y) {
             this.x = x;
             this.y = y;
@@ -648,6 +670,7 @@ public class Actor {
     }
 
     public void setOriginX(float originX) {
+        invalidateCullingBounds();
         this.originX = originX;
     }
 
@@ -656,6 +679,7 @@ public class Actor {
     }
 
     public void setOriginY(float originY) {
+        invalidateCullingBounds();
         this.originY = originY;
     }
 
@@ -663,6 +687,7 @@ public class Actor {
      * Sets the origin X and origin Y.
      */
     public void setOrigin(float originX, float originY) {
+        invalidateCullingBounds();
         this.originX = originX;
         this.originY = originY;
     }
@@ -672,6 +697,7 @@ public class Actor {
     }
 
     public void setScaleX(float scaleX) {
+        invalidateCullingBounds();
         this.scaleX = scaleX;
     }
 
@@ -680,6 +706,7 @@ public class Actor {
     }
 
     public void setScaleY(float scaleY) {
+        invalidateCullingBounds();
         this.scaleY = scaleY;
     }
 
@@ -687,6 +714,7 @@ public class Actor {
      * Sets the scale for both X and Y
      */
     public void setScale(float scaleXY) {
+        invalidateCullingBounds();
         this.scaleX = scaleXY;
         this.scaleY = scaleXY;
     }
@@ -695,6 +723,7 @@ public class Actor {
      * Sets the scale X and scale Y.
      */
     public void setScale(float scaleX, float scaleY) {
+        invalidateCullingBounds();
         this.scaleX = scaleX;
         this.scaleY = scaleY;
     }
@@ -703,6 +732,7 @@ public class Actor {
      * Adds the specified scale to the current scale.
      */
     public void scaleBy(float scale) {
+        invalidateCullingBounds();
         scaleX += scale;
         scaleY += scale;
     }
@@ -711,6 +741,7 @@ public class Actor {
      * Adds the specified scale to the current scale.
      */
     public void scaleBy(float scaleX, float scaleY) {
+        invalidateCullingBounds();
         this.scaleX += scaleX;
         this.scaleY += scaleY;
     }
@@ -720,6 +751,7 @@ public class Actor {
     }
 
     public void setRotation(float degrees) {
+        invalidateCullingBounds();
         this.rotation = degrees;
     }
 
@@ -727,6 +759,7 @@ public class Actor {
      * Adds the specified rotation to the current rotation.
      */
     public void rotateBy(float amountInDegrees) {
+        invalidateCullingBounds();
         rotation += amountInDegrees;
     }
 
@@ -959,6 +992,64 @@ public class Actor {
         return parentCoords;
     }
 
+    /**
+     * Returns the bounds of this actor in the parent's coordinates, that is
+     * the axis aligned box around the rotated and scaled actor, and for a
+     * {@link Group} its children too. The bounds are cached until the actor
+     * or one of its children is moved, sized, scaled, rotated or reparented.
+     */
+    public Rectangle getCullingBounds() {
+        if (!cullingBoundsValid) {
+            computeCullingBounds(cullingBounds);
+            cullingBoundsValid = true;
+        }
+        return cullingBounds;
+    }
+
+    /**
+     * Computes the bounds returned by {@link #getCullingBounds()}. Override
+     * this, and call {@link #invalidateCullingBounds()} when they change, if
+     * the actor draws outside of its width and height.
+     */
+    protected void computeCullingBounds(Rectangle bounds) {
+        localToParentBounds(0, 0, width, height, bounds);
+    }
+
+    /**
+     * Discards the cached culling bounds of this actor and its ascendants.
+     */
+    public void invalidateCullingBounds() {
+        Actor actor = this;
+        while (actor != null && actor.cullingBoundsValid) {
+            actor.cullingBoundsValid = false;
+            actor = actor.parent;
+        }
+    }
+
+    /**
+     * Transforms the box in the actor's coordinates to the axis aligned box
+     * around it in the parent's coordinates.
+     */
+    void localToParentBounds(float minX, float minY, float maxX, float maxY, Rectangle bounds) {
+        Vector2 corner = boundsCorner;
+        localToParentCoordinates(corner.set(minX, minY));
+        float left = corner.x, right = corner.x, bottom = corner.y, top = corner.y;
+        if (rotation != 0 || scaleX != 1 || scaleY != 1) {
+            for (int i = 1; i < 4; i++) {
+                localToParentCoordinates(corner.set((i & 1) == 0 ? minX : maxX,
+                        (i & 2) == 0 ? minY : maxY));
+                left = Math.min(left, corner.x);
+                right = Math.max(right, corner.x);
+                bottom = Math.min(bottom, corner.y);
+                top = Math.max(top, corner.y);
+            }
+        } else {
+            right += maxX - minX;
+            top += maxY - minY;
+        }
+        bounds.set(left, bottom, right - left, top - bottom);
+    }
+
     /**
      * Draws this actor's debug lines if {@link #getDebug()} is true.
      */
@@ -51,6 +51,12 @@ public class Group extends Actor implements Cullable {
     private final Matrix4 oldTransform = new Matrix4();
     boolean transform = true;
     private Rectangle cullingArea;
+    /**
+     * Culling area in this group's coordinates, set by the parent before each
+     * draw when the stage culls automatically
+     */
+    private final Rectangle autoCullingArea = new Rectangle();
+    private boolean autoCulling;
 
 
     public Group(){
@@ -96,9 +102,13 @@ public class Group extends Actor implements Cullable {
         parentAlpha *= this.color.a;
         SnapshotArray<Actor> children = this.children;
         Actor[] actors = children.begin();
+        boolean autoCulling = this.autoCulling;
+        this.autoCulling = false;
         Rectangle cullingArea = this.cullingArea;
+        if (cullingArea == null && autoCulling) cullingArea = autoCullingArea;
+        int drawn = 0, culled = 0;
         if (cullingArea != null) {
-            // Draw children only if inside culling area.
+            // Draw children only if their bounds are inside culling area.
             float cullLeft = cullingArea.x;
             float cullRight = cullLeft + cullingArea.width;
             float cullBottom = cullingArea.y;
@@ -107,10 +117,17 @@ public class Group extends Actor implements Cullable {
                 for (int i = 0, n = children.size; i < n; i++) {
                     Actor child = actors[i];
                     if (!child.isVisible()) continue;
-                    float cx = child.x, cy = child.y;
-                    if (cx <= cullRight && cy <= cullTop && cx + child.width
-                            >= cullLeft && cy + child.height >= cullBottom)
+                    Rectangle bounds = child.getCullingBounds();
+                    if (bounds.x <= cullRight && bounds.y <= cullTop
+                            && bounds.x + bounds.width >= cullLeft
+                            && bounds.y + bounds.height >= cullBottom) {
+                        if (autoCulling && child instanceof Group)
+                            ((Group) child).setAutoCullingArea(cullingArea);
                         child.draw(batch, parentAlpha);
+                        drawn++;
+                    } else {
+                        culled++;
+                    }
                 }
                 batch.flush();
             } else {
@@ -121,14 +138,21 @@ public class Group extends Actor implements Cullable {
                 for (int i = 0, n = children.size; i < n; i++) {
                     Actor child = actors[i];
                     if (!child.isVisible()) continue;
-                    float cx = child.x, cy = child.y;
-                    if (cx <= cullRight && cy <= cullTop && cx + child.width
-                            >= cullLeft && cy + child.height >= cullBottom) {
+                    Rectangle bounds = child.getCullingBounds();
+                    if (bounds.x <= cullRight && bounds.y <= cullTop
+                            && bounds.x + bounds.width >= cullLeft
+                            && bounds.y + bounds.height >= cullBottom) {
+                        if (autoCulling && child instanceof Group)
+                            ((Group) child).setAutoCullingArea(cullingArea);
+                        float cx = child.x, cy = child.y;
                         child.x = cx + offsetX;
                         child.y = cy + offsetY;
                         child.draw(batch, parentAlpha);
                         child.x = cx;
                         child.y = cy;
+                        drawn++;
+                    } else {
+                        culled++;
                     }
                 }
                 x = offsetX;
@@ -141,6 +165,7 @@ public class Group extends Actor implements Cullable {
                     Actor child = actors[i];
                     if (!child.isVisible()) continue;
                     child.draw(batch, parentAlpha);
+                    drawn++;
                 }
                 batch.flush();
             } else {
@@ -157,12 +182,18 @@ public class Group extends Actor implements Cullable {
                     child.draw(batch, parentAlpha);
                     child.x = cx;
                     child.y = cy;
+                    drawn++;
                 }
                 x = offsetX;
                 y = offsetY;
             }
         }
         children.end();
+        Stage stage = getStage();
+        if (stage != null) {
+            stage.actorsDrawn += drawn;
+            stage.actorsCulled += culled;
+        }
     }
 
     /**
@@ -303,13 +334,72 @@ public class Group extends Actor implements Cullable {
 
     /**
      * Children completely outside of this rectangle will not be drawn.
-     * This is only valid for use with unrotated and unscaled
-     * actors!
+     * Children are tested with their {@link #getCullingBounds() bounds},
+     * so rotated and scaled children are culled correctly.
      */
     public void setCullingArea(Rectangle cullingArea) {
         this.cullingArea = cullingArea;
     }
 
+    /**
+     * Culls the children on the next draw against the area given in the
+     * parent's coordinates, and passes it on to child groups. Called by the
+     * parent group or the stage when culling automatically.
+     */
+    void setAutoCullingArea(Rectangle parentArea) {
+        autoCulling = true;
+        Rectangle area = autoCullingArea;
+        if (!transform) {
+            // Children are drawn offset by the group position.
+            area.set(parentArea.x - x, parentArea.y - y,
+                    parentArea.width, parentArea.height);
+            return;
+        }
+        float right = parentArea.x + parentArea.width;
+        float top = parentArea.y + parentArea.height;
+        Vector2 corner = parentToLocalCoordinates(tmp.set(parentArea.x, parentArea.y));
+        float minX = corner.x, maxX = corner.x, minY = corner.y, maxY = corner.y;
+        for (int i = 1; i < 4; i++) {
+            parentToLocalCoordinates(tmp.set((i & 1) == 0 ? parentArea.x : right,
+                    (i & 2) == 0 ? parentArea.y : top));
+            minX = Math.min(minX, tmp.x);
+            maxX = Math.max(maxX, tmp.x);
+            minY = Math.min(minY, tmp.y);
+            maxY = Math.max(maxY, tmp.y);
+        }
+        area.set(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Computes the bounds around this group's own size and all its children,
+     * in the parent's coordinates.
+     */
+    protected void computeCullingBounds(Rectangle bounds) {
+        float minX = 0, minY = 0, maxX = width, maxY = height;
+        boolean empty = width == 0 && height == 0;
+        Actor[] actors = children.items;
+        for (int i = 0, n = children.size; i < n; i++) {
+            Rectangle childBounds = actors[i].getCullingBounds();
+            if (empty) {
+                minX = childBounds.x;
+                minY = childBounds.y;
+                maxX = childBounds.x + childBounds.width;
+                maxY = childBounds.y + childBounds.height;
+                empty = false;
+            } else {
+                minX = Math.min(minX, childBounds.x);
+                minY = Math.min(minY, childBounds.y);
+                maxX = Math.max(maxX, childBounds.x + childBounds.width);
+                maxY = Math.max(maxY, childBounds.y + childBounds.height);
+            }
+        }
+        if (transform) {
+            localToParentBounds(minX, minY, maxX, maxY, bounds);
+        } else {
+            bounds.set(minX + x, minY + y, maxX - minX, maxY - minY);
+        }
+    }
+
     public Actor hit(float x, float y, boolean touchable) {
         if (touchable && getTouchable() == Touchable.disabled) return null;
         Vector2 point = tmp;
@@ -506,6 +596,7 @@ public class Group extends Actor implements Cullable {
      */
     public void setTransform(boolean transform) {
         this.transform = transform;
+        invalidateCullingBounds();
     }
 
     public boolean isTransform() {
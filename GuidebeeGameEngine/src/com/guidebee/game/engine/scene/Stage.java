@@ -38,6 +38,7 @@ import com.guidebee.game.ui.Table;
 import com.guidebee.game.ui.Table.Debug;
 import com.guidebee.math.Matrix4;
 import com.guidebee.math.Vector2;
+import com.guidebee.math.Vector3;
 import com.guidebee.math.geometry.Rectangle;
 import com.guidebee.utils.Disposable;
 import com.guidebee.utils.Pool;
@@ -98,6 +99,18 @@ public class Stage extends InputAdapter implements Disposable {
     private final Color debugColor = new Color(0, 1, 0, 0.85f);
     private Object userObject;
 
+    /**
+     * Number of actors drawn and skipped by culling in the last {@link #draw()}
+     */
+    int actorsDrawn, actorsCulled;
+
+    /**
+     * Whether actors outside the camera are skipped when drawing
+     */
+    private boolean autoCulling;
+    private final Rectangle cameraArea = new Rectangle();
+    private final Vector3 cameraCorner = new Vector3();
+
     /**
      * Creates a stage with a {@link com.guidebee.game.camera.viewports.ScalingViewport}
      * set to {@link com.guidebee.utils.Scaling#fill}. The stage will use its own {@link Batch} which
@@ -155,6 +168,8 @@ public class Stage extends InputAdapter implements Disposable {
     }
 
     public void draw() {
+        actorsDrawn = 0;
+        actorsCulled = 0;
 
         Camera camera = viewport.getCamera();
         camera.update();
@@ -162,6 +177,9 @@ public class Stage extends InputAdapter implements Disposable {
 
         Batch batch = this.batch;
         if (batch != null) {
+            if (autoCulling) {
+                root.setAutoCullingArea(getCameraArea(camera, cameraArea));
+            }
             batch.setProjectionMatrix(camera.combined);
             batch.begin();
             root.draw(batch, 1);
@@ -173,6 +191,55 @@ public class Stage extends InputAdapter implements Disposable {
     }
 
 
+    /**
+     * If true, actors whose {@link Actor#getCullingBounds() bounds} are
+     * outside of the camera's view are not drawn, and groups outside of it
+     * are skipped with all their children. The view is computed from the
+     * camera each frame. Actors drawing outside of their bounds should
+     * override {@link Actor#computeCullingBounds(Rectangle)}. Default is false.
+     */
+    public void setAutoCulling(boolean autoCulling) {
+        this.autoCulling = autoCulling;
+    }
+
+    public boolean isAutoCulling() {
+        return autoCulling;
+    }
+
+    /**
+     * Computes the axis aligned box around the camera's view in stage coordinates.
+     */
+    private Rectangle getCameraArea(Camera camera, Rectangle area) {
+        Vector3 corner = cameraCorner;
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        // Near and far plane corners, the stage plane lies in between.
+        for (int i = 0; i < 8; i++) {
+            corner.set((i & 1) == 0 ? -1 : 1, (i & 2) == 0 ? -1 : 1, (i & 4) == 0 ? -1 : 1)
+                    .prj(camera.invProjectionView);
+            minX = Math.min(minX, corner.x);
+            maxX = Math.max(maxX, corner.x);
+            minY = Math.min(minY, corner.y);
+            maxY = Math.max(maxY, corner.y);
+        }
+        return area.set(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Returns the number of actors drawn in the last {@link #draw()}.
+     */
+    public int getActorsDrawn() {
+        return actorsDrawn;
+    }
+
+    /**
+     * Returns the number of actors skipped in the last {@link #draw()}
+     * because they were outside their group's culling area.
+     */
+    public int getActorsCulled() {
+        return actorsCulled;
+    }
+
     /**
      * Returns the first actor found with the specified name. Note this
      * recursively compares the name of every actor in the group.
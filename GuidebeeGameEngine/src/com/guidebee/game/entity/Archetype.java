@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.entity;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.utils.collections.Bits;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * A chunk of entities sharing the same set of {@link DataTrait} types. Used by
+ * an {@link EntityEngine} created with archetype storage.
+ * <p/>
+ * Entities of an archetype are kept in a dense array, and each of their
+ * dataTrait types has its own column array, so entity i of the archetype has
+ * its dataTraits at index i of every column. Directors can walk the columns
+ * directly instead of looking dataTraits up entity by entity. The
+ * {@link Role}s matched by an archetype are resolved once, when the archetype
+ * or the role is created.
+ */
+public class Archetype {
+
+    /**
+     * The dataTrait types of this archetype
+     */
+    private final Bits dataTraitBits;
+    /**
+     * The dataTrait type index of each column
+     */
+    private final int[] dataTraitIndices;
+    /**
+     * Column of each dataTrait type index, -1 when not in this archetype
+     */
+    private final int[] columnsByType;
+    /**
+     * The roles this archetype matches
+     */
+    private final Bits roleBits;
+
+    private Entity[] entities;
+    private DataTrait[][] columns;
+    private int size;
+
+    Archetype(Bits bits) {
+        dataTraitBits = new Bits();
+        dataTraitBits.or(bits);
+        int count = 0;
+        int maxIndex = -1;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            count++;
+            maxIndex = i;
+        }
+        dataTraitIndices = new int[count];
+        columnsByType = new int[maxIndex + 1];
+        for (int i = 0; i < columnsByType.length; i++) {
+            columnsByType[i] = -1;
+        }
+        int column = 0;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            dataTraitIndices[column] = i;
+            columnsByType[i] = column++;
+        }
+        roleBits = new Bits();
+        entities = new Entity[16];
+        columns = new DataTrait[count][16];
+    }
+
+    /**
+     * @return The number of entities in this archetype.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The entity at the given slot.
+     */
+    public Entity getEntity(int slot) {
+        return entities[slot];
+    }
+
+    /**
+     * @return The column holding the dataTraits of the given class, -1 if the
+     * archetype doesn't contain such dataTraits.
+     */
+    public int getColumn(Class<? extends DataTrait> dataTraitClass) {
+        int index = DataTraitType.getIndexFor(dataTraitClass);
+        return index < columnsByType.length ? columnsByType[index] : -1;
+    }
+
+    /**
+     * Returns the backing array of a column, only the first {@link #size()}
+     * elements are valid. The array is replaced when the archetype grows, so
+     * it should not be kept across frames.
+     *
+     * @param column The column index, see {@link #getColumn(Class)}.
+     * @return The dataTraits of the column.
+     */
+    public DataTrait[] getColumnData(int column) {
+        return columns[column];
+    }
+
+    /**
+     * @return The dataTrait in the given column and slot.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends DataTrait> T get(int column, int slot) {
+        return (T) columns[column][slot];
+    }
+
+    /**
+     * @return Bits describing the dataTraits of this archetype.
+     */
+    Bits getDataTraitBits() {
+        return dataTraitBits;
+    }
+
+    /**
+     * @return Bits describing the roles this archetype matches.
+     */
+    Bits getRoleBits() {
+        return roleBits;
+    }
+
+    /**
+     * @return Whether the archetype contains exactly the given dataTraits.
+     */
+    boolean matches(Bits bits) {
+        return dataTraitBits.containsAll(bits) && bits.containsAll(dataTraitBits);
+    }
+
+    void add(Entity entity) {
+        if (size == entities.length) {
+            int capacity = size * 2;
+            Entity[] newEntities = new Entity[capacity];
+            System.arraycopy(entities, 0, newEntities, 0, size);
+            entities = newEntities;
+            for (int c = 0; c < columns.length; c++) {
+                DataTrait[] column = new DataTrait[capacity];
+                System.arraycopy(columns[c], 0, column, 0, size);
+                columns[c] = column;
+            }
+        }
+        entity.archetype = this;
+        entity.archetypeSlot = size;
+        entities[size] = entity;
+        size++;
+        refresh(entity);
+    }
+
+    void refresh(Entity entity) {
+        int slot = entity.archetypeSlot;
+        for (int c = 0; c < columns.length; c++) {
+            columns[c][slot] = entity.getDataTraitByIndex(dataTraitIndices[c]);
+        }
+    }
+
+    void remove(Entity entity) {
+        int slot = entity.archetypeSlot;
+        int last = --size;
+        if (slot != last) {
+            Entity moved = entities[last];
+            entities[slot] = moved;
+            moved.archetypeSlot = slot;
+            for (int c = 0; c < columns.length; c++) {
+                columns[c][slot] = columns[c][last];
+            }
+        }
+        entities[last] = null;
+        for (int c = 0; c < columns.length; c++) {
+            columns[c][last] = null;
+        }
+        entity.archetype = null;
+        entity.archetypeSlot = -1;
+    }
+
+    static int hash(Bits bits) {
+        int hash = 1;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            hash = 31 * hash + i;
+        }
+        return hash;
+    }
+}
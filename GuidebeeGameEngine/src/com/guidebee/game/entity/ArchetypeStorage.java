@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.entity;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.entity.utils.ImmutableArray;
+import com.guidebee.utils.collections.Array;
+import com.guidebee.utils.collections.Bits;
+import com.guidebee.utils.collections.IntMap;
+import com.guidebee.utils.collections.ObjectMap;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Keeps the {@link Archetype}s of an {@link EntityEngine} and the archetypes
+ * each registered {@link Role} matches.
+ */
+class ArchetypeStorage {
+    /**
+     * All archetypes, bucketed by the hash of their dataTrait bits
+     */
+    private final IntMap<Array<Archetype>> archetypesByHash
+            = new IntMap<Array<Archetype>>();
+    private final Array<Archetype> archetypes = new Array<Archetype>(false, 16);
+    /**
+     * Registered roles by role index
+     */
+    private final IntMap<Role> roles = new IntMap<Role>();
+    private final ObjectMap<Role, Array<Archetype>> roleArchetypes
+            = new ObjectMap<Role, Array<Archetype>>();
+    private final ObjectMap<Role, ImmutableArray<Archetype>> immutableRoleArchetypes
+            = new ObjectMap<Role, ImmutableArray<Archetype>>();
+
+    /**
+     * @return The archetype with exactly the given dataTraits, created if needed.
+     */
+    Archetype getArchetype(Bits bits) {
+        int hash = Archetype.hash(bits);
+        Array<Archetype> bucket = archetypesByHash.get(hash);
+        if (bucket == null) {
+            bucket = new Array<Archetype>(false, 2);
+            archetypesByHash.put(hash, bucket);
+        }
+        for (int i = 0; i < bucket.size; i++) {
+            Archetype archetype = bucket.get(i);
+            if (archetype.matches(bits)) {
+                return archetype;
+            }
+        }
+
+        Archetype archetype = new Archetype(bits);
+        bucket.add(archetype);
+        archetypes.add(archetype);
+        for (Role role : roles.values()) {
+            if (role.matches(archetype.getDataTraitBits())) {
+                archetype.getRoleBits().set(role.getIndex());
+                roleArchetypes.get(role).add(archetype);
+            }
+        }
+        return archetype;
+    }
+
+    /**
+     * Registers a role, resolving the archetypes it matches.
+     */
+    void registerRole(Role role) {
+        if (roles.containsKey(role.getIndex())) return;
+        roles.put(role.getIndex(), role);
+        Array<Archetype> matched = new Array<Archetype>(false, 16);
+        roleArchetypes.put(role, matched);
+        immutableRoleArchetypes.put(role, new ImmutableArray<Archetype>(matched));
+        for (int i = 0; i < archetypes.size; i++) {
+            Archetype archetype = archetypes.get(i);
+            if (role.matches(archetype.getDataTraitBits())) {
+                archetype.getRoleBits().set(role.getIndex());
+                matched.add(archetype);
+            }
+        }
+    }
+
+    /**
+     * @return The registered role with the given index.
+     */
+    Role getRole(int index) {
+        return roles.get(index);
+    }
+
+    /**
+     * @return The archetypes the role matches, the role must be registered.
+     */
+    ImmutableArray<Archetype> getArchetypesFor(Role role) {
+        return immutableRoleArchetypes.get(role);
+    }
+}
@@ -79,6 +79,12 @@ public class Entity {
 
     DataTraitOperationHandler dataTraitOperationHandler;
 
+    /**
+     * The archetype holding this entity when the engine uses archetype storage
+     */
+    Archetype archetype;
+    int archetypeSlot = -1;
+
     private Object userObject;
 
     /**
@@ -192,6 +198,28 @@ public class Entity {
         }
     }
 
+    /**
+     * Internal use.
+     *
+     * @return The {@link DataTrait} object for the specified type index, null
+     * if the Entity does not have any dataTraits for that type.
+     */
+    DataTrait getDataTraitByIndex(int dataTraitTypeIndex) {
+        if (dataTraitTypeIndex < dataTraits.getCapacity()) {
+            return dataTraits.get(dataTraitTypeIndex);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * @return The {@link Archetype} holding this entity, null if the engine
+     * doesn't use archetype storage.
+     */
+    public Archetype getArchetype() {
+        return archetype;
+    }
+
     /**
      * Internal use.
      *
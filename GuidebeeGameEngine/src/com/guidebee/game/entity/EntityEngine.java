@@ -18,12 +18,17 @@ package com.guidebee.game.entity;
 
 //--------------------------------- IMPORTS ------------------------------------
 
+import com.guidebee.game.engine.utils.async.AsyncExecutor;
+import com.guidebee.game.engine.utils.async.AsyncResult;
+import com.guidebee.game.engine.utils.async.AsyncTask;
 import com.guidebee.game.entity.directors.Director;
 import com.guidebee.game.entity.signals.Listener;
 import com.guidebee.game.entity.signals.Signal;
 import com.guidebee.game.entity.utils.ImmutableArray;
 import com.guidebee.utils.Pool;
 import com.guidebee.utils.collections.Array;
+import com.guidebee.utils.collections.Bits;
+import com.guidebee.utils.collections.IntMap;
 import com.guidebee.utils.collections.ObjectMap;
 import com.guidebee.utils.collections.ObjectMap.Entry;
 import com.guidebee.utils.collections.SnapshotArray;
@@ -54,14 +59,19 @@ public class EntityEngine {
     private static DirectorComparator comparator = new DirectorComparator();
 
     /**
-     * An unordered array that holds all entities in the Engine
+     * An unordered set that holds all entities in the Engine
      */
-    private Array<Entity> entities;
+    private EntitySet entities;
     /**
      * An unoredered array that keeps track of entities pending
      * removal for safe in-loop removal
      */
     private Array<Entity> pendingRemovalEntities;
+    /**
+     * An unordered array that keeps track of entities pending
+     * addition for safe in-loop addition
+     */
+    private Array<Entity> pendingAdditionEntities;
     /**
      * An unordered list of EntityDirector
      */
@@ -77,7 +87,11 @@ public class EntityEngine {
     /**
      * A hashmap that organises all entities into family buckets
      */
-    private ObjectMap<Role, Array<Entity>> families;
+    private ObjectMap<Role, EntitySet> families;
+    /**
+     * The registered families by role index
+     */
+    private IntMap<Role> roles;
     /**
      * A hashmap that organises all entities into immutable family buckets
      */
@@ -114,13 +128,58 @@ public class EntityEngine {
     private Array<DataTraitOperation> dataTraitOperations;
     private DataTraitOperationHandler dataTraitOperationHandler;
 
+    /**
+     * Archetype storage, null when entities are stored individually
+     */
+    private final ArchetypeStorage archetypeStorage;
+
+    /**
+     * Deferred operations of the director (or part of it) running on the
+     * current thread, null when the main buffer is used
+     */
+    private final ThreadLocal<OperationBuffer> activeBuffer = new ThreadLocal<OperationBuffer>();
+    private OperationBuffer mainBuffer;
+    private final Array<OperationBuffer> freeBuffers = new Array<OperationBuffer>(false, 8);
+
+    /**
+     * Worker threads running directors and parallel ranges, null when running serially
+     */
+    private AsyncExecutor executor;
+    private int parallelism;
+    private final Array<Director> phase = new Array<Director>(false, 16);
+    private final Array<OperationBuffer> phaseBuffers = new Array<OperationBuffer>(false, 16);
+    private final Array<AsyncResult<Void>> pendingResults = new Array<AsyncResult<Void>>(false, 16);
+    /**
+     * Chunks in flight of parallelRange, used as stacks as a chunk run on the
+     * calling thread may start a nested parallel range.
+     */
+    private final Array<OperationBuffer> rangeBuffers = new Array<OperationBuffer>(false, 16);
+    private final Array<AsyncResult<Void>> rangeResults = new Array<AsyncResult<Void>>(false, 16);
+
     public EntityEngine() {
-        entities = new Array<Entity>(false, 16);
+        this(false);
+    }
+
+    /**
+     * Creates an engine, optionally with archetype storage. With archetype
+     * storage entities with the same set of {@link DataTrait}s are kept in
+     * the same {@link Archetype}, role membership is then resolved once per
+     * archetype instead of once per entity, and
+     * {@link com.guidebee.game.entity.directors.IteratingDirector}s iterate
+     * the archetypes' dense arrays.
+     *
+     * @param archetypeStorage whether or not to use archetype storage.
+     */
+    public EntityEngine(boolean archetypeStorage) {
+        this.archetypeStorage = archetypeStorage ? new ArchetypeStorage() : null;
+        entities = new EntitySet();
         pendingRemovalEntities = new Array<Entity>(false, 16);
+        pendingAdditionEntities = new Array<Entity>(false, 16);
         directors = new Array<Director>(false, 16);
         immutableDirectors = new ImmutableArray<Director>(directors);
         directorsByClass = new ObjectMap<Class<?>, Director>();
-        families = new ObjectMap<Role, Array<Entity>>();
+        families = new ObjectMap<Role, EntitySet>();
+        roles = new IntMap<Role>();
         immutableFamilies = new ObjectMap<Role, ImmutableArray<Entity>>();
         listeners = new SnapshotArray<EntityListener>(false, 16);
         familyListeners = new ObjectMap<Role, SnapshotArray<EntityListener>>();
@@ -143,12 +202,14 @@ public class EntityEngine {
 
         dataTraitOperationsPool = new DataTraitOperationPool();
         dataTraitOperations = new Array<DataTraitOperation>();
+        mainBuffer = new OperationBuffer(dataTraitOperations, pendingAdditionEntities,
+                pendingRemovalEntities);
         dataTraitOperationHandler = new DataTraitOperationHandler() {
             public void add(Entity entity, DataTrait dataTrait) {
                 if (updating) {
-                    DataTraitOperation operation = dataTraitOperationsPool.obtain();
+                    DataTraitOperation operation = obtainOperation();
                     operation.makeAdd(entity, dataTrait);
-                    dataTraitOperations.add(operation);
+                    currentBuffer().operations.add(operation);
                 } else {
                     entity.addInternal(dataTrait);
                 }
@@ -156,9 +217,9 @@ public class EntityEngine {
 
             public void remove(Entity entity, Class<? extends DataTrait> dataTraitClass) {
                 if (updating) {
-                    DataTraitOperation operation = dataTraitOperationsPool.obtain();
+                    DataTraitOperation operation = obtainOperation();
                     operation.makeRemove(entity, dataTraitClass);
-                    dataTraitOperations.add(operation);
+                    currentBuffer().operations.add(operation);
                 } else {
                     entity.removeInternal(dataTraitClass);
                 }
@@ -167,10 +228,22 @@ public class EntityEngine {
     }
 
     /**
-     * Adds an entity to this Engine.
+     * Adds an entity to this Engine. While the directors run the addition is
+     * deferred like removals, the entity joins the engine and its families
+     * after the director (or group of directors) that added it.
      */
     public void addEntity(Entity entity) {
-        entities.add(entity);
+        if (updating) {
+            currentBuffer().additions.add(entity);
+        } else {
+            addEntityInternal(entity);
+        }
+    }
+
+    protected void addEntityInternal(Entity entity) {
+        if (!entities.add(entity)) {
+            return;
+        }
 
         updateFamilyMembership(entity);
 
@@ -191,7 +264,7 @@ public class EntityEngine {
      */
     public void removeEntity(Entity entity) {
         if (updating) {
-            pendingRemovalEntities.add(entity);
+            currentBuffer().removals.add(entity);
         } else {
             removeEntityInternal(entity);
         }
@@ -201,8 +274,12 @@ public class EntityEngine {
      * Removes all entities registered with this Engine.
      */
     public void removeAllEntities() {
-        while (entities.size > 0) {
-            removeEntity(entities.first());
+        if (updating) {
+            currentBuffer().removals.addAll(entities.entities);
+        } else {
+            while (entities.size() > 0) {
+                removeEntityInternal(entities.entities.peek());
+            }
         }
     }
 
@@ -255,6 +332,27 @@ public class EntityEngine {
         return immutableFamilies.get(role);
     }
 
+    /**
+     * Returns immutable collection of the archetypes matching the specified
+     * {@link Role}. Will return the same instance every time.
+     *
+     * @return The archetypes, null if the engine doesn't use archetype storage.
+     */
+    public ImmutableArray<Archetype> getArchetypesFor(Role role) {
+        if (archetypeStorage == null) {
+            return null;
+        }
+        registerFamily(role);
+        return archetypeStorage.getArchetypesFor(role);
+    }
+
+    /**
+     * @return Whether or not the engine uses archetype storage.
+     */
+    public boolean isArchetypeStorage() {
+        return archetypeStorage != null;
+    }
+
     /**
      * Adds an {@link EntityListener}.
      * <p/>
@@ -299,22 +397,241 @@ public class EntityEngine {
      */
     public void update(float deltaTime) {
         updating = true;
-        for (int i = 0; i < directors.size; i++) {
-            if (directors.get(i).checkProcessing()) {
-                directors.get(i).direct(deltaTime);
+        if (executor == null) {
+            for (int i = 0; i < directors.size; i++) {
+                if (directors.get(i).checkProcessing()) {
+                    directors.get(i).direct(deltaTime);
+                }
+
+                addPendingEntities();
+                processDataTraitOperations();
+                removePendingEntities();
+            }
+        } else {
+            int i = 0;
+            while (i < directors.size) {
+                phase.clear();
+                for (int j = i; j < directors.size; j++) {
+                    Director director = directors.get(j);
+                    boolean conflicts = false;
+                    for (int k = 0; k < phase.size; k++) {
+                        if (director.conflictsWith(phase.get(k))) {
+                            conflicts = true;
+                            break;
+                        }
+                    }
+                    if (conflicts) break;
+                    phase.add(director);
+                }
+                i += phase.size;
+                runPhase(deltaTime);
+            }
+            phase.clear();
+        }
+
+        updating = false;
+    }
+
+    /**
+     * Sets the number of worker threads used to update directors. With
+     * workers, consecutive directors (in priority order) that declared their
+     * dataTrait access and don't conflict with each other run at the same
+     * time, and parallel {@link com.guidebee.game.entity.directors.IteratingDirector}s
+     * split their entities across the workers. DataTrait operations, entity
+     * additions and removals made while directors run are applied after each group of
+     * directors, in director order, so results don't depend on thread timing.
+     *
+     * @param threads number of worker threads, 0 to update serially.
+     */
+    public void setParallelism(int threads) {
+        if (executor != null) {
+            executor.dispose();
+            executor = null;
+        }
+        parallelism = Math.max(0, threads);
+        if (parallelism > 0) {
+            executor = new AsyncExecutor(parallelism);
+        }
+    }
+
+    /**
+     * @return The number of worker threads, 0 when updating serially.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Task processing a range of items, see {@link #parallelRange(int, int, RangeTask)}.
+     */
+    public interface RangeTask {
+        /**
+         * Processes the items from start (inclusive) to end (exclusive).
+         */
+        public void process(int start, int end);
+    }
+
+    /**
+     * Processes the range [0, size) split into chunks on the worker threads,
+     * the calling thread processes the first chunk. Runs the whole range on
+     * the calling thread when there are no workers, the range is smaller than
+     * two chunks, or when already called from a worker. DataTrait operations
+     * and entity additions and removals made by the chunks are deferred in
+     * chunk order.
+     *
+     * @param size          number of items.
+     * @param minChunkSize  minimum number of items in a chunk.
+     * @param task          the task processing the chunks.
+     */
+    public void parallelRange(int size, int minChunkSize, final RangeTask task) {
+        OperationBuffer parent = currentBuffer();
+        int chunks = Math.min(parallelism + 1, size / Math.max(1, minChunkSize));
+        if (executor == null || chunks < 2 || parent != mainBuffer && parent.worker) {
+            task.process(0, size);
+            return;
+        }
+
+        int base = rangeBuffers.size;
+        int chunkSize = (size + chunks - 1) / chunks;
+        for (int c = 1; c < chunks; c++) {
+            final int start = c * chunkSize;
+            final int end = Math.min(size, start + chunkSize);
+            final OperationBuffer buffer = obtainBuffer();
+            rangeBuffers.add(buffer);
+            rangeResults.add(executor.submit(new AsyncTask<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    runInBuffer(buffer, task, start, end);
+                    return null;
+                }
+            }));
+        }
+        try {
+            task.process(0, Math.min(size, chunkSize));
+            for (int c = base; c < rangeResults.size; c++) {
+                rangeResults.get(c).get();
+            }
+            for (int c = base; c < rangeBuffers.size; c++) {
+                OperationBuffer buffer = rangeBuffers.get(c);
+                parent.additions.addAll(buffer.additions);
+                parent.operations.addAll(buffer.operations);
+                parent.removals.addAll(buffer.removals);
+                freeBuffer(buffer);
             }
+        } finally {
+            rangeBuffers.truncate(base);
+            rangeResults.truncate(base);
+        }
+    }
 
+    private void runPhase(final float deltaTime) {
+        if (phase.size == 1) {
+            if (phase.first().checkProcessing()) {
+                phase.first().direct(deltaTime);
+            }
+            addPendingEntities();
             processDataTraitOperations();
             removePendingEntities();
+            return;
         }
 
-        updating = false;
+        phaseBuffers.clear();
+        pendingResults.clear();
+        for (int k = 0; k < phase.size; k++) {
+            phaseBuffers.add(obtainBuffer());
+        }
+        for (int k = 1; k < phase.size; k++) {
+            final Director director = phase.get(k);
+            final OperationBuffer buffer = phaseBuffers.get(k);
+            if (!director.checkProcessing()) continue;
+            pendingResults.add(executor.submit(new AsyncTask<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    runInBuffer(buffer, director, deltaTime);
+                    return null;
+                }
+            }));
+        }
+        Director first = phase.first();
+        if (first.checkProcessing()) {
+            OperationBuffer buffer = phaseBuffers.first();
+            activeBuffer.set(buffer);
+            try {
+                first.direct(deltaTime);
+            } finally {
+                activeBuffer.set(null);
+            }
+        }
+        for (int k = 0; k < pendingResults.size; k++) {
+            pendingResults.get(k).get();
+        }
+        pendingResults.clear();
+
+        for (int k = 0; k < phaseBuffers.size; k++) {
+            OperationBuffer buffer = phaseBuffers.get(k);
+            addPendingEntities(buffer.additions);
+            processDataTraitOperations(buffer.operations);
+            removePendingEntities(buffer.removals);
+            freeBuffer(buffer);
+        }
+        phaseBuffers.clear();
+    }
+
+    private void runInBuffer(OperationBuffer buffer, Director director, float deltaTime) {
+        buffer.worker = true;
+        activeBuffer.set(buffer);
+        try {
+            director.direct(deltaTime);
+        } finally {
+            activeBuffer.set(null);
+        }
+    }
+
+    private void runInBuffer(OperationBuffer buffer, RangeTask task, int start, int end) {
+        buffer.worker = true;
+        activeBuffer.set(buffer);
+        try {
+            task.process(start, end);
+        } finally {
+            activeBuffer.set(null);
+        }
+    }
+
+    private OperationBuffer currentBuffer() {
+        OperationBuffer buffer = activeBuffer.get();
+        return buffer != null ? buffer : mainBuffer;
+    }
+
+    private synchronized OperationBuffer obtainBuffer() {
+        if (freeBuffers.size > 0) {
+            return freeBuffers.pop();
+        }
+        return new OperationBuffer(new Array<DataTraitOperation>(false, 16),
+                new Array<Entity>(false, 16), new Array<Entity>(false, 16));
+    }
+
+    private synchronized void freeBuffer(OperationBuffer buffer) {
+        buffer.operations.clear();
+        buffer.additions.clear();
+        buffer.removals.clear();
+        buffer.worker = false;
+        freeBuffers.add(buffer);
+    }
+
+    private DataTraitOperation obtainOperation() {
+        synchronized (dataTraitOperationsPool) {
+            return dataTraitOperationsPool.obtain();
+        }
     }
 
     private void updateFamilyMembership(Entity entity) {
-        for (Entry<Role, Array<Entity>> entry : families.entries()) {
+        if (archetypeStorage != null) {
+            updateArchetype(entity);
+            return;
+        }
+        for (Entry<Role, EntitySet> entry : families.entries()) {
             Role role = entry.key;
-            Array<Entity> entities = entry.value;
+            EntitySet entities = entry.value;
             int familyIndex = role.getIndex();
 
 
@@ -327,7 +644,7 @@ public class EntityEngine {
 
                 notifyFamilyListenersAdd(role, entity);
             } else if (belongsToFamily && !matches) {
-                entities.removeValue(entity, true);
+                entities.remove(entity);
                 entity.getFamilyBits().clear(familyIndex);
 
                 notifyFamilyListenersRemove(role, entity);
@@ -335,7 +652,64 @@ public class EntityEngine {
         }
     }
 
+    private void updateArchetype(Entity entity) {
+        Archetype current = entity.archetype;
+        Bits dataTraitBits = entity.getDataTraitBits();
+        if (current != null && current.matches(dataTraitBits)) {
+            current.refresh(entity);
+            return;
+        }
+
+        if (current != null) {
+            current.remove(entity);
+        }
+        Archetype archetype = null;
+        if (!dataTraitBits.isEmpty()) {
+            archetype = archetypeStorage.getArchetype(dataTraitBits);
+            archetype.add(entity);
+        }
+
+        Bits familyBits = entity.getFamilyBits();
+        for (int i = familyBits.nextSetBit(0); i >= 0; i = familyBits.nextSetBit(i + 1)) {
+            if (archetype == null || !archetype.getRoleBits().get(i)) {
+                Role role = archetypeStorage.getRole(i);
+                families.get(role).remove(entity);
+                familyBits.clear(i);
+                notifyFamilyListenersRemove(role, entity);
+            }
+        }
+        if (archetype != null) {
+            Bits roleBits = archetype.getRoleBits();
+            for (int i = roleBits.nextSetBit(0); i >= 0; i = roleBits.nextSetBit(i + 1)) {
+                if (!familyBits.get(i)) {
+                    Role role = archetypeStorage.getRole(i);
+                    families.get(role).add(entity);
+                    familyBits.set(i);
+                    notifyFamilyListenersAdd(role, entity);
+                }
+            }
+        }
+    }
+
+    private void addPendingEntities() {
+        addPendingEntities(pendingAdditionEntities);
+    }
+
+    private void addPendingEntities(Array<Entity> pendingAdditionEntities) {
+        int numPending = pendingAdditionEntities.size;
+
+        for (int i = 0; i < numPending; ++i) {
+            addEntityInternal(pendingAdditionEntities.get(i));
+        }
+
+        pendingAdditionEntities.clear();
+    }
+
     private void removePendingEntities() {
+        removePendingEntities(pendingRemovalEntities);
+    }
+
+    private void removePendingEntities(Array<Entity> pendingRemovalEntities) {
         int numPending = pendingRemovalEntities.size;
 
         for (int i = 0; i < numPending; ++i) {
@@ -346,19 +720,20 @@ public class EntityEngine {
     }
 
     protected void removeEntityInternal(Entity entity) {
-        entities.removeValue(entity, true);
+        if (!entities.remove(entity)) {
+            return;
+        }
 
-        if (!entity.getFamilyBits().isEmpty()) {
-            for (Entry<Role, Array<Entity>> entry : families.entries()) {
-                Role role = entry.key;
-                Array<Entity> entities = entry.value;
+        if (entity.archetype != null) {
+            entity.archetype.remove(entity);
+        }
 
-                if (role.matches(entity)) {
-                    entities.removeValue(entity, true);
-                    entity.getFamilyBits().clear(role.getIndex());
-                    notifyFamilyListenersRemove(role, entity);
-                }
-            }
+        Bits familyBits = entity.getFamilyBits();
+        for (int i = familyBits.nextSetBit(0); i >= 0; i = familyBits.nextSetBit(i + 1)) {
+            Role role = roles.get(i);
+            families.get(role).remove(entity);
+            familyBits.clear(i);
+            notifyFamilyListenersRemove(role, entity);
         }
 
         entity.dataTraitAdded.remove(dataTraitAdded);
@@ -398,15 +773,19 @@ public class EntityEngine {
         }
     }
 
-    private Array<Entity> registerFamily(Role role) {
-        Array<Entity> entities = families.get(role);
+    private EntitySet registerFamily(Role role) {
+        EntitySet entities = families.get(role);
 
         if (entities == null) {
-            entities = new Array<Entity>(false, 16);
+            entities = new EntitySet();
             families.put(role, entities);
-            immutableFamilies.put(role, new ImmutableArray<Entity>(entities));
+            roles.put(role.getIndex(), role);
+            immutableFamilies.put(role, new ImmutableArray<Entity>(entities.entities));
+            if (archetypeStorage != null) {
+                archetypeStorage.registerRole(role);
+            }
 
-            for (Entity e : this.entities) {
+            for (Entity e : this.entities.entities) {
                 if (role.matches(e)) {
                     entities.add(e);
                     e.getFamilyBits().set(role.getIndex());
@@ -418,6 +797,10 @@ public class EntityEngine {
     }
 
     private void processDataTraitOperations() {
+        processDataTraitOperations(dataTraitOperations);
+    }
+
+    private void processDataTraitOperations(Array<DataTraitOperation> dataTraitOperations) {
         int numOperations = dataTraitOperations.size;
 
         for (int i = 0; i < numOperations; ++i) {
@@ -429,12 +812,31 @@ public class EntityEngine {
                 operation.entity.removeInternal(operation.dataTraitClass);
             }
 
-            dataTraitOperationsPool.free(operation);
+            synchronized (dataTraitOperationsPool) {
+                dataTraitOperationsPool.free(operation);
+            }
         }
 
         dataTraitOperations.clear();
     }
 
+    /**
+     * Operations, entity additions and removals deferred while directors run
+     */
+    private static class OperationBuffer {
+        final Array<DataTraitOperation> operations;
+        final Array<Entity> additions;
+        final Array<Entity> removals;
+        boolean worker;
+
+        OperationBuffer(Array<DataTraitOperation> operations, Array<Entity> additions,
+                        Array<Entity> removals) {
+            this.operations = operations;
+            this.additions = additions;
+            this.removals = removals;
+        }
+    }
+
     static interface DataTraitOperationHandler {
         public void add(Entity entity, DataTrait dataTrait);
 
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.entity;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.utils.collections.Array;
+import com.guidebee.utils.collections.IntIntMap;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Sparse set of entities. Entities are kept in a dense unordered array and
+ * a map from {@link Entity#getIndex()} to the entity's slot in that array,
+ * so adding, removing and membership tests are O(1); a removed entity is
+ * replaced by the last one.
+ */
+class EntitySet {
+    /**
+     * The entities of the set, in no particular order
+     */
+    final Array<Entity> entities = new Array<Entity>(false, 16);
+    /**
+     * Slot in entities by entity index
+     */
+    private final IntIntMap slots = new IntIntMap();
+
+    /**
+     * Adds the entity if it is not in the set yet.
+     *
+     * @return Whether the entity was added.
+     */
+    boolean add(Entity entity) {
+        int index = entity.getIndex();
+        if (slots.containsKey(index)) {
+            return false;
+        }
+        slots.put(index, entities.size);
+        entities.add(entity);
+        return true;
+    }
+
+    /**
+     * Removes the entity, moving the last entity into its slot.
+     *
+     * @return Whether the entity was in the set.
+     */
+    boolean remove(Entity entity) {
+        int slot = slots.remove(entity.getIndex(), -1);
+        if (slot < 0) {
+            return false;
+        }
+        Entity last = entities.pop();
+        if (last != entity) {
+            entities.set(slot, last);
+            slots.put(last.getIndex(), slot);
+        }
+        return true;
+    }
+
+    boolean contains(Entity entity) {
+        return slots.containsKey(entity.getIndex());
+    }
+
+    int size() {
+        return entities.size;
+    }
+}
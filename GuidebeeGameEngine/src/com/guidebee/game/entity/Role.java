@@ -81,8 +81,13 @@ public class Role {
      * @return Whether the entity matches the family requirements or not
      */
     public boolean matches(Entity entity) {
-        Bits entityDataTraitBits = entity.getDataTraitBits();
+        return matches(entity.getDataTraitBits());
+    }
 
+    /**
+     * @return Whether the set of dataTraits matches the family requirements or not
+     */
+    public boolean matches(Bits entityDataTraitBits) {
         if (entityDataTraitBits.isEmpty())
             return false;
 
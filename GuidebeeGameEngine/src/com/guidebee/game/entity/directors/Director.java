@@ -20,7 +20,10 @@ package com.guidebee.game.entity.directors;
 
 //[------------------------------ MAIN CLASS ----------------------------------]
 
+import com.guidebee.game.entity.DataTrait;
+import com.guidebee.game.entity.DataTraitType;
 import com.guidebee.game.entity.EntityEngine;
+import com.guidebee.utils.collections.Bits;
 
 /**
  * Abstract class for processing sets of {@link com.guidebee.game.entity.Entity} objects.
@@ -36,6 +39,14 @@ public abstract class Director {
 
     private boolean processing;
 
+    /**
+     * The dataTrait types this director reads and writes, only used when
+     * access is declared
+     */
+    private final Bits readDataTraits = new Bits();
+    private final Bits writeDataTraits = new Bits();
+    private boolean accessDeclared;
+
     /**
      * Default constructor that will initialise an EntityDirector with priority 0.
      */
@@ -91,4 +102,57 @@ public abstract class Director {
     public void setProcessing(boolean processing) {
         this.processing = processing;
     }
+
+    /**
+     * Declares the {@link DataTrait} types this director reads. Directors
+     * declaring their access can run in parallel with other directors they
+     * don't conflict with, see {@link EntityEngine#setParallelism(int)}.
+     *
+     * @param dataTraitTypes the dataTrait classes read by this director.
+     */
+    @SafeVarargs
+    protected final void reads(Class<? extends DataTrait>... dataTraitTypes) {
+        for (int i = 0; i < dataTraitTypes.length; i++) {
+            readDataTraits.set(DataTraitType.getIndexFor(dataTraitTypes[i]));
+        }
+        accessDeclared = true;
+    }
+
+    /**
+     * Declares the {@link DataTrait} types this director writes, including
+     * the types it adds to or removes from entities.
+     *
+     * @param dataTraitTypes the dataTrait classes written by this director.
+     */
+    @SafeVarargs
+    protected final void writes(Class<? extends DataTrait>... dataTraitTypes) {
+        for (int i = 0; i < dataTraitTypes.length; i++) {
+            writeDataTraits.set(DataTraitType.getIndexFor(dataTraitTypes[i]));
+        }
+        accessDeclared = true;
+    }
+
+    /**
+     * @return Whether or not the director declared the dataTraits it reads and writes.
+     */
+    public boolean isAccessDeclared() {
+        return accessDeclared;
+    }
+
+    /**
+     * Returns whether the director can't run at the same time as the other
+     * director, that is either one didn't declare its access or one writes a
+     * dataTrait type the other reads or writes.
+     *
+     * @param other the other director.
+     * @return Whether or not the directors conflict.
+     */
+    public boolean conflictsWith(Director other) {
+        if (!accessDeclared || !other.accessDeclared) {
+            return true;
+        }
+        return writeDataTraits.intersects(other.writeDataTraits)
+                || writeDataTraits.intersects(other.readDataTraits)
+                || readDataTraits.intersects(other.writeDataTraits);
+    }
 }
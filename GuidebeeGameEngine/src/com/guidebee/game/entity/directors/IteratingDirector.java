@@ -18,6 +18,7 @@ package com.guidebee.game.entity.directors;
 
 //--------------------------------- IMPORTS ------------------------------------
 
+import com.guidebee.game.entity.Archetype;
 import com.guidebee.game.entity.Entity;
 import com.guidebee.game.entity.EntityEngine;
 import com.guidebee.game.entity.Role;
@@ -43,6 +44,38 @@ public abstract class IteratingDirector extends Director {
      * The entities used by this director
      */
     private ImmutableArray<Entity> entities;
+    /**
+     * The archetypes used by this director when the engine uses archetype storage
+     */
+    private ImmutableArray<Archetype> archetypes;
+    /**
+     * The engine this director is added to
+     */
+    private EntityEngine entityEngine;
+    /**
+     * Whether entities are processed on the engine's worker threads
+     */
+    private boolean parallel;
+    private int minChunkSize = 64;
+    private float deltaTime;
+    private Archetype currentArchetype;
+    private final EntityEngine.RangeTask entityTask = new EntityEngine.RangeTask() {
+        @Override
+        public void process(int start, int end) {
+            for (int i = start; i < end; ++i) {
+                processEntity(entities.get(i), deltaTime);
+            }
+        }
+    };
+    private final EntityEngine.RangeTask archetypeTask = new EntityEngine.RangeTask() {
+        @Override
+        public void process(int start, int end) {
+            Archetype archetype = currentArchetype;
+            for (int i = start; i < end; ++i) {
+                processEntity(archetype.getEntity(i), deltaTime);
+            }
+        }
+    };
 
     /**
      * Instantiates a director that will iterate over the entities described by the Family.
@@ -68,18 +101,77 @@ public abstract class IteratingDirector extends Director {
 
     @Override
     public void addedToEngine(EntityEngine entityEngine) {
+        this.entityEngine = entityEngine;
         entities = entityEngine.getEntitiesFor(role);
+        archetypes = entityEngine.getArchetypesFor(role);
     }
 
     @Override
     public void removedFromEngine(EntityEngine entityEngine) {
+        this.entityEngine = null;
         entities = null;
+        archetypes = null;
+    }
+
+    /**
+     * Sets whether entities are split across the engine's worker threads, see
+     * {@link EntityEngine#setParallelism(int)}. processEntity() must then only
+     * change the dataTraits of the entity it is given; adding and removing
+     * dataTraits and entities is deferred as usual. processArchetype() is not
+     * called when processing in parallel.
+     *
+     * @param parallel     whether or not to process entities in parallel.
+     * @param minChunkSize minimum number of entities processed by one thread.
+     */
+    public void setParallel(boolean parallel, int minChunkSize) {
+        this.parallel = parallel;
+        this.minChunkSize = Math.max(1, minChunkSize);
+    }
+
+    /**
+     * @return Whether or not entities are processed in parallel.
+     */
+    public boolean isParallel() {
+        return parallel;
     }
 
     @Override
     public void direct(float deltaTime) {
-        for (int i = 0; i < entities.size(); ++i) {
-            processEntity(entities.get(i), deltaTime);
+        if (parallel && entityEngine != null) {
+            this.deltaTime = deltaTime;
+            if (archetypes != null) {
+                for (int i = 0; i < archetypes.size(); ++i) {
+                    currentArchetype = archetypes.get(i);
+                    entityEngine.parallelRange(currentArchetype.size(), minChunkSize,
+                            archetypeTask);
+                }
+                currentArchetype = null;
+            } else {
+                entityEngine.parallelRange(entities.size(), minChunkSize, entityTask);
+            }
+        } else if (archetypes != null) {
+            for (int i = 0; i < archetypes.size(); ++i) {
+                processArchetype(archetypes.get(i), deltaTime);
+            }
+        } else {
+            for (int i = 0; i < entities.size(); ++i) {
+                processEntity(entities.get(i), deltaTime);
+            }
+        }
+    }
+
+    /**
+     * Called for every archetype matching the family when the engine uses
+     * archetype storage. The default implementation calls processEntity() for
+     * each entity of the archetype, override this to process the archetype's
+     * dataTrait columns directly.
+     *
+     * @param archetype The current Archetype being processed
+     * @param deltaTime The delta time between the last and current frame
+     */
+    protected void processArchetype(Archetype archetype, float deltaTime) {
+        for (int i = 0; i < archetype.size(); ++i) {
+            processEntity(archetype.getEntity(i), deltaTime);
         }
     }
 
@@ -20,6 +20,7 @@ package com.guidebee.game.graphics;
 
 import com.guidebee.game.GameEngineRuntimeException;
 import com.guidebee.game.files.FileHandle;
+import com.guidebee.math.RandomXS128;
 import com.guidebee.math.collision.BoundingBox;
 import com.guidebee.utils.Disposable;
 import com.guidebee.utils.StreamUtils;
@@ -111,6 +112,28 @@ public class ParticleEffect implements Disposable {
             emitters.get(i).flipY();
     }
 
+    /**
+     * @see ParticleEmitter#setPacked(boolean)
+     */
+    public void setPacked(boolean packed) {
+        for (int i = 0, n = emitters.size; i < n; i++)
+            emitters.get(i).setPacked(packed);
+    }
+
+    /**
+     * Gives every emitter a random generator of its own seeded from the
+     * given seed. The effect then plays the same way for the same seed, also
+     * when it is updated on a worker thread.
+     *
+     * @param seed the seed.
+     * @see ParticleEmitter#setRandom(java.util.Random)
+     */
+    public void setSeed(long seed) {
+        RandomXS128 seeds = new RandomXS128(seed);
+        for (int i = 0, n = emitters.size; i < n; i++)
+            emitters.get(i).setRandom(new RandomXS128(seeds.nextLong()));
+    }
+
     public Array<ParticleEmitter> getEmitters() {
         return emitters;
     }
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.graphics;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.engine.utils.async.AsyncExecutor;
+import com.guidebee.game.engine.utils.async.AsyncResult;
+import com.guidebee.game.engine.utils.async.AsyncTask;
+import com.guidebee.math.MathUtils;
+import com.guidebee.math.RandomXS128;
+import com.guidebee.utils.Disposable;
+import com.guidebee.utils.collections.Array;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Updates a group of particle effects, for example the effects obtained from
+ * one or more {@link ParticleEffectPool}s. With worker threads the emitters
+ * of all effects are split into chunks of about the same number of
+ * particles, which are updated at the same time. Drawing stays on the
+ * calling (GL) thread.
+ * <p/>
+ * Each emitter is updated by one thread only and uses a random generator of
+ * its own, emitters without one get a generator seeded from
+ * {@link MathUtils#random}. Results therefore only depend on the seeds, not
+ * on the number of threads, see {@link ParticleEffect#setSeed(long)}.
+ */
+public class ParticleEffectUpdater implements Disposable {
+
+    private final Array<ParticleEffect> effects = new Array<ParticleEffect>(false, 16);
+    private final Array<ParticleEmitter> emitters = new Array<ParticleEmitter>(false, 64);
+    private final Array<UpdateTask> tasks = new Array<UpdateTask>(false, 8);
+    private final Array<AsyncResult<Void>> results = new Array<AsyncResult<Void>>(false, 8);
+
+    private AsyncExecutor executor;
+    private int parallelism;
+    private int minChunkSize = 256;
+
+    /**
+     * Creates an updater updating the effects on the calling thread.
+     */
+    public ParticleEffectUpdater() {
+    }
+
+    /**
+     * Creates an updater.
+     *
+     * @param threads number of worker threads, 0 to update serially.
+     */
+    public ParticleEffectUpdater(int threads) {
+        setParallelism(threads);
+    }
+
+    /**
+     * Sets the number of worker threads, the calling thread updates a chunk
+     * as well.
+     *
+     * @param threads number of worker threads, 0 to update serially.
+     */
+    public void setParallelism(int threads) {
+        if (executor != null) {
+            executor.dispose();
+            executor = null;
+        }
+        parallelism = Math.max(0, threads);
+        if (parallelism > 0) {
+            executor = new AsyncExecutor(parallelism);
+        }
+    }
+
+    /**
+     * @return The number of worker threads, 0 when updating serially.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the minimum number of particles in a chunk, smaller groups are
+     * not worth handing to a worker. Default is 256.
+     */
+    public void setMinChunkSize(int minChunkSize) {
+        this.minChunkSize = Math.max(1, minChunkSize);
+    }
+
+    public int getMinChunkSize() {
+        return minChunkSize;
+    }
+
+    public void add(ParticleEffect effect) {
+        effects.add(effect);
+    }
+
+    public boolean remove(ParticleEffect effect) {
+        return effects.removeValue(effect, true);
+    }
+
+    public void clear() {
+        effects.clear();
+    }
+
+    public Array<ParticleEffect> getEffects() {
+        return effects;
+    }
+
+    /**
+     * Updates all effects.
+     *
+     * @param delta time in seconds since the last update.
+     */
+    public void update(float delta) {
+        Array<ParticleEmitter> emitters = this.emitters;
+        emitters.clear();
+        int total = 0;
+        for (int i = 0, n = effects.size; i < n; i++) {
+            Array<ParticleEmitter> effectEmitters = effects.get(i).getEmitters();
+            for (int j = 0, m = effectEmitters.size; j < m; j++) {
+                ParticleEmitter emitter = effectEmitters.get(j);
+                if (emitter.getRandom() == null) {
+                    emitter.setRandom(new RandomXS128(MathUtils.random.nextLong()));
+                }
+                emitters.add(emitter);
+                total += emitter.getActiveCount() + 1;
+            }
+        }
+
+        int chunks = Math.min(parallelism + 1, total / minChunkSize);
+        if (executor == null || chunks < 2 || emitters.size < 2) {
+            update(0, emitters.size, delta);
+            return;
+        }
+
+        // contiguous ranges of emitters holding about total / chunks particles
+        int chunkSize = (total + chunks - 1) / chunks;
+        int start = 0, size = 0, firstEnd = -1;
+        for (int i = 0, n = emitters.size; i < n; i++) {
+            size += emitters.get(i).getActiveCount() + 1;
+            if (size >= chunkSize || i == n - 1) {
+                if (firstEnd < 0) {
+                    firstEnd = i + 1;
+                } else {
+                    UpdateTask task = obtainTask(results.size);
+                    task.start = start;
+                    task.end = i + 1;
+                    task.delta = delta;
+                    results.add(executor.submit(task));
+                }
+                start = i + 1;
+                size = 0;
+            }
+        }
+        try {
+            update(0, firstEnd, delta);
+        } finally {
+            try {
+                for (int i = 0; i < results.size; i++) {
+                    results.get(i).get();
+                }
+            } finally {
+                results.clear();
+            }
+        }
+    }
+
+    /**
+     * Draws all effects, on the calling thread.
+     */
+    public void draw(Batch batch) {
+        for (int i = 0, n = effects.size; i < n; i++)
+            effects.get(i).draw(batch);
+    }
+
+    @Override
+    public void dispose() {
+        setParallelism(0);
+    }
+
+    private void update(int start, int end, float delta) {
+        Array<ParticleEmitter> emitters = this.emitters;
+        for (int i = start; i < end; i++) {
+            emitters.get(i).update(delta);
+        }
+    }
+
+    private UpdateTask obtainTask(int index) {
+        while (tasks.size <= index) tasks.add(new UpdateTask());
+        return tasks.get(index);
+    }
+
+    /**
+     * Updates a range of the collected emitters.
+     */
+    private class UpdateTask implements AsyncTask<Void> {
+        int start, end;
+        float delta;
+
+        @Override
+        public Void call() throws Exception {
+            update(start, end, delta);
+            return null;
+        }
+    }
+}
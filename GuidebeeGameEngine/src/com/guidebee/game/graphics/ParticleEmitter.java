@@ -26,6 +26,7 @@ import com.guidebee.math.geometry.Rectangle;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Random;
 
 //[------------------------------ MAIN CLASS ----------------------------------]
 
@@ -90,6 +91,12 @@ public class ParticleEmitter {
     private boolean additive = true;
     private boolean premultipliedAlpha = false;
 
+    private boolean packed;
+    private PackedParticles packedParticles;
+    private float spawnX, spawnY;
+    private float spawnAngle, spawnCos, spawnSin;
+    private Random random;
+
     public ParticleEmitter() {
         initialize();
     }
@@ -103,6 +110,7 @@ public class ParticleEmitter {
         sprite = emitter.sprite;
         name = emitter.name;
         imagePath = emitter.imagePath;
+        packed = emitter.packed;
         setMaxParticleCount(emitter.maxParticleCount);
         minParticleCount = emitter.minParticleCount;
         delayValue.load(emitter.delayValue);
@@ -145,12 +153,67 @@ public class ParticleEmitter {
         this.maxParticleCount = maxParticleCount;
         active = new boolean[maxParticleCount];
         activeCount = 0;
-        particles = new Particle[maxParticleCount];
+        if (packed) {
+            particles = new Particle[0];
+            packedParticles = new PackedParticles(maxParticleCount);
+        } else {
+            particles = new Particle[maxParticleCount];
+            packedParticles = null;
+        }
+    }
+
+    /**
+     * Switches between the sprite per particle and the packed particle
+     * storage. Packed particles keep their state in parallel float arrays
+     * and are written straight into the batch vertices when drawn, instead
+     * of going through a {@link Particle} sprite each. Packed particles do
+     * not keep their drawing order when others die, {@link #newParticle(Sprite)}
+     * is not used. Changing the storage removes the active particles.
+     */
+    public void setPacked(boolean packed) {
+        if (this.packed == packed) return;
+        this.packed = packed;
+        setMaxParticleCount(maxParticleCount);
+    }
+
+    /**
+     * @return whether the particles are kept in parallel arrays.
+     */
+    public boolean isPacked() {
+        return packed;
+    }
+
+    /**
+     * Sets the random generator used by this emitter. By default the shared
+     * {@link MathUtils#random} is used, an emitter updated on a worker
+     * thread needs a generator of its own.
+     *
+     * @param random random generator, null for {@link MathUtils#random}.
+     */
+    public void setRandom(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * @return the random generator of this emitter, null when the shared
+     * {@link MathUtils#random} is used.
+     */
+    public Random getRandom() {
+        return random;
+    }
+
+    private Random random() {
+        return random != null ? random : MathUtils.random;
     }
 
     public void addParticle() {
         int activeCount = this.activeCount;
         if (activeCount == maxParticleCount) return;
+        if (packed) {
+            activatePackedParticle(activeCount);
+            this.activeCount = activeCount + 1;
+            return;
+        }
         boolean[] active = this.active;
         for (int i = 0, n = active.length; i < n; i++) {
             if (!active[i]) {
@@ -164,7 +227,14 @@ public class ParticleEmitter {
 
     public void addParticles(int count) {
         count = Math.min(count, maxParticleCount - activeCount);
-        if (count == 0) return;
+        if (count <= 0) return;
+        if (packed) {
+            for (int i = 0; i < count; i++) {
+                activatePackedParticle(activeCount);
+                activeCount++;
+            }
+            return;
+        }
         boolean[] active = this.active;
         int index = 0, n = active.length;
         outer:
@@ -223,6 +293,10 @@ public class ParticleEmitter {
             }
         }
 
+        if (packed) {
+            updatePackedParticles(delta, deltaMillis);
+            return;
+        }
         boolean[] active = this.active;
         int activeCount = this.activeCount;
         Particle[] particles = this.particles;
@@ -243,11 +317,14 @@ public class ParticleEmitter {
                 batch.setBlendFunction(IGL20.GL_SRC_ALPHA, IGL20.GL_ONE);
             }
         }
-        Particle[] particles = this.particles;
-        boolean[] active = this.active;
-
-        for (int i = 0, n = active.length; i < n; i++) {
-            if (active[i]) particles[i].draw(batch);
+        if (packed) {
+            drawPackedParticles(batch);
+        } else {
+            Particle[] particles = this.particles;
+            boolean[] active = this.active;
+            for (int i = 0, n = active.length; i < n; i++) {
+                if (active[i]) particles[i].draw(batch);
+            }
         }
 
         if (additive || premultipliedAlpha) batch.setBlendFunction(IGL20.GL_SRC_ALPHA,
@@ -277,21 +354,26 @@ public class ParticleEmitter {
             }
         }
 
-        Particle[] particles = this.particles;
-        boolean[] active = this.active;
-        int activeCount = this.activeCount;
-        for (int i = 0, n = active.length; i < n; i++) {
-            if (active[i]) {
-                Particle particle = particles[i];
-                if (updateParticle(particle, delta, deltaMillis))
-                    particle.draw(batch);
-                else {
-                    active[i] = false;
-                    activeCount--;
+        if (packed) {
+            updatePackedParticles(delta, deltaMillis);
+            drawPackedParticles(batch);
+        } else {
+            Particle[] particles = this.particles;
+            boolean[] active = this.active;
+            int activeCount = this.activeCount;
+            for (int i = 0, n = active.length; i < n; i++) {
+                if (active[i]) {
+                    Particle particle = particles[i];
+                    if (updateParticle(particle, delta, deltaMillis))
+                        particle.draw(batch);
+                    else {
+                        active[i] = false;
+                        activeCount--;
+                    }
                 }
             }
+            this.activeCount = activeCount;
         }
-        this.activeCount = activeCount;
 
         if (additive || premultipliedAlpha) batch.setBlendFunction(IGL20.GL_SRC_ALPHA,
                 IGL20.GL_ONE_MINUS_SRC_ALPHA);
@@ -346,30 +428,31 @@ public class ParticleEmitter {
     }
 
     private void restart() {
-        delay = delayValue.active ? delayValue.newLowValue() : 0;
+        Random random = random();
+        delay = delayValue.active ? delayValue.newLowValue(random) : 0;
         delayTimer = 0;
 
         durationTimer -= duration;
-        duration = durationValue.newLowValue();
+        duration = durationValue.newLowValue(random);
 
-        emission = (int) emissionValue.newLowValue();
-        emissionDiff = (int) emissionValue.newHighValue();
+        emission = (int) emissionValue.newLowValue(random);
+        emissionDiff = (int) emissionValue.newHighValue(random);
         if (!emissionValue.isRelative()) emissionDiff -= emission;
 
-        life = (int) lifeValue.newLowValue();
-        lifeDiff = (int) lifeValue.newHighValue();
+        life = (int) lifeValue.newLowValue(random);
+        lifeDiff = (int) lifeValue.newHighValue(random);
         if (!lifeValue.isRelative()) lifeDiff -= life;
 
-        lifeOffset = lifeOffsetValue.active ? (int) lifeOffsetValue.newLowValue() : 0;
-        lifeOffsetDiff = (int) lifeOffsetValue.newHighValue();
+        lifeOffset = lifeOffsetValue.active ? (int) lifeOffsetValue.newLowValue(random) : 0;
+        lifeOffsetDiff = (int) lifeOffsetValue.newHighValue(random);
         if (!lifeOffsetValue.isRelative()) lifeOffsetDiff -= lifeOffset;
 
-        spawnWidth = spawnWidthValue.newLowValue();
-        spawnWidthDiff = spawnWidthValue.newHighValue();
+        spawnWidth = spawnWidthValue.newLowValue(random);
+        spawnWidthDiff = spawnWidthValue.newHighValue(random);
         if (!spawnWidthValue.isRelative()) spawnWidthDiff -= spawnWidth;
 
-        spawnHeight = spawnHeightValue.newLowValue();
-        spawnHeightDiff = spawnHeightValue.newHighValue();
+        spawnHeight = spawnHeightValue.newLowValue(random);
+        spawnHeightDiff = spawnHeightValue.newHighValue(random);
         if (!spawnHeightValue.isRelative()) spawnHeightDiff -= spawnHeight;
 
         updateFlags = 0;
@@ -387,6 +470,7 @@ public class ParticleEmitter {
     }
 
     private void activateParticle(int index) {
+        Random random = random();
         Particle particle = particles[index];
         if (particle == null) {
             particles[index] = particle = newParticle(sprite);
@@ -399,13 +483,13 @@ public class ParticleEmitter {
         particle.currentLife = particle.life = life + (int) (lifeDiff * lifeValue.getScale(percent));
 
         if (velocityValue.active) {
-            particle.velocity = velocityValue.newLowValue();
-            particle.velocityDiff = velocityValue.newHighValue();
+            particle.velocity = velocityValue.newLowValue(random);
+            particle.velocityDiff = velocityValue.newHighValue(random);
             if (!velocityValue.isRelative()) particle.velocityDiff -= particle.velocity;
         }
 
-        particle.angle = angleValue.newLowValue();
-        particle.angleDiff = angleValue.newHighValue();
+        particle.angle = angleValue.newLowValue(random);
+        particle.angleDiff = angleValue.newHighValue(random);
         if (!angleValue.isRelative()) particle.angleDiff -= particle.angle;
         float angle = 0;
         if ((updateFlags & UPDATE_ANGLE) == 0) {
@@ -416,14 +500,14 @@ public class ParticleEmitter {
         }
 
         float spriteWidth = sprite.getWidth();
-        particle.scale = scaleValue.newLowValue() / spriteWidth;
-        particle.scaleDiff = scaleValue.newHighValue() / spriteWidth;
+        particle.scale = scaleValue.newLowValue(random) / spriteWidth;
+        particle.scaleDiff = scaleValue.newHighValue(random) / spriteWidth;
         if (!scaleValue.isRelative()) particle.scaleDiff -= particle.scale;
         particle.setScale(particle.scale + particle.scaleDiff * scaleValue.getScale(0));
 
         if (rotationValue.active) {
-            particle.rotation = rotationValue.newLowValue();
-            particle.rotationDiff = rotationValue.newHighValue();
+            particle.rotation = rotationValue.newLowValue(random);
+            particle.rotationDiff = rotationValue.newHighValue(random);
             if (!rotationValue.isRelative()) particle.rotationDiff -= particle.rotation;
             float rotation = particle.rotation + particle.rotationDiff * rotationValue.getScale(0);
             if (aligned) rotation += angle;
@@ -431,14 +515,14 @@ public class ParticleEmitter {
         }
 
         if (windValue.active) {
-            particle.wind = windValue.newLowValue();
-            particle.windDiff = windValue.newHighValue();
+            particle.wind = windValue.newLowValue(random);
+            particle.windDiff = windValue.newHighValue(random);
             if (!windValue.isRelative()) particle.windDiff -= particle.wind;
         }
 
         if (gravityValue.active) {
-            particle.gravity = gravityValue.newLowValue();
-            particle.gravityDiff = gravityValue.newHighValue();
+            particle.gravity = gravityValue.newLowValue(random);
+            particle.gravityDiff = gravityValue.newHighValue(random);
             if (!gravityValue.isRelative()) particle.gravityDiff -= particle.gravity;
         }
 
@@ -449,20 +533,44 @@ public class ParticleEmitter {
         color[1] = temp[1];
         color[2] = temp[2];
 
-        particle.transparency = transparencyValue.newLowValue();
-        particle.transparencyDiff = transparencyValue.newHighValue() - particle.transparency;
+        particle.transparency = transparencyValue.newLowValue(random);
+        particle.transparencyDiff = transparencyValue.newHighValue(random) - particle.transparency;
+
+        if (spawn(percent) && (updateFlags & UPDATE_ANGLE) == 0) {
+            particle.angle = spawnAngle;
+            particle.angleCos = spawnCos;
+            particle.angleSin = spawnSin;
+        }
+        float spriteHeight = sprite.getHeight();
+        particle.setBounds(spawnX - spriteWidth / 2, spawnY - spriteHeight / 2,
+                spriteWidth, spriteHeight);
 
-        // Spawn.
+        int offsetTime = (int) (lifeOffset + lifeOffsetDiff * lifeOffsetValue.getScale(percent));
+        if (offsetTime > 0) {
+            if (offsetTime >= particle.currentLife) offsetTime = particle.currentLife - 1;
+            updateParticle(particle, offsetTime / 1000f, offsetTime);
+        }
+    }
+
+    /**
+     * Computes the spawn position of a new particle into spawnX, spawnY.
+     *
+     * @return true if the particle spawns on an ellipse edge, its angle is
+     * then in spawnAngle, spawnCos and spawnSin.
+     */
+    private boolean spawn(float percent) {
+        Random random = random();
+        boolean edge = false;
         float x = this.x;
-        if (xOffsetValue.active) x += xOffsetValue.newLowValue();
+        if (xOffsetValue.active) x += xOffsetValue.newLowValue(random);
         float y = this.y;
-        if (yOffsetValue.active) y += yOffsetValue.newLowValue();
+        if (yOffsetValue.active) y += yOffsetValue.newLowValue(random);
         switch (spawnShapeValue.shape) {
             case square: {
                 float width = spawnWidth + (spawnWidthDiff * spawnWidthValue.getScale(percent));
                 float height = spawnHeight + (spawnHeightDiff * spawnHeightValue.getScale(percent));
-                x += MathUtils.random(width) - width / 2;
-                y += MathUtils.random(height) - height / 2;
+                x += random.nextFloat() * width - width / 2;
+                y += random.nextFloat() * height - height / 2;
                 break;
             }
             case ellipse: {
@@ -476,29 +584,28 @@ public class ParticleEmitter {
                     float spawnAngle;
                     switch (spawnShapeValue.side) {
                         case top:
-                            spawnAngle = -MathUtils.random(179f);
+                            spawnAngle = -random.nextFloat() * 179f;
                             break;
                         case bottom:
-                            spawnAngle = MathUtils.random(179f);
+                            spawnAngle = random.nextFloat() * 179f;
                             break;
                         default:
-                            spawnAngle = MathUtils.random(360f);
+                            spawnAngle = random.nextFloat() * 360f;
                             break;
                     }
                     float cosDeg = MathUtils.cosDeg(spawnAngle);
                     float sinDeg = MathUtils.sinDeg(spawnAngle);
                     x += cosDeg * radiusX;
                     y += sinDeg * radiusX / scaleY;
-                    if ((updateFlags & UPDATE_ANGLE) == 0) {
-                        particle.angle = spawnAngle;
-                        particle.angleCos = cosDeg;
-                        particle.angleSin = sinDeg;
-                    }
+                    this.spawnAngle = spawnAngle;
+                    spawnCos = cosDeg;
+                    spawnSin = sinDeg;
+                    edge = true;
                 } else {
                     float radius2 = radiusX * radiusX;
                     while (true) {
-                        float px = MathUtils.random(width) - radiusX;
-                        float py = MathUtils.random(width) - radiusX;
+                        float px = random.nextFloat() * width - radiusX;
+                        float py = random.nextFloat() * width - radiusX;
                         if (px * px + py * py <= radius2) {
                             x += px;
                             y += py / scaleY;
@@ -512,23 +619,17 @@ public class ParticleEmitter {
                 float width = spawnWidth + (spawnWidthDiff * spawnWidthValue.getScale(percent));
                 float height = spawnHeight + (spawnHeightDiff * spawnHeightValue.getScale(percent));
                 if (width != 0) {
-                    float lineX = width * MathUtils.random();
+                    float lineX = width * random.nextFloat();
                     x += lineX;
                     y += lineX * (height / (float) width);
                 } else
-                    y += height * MathUtils.random();
+                    y += height * random.nextFloat();
                 break;
             }
         }
-
-        float spriteHeight = sprite.getHeight();
-        particle.setBounds(x - spriteWidth / 2, y - spriteHeight / 2, spriteWidth, spriteHeight);
-
-        int offsetTime = (int) (lifeOffset + lifeOffsetDiff * lifeOffsetValue.getScale(percent));
-        if (offsetTime > 0) {
-            if (offsetTime >= particle.currentLife) offsetTime = particle.currentLife - 1;
-            updateParticle(particle, offsetTime / 1000f, offsetTime);
-        }
+        spawnX = x;
+        spawnY = y;
+        return edge;
     }
 
     private boolean updateParticle(Particle particle, float delta, int deltaMillis) {
@@ -601,8 +702,320 @@ public class ParticleEmitter {
         return true;
     }
 
+    private void activatePackedParticle(int index) {
+        Random random = random();
+        PackedParticles particles = packedParticles;
+        float percent = durationTimer / (float) duration;
+        int updateFlags = this.updateFlags;
+
+        int life = this.life + (int) (lifeDiff * lifeValue.getScale(percent));
+        particles.life[index] = life;
+        particles.currentLife[index] = life;
+
+        if (velocityValue.active) {
+            float velocity = velocityValue.newLowValue(random);
+            float velocityDiff = velocityValue.newHighValue(random);
+            if (!velocityValue.isRelative()) velocityDiff -= velocity;
+            particles.velocity[index] = velocity;
+            particles.velocityDiff[index] = velocityDiff;
+        }
+
+        float angle = angleValue.newLowValue(random);
+        float angleDiff = angleValue.newHighValue(random);
+        if (!angleValue.isRelative()) angleDiff -= angle;
+        float alignedAngle = 0;
+        if ((updateFlags & UPDATE_ANGLE) == 0) {
+            angle = angle + angleDiff * angleValue.getScale(0);
+            alignedAngle = angle;
+            particles.angleCos[index] = MathUtils.cosDeg(angle);
+            particles.angleSin[index] = MathUtils.sinDeg(angle);
+        }
+        particles.angle[index] = angle;
+        particles.angleDiff[index] = angleDiff;
+
+        float spriteWidth = sprite.getWidth();
+        float scale = scaleValue.newLowValue(random) / spriteWidth;
+        float scaleDiff = scaleValue.newHighValue(random) / spriteWidth;
+        if (!scaleValue.isRelative()) scaleDiff -= scale;
+        particles.scale[index] = scale;
+        particles.scaleDiff[index] = scaleDiff;
+        particles.currentScale[index] = scale + scaleDiff * scaleValue.getScale(0);
+
+        float rotation = 0, rotationDiff = 0;
+        float currentRotation = sprite.getRotation();
+        if (rotationValue.active) {
+            rotation = rotationValue.newLowValue(random);
+            rotationDiff = rotationValue.newHighValue(random);
+            if (!rotationValue.isRelative()) rotationDiff -= rotation;
+            currentRotation = rotation + rotationDiff * rotationValue.getScale(0);
+            if (aligned) currentRotation += alignedAngle;
+        }
+        particles.rotation[index] = rotation;
+        particles.rotationDiff[index] = rotationDiff;
+        particles.currentRotation[index] = currentRotation;
+
+        if (windValue.active) {
+            float wind = windValue.newLowValue(random);
+            float windDiff = windValue.newHighValue(random);
+            if (!windValue.isRelative()) windDiff -= wind;
+            particles.wind[index] = wind;
+            particles.windDiff[index] = windDiff;
+        }
+
+        if (gravityValue.active) {
+            float gravity = gravityValue.newLowValue(random);
+            float gravityDiff = gravityValue.newHighValue(random);
+            if (!gravityValue.isRelative()) gravityDiff -= gravity;
+            particles.gravity[index] = gravity;
+            particles.gravityDiff[index] = gravityDiff;
+        }
+
+        float[] temp = tintValue.getColor(0);
+        float[] tint = particles.tint;
+        tint[index * 3] = temp[0];
+        tint[index * 3 + 1] = temp[1];
+        tint[index * 3 + 2] = temp[2];
+
+        float transparency = transparencyValue.newLowValue(random);
+        particles.transparency[index] = transparency;
+        particles.transparencyDiff[index] = transparencyValue.newHighValue(random) - transparency;
+        particles.color[index] = sprite.vertices[Batch.C1];
+
+        if (spawn(percent) && (updateFlags & UPDATE_ANGLE) == 0) {
+            particles.angle[index] = spawnAngle;
+            particles.angleCos[index] = spawnCos;
+            particles.angleSin[index] = spawnSin;
+        }
+        particles.x[index] = spawnX - spriteWidth / 2;
+        particles.y[index] = spawnY - sprite.getHeight() / 2;
+
+        int offsetTime = (int) (lifeOffset + lifeOffsetDiff * lifeOffsetValue.getScale(percent));
+        if (offsetTime > 0) {
+            if (offsetTime >= life) offsetTime = life - 1;
+            updatePackedParticle(particles, index, offsetTime / 1000f, offsetTime);
+        }
+    }
+
+    /**
+     * Updates the packed particles, a dead particle is replaced by the last
+     * active one.
+     */
+    private void updatePackedParticles(float delta, int deltaMillis) {
+        PackedParticles particles = packedParticles;
+        int activeCount = this.activeCount;
+        int i = 0;
+        while (i < activeCount) {
+            if (updatePackedParticle(particles, i, delta, deltaMillis)) {
+                i++;
+            } else {
+                activeCount--;
+                if (i != activeCount) particles.move(activeCount, i);
+            }
+        }
+        this.activeCount = activeCount;
+    }
+
+    private boolean updatePackedParticle(PackedParticles particles, int i,
+                                         float delta, int deltaMillis) {
+        int life = particles.currentLife[i] - deltaMillis;
+        if (life <= 0) return false;
+        particles.currentLife[i] = life;
+
+        float percent = 1 - life / (float) particles.life[i];
+        int updateFlags = this.updateFlags;
+
+        if ((updateFlags & UPDATE_SCALE) != 0)
+            particles.currentScale[i] = particles.scale[i]
+                    + particles.scaleDiff[i] * scaleValue.getScale(percent);
+
+        if ((updateFlags & UPDATE_VELOCITY) != 0) {
+            float velocity = (particles.velocity[i]
+                    + particles.velocityDiff[i] * velocityValue.getScale(percent)) * delta;
+
+            float velocityX, velocityY;
+            if ((updateFlags & UPDATE_ANGLE) != 0) {
+                float angle = particles.angle[i]
+                        + particles.angleDiff[i] * angleValue.getScale(percent);
+                velocityX = velocity * MathUtils.cosDeg(angle);
+                velocityY = velocity * MathUtils.sinDeg(angle);
+                if ((updateFlags & UPDATE_ROTATION) != 0) {
+                    float rotation = particles.rotation[i]
+                            + particles.rotationDiff[i] * rotationValue.getScale(percent);
+                    if (aligned) rotation += angle;
+                    particles.currentRotation[i] = rotation;
+                }
+            } else {
+                velocityX = velocity * particles.angleCos[i];
+                velocityY = velocity * particles.angleSin[i];
+                if (aligned || (updateFlags & UPDATE_ROTATION) != 0) {
+                    float rotation = particles.rotation[i]
+                            + particles.rotationDiff[i] * rotationValue.getScale(percent);
+                    if (aligned) rotation += particles.angle[i];
+                    particles.currentRotation[i] = rotation;
+                }
+            }
+
+            if ((updateFlags & UPDATE_WIND) != 0)
+                velocityX += (particles.wind[i]
+                        + particles.windDiff[i] * windValue.getScale(percent)) * delta;
+
+            if ((updateFlags & UPDATE_GRAVITY) != 0)
+                velocityY += (particles.gravity[i]
+                        + particles.gravityDiff[i] * gravityValue.getScale(percent)) * delta;
+
+            particles.x[i] += velocityX;
+            particles.y[i] += velocityY;
+        } else {
+            if ((updateFlags & UPDATE_ROTATION) != 0)
+                particles.currentRotation[i] = particles.rotation[i]
+                        + particles.rotationDiff[i] * rotationValue.getScale(percent);
+        }
+
+        float r, g, b;
+        if ((updateFlags & UPDATE_TINT) != 0) {
+            float[] color = tintValue.getColor(percent);
+            r = color[0];
+            g = color[1];
+            b = color[2];
+        } else {
+            float[] tint = particles.tint;
+            r = tint[i * 3];
+            g = tint[i * 3 + 1];
+            b = tint[i * 3 + 2];
+        }
+
+        float a = particles.transparency[i]
+                + particles.transparencyDiff[i] * transparencyValue.getScale(percent);
+        if (premultipliedAlpha) {
+            float alphaMultiplier = additive ? 0 : 1;
+            particles.color[i] = Color.toFloatBits(r * a, g * a, b * a, a * alphaMultiplier);
+        } else {
+            particles.color[i] = Color.toFloatBits(r, g, b, a);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the quads of the active packed particles into the packed vertex
+     * array, the same way {@link Sprite#getVertices()} does for a particle.
+     *
+     * @return number of floats written.
+     */
+    private int writePackedVertices() {
+        PackedParticles particles = packedParticles;
+        float[] spriteVertices = sprite.getVertices();
+        float u1 = spriteVertices[Batch.U1], v1 = spriteVertices[Batch.V1];
+        float u2 = spriteVertices[Batch.U2], v2 = spriteVertices[Batch.V2];
+        float u3 = spriteVertices[Batch.U3], v3 = spriteVertices[Batch.V3];
+        float u4 = spriteVertices[Batch.U4], v4 = spriteVertices[Batch.V4];
+        if (flipX) {
+            float temp = u1;
+            u1 = u3;
+            u3 = temp;
+            temp = u2;
+            u2 = u4;
+            u4 = temp;
+        }
+        if (flipY) {
+            float temp = v1;
+            v1 = v3;
+            v3 = temp;
+            temp = v2;
+            v2 = v4;
+            v4 = temp;
+        }
+        float width = sprite.getWidth();
+        float height = sprite.getHeight();
+        float originX = sprite.getOriginX();
+        float originY = sprite.getOriginY();
+
+        float[] vertices = particles.vertices;
+        float[] px = particles.x;
+        float[] py = particles.y;
+        float[] scales = particles.currentScale;
+        float[] rotations = particles.currentRotation;
+        float[] colors = particles.color;
+        int activeCount = this.activeCount;
+        for (int i = 0, offset = 0; i < activeCount; i++, offset += Sprite.SPRITE_SIZE) {
+            float scale = scales[i];
+            float localX = -originX * scale;
+            float localY = -originY * scale;
+            float localX2 = (width - originX) * scale;
+            float localY2 = (height - originY) * scale;
+            float worldOriginX = px[i] + originX;
+            float worldOriginY = py[i] + originY;
+            float rotation = rotations[i];
+            float x1, y1, x2, y2, x3, y3, x4, y4;
+            if (rotation != 0) {
+                float cos = MathUtils.cosDeg(rotation);
+                float sin = MathUtils.sinDeg(rotation);
+                float localXCos = localX * cos;
+                float localXSin = localX * sin;
+                float localYCos = localY * cos;
+                float localYSin = localY * sin;
+                float localX2Cos = localX2 * cos;
+                float localX2Sin = localX2 * sin;
+                float localY2Cos = localY2 * cos;
+                float localY2Sin = localY2 * sin;
+                x1 = localXCos - localYSin + worldOriginX;
+                y1 = localYCos + localXSin + worldOriginY;
+                x2 = localXCos - localY2Sin + worldOriginX;
+                y2 = localY2Cos + localXSin + worldOriginY;
+                x3 = localX2Cos - localY2Sin + worldOriginX;
+                y3 = localY2Cos + localX2Sin + worldOriginY;
+                x4 = x1 + (x3 - x2);
+                y4 = y3 - (y2 - y1);
+            } else {
+                x1 = localX + worldOriginX;
+                y1 = localY + worldOriginY;
+                x3 = localX2 + worldOriginX;
+                y3 = localY2 + worldOriginY;
+                x2 = x1;
+                y2 = y3;
+                x4 = x3;
+                y4 = y1;
+            }
+            float color = colors[i];
+            vertices[offset + Batch.X1] = x1;
+            vertices[offset + Batch.Y1] = y1;
+            vertices[offset + Batch.C1] = color;
+            vertices[offset + Batch.U1] = u1;
+            vertices[offset + Batch.V1] = v1;
+            vertices[offset + Batch.X2] = x2;
+            vertices[offset + Batch.Y2] = y2;
+            vertices[offset + Batch.C2] = color;
+            vertices[offset + Batch.U2] = u2;
+            vertices[offset + Batch.V2] = v2;
+            vertices[offset + Batch.X3] = x3;
+            vertices[offset + Batch.Y3] = y3;
+            vertices[offset + Batch.C3] = color;
+            vertices[offset + Batch.U3] = u3;
+            vertices[offset + Batch.V3] = v3;
+            vertices[offset + Batch.X4] = x4;
+            vertices[offset + Batch.Y4] = y4;
+            vertices[offset + Batch.C4] = color;
+            vertices[offset + Batch.U4] = u4;
+            vertices[offset + Batch.V4] = v4;
+        }
+        return activeCount * Sprite.SPRITE_SIZE;
+    }
+
+    private void drawPackedParticles(Batch batch) {
+        int count = writePackedVertices();
+        if (count > 0) batch.draw(sprite.getTexture(), packedParticles.vertices, 0, count);
+    }
+
     public void setPosition(float x, float y) {
-        if (attached) {
+        if (attached && packed) {
+            float xAmount = x - this.x;
+            float yAmount = y - this.y;
+            float[] px = packedParticles.x;
+            float[] py = packedParticles.y;
+            for (int i = 0, n = activeCount; i < n; i++) {
+                px[i] += xAmount;
+                py[i] += yAmount;
+            }
+        } else if (attached) {
             float xAmount = x - this.x;
             float yAmount = y - this.y;
             boolean[] active = this.active;
@@ -849,6 +1262,12 @@ public class ParticleEmitter {
         BoundingBox bounds = this.bounds;
 
         bounds.inf();
+        if (packed) {
+            float[] vertices = packedParticles.vertices;
+            for (int i = 0, n = writePackedVertices(); i < n; i += Batch.X2 - Batch.X1)
+                bounds.ext(vertices[i + Batch.X1], vertices[i + Batch.Y1], 0);
+            return bounds;
+        }
         for (int i = 0, n = active.length; i < n; i++)
             if (active[i]) {
                 Rectangle r = particles[i].getBoundingRectangle();
@@ -1019,6 +1438,85 @@ public class ParticleEmitter {
         }
     }
 
+    /**
+     * Particle state of a packed emitter, one array per particle property.
+     */
+    static final class PackedParticles {
+        final int[] life, currentLife;
+        final float[] scale, scaleDiff, currentScale;
+        final float[] rotation, rotationDiff, currentRotation;
+        final float[] velocity, velocityDiff;
+        final float[] angle, angleDiff;
+        final float[] angleCos, angleSin;
+        final float[] transparency, transparencyDiff;
+        final float[] wind, windDiff;
+        final float[] gravity, gravityDiff;
+        final float[] tint;
+        final float[] x, y;
+        final float[] color;
+        final float[] vertices;
+
+        PackedParticles(int capacity) {
+            life = new int[capacity];
+            currentLife = new int[capacity];
+            scale = new float[capacity];
+            scaleDiff = new float[capacity];
+            currentScale = new float[capacity];
+            rotation = new float[capacity];
+            rotationDiff = new float[capacity];
+            currentRotation = new float[capacity];
+            velocity = new float[capacity];
+            velocityDiff = new float[capacity];
+            angle = new float[capacity];
+            angleDiff = new float[capacity];
+            angleCos = new float[capacity];
+            angleSin = new float[capacity];
+            transparency = new float[capacity];
+            transparencyDiff = new float[capacity];
+            wind = new float[capacity];
+            windDiff = new float[capacity];
+            gravity = new float[capacity];
+            gravityDiff = new float[capacity];
+            tint = new float[capacity * 3];
+            x = new float[capacity];
+            y = new float[capacity];
+            color = new float[capacity];
+            vertices = new float[capacity * Sprite.SPRITE_SIZE];
+        }
+
+        /**
+         * Copies the particle at index from to index to.
+         */
+        void move(int from, int to) {
+            life[to] = life[from];
+            currentLife[to] = currentLife[from];
+            scale[to] = scale[from];
+            scaleDiff[to] = scaleDiff[from];
+            currentScale[to] = currentScale[from];
+            rotation[to] = rotation[from];
+            rotationDiff[to] = rotationDiff[from];
+            currentRotation[to] = currentRotation[from];
+            velocity[to] = velocity[from];
+            velocityDiff[to] = velocityDiff[from];
+            angle[to] = angle[from];
+            angleDiff[to] = angleDiff[from];
+            angleCos[to] = angleCos[from];
+            angleSin[to] = angleSin[from];
+            transparency[to] = transparency[from];
+            transparencyDiff[to] = transparencyDiff[from];
+            wind[to] = wind[from];
+            windDiff[to] = windDiff[from];
+            gravity[to] = gravity[from];
+            gravityDiff[to] = gravityDiff[from];
+            tint[to * 3] = tint[from * 3];
+            tint[to * 3 + 1] = tint[from * 3 + 1];
+            tint[to * 3 + 2] = tint[from * 3 + 2];
+            x[to] = x[from];
+            y[to] = y[from];
+            color[to] = color[from];
+        }
+    }
+
     /**
      * Particle Value.
      */
@@ -1101,7 +1599,11 @@ public class ParticleEmitter {
         private float lowMin, lowMax;
 
         public float newLowValue() {
-            return lowMin + (lowMax - lowMin) * MathUtils.random();
+            return newLowValue(MathUtils.random);
+        }
+
+        public float newLowValue(Random random) {
+            return lowMin + (lowMax - lowMin) * random.nextFloat();
         }
 
         public void setLow(float value) {
@@ -1161,7 +1663,11 @@ public class ParticleEmitter {
         private boolean relative;
 
         public float newHighValue() {
-            return highMin + (highMax - highMin) * MathUtils.random();
+            return newHighValue(MathUtils.random);
+        }
+
+        public float newHighValue(Random random) {
+            return highMin + (highMax - highMin) * random.nextFloat();
         }
 
         public void setHigh(float value) {
@@ -1278,7 +1784,8 @@ public class ParticleEmitter {
      * Gradient Color Value.
      */
     static public class GradientColorValue extends ParticleValue {
-        static private float[] temp = new float[4];
+        // per value, the emitters are updated on several threads.
+        private float[] temp = new float[4];
 
         private float[] colors = {1, 1, 1};
         float[] timeline = {0};
@@ -1303,6 +1810,12 @@ public class ParticleEmitter {
             this.colors = colors;
         }
 
+        /**
+         * Get the color at the percent of the timeline.
+         *
+         * @param percent the percent of the timeline.
+         * @return the color, the array is reused by the next call on this value.
+         */
         public float[] getColor(float percent) {
             int startIndex = 0, endIndex = -1;
             float[] timeline = this.timeline;
@@ -77,6 +77,19 @@ public class SpriteBatch implements Batch {
      */
     public int maxSpritesInBatch = 0;
 
+    /**
+     * Number of times the batch was flushed because of a texture or blend
+     * state change, a full buffer or an explicit flush since the last
+     * {@link #begin()}. Without deferred mode each flush is a render call. *
+     */
+    public int flushCalls = 0;
+
+    private boolean deferred;
+    // whether the recorded vertices are moved by the transform matrix.
+    private boolean transformVertices;
+    private int layer;
+    private SpriteCommandBuffer commands;
+
     /**
      * Constructs a new SpriteBatch with a size of 1000, one buffer, and the default shader.
      *
@@ -193,6 +206,7 @@ public class SpriteBatch implements Batch {
         if (drawing)
             throw new IllegalStateException("SpriteBatch.end must be called before begin.");
         renderCalls = 0;
+        flushCalls = 0;
 
         GameEngine.gl.glDepthMask(false);
         if (customShader != null)
@@ -208,7 +222,7 @@ public class SpriteBatch implements Batch {
     public void end() {
         if (!drawing)
             throw new IllegalStateException("SpriteBatch.begin must be called before end.");
-        if (idx > 0) flush();
+        flush();
         lastTexture = null;
         drawing = false;
 
@@ -263,7 +277,7 @@ public class SpriteBatch implements Batch {
         if (texture != lastTexture)
             switchTexture(texture);
         else if (idx == vertices.length) //
-            flush();
+            flushPending();
 
         // bottom left and top right corner points relative to origin
         final float worldOriginX = x + originX;
@@ -396,7 +410,7 @@ public class SpriteBatch implements Batch {
         if (texture != lastTexture)
             switchTexture(texture);
         else if (idx == vertices.length) //
-            flush();
+            flushPending();
 
         float u = srcX * invTexWidth;
         float v = (srcY + srcHeight) * invTexHeight;
@@ -456,7 +470,7 @@ public class SpriteBatch implements Batch {
         if (texture != lastTexture)
             switchTexture(texture);
         else if (idx == vertices.length) //
-            flush();
+            flushPending();
 
         final float u = srcX * invTexWidth;
         final float v = (srcY + srcHeight) * invTexHeight;
@@ -504,7 +518,7 @@ public class SpriteBatch implements Batch {
         if (texture != lastTexture)
             switchTexture(texture);
         else if (idx == vertices.length) //
-            flush();
+            flushPending();
 
         final float fx2 = x + width;
         final float fy2 = y + height;
@@ -553,7 +567,7 @@ public class SpriteBatch implements Batch {
         if (texture != lastTexture)
             switchTexture(texture);
         else if (idx == vertices.length) //
-            flush();
+            flushPending();
 
         final float fx2 = x + width;
         final float fy2 = y + height;
@@ -603,7 +617,7 @@ public class SpriteBatch implements Batch {
         else {
             remainingVertices -= idx;
             if (remainingVertices == 0) {
-                flush();
+                flushPending();
                 remainingVertices = verticesLength;
             }
         }
@@ -614,7 +628,7 @@ public class SpriteBatch implements Batch {
         count -= copyCount;
         while (count > 0) {
             offset += copyCount;
-            flush();
+            flushPending();
             copyCount = Math.min(verticesLength, count);
             System.arraycopy(spriteVertices, offset, vertices, 0, copyCount);
             idx += copyCount;
@@ -639,7 +653,7 @@ public class SpriteBatch implements Batch {
         if (texture != lastTexture) {
             switchTexture(texture);
         } else if (idx == vertices.length) //
-            flush();
+            flushPending();
 
         final float fx2 = x + width;
         final float fy2 = y + height;
@@ -689,7 +703,7 @@ public class SpriteBatch implements Batch {
         if (texture != lastTexture) {
             switchTexture(texture);
         } else if (idx == vertices.length) //
-            flush();
+            flushPending();
 
         // bottom left and top right corner points relative to origin
         final float worldOriginX = x + originX;
@@ -812,7 +826,7 @@ public class SpriteBatch implements Batch {
         if (texture != lastTexture) {
             switchTexture(texture);
         } else if (idx == vertices.length) //
-            flush();
+            flushPending();
 
         // bottom left and top right corner points relative to origin
         final float worldOriginX = x + originX;
@@ -945,7 +959,7 @@ public class SpriteBatch implements Batch {
         if (texture != lastTexture) {
             switchTexture(texture);
         } else if (idx == vertices.length) //
-            flush();
+            flushPending();
 
         // bottom left and top right corner points relative to origin
         final float worldOriginX = x + originX;
@@ -1072,6 +1086,117 @@ public class SpriteBatch implements Batch {
 
     @Override
     public void flush() {
+        flushPending();
+        if (deferred) {
+            renderCommands();
+        }
+    }
+
+    /**
+     * Sets whether sprites are recorded and only rendered on {@link #end()},
+     * {@link #flush()} or a projection matrix or shader change. Recorded
+     * sprites are sorted by layer, then grouped by texture and blend state,
+     * so sprites from different textures interleaved in the scene share
+     * render calls. A sprite is never moved before a sprite it overlaps that
+     * was drawn earlier in the same layer.
+     * <p/>
+     * The transform matrix is applied to the recorded sprites on the CPU, so
+     * changing it, for example in a transformed group, doesn't render the
+     * recorded sprites. Only its 2D part (translation, rotation, scale and
+     * shear in the x-y plane) is used in deferred mode.
+     *
+     * @param deferred whether or not to record and sort sprites.
+     */
+    public void setDeferred(boolean deferred) {
+        if (this.deferred == deferred) return;
+        if (drawing) flush();
+        this.deferred = deferred;
+        if (deferred && commands == null) commands = new SpriteCommandBuffer();
+        if (drawing) setupMatrices();
+    }
+
+    public boolean isDeferred() {
+        return deferred;
+    }
+
+    /**
+     * Sets the layer of the following sprites in deferred mode, lower layers
+     * are rendered first. Ignored when not deferred.
+     */
+    public void setLayer(int layer) {
+        if (this.layer == layer) return;
+        if (deferred) flushPending();
+        this.layer = layer;
+    }
+
+    public int getLayer() {
+        return layer;
+    }
+
+    /**
+     * Renders or, in deferred mode, records the vertices drawn since the last
+     * texture or blend state change.
+     */
+    private void flushPending() {
+        if (idx == 0) return;
+        flushCalls++;
+        if (deferred) {
+            if (transformVertices) transformVertices();
+            commands.add(vertices, idx, lastTexture, layer,
+                    blendingDisabled, blendSrcFunc, blendDstFunc);
+            idx = 0;
+        } else {
+            render(lastTexture, blendingDisabled, blendSrcFunc, blendDstFunc);
+        }
+    }
+
+    /**
+     * Moves the pending vertices by the 2D part of the transform matrix.
+     */
+    private void transformVertices() {
+        float[] vertices = this.vertices;
+        float[] m = transformMatrix.val;
+        float m00 = m[Matrix4.M00], m01 = m[Matrix4.M01], m03 = m[Matrix4.M03];
+        float m10 = m[Matrix4.M10], m11 = m[Matrix4.M11], m13 = m[Matrix4.M13];
+        for (int i = 0; i < idx; i += Sprite.VERTEX_SIZE) {
+            float x = vertices[i];
+            float y = vertices[i + 1];
+            vertices[i] = m00 * x + m01 * y + m03;
+            vertices[i + 1] = m10 * x + m11 * y + m13;
+        }
+    }
+
+    private void renderCommands() {
+        SpriteCommandBuffer commands = this.commands;
+        if (commands.size() == 0) return;
+        commands.sort();
+
+        float[] vertices = this.vertices;
+        int current = -1;
+        for (int b = 0, n = commands.getBatchCount(); b < n; b++) {
+            int quad = commands.getBatchQuad(b);
+            if (current >= 0 && !commands.sameState(current, quad)) {
+                renderCommand(current);
+            }
+            current = quad;
+            for (; quad >= 0; quad = commands.next(quad)) {
+                if (idx == vertices.length) renderCommand(current);
+                commands.copyQuad(quad, vertices, idx);
+                idx += Sprite.SPRITE_SIZE;
+            }
+        }
+        if (current >= 0) renderCommand(current);
+        commands.clear();
+    }
+
+    private void renderCommand(int quad) {
+        SpriteCommandBuffer commands = this.commands;
+        render(commands.getTexture(quad), commands.isBlendingDisabled(quad),
+                commands.getBlendSrcFunc(quad), commands.getBlendDstFunc(quad));
+    }
+
+    private void render(Texture texture, boolean blendingDisabled,
+                        int blendSrcFunc, int blendDstFunc) {
         if (idx == 0) return;
 
         renderCalls++;
@@ -1080,7 +1205,7 @@ public class SpriteBatch implements Batch {
         if (spritesInBatch > maxSpritesInBatch) maxSpritesInBatch = spritesInBatch;
         int count = spritesInBatch * 6;
 
-        lastTexture.bind();
+        texture.bind();
         Mesh mesh = this.mesh;
         mesh.setVertices(vertices, 0, idx);
         mesh.getIndicesBuffer().position(0);
@@ -1101,21 +1226,21 @@ public class SpriteBatch implements Batch {
     @Override
     public void disableBlending() {
         if (blendingDisabled) return;
-        flush();
+        flushPending();
         blendingDisabled = true;
     }
 
     @Override
     public void enableBlending() {
         if (!blendingDisabled) return;
-        flush();
+        flushPending();
         blendingDisabled = false;
     }
 
     @Override
     public void setBlendFunction(int srcFunc, int dstFunc) {
         if (blendSrcFunc == srcFunc && blendDstFunc == dstFunc) return;
-        flush();
+        flushPending();
         blendSrcFunc = srcFunc;
         blendDstFunc = dstFunc;
     }
@@ -1155,13 +1280,32 @@ public class SpriteBatch implements Batch {
 
     @Override
     public void setTransformMatrix(Matrix4 transform) {
+        if (drawing && deferred) {
+            // the recorded sprites are already transformed
+            flushPending();
+            transformMatrix.set(transform);
+            transformVertices = !isIdentity(transformMatrix);
+            return;
+        }
         if (drawing) flush();
         transformMatrix.set(transform);
         if (drawing) setupMatrices();
     }
 
+    private static boolean isIdentity(Matrix4 matrix) {
+        float[] m = matrix.val;
+        return m[Matrix4.M00] == 1 && m[Matrix4.M01] == 0 && m[Matrix4.M03] == 0
+                && m[Matrix4.M10] == 0 && m[Matrix4.M11] == 1 && m[Matrix4.M13] == 0;
+    }
+
     private void setupMatrices() {
-        combinedMatrix.set(projectionMatrix).mul(transformMatrix);
+        if (deferred) {
+            // the transform matrix is applied to the recorded vertices
+            combinedMatrix.set(projectionMatrix);
+            transformVertices = !isIdentity(transformMatrix);
+        } else {
+            combinedMatrix.set(projectionMatrix).mul(transformMatrix);
+        }
         if (customShader != null) {
             customShader.setUniformMatrix("u_projTrans", combinedMatrix);
             customShader.setUniformi("u_texture", 0);
@@ -1172,7 +1316,7 @@ public class SpriteBatch implements Batch {
     }
 
     private void switchTexture(Texture texture) {
-        flush();
+        flushPending();
         lastTexture = texture;
         invTexWidth = 1.0f / texture.getWidth();
         invTexHeight = 1.0f / texture.getHeight();
@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.graphics;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import java.util.Arrays;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Quads recorded by a {@link SpriteBatch} in deferred mode. Each quad keeps
+ * its layer, texture and blend state; {@link #sort()} groups the quads into
+ * batches of the same state. Quads are ordered by layer first, then a quad is
+ * moved back into an earlier batch of the same state only when it overlaps
+ * none of the quads drawn in between, so overlapping sprites keep their
+ * submission order.
+ */
+class SpriteCommandBuffer {
+    /**
+     * Number of batches searched back for one with the same state
+     */
+    private static final int MAX_LOOKBACK = 64;
+
+    private float[] vertices = new float[64 * Sprite.SPRITE_SIZE];
+    private Texture[] textures = new Texture[64];
+    private int[] layers = new int[64];
+    private int[] blendSrc = new int[64];
+    private int[] blendDst = new int[64];
+    private boolean[] blendDisabled = new boolean[64];
+    private float[] bounds = new float[64 * 4];
+    private long[] order = new long[64];
+    private int[] next = new int[64];
+    private int quadCount;
+
+    private int[] batchHead = new int[16];
+    private int[] batchTail = new int[16];
+    private float[] batchBounds = new float[16 * 4];
+    private int batchCount;
+
+    /**
+     * Records the quads in vertices[0, count).
+     */
+    void add(float[] source, int count, Texture texture, int layer,
+             boolean disabled, int srcFunc, int dstFunc) {
+        int quads = count / Sprite.SPRITE_SIZE;
+        ensureCapacity(quadCount + quads);
+        System.arraycopy(source, 0, vertices, quadCount * Sprite.SPRITE_SIZE,
+                quads * Sprite.SPRITE_SIZE);
+        for (int i = 0; i < quads; i++) {
+            int q = quadCount++;
+            textures[q] = texture;
+            layers[q] = layer;
+            blendDisabled[q] = disabled;
+            blendSrc[q] = srcFunc;
+            blendDst[q] = dstFunc;
+            int v = q * Sprite.SPRITE_SIZE;
+            float minX = vertices[v], maxX = minX;
+            float minY = vertices[v + 1], maxY = minY;
+            for (int c = Sprite.VERTEX_SIZE; c < Sprite.SPRITE_SIZE; c += Sprite.VERTEX_SIZE) {
+                float x = vertices[v + c];
+                float y = vertices[v + c + 1];
+                if (x < minX) minX = x;
+                if (x > maxX) maxX = x;
+                if (y < minY) minY = y;
+                if (y > maxY) maxY = y;
+            }
+            int b = q * 4;
+            bounds[b] = minX;
+            bounds[b + 1] = minY;
+            bounds[b + 2] = maxX;
+            bounds[b + 3] = maxY;
+        }
+    }
+
+    /**
+     * Groups the recorded quads into batches, see {@link #getBatchCount()}.
+     */
+    void sort() {
+        for (int q = 0; q < quadCount; q++) {
+            order[q] = ((long) layers[q] << 32) | q;
+        }
+        Arrays.sort(order, 0, quadCount);
+
+        batchCount = 0;
+        int layerStart = 0;
+        for (int i = 0; i < quadCount; i++) {
+            int q = (int) order[i];
+            next[q] = -1;
+            if (i > 0 && layers[q] != layers[(int) order[i - 1]]) {
+                layerStart = batchCount;
+            }
+            int target = -1;
+            int stop = Math.max(layerStart, batchCount - MAX_LOOKBACK);
+            for (int b = batchCount - 1; b >= stop; b--) {
+                if (sameState(batchHead[b], q)) {
+                    target = b;
+                    break;
+                }
+                if (overlaps(b, q)) break;
+            }
+            if (target < 0) {
+                target = newBatch(q);
+            } else {
+                next[batchTail[target]] = q;
+                batchTail[target] = q;
+                int bb = target * 4, qb = q * 4;
+                batchBounds[bb] = Math.min(batchBounds[bb], bounds[qb]);
+                batchBounds[bb + 1] = Math.min(batchBounds[bb + 1], bounds[qb + 1]);
+                batchBounds[bb + 2] = Math.max(batchBounds[bb + 2], bounds[qb + 2]);
+                batchBounds[bb + 3] = Math.max(batchBounds[bb + 3], bounds[qb + 3]);
+            }
+        }
+    }
+
+    int size() {
+        return quadCount;
+    }
+
+    int getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * @return The first quad of the batch, following quads are given by {@link #next(int)}.
+     */
+    int getBatchQuad(int batch) {
+        return batchHead[batch];
+    }
+
+    /**
+     * @return The next quad of the same batch, -1 if none.
+     */
+    int next(int quad) {
+        return next[quad];
+    }
+
+    Texture getTexture(int quad) {
+        return textures[quad];
+    }
+
+    boolean isBlendingDisabled(int quad) {
+        return blendDisabled[quad];
+    }
+
+    int getBlendSrcFunc(int quad) {
+        return blendSrc[quad];
+    }
+
+    int getBlendDstFunc(int quad) {
+        return blendDst[quad];
+    }
+
+    void copyQuad(int quad, float[] dest, int offset) {
+        System.arraycopy(vertices, quad * Sprite.SPRITE_SIZE, dest, offset, Sprite.SPRITE_SIZE);
+    }
+
+    void clear() {
+        Arrays.fill(textures, 0, quadCount, null);
+        quadCount = 0;
+        batchCount = 0;
+    }
+
+    boolean sameState(int a, int b) {
+        return textures[a] == textures[b] && blendDisabled[a] == blendDisabled[b]
+                && blendSrc[a] == blendSrc[b] && blendDst[a] == blendDst[b];
+    }
+
+    private boolean overlaps(int batch, int quad) {
+        int bb = batch * 4, qb = quad * 4;
+        return batchBounds[bb] < bounds[qb + 2] && bounds[qb] < batchBounds[bb + 2]
+                && batchBounds[bb + 1] < bounds[qb + 3] && bounds[qb + 1] < batchBounds[bb + 3];
+    }
+
+    private int newBatch(int quad) {
+        if (batchCount == batchHead.length) {
+            int capacity = batchCount * 2;
+            batchHead = Arrays.copyOf(batchHead, capacity);
+            batchTail = Arrays.copyOf(batchTail, capacity);
+            batchBounds = Arrays.copyOf(batchBounds, capacity * 4);
+        }
+        int b = batchCount++;
+        batchHead[b] = quad;
+        batchTail[b] = quad;
+        System.arraycopy(bounds, quad * 4, batchBounds, b * 4, 4);
+        return b;
+    }
+
+    private void ensureCapacity(int quads) {
+        if (quads <= textures.length) return;
+        int capacity = Math.max(quads, textures.length * 2);
+        vertices = Arrays.copyOf(vertices, capacity * Sprite.SPRITE_SIZE);
+        textures = Arrays.copyOf(textures, capacity);
+        layers = Arrays.copyOf(layers, capacity);
+        blendSrc = Arrays.copyOf(blendSrc, capacity);
+        blendDst = Arrays.copyOf(blendDst, capacity);
+        blendDisabled = Arrays.copyOf(blendDisabled, capacity);
+        bounds = Arrays.copyOf(bounds, capacity * 4);
+        order = Arrays.copyOf(order, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+}
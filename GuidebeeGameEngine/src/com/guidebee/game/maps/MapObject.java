@@ -39,6 +39,8 @@ public abstract class MapObject implements Collidable {
 
     private Polygon boundingPolygon = new Polygon();
 
+    private final float[] boundingVertices = new float[8];
+
     private Circle boundingCircle = new Circle();
 
 
@@ -134,11 +136,15 @@ public abstract class MapObject implements Collidable {
     public Polygon getBoundingPolygon() {
 
         if (boundingRect != null) {
-            float[] vertices = new float[]{boundingRect.x, boundingRect.y,
-                    boundingRect.x + boundingRect.width, boundingRect.y,
-                    boundingRect.x + boundingRect.width,
-                    boundingRect.y + boundingRect.height, boundingRect.y,
-                    boundingRect.y + boundingRect.height};
+            float[] vertices = boundingVertices;
+            vertices[0] = boundingRect.x;
+            vertices[1] = boundingRect.y;
+            vertices[2] = boundingRect.x + boundingRect.width;
+            vertices[3] = boundingRect.y;
+            vertices[4] = boundingRect.x + boundingRect.width;
+            vertices[5] = boundingRect.y + boundingRect.height;
+            vertices[6] = boundingRect.x;
+            vertices[7] = boundingRect.y + boundingRect.height;
             boundingPolygon.setVertices(vertices);
             return boundingPolygon;
         }
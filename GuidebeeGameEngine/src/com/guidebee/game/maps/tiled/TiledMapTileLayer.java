@@ -18,16 +18,42 @@ package com.guidebee.game.maps.tiled;
 
 //--------------------------------- IMPORTS ------------------------------------
 
+import com.guidebee.game.GameEngineRuntimeException;
 import com.guidebee.game.maps.MapLayer;
 import com.guidebee.math.geometry.Rectangle;
+import com.guidebee.utils.collections.IntMap;
+import com.guidebee.utils.collections.ObjectIntMap;
 
 //[------------------------------ MAIN CLASS ----------------------------------]
 
 /**
- * Layer for a TiledMap
+ * Layer for a TiledMap. A layer either stores one {@link Cell} object per
+ * cell, or in packed mode one int per cell holding the tile id, flip and
+ * rotation bits, resolved against the map's {@link TiledMapTileSets} when
+ * needed. Tiles set on a packed layer which are not part of the tile sets
+ * are given ids of their own, counting down from
+ * {@link #PACKED_TILE_ID_MASK}.
  */
 public class TiledMapTileLayer extends MapLayer {
 
+    /**
+     * packed cell bit of a horizontally flipped tile.
+     */
+    public static final int PACKED_FLIP_HORIZONTALLY = 0x80000000;
+    /**
+     * packed cell bit of a vertically flipped tile.
+     */
+    public static final int PACKED_FLIP_VERTICALLY = 0x40000000;
+    /**
+     * packed cell bits of the rotation.
+     */
+    public static final int PACKED_ROTATION_MASK = 0x30000000;
+    public static final int PACKED_ROTATION_SHIFT = 28;
+    /**
+     * packed cell bits of the tile id, 0 is an empty cell.
+     */
+    public static final int PACKED_TILE_ID_MASK = 0x0FFFFFFF;
+
     private int width;
     private int height;
 
@@ -36,6 +62,46 @@ public class TiledMapTileLayer extends MapLayer {
 
     private Cell[][] cells;
 
+    private int[] packedCells;
+    private TiledMapTileSets tileSets;
+    private IntMap<TiledMapTile> tileCache;
+    private IntMap<TiledMapTile> customTiles;
+    private ObjectIntMap<TiledMapTile> customTileIds;
+    private int nextCustomTileId = PACKED_TILE_ID_MASK;
+    private CellListener cellListener;
+
+    /**
+     * Listener notified when a cell of the layer is set.
+     */
+    public interface CellListener {
+
+        /**
+         * the cell at (x, y) was set.
+         * @param layer layer of the cell.
+         * @param x X coordinate
+         * @param y Y coordinate
+         */
+        void cellChanged(TiledMapTileLayer layer, int x, int y);
+    }
+
+    /**
+     * Sets the listener notified by {@link #setCell(int, int, Cell)} and
+     * {@link #setPackedCell(int, int, int)}, for example a renderer caching
+     * the tiles.
+     *
+     * @param listener the listener or null
+     */
+    public void setCellListener(CellListener listener) {
+        this.cellListener = listener;
+    }
+
+    /**
+     * @return the cell listener or null
+     */
+    public CellListener getCellListener() {
+        return cellListener;
+    }
+
     /**
      * @return layer's width in tiles
      */
@@ -81,14 +147,152 @@ public class TiledMapTileLayer extends MapLayer {
         this.cells = new Cell[width][height];
     }
 
+    /**
+     * Creates a packed TiledMap layer, tile ids are resolved against the
+     * given tile sets.
+     *
+     * @param width      layer width in tiles
+     * @param height     layer height in tiles
+     * @param tileWidth  tile width in pixels
+     * @param tileHeight tile height in pixels
+     * @param tileSets   tile sets the tile ids refer to
+     */
+    public TiledMapTileLayer(int width, int height, int tileWidth, int tileHeight,
+                             TiledMapTileSets tileSets) {
+        super();
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.packedCells = new int[width * height];
+        this.tileSets = tileSets;
+        this.tileCache = new IntMap<TiledMapTile>();
+        this.customTiles = new IntMap<TiledMapTile>();
+        this.customTileIds = new ObjectIntMap<TiledMapTile>();
+    }
+
+    /**
+     * @return whether the cells are stored packed.
+     */
+    public boolean isPacked() {
+        return packedCells != null;
+    }
+
+    /**
+     * Packed cells, row by row from the bottom, the cell (x, y) is at
+     * index y * width + x. Renderers can iterate it directly and resolve
+     * the tiles with {@link #getTile(int)}.
+     *
+     * @return the packed cells, null if the layer is not packed.
+     */
+    public int[] getPackedCells() {
+        return packedCells;
+    }
+
+    /**
+     * @return the tile sets of a packed layer, null if not packed.
+     */
+    public TiledMapTileSets getTileSets() {
+        return tileSets;
+    }
+
+    /**
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return the packed cell at (x, y), 0 if empty or outside.
+     */
+    public int getPackedCell(int x, int y) {
+        if (x < 0 || x >= width) return 0;
+        if (y < 0 || y >= height) return 0;
+        return packedCells[y * width + x];
+    }
+
+    /**
+     * Sets the packed cell at the given coordinates of a packed layer.
+     *
+     * @param x      X coordinate
+     * @param y      Y coordinate
+     * @param packed packed cell, see {@link #packCell(int, boolean, boolean, int)}.
+     */
+    public void setPackedCell(int x, int y, int packed) {
+        if (x < 0 || x >= width) return;
+        if (y < 0 || y >= height) return;
+        packedCells[y * width + x] = packed;
+        if (cellListener != null) cellListener.cellChanged(this, x, y);
+    }
+
+    /**
+     * Resolves the tile of a packed cell.
+     *
+     * @param packed packed cell.
+     * @return the tile, null if the cell is empty or the id is unknown.
+     */
+    public TiledMapTile getTile(int packed) {
+        int id = packed & PACKED_TILE_ID_MASK;
+        if (id == 0) return null;
+        TiledMapTile tile = tileCache.get(id);
+        if (tile == null) {
+            tile = customTiles.get(id);
+            if (tile == null) tile = tileSets.getTile(id);
+            if (tile != null) tileCache.put(id, tile);
+        }
+        return tile;
+    }
+
+    /**
+     * Forgets the resolved tiles, to be called when the tile sets of a
+     * packed layer are changed.
+     */
+    public void clearTileCache() {
+        if (tileCache != null) tileCache.clear();
+    }
+
+    /**
+     * Packs a cell into an int.
+     *
+     * @param tileId           tile id, 0 for an empty cell.
+     * @param flipHorizontally whether to flip the tile horizontally.
+     * @param flipVertically   whether to flip the tile vertically.
+     * @param rotation         one of the Cell.ROTATE_ values.
+     * @return the packed cell.
+     */
+    public static int packCell(int tileId, boolean flipHorizontally,
+                               boolean flipVertically, int rotation) {
+        int packed = tileId & PACKED_TILE_ID_MASK;
+        if (flipHorizontally) packed |= PACKED_FLIP_HORIZONTALLY;
+        if (flipVertically) packed |= PACKED_FLIP_VERTICALLY;
+        return packed | ((rotation << PACKED_ROTATION_SHIFT) & PACKED_ROTATION_MASK);
+    }
+
+    /**
+     * @param packed packed cell.
+     * @return the rotation of the packed cell, one of the Cell.ROTATE_ values.
+     */
+    public static int getPackedRotation(int packed) {
+        return (packed & PACKED_ROTATION_MASK) >>> PACKED_ROTATION_SHIFT;
+    }
+
     /**
      * @param x X coordinate
      * @param y Y coordinate
-     * @return {@link Cell} at (x, y)
+     * @return {@link Cell} at (x, y). For a packed layer each call returns a
+     * new view of the packed cell at (x, y), its getters read and its setters
+     * write the packed cell and notify the cell listener. Two views of the
+     * same cell are different objects showing the same content, compare
+     * them by content rather than identity. Renderers should iterate
+     * {@link #getPackedCells()} instead, to avoid creating a view per tile.
      */
     public Cell getCell(int x, int y) {
         if (x < 0 || x >= width) return null;
         if (y < 0 || y >= height) return null;
+        if (packedCells != null) {
+            if (getTile(packedCells[y * width + x]) == null) return null;
+            Cell cell = new Cell();
+            cell.layer = this;
+            cell.x = x;
+            cell.y = y;
+            return cell;
+        }
         return cells[x][y];
     }
 
@@ -97,18 +301,78 @@ public class TiledMapTileLayer extends MapLayer {
      *
      * @param x    X coordinate
      * @param y    Y coordinate
-     * @param cell the {@link Cell} to set at the given coordinates.
+     * @param cell the {@link Cell} to set at the given coordinates, a view of
+     *             a packed cell is copied.
      */
     public void setCell(int x, int y, Cell cell) {
         if (x < 0 || x >= width) return;
         if (y < 0 || y >= height) return;
-        cells[x][y] = cell;
         TiledMapTile tiledMapTile = cell.getTile();
+        if (packedCells != null) {
+            packedCells[y * width + x] = packCell(getPackedTileId(tiledMapTile),
+                    cell.getFlipHorizontally(), cell.getFlipVertically(),
+                    cell.getRotation());
+        } else if (cell.layer != null) {
+            Cell copy = new Cell();
+            copy.tile = tiledMapTile;
+            copy.flipHorizontally = cell.getFlipHorizontally();
+            copy.flipVertically = cell.getFlipVertically();
+            copy.rotation = cell.getRotation();
+            cells[x][y] = copy;
+        } else {
+            cells[x][y] = cell;
+        }
+        setBoundingRect(tiledMapTile, x, y);
+        if (cellListener != null) cellListener.cellChanged(this, x, y);
+    }
+
+    private void setBoundingRect(TiledMapTile tiledMapTile, int x, int y) {
         tiledMapTile.setBoundingRect(new Rectangle(x * getTileWidth(), y * getTileHeight(),
                 x * getTileWidth() + getTileWidth(),
                 y * getTileHeight() + getTileHeight()));
     }
 
+    /**
+     * Sets the tile of a packed cell, keeping its flip and rotation bits.
+     */
+    private void setPackedTile(int x, int y, TiledMapTile tile) {
+        if (tile == null) {
+            setPackedCell(x, y, 0);
+            return;
+        }
+        int packed = getPackedCell(x, y) & ~PACKED_TILE_ID_MASK;
+        setBoundingRect(tile, x, y);
+        setPackedCell(x, y, packed | getPackedTileId(tile));
+    }
+
+    /**
+     * Sets the given bits of a packed cell.
+     */
+    private void setPackedBits(int x, int y, int mask, int bits) {
+        setPackedCell(x, y, getPackedCell(x, y) & ~mask | bits & mask);
+    }
+
+    /**
+     * Id of the tile in the packed cells, the id of a tile of the tile sets
+     * or an id of its own for any other tile, like the tiles created by
+     * code whose ids are left at 0.
+     */
+    private int getPackedTileId(TiledMapTile tile) {
+        int id = tile.getId() & PACKED_TILE_ID_MASK;
+        if (id != 0 && getTile(id) == tile) return id;
+        id = customTileIds.get(tile, 0);
+        if (id == 0) {
+            if (nextCustomTileId <= 0) {
+                throw new GameEngineRuntimeException("Too many tiles outside the tile sets");
+            }
+            id = nextCustomTileId--;
+            customTileIds.put(tile, id);
+            customTiles.put(id, tile);
+            tileCache.remove(id);
+        }
+        return id;
+    }
+
     /**
      * represents a cell in a TiledLayer: TiledMapTile, flip
      * and rotation properties.
@@ -123,10 +387,17 @@ public class TiledMapTileLayer extends MapLayer {
 
         private int rotation;
 
+        // the packed layer and coordinates viewed by this cell, null if the
+        // cell holds its own values.
+        private TiledMapTileLayer layer;
+        private int x;
+        private int y;
+
         /**
          * @return The tile currently assigned to this cell.
          */
         public TiledMapTile getTile() {
+            if (layer != null) return layer.getTile(layer.getPackedCell(x, y));
             return tile;
         }
 
@@ -136,6 +407,10 @@ public class TiledMapTileLayer extends MapLayer {
          * @param tile the {@link TiledMapTile} to use for this cell.
          */
         public void setTile(TiledMapTile tile) {
+            if (layer != null) {
+                layer.setPackedTile(x, y, tile);
+                return;
+            }
             this.tile = tile;
         }
 
@@ -143,6 +418,9 @@ public class TiledMapTileLayer extends MapLayer {
          * @return Whether the tile should be flipped horizontally.
          */
         public boolean getFlipHorizontally() {
+            if (layer != null) {
+                return (layer.getPackedCell(x, y) & PACKED_FLIP_HORIZONTALLY) != 0;
+            }
             return flipHorizontally;
         }
 
@@ -152,6 +430,11 @@ public class TiledMapTileLayer extends MapLayer {
          * @param flipHorizontally whether or not to flip the tile horizontally.
          */
         public void setFlipHorizontally(boolean flipHorizontally) {
+            if (layer != null) {
+                layer.setPackedBits(x, y, PACKED_FLIP_HORIZONTALLY,
+                        flipHorizontally ? PACKED_FLIP_HORIZONTALLY : 0);
+                return;
+            }
             this.flipHorizontally = flipHorizontally;
         }
 
@@ -159,6 +442,9 @@ public class TiledMapTileLayer extends MapLayer {
          * @return Whether the tile should be flipped vertically.
          */
         public boolean getFlipVertically() {
+            if (layer != null) {
+                return (layer.getPackedCell(x, y) & PACKED_FLIP_VERTICALLY) != 0;
+            }
             return flipVertically;
         }
 
@@ -168,6 +454,11 @@ public class TiledMapTileLayer extends MapLayer {
          * @param flipVertically whether or not this tile should be flipped vertically.
          */
         public void setFlipVertically(boolean flipVertically) {
+            if (layer != null) {
+                layer.setPackedBits(x, y, PACKED_FLIP_VERTICALLY,
+                        flipVertically ? PACKED_FLIP_VERTICALLY : 0);
+                return;
+            }
             this.flipVertically = flipVertically;
         }
 
@@ -175,6 +466,7 @@ public class TiledMapTileLayer extends MapLayer {
          * @return The rotation of this cell, in degrees.
          */
         public int getRotation() {
+            if (layer != null) return getPackedRotation(layer.getPackedCell(x, y));
             return rotation;
         }
 
@@ -184,6 +476,11 @@ public class TiledMapTileLayer extends MapLayer {
          * @param rotation the rotation in degrees.
          */
         public void setRotation(int rotation) {
+            if (layer != null) {
+                layer.setPackedBits(x, y, PACKED_ROTATION_MASK,
+                        rotation << PACKED_ROTATION_SHIFT);
+                return;
+            }
             this.rotation = rotation;
         }
 
@@ -19,14 +19,13 @@ package com.guidebee.game.maps.tiled;
 //--------------------------------- IMPORTS ------------------------------------
 
 import com.guidebee.game.GameEngineRuntimeException;
-import com.guidebee.utils.Base64Coder;
 import com.guidebee.utils.StreamUtils;
 import com.guidebee.utils.XmlReader.Element;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 //[------------------------------ MAIN CLASS ----------------------------------]
@@ -40,6 +39,35 @@ public final class TmxMapHelper {
     static final int FLAG_FLIP_VERTICALLY = 0x40000000;
     static final int FLAG_FLIP_DIAGONALLY = 0x20000000;
     static final int MASK_CLEAR = 0xE0000000;
+    static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Mapping table from Base64 characters to 6-bit nibbles.
+     */
+    private static final byte[] BASE64 = new byte[128];
+
+    static {
+        for (int i = 0; i < BASE64.length; i++) BASE64[i] = -1;
+        for (int i = 0; i < 26; i++) {
+            BASE64['A' + i] = (byte) i;
+            BASE64['a' + i] = (byte) (26 + i);
+        }
+        for (int i = 0; i < 10; i++) BASE64['0' + i] = (byte) (52 + i);
+        BASE64['+'] = 62;
+        BASE64['/'] = 63;
+    }
+
+    /**
+     * Powers of ten a double holds exactly.
+     */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
 
     private TmxMapHelper() {
 
@@ -53,63 +81,307 @@ public final class TmxMapHelper {
         }
         int[] ids = new int[width * height];
         if (encoding.equals("csv")) {
-            String[] array = data.getText().split(",");
-            for (int i = 0; i < array.length; i++)
-                ids[i] = (int) Long.parseLong(array[i].trim());
-        } else {
-            if (true)
-                if (encoding.equals("base64")) {
-                    InputStream is = null;
-                    try {
-                        String compression = data.getAttribute("compression", null);
-                        byte[] bytes = Base64Coder.decode(data.getText());
-                        if (compression == null)
-                            is = new ByteArrayInputStream(bytes);
-                        else if (compression.equals("gzip"))
-                            is = new GZIPInputStream(new ByteArrayInputStream(bytes), bytes.length);
-                        else if (compression.equals("zlib"))
-                            is = new InflaterInputStream(new ByteArrayInputStream(bytes));
-                        else
-                            throw new GameEngineRuntimeException("Unrecognised compression ("
-                                    + compression + ") for TMX Layer Data");
-
-                        byte[] temp = new byte[4];
-                        for (int y = 0; y < height; y++) {
-                            for (int x = 0; x < width; x++) {
-                                int read = is.read(temp);
-                                while (read < temp.length) {
-                                    int curr = is.read(temp, read, temp.length - read);
-                                    if (curr == -1) break;
-                                    read += curr;
-                                }
-                                if (read != temp.length)
-                                    throw new GameEngineRuntimeException(
-                                            "Error Reading TMX Layer Data: Premature end of tile data");
-                                ids[y * width + x] = unsignedByteToInt(temp[0])
-                                        | unsignedByteToInt(temp[1]) << 8
-                                        | unsignedByteToInt(temp[2]) << 16
-                                        | unsignedByteToInt(temp[3]) << 24;
-                            }
-                        }
-                    } catch (IOException e) {
-                        throw new GameEngineRuntimeException(
-                                "Error Reading TMX Layer Data - IOException: "
-                                        + e.getMessage());
-                    } finally {
-                        StreamUtils.closeQuietly(is);
+            parseCsv(data.getText(), ids);
+        } else if (encoding.equals("base64")) {
+            InputStream is = null;
+            Inflater inflater = null;
+            try {
+                String compression = data.getAttribute("compression", null);
+                // the text is decoded and inflated while the ids are read
+                is = new Base64InputStream(data.getText());
+                if (compression != null) {
+                    if (compression.equals("gzip")) {
+                        is = new GZIPInputStream(is, BUFFER_SIZE);
+                    } else if (compression.equals("zlib")) {
+                        inflater = new Inflater();
+                        is = new InflaterInputStream(is, inflater, BUFFER_SIZE);
+                    } else {
+                        throw new GameEngineRuntimeException("Unrecognised compression ("
+                                + compression + ") for TMX Layer Data");
                     }
-                } else {
-                    // any other value of 'encoding' is one we're not aware of,
-                    // probably a feature of a future version of Tiled
-                    // or another editor
-                    throw new GameEngineRuntimeException("Unrecognised encoding ("
-                            + encoding + ") for TMX Layer Data");
                 }
+                readLittleEndianInts(is, ids);
+            } catch (IOException e) {
+                throw new GameEngineRuntimeException(
+                        "Error Reading TMX Layer Data - IOException: "
+                                + e.getMessage());
+            } finally {
+                StreamUtils.closeQuietly(is);
+                if (inflater != null) inflater.end();
+            }
+        } else {
+            // any other value of 'encoding' is one we're not aware of,
+            // probably a feature of a future version of Tiled
+            // or another editor
+            throw new GameEngineRuntimeException("Unrecognised encoding ("
+                    + encoding + ") for TMX Layer Data");
         }
         return ids;
     }
 
+    /**
+     * Packed orientation of the 8 combinations of the horizontal, vertical
+     * and diagonal flip flags, indexed by the top 3 bits of a tile id.
+     */
+    private static final int[] PACKED_ORIENTATIONS = new int[8];
+
+    static {
+        for (int flags = 0; flags < 8; flags++) {
+            boolean flipHorizontally = (flags & 4) != 0;
+            boolean flipVertically = (flags & 2) != 0;
+            int orientation;
+            if ((flags & 1) != 0) {
+                if (flipHorizontally && flipVertically) {
+                    orientation = TiledMapTileLayer.packCell(0, true, false,
+                            TiledMapTileLayer.Cell.ROTATE_270);
+                } else if (flipHorizontally) {
+                    orientation = TiledMapTileLayer.packCell(0, false, false,
+                            TiledMapTileLayer.Cell.ROTATE_270);
+                } else if (flipVertically) {
+                    orientation = TiledMapTileLayer.packCell(0, false, false,
+                            TiledMapTileLayer.Cell.ROTATE_90);
+                } else {
+                    orientation = TiledMapTileLayer.packCell(0, false, true,
+                            TiledMapTileLayer.Cell.ROTATE_270);
+                }
+            } else {
+                orientation = TiledMapTileLayer.packCell(0, flipHorizontally,
+                        flipVertically, TiledMapTileLayer.Cell.ROTATE_0);
+            }
+            PACKED_ORIENTATIONS[flags] = orientation;
+        }
+    }
+
+    /**
+     * Fills a packed layer straight from the tile ids of the layer element,
+     * without cell objects. The flip flags are mapped the same way as the
+     * cells created by the map loaders.
+     *
+     * @param layer   packed layer.
+     * @param element layer element.
+     * @param width   layer width in tiles.
+     * @param height  layer height in tiles.
+     */
+    static public void loadPackedCells(TiledMapTileLayer layer, Element element,
+                                       int width, int height) {
+        int[] ids = getTileIds(element, width, height);
+        int[] packedCells = layer.getPackedCells();
+        for (int y = 0; y < height; y++) {
+            int row = (height - 1 - y) * width;
+            for (int x = 0; x < width; x++) {
+                int id = ids[y * width + x];
+                int tileId = id & ~MASK_CLEAR;
+                if (tileId != 0) {
+                    packedCells[row + x] = PACKED_ORIENTATIONS[id >>> 29] | tileId;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the comma separated tile ids straight from the text, without
+     * splitting it into strings.
+     */
+    static void parseCsv(String text, int[] ids) {
+        int count = 0;
+        long value = 0;
+        boolean digits = false;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                digits = true;
+            } else if (c == ',') {
+                if (!digits)
+                    throw new GameEngineRuntimeException("Error Reading TMX Layer Data: Empty tile id");
+                count = putId(ids, count, value);
+                value = 0;
+                digits = false;
+            } else if (c > ' ') {
+                throw new GameEngineRuntimeException(
+                        "Error Reading TMX Layer Data: Illegal character '" + c + "'");
+            }
+        }
+        if (digits) count = putId(ids, count, value);
+        if (count != ids.length)
+            throw new GameEngineRuntimeException(
+                    "Error Reading TMX Layer Data: Premature end of tile data");
+    }
+
+    private static int putId(int[] ids, int count, long value) {
+        if (count == ids.length)
+            throw new GameEngineRuntimeException("Error Reading TMX Layer Data: Too many tiles");
+        ids[count] = (int) value;
+        return count + 1;
+    }
+
+    /**
+     * Reads the little endian tile ids in chunks.
+     */
+    private static void readLittleEndianInts(InputStream is, int[] ids) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int count = 0;
+        int value = 0;
+        int shift = 0;
+        while (count < ids.length) {
+            int read = is.read(buffer, 0, buffer.length);
+            if (read == -1) break;
+            for (int i = 0; i < read && count < ids.length; i++) {
+                value |= unsignedByteToInt(buffer[i]) << shift;
+                shift += 8;
+                if (shift == 32) {
+                    ids[count++] = value;
+                    value = 0;
+                    shift = 0;
+                }
+            }
+        }
+        if (count != ids.length)
+            throw new GameEngineRuntimeException(
+                    "Error Reading TMX Layer Data: Premature end of tile data");
+    }
+
+    /**
+     * Polygon and polyline points ("x,y x,y ...") as vertices, scaled and
+     * with y flipped, parsed without splitting the text or creating
+     * substrings.
+     */
+    static public float[] getPoints(String points, float scaleX, float scaleY) {
+        int count = 0;
+        boolean inValue = false;
+        for (int i = 0, n = points.length(); i < n; i++) {
+            char c = points.charAt(i);
+            boolean separator = c == ',' || c <= ' ';
+            if (!separator && !inValue) count++;
+            inValue = !separator;
+        }
+        float[] vertices = new float[count];
+        int index = 0;
+        int start = -1;
+        for (int i = 0, n = points.length(); i <= n; i++) {
+            char c = i < n ? points.charAt(i) : ' ';
+            if (c == ',' || c <= ' ') {
+                if (start != -1) {
+                    float value = parseFloat(points, start, i);
+                    vertices[index] = (index & 1) == 0 ? value * scaleX : -value * scaleY;
+                    index++;
+                    start = -1;
+                }
+            } else if (start == -1) {
+                start = i;
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * Parses the decimal float in text from start (inclusive) to end
+     * (exclusive) in place. Values with more than 15 significant digits, an
+     * exponent beyond what a double scales exactly, or not in plain decimal
+     * notation are left to {@link Float#parseFloat(String)}.
+     */
+    static float parseFloat(String text, int start, int end) {
+        int i = start;
+        char c = text.charAt(i);
+        boolean negative = c == '-';
+        if (negative || c == '+') i++;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        boolean any = false;
+        for (; i < end; i++) {
+            c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (mantissa == 0 && c == '0') {
+                    if (point) scale--;
+                    continue;
+                }
+                if (digits == 15) return Float.parseFloat(text.substring(start, end));
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (point) scale--;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (!any) return Float.parseFloat(text.substring(start, end));
+        if (i < end) {
+            if (c != 'e' && c != 'E' || ++i == end) {
+                return Float.parseFloat(text.substring(start, end));
+            }
+            c = text.charAt(i);
+            boolean negativeExponent = c == '-';
+            if (negativeExponent || c == '+') i++;
+            if (i == end) return Float.parseFloat(text.substring(start, end));
+            int exponent = 0;
+            for (; i < end; i++) {
+                c = text.charAt(i);
+                if (c < '0' || c > '9' || exponent > 1000) {
+                    return Float.parseFloat(text.substring(start, end));
+                }
+                exponent = exponent * 10 + (c - '0');
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        double value = mantissa;
+        if (mantissa != 0 && scale != 0) {
+            if (scale < -22 || scale > 22) return Float.parseFloat(text.substring(start, end));
+            value = scale < 0 ? value / POWERS_OF_TEN[-scale] : value * POWERS_OF_TEN[scale];
+        }
+        return (float) (negative ? -value : value);
+    }
+
     static public int unsignedByteToInt(byte b) {
         return (int) b & 0xFF;
     }
+
+    /**
+     * Decodes base64 text while it is read, whitespace is skipped and the
+     * data ends at the first '='.
+     */
+    private static final class Base64InputStream extends InputStream {
+        private final String text;
+        private int position;
+        private int bits;
+        private int bitCount;
+        private final byte[] single = new byte[1];
+
+        Base64InputStream(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = 0;
+            int n = text.length();
+            while (count < length) {
+                if (bitCount >= 8) {
+                    bitCount -= 8;
+                    buffer[offset + count++] = (byte) (bits >> bitCount);
+                    continue;
+                }
+                if (position == n) break;
+                char c = text.charAt(position++);
+                if (c <= ' ') continue;
+                if (c == '=') {
+                    position = n;
+                    break;
+                }
+                int nibble = c < 128 ? BASE64[c] : -1;
+                if (nibble < 0) throw new IOException("Illegal character in Base64 encoded data.");
+                bits = (bits << 6) | nibble;
+                bitCount += 6;
+            }
+            return count == 0 && length > 0 ? -1 : count;
+        }
+    }
 }
@@ -201,6 +201,8 @@ public class Actor implements Collidable {
 
     private Polygon boundingPolygon =new Polygon();
 
+    private final float[] boundingVertices=new float[8];
+
 
     /**
      * Draws a rectangle for the bounds of this actor if {@link #getDebug()} is true.
@@ -1234,11 +1236,18 @@ public class Actor implements Collidable {
 
     @Override
     public Polygon getBoundingPolygon() {
-        float []vertices =new float[]{getX(),getY(),getX()+getWidth(),getY(),
-                getX()+getWidth(),getY()+getHeight(),getX(),getY()+getHeight()};
+        float []vertices =boundingVertices;
+        vertices[0]=getX();
+        vertices[1]=getY();
+        vertices[2]=getX()+getWidth();
+        vertices[3]=getY();
+        vertices[4]=getX()+getWidth();
+        vertices[5]=getY()+getHeight();
+        vertices[6]=getX();
+        vertices[7]=getY()+getHeight();
         boundingPolygon.setVertices(vertices);
         boundingPolygon.setOrigin(getX()+getWidth()/2,getY()+getHeight()/2);
-        boundingPolygon.rotate(getRotation());
+        boundingPolygon.setRotation(getRotation());
         return boundingPolygon;
      }
 
@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.scene;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Per frame statistics of a {@link Stage}, kept in a ring buffer of the last
+ * frames. Set it with {@link Stage#setFrameStats(FrameStats)}; the stage fills
+ * the current values in {@link Stage#act(float)} and {@link Stage#draw()} and
+ * stores them with {@link #endFrame()} at the end of each draw. The recorded
+ * frames can be dumped as CSV, oldest first, to compare builds on devices.
+ */
+public class FrameStats {
+
+    /**
+     * CSV column names, in the order written by {@link #writeCsv(Writer)}.
+     */
+    public static final String CSV_HEADER = "frame,actMs,drawMs,directorMs,"
+            + "actorsDrawn,actorsCulled,renderCalls,maxSpritesInBatch,"
+            + "tileLayers,collisionPairs";
+
+    /**
+     * Time spent in {@link Stage#act(float)} in the current frame, in milliseconds.
+     */
+    public float actTime;
+    /**
+     * Time spent in {@link Stage#draw()} in the current frame, in milliseconds.
+     */
+    public float drawTime;
+    /**
+     * Time spent updating the entity directors in the current frame, in milliseconds.
+     */
+    public float directorTime;
+    /**
+     * Number of actors drawn and skipped by culling in the current frame.
+     */
+    public int actorsDrawn, actorsCulled;
+    /**
+     * Number of sprite batch render calls in the current frame.
+     */
+    public int renderCalls;
+    /**
+     * The maximum number of sprites rendered in one batch in the current frame.
+     */
+    public int maxSpritesInBatch;
+    /**
+     * Number of map layers rendered in the current frame.
+     */
+    public int tileLayers;
+    /**
+     * Number of collision pairs tested in the current frame.
+     */
+    public long collisionPairs;
+
+    private final float[] actTimes;
+    private final float[] drawTimes;
+    private final float[] directorTimes;
+    private final int[] actorsDrawnCounts;
+    private final int[] actorsCulledCounts;
+    private final int[] renderCallCounts;
+    private final int[] maxSpritesInBatchCounts;
+    private final int[] tileLayerCounts;
+    private final long[] collisionPairCounts;
+    private final long[] frameNumbers;
+
+    private int head;
+    private int size;
+    private long frameNumber;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity number of frames kept.
+     */
+    public FrameStats(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0: " + capacity);
+        }
+        actTimes = new float[capacity];
+        drawTimes = new float[capacity];
+        directorTimes = new float[capacity];
+        actorsDrawnCounts = new int[capacity];
+        actorsCulledCounts = new int[capacity];
+        renderCallCounts = new int[capacity];
+        maxSpritesInBatchCounts = new int[capacity];
+        tileLayerCounts = new int[capacity];
+        collisionPairCounts = new long[capacity];
+        frameNumbers = new long[capacity];
+    }
+
+    /**
+     * store the current values as a new frame, overwriting the oldest frame
+     * when the buffer is full, and reset the current values.
+     */
+    public void endFrame() {
+        int capacity = frameNumbers.length;
+        int slot = (head + size) % capacity;
+        if (size == capacity) {
+            head = (head + 1) % capacity;
+        } else {
+            size++;
+        }
+        actTimes[slot] = actTime;
+        drawTimes[slot] = drawTime;
+        directorTimes[slot] = directorTime;
+        actorsDrawnCounts[slot] = actorsDrawn;
+        actorsCulledCounts[slot] = actorsCulled;
+        renderCallCounts[slot] = renderCalls;
+        maxSpritesInBatchCounts[slot] = maxSpritesInBatch;
+        tileLayerCounts[slot] = tileLayers;
+        collisionPairCounts[slot] = collisionPairs;
+        frameNumbers[slot] = frameNumber++;
+
+        actTime = drawTime = directorTime = 0;
+        actorsDrawn = actorsCulled = renderCalls = maxSpritesInBatch = 0;
+        tileLayers = 0;
+        collisionPairs = 0;
+    }
+
+    /**
+     * remove all recorded frames.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * get the number of recorded frames.
+     * @return number of frames, at most the capacity.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * get the number of frames kept.
+     * @return capacity of the buffer.
+     */
+    public int getCapacity() {
+        return frameNumbers.length;
+    }
+
+    /**
+     * get the sequence number of a recorded frame.
+     * @param frame frame index, 0 is the oldest recorded frame.
+     */
+    public long getFrameNumber(int frame) {
+        return frameNumbers[slot(frame)];
+    }
+
+    public float getActTime(int frame) {
+        return actTimes[slot(frame)];
+    }
+
+    public float getDrawTime(int frame) {
+        return drawTimes[slot(frame)];
+    }
+
+    public float getDirectorTime(int frame) {
+        return directorTimes[slot(frame)];
+    }
+
+    public int getActorsDrawn(int frame) {
+        return actorsDrawnCounts[slot(frame)];
+    }
+
+    public int getActorsCulled(int frame) {
+        return actorsCulledCounts[slot(frame)];
+    }
+
+    public int getRenderCalls(int frame) {
+        return renderCallCounts[slot(frame)];
+    }
+
+    public int getMaxSpritesInBatch(int frame) {
+        return maxSpritesInBatchCounts[slot(frame)];
+    }
+
+    public int getTileLayers(int frame) {
+        return tileLayerCounts[slot(frame)];
+    }
+
+    public long getCollisionPairs(int frame) {
+        return collisionPairCounts[slot(frame)];
+    }
+
+    /**
+     * write the recorded frames as CSV with a {@link #CSV_HEADER} line, oldest
+     * frame first.
+     * @param writer the writer, not closed.
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        StringBuilder line = new StringBuilder(96);
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % frameNumbers.length;
+            line.setLength(0);
+            line.append(frameNumbers[slot]).append(',')
+                    .append(actTimes[slot]).append(',')
+                    .append(drawTimes[slot]).append(',')
+                    .append(directorTimes[slot]).append(',')
+                    .append(actorsDrawnCounts[slot]).append(',')
+                    .append(actorsCulledCounts[slot]).append(',')
+                    .append(renderCallCounts[slot]).append(',')
+                    .append(maxSpritesInBatchCounts[slot]).append(',')
+                    .append(tileLayerCounts[slot]).append(',')
+                    .append(collisionPairCounts[slot]).append('\n');
+            writer.append(line);
+        }
+        writer.flush();
+    }
+
+    /**
+     * get the recorded frames as CSV.
+     * @return CSV text, see {@link #writeCsv(Writer)}.
+     */
+    public String toCsv() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeCsv(writer);
+        } catch (IOException e) {
+            //can't happen with a StringWriter.
+        }
+        return writer.toString();
+    }
+
+    private int slot(int frame) {
+        if (frame < 0 || frame >= size) {
+            throw new IndexOutOfBoundsException("frame can't be >= size: "
+                    + frame + " >= " + size);
+        }
+        return (head + frame) % frameNumbers.length;
+    }
+}
@@ -30,6 +30,7 @@ import com.guidebee.game.maps.tiled.TiledMap;
 import com.guidebee.game.maps.tiled.TiledMapTile;
 import com.guidebee.game.maps.tiled.TiledMapTileLayer;
 import com.guidebee.game.physics.*;
+import com.guidebee.game.scene.collision.TileCollisionLayer;
 import com.guidebee.math.geometry.Rectangle;
 import com.guidebee.utils.Disposable;
 import com.guidebee.utils.collections.Array;
@@ -60,6 +61,13 @@ public class Scenery implements Disposable {
 
     protected int[] foreGroundLayers;
 
+    protected final TileCollisionLayer collisionLayer;
+
+    /**
+     * number of map layers rendered in the current frame.
+     */
+    int layersRendered;
+
     /**
      * Constructor.
      *
@@ -78,6 +86,7 @@ public class Scenery implements Disposable {
     public Scenery(TiledMap map, MapType mapType) {
         this.tiledMap = map;
         this.mapType = mapType;
+        this.collisionLayer = new TileCollisionLayer(map);
     }
 
 
@@ -122,6 +131,7 @@ public class Scenery implements Disposable {
      */
     public void renderBackgroundLayers() {
         if (tiledMapRenderer != null) {
+            layersRendered += countVisibleLayers(backGroundLayers);
             if (backGroundLayers != null) {
                 tiledMapRenderer.render(backGroundLayers);
 
@@ -138,6 +148,7 @@ public class Scenery implements Disposable {
     public void renderForegroundLayers() {
         if (tiledMapRenderer != null) {
             if (foreGroundLayers != null) {
+                layersRendered += countVisibleLayers(foreGroundLayers);
                 tiledMapRenderer.render(foreGroundLayers);
             }
         }
@@ -145,7 +156,53 @@ public class Scenery implements Disposable {
 
 
     /**
-     * get all collidable object in the background.
+     * get the number of map layers rendered in the last frame.
+     *
+     * @return number of visible layers rendered.
+     */
+    public int getLayersRendered() {
+        return layersRendered;
+    }
+
+    private int countVisibleLayers(int[] layerIndices) {
+        MapLayers layers = tiledMap.getLayers();
+        int count = 0;
+        if (layerIndices == null) {
+            for (int i = 0, n = layers.getCount(); i < n; i++) {
+                if (layers.get(i).isVisible()) count++;
+            }
+        } else {
+            for (int i = 0; i < layerIndices.length; i++) {
+                if (layers.get(layerIndices[i]).isVisible()) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * get the static collision layer of the map.
+     *
+     * @return the collision layer.
+     */
+    public TileCollisionLayer getCollisionLayer() {
+        return collisionLayer;
+    }
+
+    /**
+     * get the enabled collidable objects in the background overlapping the
+     * given area, tiles are reported per cell.
+     *
+     * @param area        area to query.
+     * @param collidables array the collidable objects are added to.
+     */
+    public void getCollidables(Rectangle area, Array<Collidable> collidables) {
+        collisionLayer.query(area, collidables);
+    }
+
+    /**
+     * get all collidable object in the background. this walks every cell of
+     * the map, use {@link #getCollidables(Rectangle, Array)} to get the objects
+     * in an area.
      *
      * @return
      */
@@ -18,7 +18,6 @@ package com.guidebee.game.scene;
 
 //--------------------------------- IMPORTS ------------------------------------
 
-import com.guidebee.drawing.geometry.Area;
 import com.guidebee.game.Collidable;
 import com.guidebee.game.GameEngine;
 import com.guidebee.game.InputAdapter;
@@ -38,14 +37,19 @@ import com.guidebee.game.graphics.Color;
 import com.guidebee.game.graphics.SpriteBatch;
 import com.guidebee.game.physics.*;
 import com.guidebee.game.scene.actions.Action;
+import com.guidebee.game.scene.collision.BroadPhase;
 import com.guidebee.game.scene.collision.Collision;
 import com.guidebee.game.scene.collision.CollisionListener;
+import com.guidebee.game.scene.collision.CollisionPairCache;
+import com.guidebee.game.scene.collision.CollisionPhaseListener;
 import com.guidebee.game.ui.*;
+import com.guidebee.math.Intersector;
 import com.guidebee.math.Matrix4;
 import com.guidebee.math.Vector2;
 import com.guidebee.math.geometry.Rectangle;
 import com.guidebee.utils.Disposable;
 import com.guidebee.utils.Scaling;
+import com.guidebee.utils.TimeUtils;
 import com.guidebee.utils.collections.Array;
 import com.guidebee.utils.collections.SnapshotArray;
 
@@ -120,18 +124,17 @@ public class Stage extends InputAdapter implements Disposable {
             Fixture fixture1 = contact.getFixtureA();
             Fixture fixture2 = contact.getFixtureB();
             if (fixture1 != null && fixture2 != null
-                    && contact.isTouching()) {
-                Collision collision = new Collision(contact);
-                if (collisionListener != null) {
-                    collisionListener.collisionDetected(collision);
-                }
+                    && contact.isTouching() && collisionListener != null) {
+                pairCache.beginContact(contact, collisionListener);
             }
 
         }
 
         @Override
         public void endContact(Contact contact) {
-
+            if (collisionListener != null) {
+                pairCache.endContact(contact, collisionListener);
+            }
 
         }
 
@@ -184,6 +187,50 @@ public class Stage extends InputAdapter implements Disposable {
     protected int collisionType=Collidable.BOUNDING_RECT;
 
 
+    /**
+     * broad phase used by non box2d collision checking, null for testing
+     * all pairs.
+     */
+    protected BroadPhase broadPhase;
+
+
+    protected long pairsTested;
+
+
+    private static final float NANO_TO_MILLIS = 1f / 1000000f;
+
+
+    private final Intersector.MinimumTranslationVector contact
+            = new Intersector.MinimumTranslationVector();
+
+
+    /**
+     * pairs collided in previous frames, used to report collision begin,
+     * persist and end.
+     */
+    protected final CollisionPairCache pairCache = new CollisionPairCache();
+
+
+    private final Array<Collidable> actorCollidables = new Array<Collidable>(false, 32);
+
+
+    /**
+     * per frame statistics, null when not recorded.
+     */
+    protected FrameStats frameStats;
+
+
+    private final Array<Collidable> mapCollidables = new Array<Collidable>(false, 16);
+
+
+    private final BroadPhase.PairListener narrowPhase = new BroadPhase.PairListener() {
+        @Override
+        public void candidatePair(Collidable objectA, Collidable objectB) {
+            testCollisionPair(objectA, objectB);
+        }
+    };
+
+
     /**
      * Creates a stage with a {@link com.guidebee.game.camera.viewports.ScalingViewport}
      * set to {@link com.guidebee.utils.Scaling#fill}. The stage
@@ -243,24 +290,105 @@ public class Stage extends InputAdapter implements Disposable {
 
 
     protected void performNoneBox2DCollisionChecking(){
+        pairsTested = 0;
         if(collisionListener!=null) {
             int allOtherTypes = Collidable.BOUNDING_AREA |
                     Collidable.BOUNDING_CIRCLE |
                     Collidable.BOUNDING_RECT;
             if ((collisionType & allOtherTypes) !=0) {
-                Array<Collidable> collidables=getAllCollidables();
-                collisionQuery((Collidable[])collidables.toArray(Collidable.class)
-                        ,collisionType,collisionListener);
+                Array<Collidable> collidables=actorCollidables;
+                collidables.clear();
+                getActorCollidables(collidables);
+                pairCache.beginFrame();
+                if (broadPhase != null) {
+                    broadPhase.beginUpdate();
+                    for (int i = 0; i < collidables.size; i++) {
+                        broadPhase.update(collidables.get(i));
+                    }
+                    broadPhase.endUpdate();
+                    pairsTested = broadPhase.queryPairs(narrowPhase);
+                } else {
+                    for (int i = 0; i < collidables.size - 1; i++) {
+                        for (int j = i + 1; j < collidables.size; j++) {
+                            testCollisionPair(collidables.get(i), collidables.get(j));
+                        }
+                    }
+                    pairsTested = (long) collidables.size * (collidables.size - 1) / 2;
+                }
+                if (scenery != null) {
+                    Array<Collidable> tiles = mapCollidables;
+                    for (int i = 0; i < collidables.size; i++) {
+                        Collidable collidable = collidables.get(i);
+                        tiles.clear();
+                        scenery.getCollidables(collidable.getBoundingAABB(), tiles);
+                        for (int j = 0; j < tiles.size; j++) {
+                            testCollisionPair(collidable, tiles.get(j));
+                        }
+                        pairsTested += tiles.size;
+                    }
+                    tiles.clear();
+                }
+                pairCache.endFrame(collisionListener);
 
             }
         }
     }
 
+    private void testCollisionPair(Collidable objectA, Collidable objectB) {
+        if (collisionQuery(objectA, objectB, collisionType, contact)) {
+            pairCache.report(objectA, objectB, collisionType,
+                    contact.normal, contact.depth, collisionListener);
+        }
+    }
+
+    /**
+     * Set the broad phase used by non box2d collision checking. objects are
+     * indexed by the broad phase and only the candidate pairs it reports are
+     * tested, when null (the default) all pairs of collidable objects are tested.
+     *
+     * @param broadPhase broad phase, may be null.
+     */
+    public void setBroadPhase(BroadPhase broadPhase) {
+        if (this.broadPhase != null) {
+            this.broadPhase.clear();
+        }
+        this.broadPhase = broadPhase;
+    }
+
+    /**
+     * get the broad phase used by non box2d collision checking.
+     *
+     * @return the broad phase, may be null.
+     */
+    public BroadPhase getBroadPhase() {
+        return broadPhase;
+    }
+
+    /**
+     * get the number of collidable pairs tested by the narrow phase in the
+     * last frame.
+     *
+     * @return number of pairs tested.
+     */
+    public long getCollisionPairsTested() {
+        return pairsTested;
+    }
+
     public void setCollisionListener(CollisionListener listener) {
         setCollisionListener(listener, Collidable.BOUNDING_CIRCLE);
     }
 
+    /**
+     * Set the collision listener. for non box2d collision checking the listener
+     * is notified once when two objects start colliding, if it's a
+     * {@link CollisionPhaseListener} it's also notified every frame the
+     * collision persists and when the collision ends.
+     *
+     * @param listener collision listener.
+     * @param type collision type.
+     */
     public void setCollisionListener(CollisionListener listener,int type) {
+        pairCache.clear();
         if(listener==null){
             this.collisionListener = null;
             if(world!=null) {
@@ -352,6 +480,31 @@ public class Stage extends InputAdapter implements Disposable {
     }
 
 
+    /**
+     * Get all enabled collidable actors in this stage.
+     * @param collidables array the actors are added to.
+     */
+    protected void getActorCollidables(Array<Collidable> collidables){
+        getActorCollidables(internalStage.getRoot(),collidables);
+    }
+
+    private void getActorCollidables(com.guidebee.game.engine.scene.Group group,
+                                     Array<Collidable> collidables){
+        SnapshotArray<com.guidebee.game.engine.scene.Actor> children=group.getChildren();
+        for(int i=0;i<children.size;i++){
+            com.guidebee.game.engine.scene.Actor child=children.get(i);
+            Object userObject=child.getUserObject();
+            if(userObject instanceof Actor && ((Actor)userObject).isEnabled()){
+                if(child instanceof com.guidebee.game.engine.scene.Group){
+                    getActorCollidables((com.guidebee.game.engine.scene.Group)child,collidables);
+                }else{
+                    collidables.add((Actor)userObject);
+                }
+            }
+        }
+    }
+
+
     protected Array<Collidable> getAllMapCollidables(){
         Array<Collidable> collidables=new Array<Collidable>(false,32);
         if(this.scenery!=null){
@@ -393,7 +546,7 @@ public class Stage extends InputAdapter implements Disposable {
      * @param delta Time in seconds since the last frame.
      */
     public void act(float delta) {
-
+        long actStart = frameStats != null ? TimeUtils.nanoTime() : 0;
         if (world != null) {
             world.step(delta, 6, 3);
             for (Body body : bodiesTobeDeleted) {
@@ -405,9 +558,16 @@ public class Stage extends InputAdapter implements Disposable {
 
         internalStage.act(delta);
         performNoneBox2DCollisionChecking();
-        entityEngine.update(delta);
-
-
+        if (frameStats != null) {
+            long directorStart = TimeUtils.nanoTime();
+            entityEngine.update(delta);
+            long end = TimeUtils.nanoTime();
+            frameStats.directorTime += (end - directorStart) * NANO_TO_MILLIS;
+            frameStats.actTime += (end - actStart) * NANO_TO_MILLIS;
+            frameStats.collisionPairs += pairsTested;
+        } else {
+            entityEngine.update(delta);
+        }
     }
 
     /**
@@ -604,6 +764,16 @@ public class Stage extends InputAdapter implements Disposable {
         return entityEngine.getDirectors();
     }
 
+    /**
+     * Sets the number of worker threads used to run entity directors.
+     *
+     * @param threads number of worker threads, 0 to run directors serially.
+     * @see EntityEngine#setParallelism(int)
+     */
+    public void setDirectorParallelism(int threads) {
+        entityEngine.setParallelism(threads);
+    }
+
     /**
      * @param role
      * @return Returns immutable collection of actors for the specified Role.
@@ -874,11 +1044,23 @@ public class Stage extends InputAdapter implements Disposable {
     }
 
     public void draw() {
-
-
+        FrameStats frameStats = this.frameStats;
+        long drawStart = 0;
+        int totalRenderCalls = 0, maxSpritesInBatch = 0;
+        SpriteBatch spriteBatch = null;
+        if (frameStats != null) {
+            drawStart = TimeUtils.nanoTime();
+            if (getBatch() instanceof SpriteBatch) {
+                spriteBatch = (SpriteBatch) getBatch();
+                totalRenderCalls = spriteBatch.totalRenderCalls;
+                maxSpritesInBatch = spriteBatch.maxSpritesInBatch;
+                spriteBatch.maxSpritesInBatch = 0;
+            }
+        }
 
         internalStage.resetCamera();
         if (scenery != null) {
+            scenery.layersRendered = 0;
             scenery.renderBackgroundLayers();
         }
         internalStage.draw();
@@ -887,6 +1069,40 @@ public class Stage extends InputAdapter implements Disposable {
         }
 
         internalStageHUD.draw();
+
+        if (frameStats != null) {
+            frameStats.drawTime += (TimeUtils.nanoTime() - drawStart) * NANO_TO_MILLIS;
+            frameStats.actorsDrawn += internalStage.getActorsDrawn()
+                    + internalStageHUD.getActorsDrawn();
+            frameStats.actorsCulled += internalStage.getActorsCulled()
+                    + internalStageHUD.getActorsCulled();
+            if (scenery != null) {
+                frameStats.tileLayers += scenery.getLayersRendered();
+            }
+            if (spriteBatch != null) {
+                frameStats.renderCalls += spriteBatch.totalRenderCalls - totalRenderCalls;
+                frameStats.maxSpritesInBatch = Math.max(frameStats.maxSpritesInBatch,
+                        spriteBatch.maxSpritesInBatch);
+                spriteBatch.maxSpritesInBatch = Math.max(maxSpritesInBatch,
+                        spriteBatch.maxSpritesInBatch);
+            }
+            frameStats.endFrame();
+        }
+    }
+
+    /**
+     * Sets the per frame statistics to record, act and draw times, actors
+     * drawn and culled, sprite batch render calls, map layers, collision
+     * pairs and entity director time are recorded each frame.
+     *
+     * @param frameStats the statistics ring buffer, null to stop recording.
+     */
+    public void setFrameStats(FrameStats frameStats) {
+        this.frameStats = frameStats;
+    }
+
+    public FrameStats getFrameStats() {
+        return frameStats;
     }
 
     /**
@@ -898,24 +1114,54 @@ public class Stage extends InputAdapter implements Disposable {
         internalStage.setDebugTableUnderMouse(debugTableUnderMouse);
     }
 
+    /**
+     * If true, actors outside the camera's view are not drawn, groups outside
+     * of it are skipped with all their children. The view is taken from the
+     * camera each frame and the actors' bounds are cached until they are
+     * transformed.
+     */
+    public void setAutoCulling(boolean autoCulling) {
+        internalStage.setAutoCulling(autoCulling);
+    }
+
+    public boolean isAutoCulling() {
+        return internalStage.isAutoCulling();
+    }
+
+    /**
+     * @return number of actors drawn in the last frame.
+     */
+    public int getActorsDrawn() {
+        return internalStage.getActorsDrawn();
+    }
+
+    /**
+     * @return number of actors (or groups, counted once) culled in the last frame.
+     */
+    public int getActorsCulled() {
+        return internalStage.getActorsCulled();
+    }
+
     @Override
     public void dispose() {
         internalStageHUD.setUserObject(null);
         internalStage.dispose();
         internalStageHUD.dispose();
-
-
+        entityEngine.setParallelism(0);
     }
 
     public final static void collisionQuery(Collidable [] collidables,int collisionType,
                                             CollisionListener collisionListener){
         if(collisionListener!=null) {
+            Intersector.MinimumTranslationVector contact
+                    = new Intersector.MinimumTranslationVector();
             for (int i = 0; i < collidables.length - 1; i++) {
                 for (int j = i + 1; j < collidables.length; j++) {
                     Collidable obj1 = collidables[i];
                     Collidable obj2 = collidables[j];
-                    if (collisionQuery(obj1, obj2, collisionType)) {
-                        Collision collision = new Collision(obj1, obj2,collisionType);
+                    if (collisionQuery(obj1, obj2, collisionType, contact)) {
+                        Collision collision = new Collision(obj1, obj2,collisionType,
+                                contact.normal, contact.depth);
                         collisionListener.collisionDetected(collision);
                     }
                 }
@@ -929,8 +1175,30 @@ public class Stage extends InputAdapter implements Disposable {
 
     public final static boolean collisionQuery(Collidable collidable,
                                                Collidable otherCollidable, int collisionType) {
+        return collisionQuery(collidable, otherCollidable, collisionType, null);
+    }
+
+    /**
+     * check whether two collidable objects collide. area collision is tested on
+     * the transformed bounding polygons with the separating axis test which also
+     * fills in the contact normal and depth, concave polygons are split into
+     * triangles first.
+     *
+     * @param collidable first collidable object.
+     * @param otherCollidable second collidable object.
+     * @param collisionType collision type.
+     * @param contact contact normal and depth, filled in when collided, may be null.
+     * @return true if collided.
+     */
+    public final static boolean collisionQuery(Collidable collidable,
+                                               Collidable otherCollidable, int collisionType,
+                                               Intersector.MinimumTranslationVector contact) {
 
         boolean result = true;
+        if (contact != null) {
+            contact.normal.set(0, 0);
+            contact.depth = 0;
+        }
         if (collidable.isEnabled() && otherCollidable.isEnabled()) {
             if ((collisionType & Collidable.BOUNDING_RECT) == Collidable.BOUNDING_RECT) {
                 result &= collidable.getBoundingAABB().overlaps(otherCollidable.getBoundingAABB());
@@ -938,35 +1206,11 @@ public class Stage extends InputAdapter implements Disposable {
             if ((collisionType & Collidable.BOUNDING_CIRCLE) == Collidable.BOUNDING_CIRCLE) {
                 result &= collidable.getBoundingCircle().overlaps(otherCollidable.getBoundingCircle());
             }
-            if (((collisionType & Collidable.BOUNDING_AREA) == Collidable.BOUNDING_AREA)
-                    || ((collisionType & Collidable.BOX2D_CONTACT) == Collidable.BOX2D_CONTACT)) {
-                float[] vertices1 = collidable.getBoundingPolygon().getVertices();
-                float[] vertices2 = otherCollidable.getBoundingPolygon().getVertices();
-
-                int[] xpoints1 = new int[vertices1.length / 2];
-                int[] xpoints2 = new int[vertices1.length / 2];
-                int[] ypoints1 = new int[vertices1.length / 2];
-                int[] ypoints2 = new int[vertices1.length / 2];
-
-                for (int i = 0; i < vertices1.length / 2; i++) {
-                    xpoints1[i] = Math.round(vertices1[i * 2]);
-                    ypoints1[i] = Math.round(vertices1[i * 2 + 1]);
-                    xpoints2[i] = Math.round(vertices2[i * 2]);
-                    ypoints2[i] = Math.round(vertices2[i * 2 + 1]);
-                }
-
-                com.guidebee.drawing.geometry.Polygon polygon1
-                        = new com.guidebee.drawing.geometry.Polygon(xpoints1, ypoints1, xpoints1.length);
-
-                com.guidebee.drawing.geometry.Polygon polygon2
-                        = new com.guidebee.drawing.geometry.Polygon(xpoints2, ypoints2, xpoints2.length);
-
-                Area area1 = new Area(polygon1);
-                Area area2 = new Area(polygon2);
-
-                area1.intersect(area2);
-
-                result &= !area1.isEmpty();
+            if (result && (((collisionType & Collidable.BOUNDING_AREA) == Collidable.BOUNDING_AREA)
+                    || ((collisionType & Collidable.BOX2D_CONTACT) == Collidable.BOX2D_CONTACT))) {
+                float[] vertices1 = collidable.getBoundingPolygon().getTransformedVertices();
+                float[] vertices2 = otherCollidable.getBoundingPolygon().getTransformedVertices();
+                result = Intersector.overlapPolygons(vertices1, vertices2, contact);
             }
         } else {
             result = false;
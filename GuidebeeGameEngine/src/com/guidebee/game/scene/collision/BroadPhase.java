@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.scene.collision;
+
+//--------------------------------- IMPORTS ------------------------------------
+import com.guidebee.game.Collidable;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Broad phase of the non box2d collision checking. a broad phase keeps a spatial
+ * index of collidable objects and only reports the pairs which may overlap, the
+ * stage then runs the narrow phase (rect, circle or area) on those candidate
+ * pairs only.
+ * <p/>
+ * The index is maintained incrementally, each frame the stage calls
+ * {@link #beginUpdate()}, {@link #update(Collidable)} for every enabled
+ * collidable, and {@link #endUpdate()} which drops the objects not updated in
+ * this frame.
+ */
+public interface BroadPhase {
+
+    /**
+     * Candidate pair callback.
+     */
+    public interface PairListener {
+
+        /**
+         * a candidate pair is found, each pair is reported once per query.
+         * @param objectA first collidable object.
+         * @param objectB second collidable object.
+         */
+        void candidatePair(Collidable objectA, Collidable objectB);
+    }
+
+    /**
+     * start a new frame of updates.
+     */
+    public void beginUpdate();
+
+    /**
+     * insert the collidable object or move it to its current bounding AABB.
+     * @param collidable collidable object.
+     */
+    public void update(Collidable collidable);
+
+    /**
+     * finish the frame of updates, objects not updated since
+     * {@link #beginUpdate()} are removed from the index.
+     */
+    public void endUpdate();
+
+    /**
+     * remove the collidable object from the index.
+     * @param collidable collidable object.
+     */
+    public void remove(Collidable collidable);
+
+    /**
+     * remove all objects from the index.
+     */
+    public void clear();
+
+    /**
+     * get the number of objects in the index.
+     * @return number of objects.
+     */
+    public int size();
+
+    /**
+     * report all candidate pairs to the listener.
+     * @param listener pair listener.
+     * @return number of candidate pairs reported.
+     */
+    public int queryPairs(PairListener listener);
+}
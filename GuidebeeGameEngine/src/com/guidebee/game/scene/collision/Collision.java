@@ -21,6 +21,7 @@ import com.guidebee.game.Collidable;
 import com.guidebee.game.physics.Body;
 import com.guidebee.game.physics.Contact;
 import com.guidebee.game.physics.Fixture;
+import com.guidebee.math.Vector2;
 
 //[------------------------------ MAIN CLASS ----------------------------------]
 
@@ -32,6 +33,14 @@ public class Collision {
     private Collidable objectB;
     private boolean isTouching;
     private int collisionType;
+    private final Vector2 normal = new Vector2();
+    private float depth;
+
+    /**
+     * Constructor, used by pooled collisions.
+     */
+    Collision() {
+    }
 
     /**
      * Constructor.
@@ -46,11 +55,34 @@ public class Collision {
         collisionType = type;
     }
 
+    /**
+     * Constructor.
+     * @param obj1
+     * @param obj2
+     * @param type
+     * @param normal contact normal, pushing obj1 out of obj2.
+     * @param depth penetration depth along the normal.
+     */
+    public Collision(Collidable obj1, Collidable obj2, int type,
+                     Vector2 normal, float depth) {
+        this(obj1, obj2, type);
+        this.normal.set(normal);
+        this.depth = depth;
+    }
+
     /**
      * Constructor.
      * @param contact
      */
     public Collision(Contact contact) {
+        set(contact);
+    }
+
+    void set(Contact contact) {
+        objectA = null;
+        objectB = null;
+        normal.setZero();
+        depth = 0;
         Fixture fixture1 = contact.getFixtureA();
         Fixture fixture2 = contact.getFixtureB();
 
@@ -70,6 +102,25 @@ public class Collision {
         isTouching = contact.isTouching();
     }
 
+    void set(Collidable obj1, Collidable obj2, int type,
+             Vector2 normal, float depth) {
+        objectA = obj1;
+        objectB = obj2;
+        isTouching = true;
+        collisionType = type;
+        this.normal.set(normal);
+        this.depth = depth;
+    }
+
+    void clear() {
+        objectA = null;
+        objectB = null;
+    }
+
+    void setTouching(boolean touching) {
+        isTouching = touching;
+    }
+
     /**
      * get first collidable object.
      * @return
@@ -90,6 +141,27 @@ public class Collision {
         return isTouching;
     }
 
+    /**
+     * get contact normal, only calculated for {@link Collidable#BOUNDING_AREA}
+     * collisions, zero otherwise. For concave polygons it is the normal of the
+     * deepest overlapping pair of triangles, which may lie on an edge inside
+     * the polygon.
+     * @return the unit normal pushing object A out of object B.
+     */
+    public Vector2 getNormal() {
+        return normal;
+    }
+
+    /**
+     * get penetration depth along the contact normal, only calculated for
+     * {@link Collidable#BOUNDING_AREA} collisions, zero otherwise. For concave
+     * polygons it is the depth of the deepest overlapping pair of triangles.
+     * @return the penetration depth.
+     */
+    public float getDepth() {
+        return depth;
+    }
+
     /**
      * get collision type.
      * @return
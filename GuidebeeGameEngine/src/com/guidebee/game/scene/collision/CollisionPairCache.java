@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.scene.collision;
+
+//--------------------------------- IMPORTS ------------------------------------
+import com.guidebee.game.Collidable;
+import com.guidebee.game.physics.Contact;
+import com.guidebee.math.Vector2;
+import com.guidebee.utils.Pool;
+import com.guidebee.utils.collections.Array;
+import com.guidebee.utils.collections.IdentityMap;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Table of colliding pairs which persists across frames. the pairs colliding
+ * in a frame are reported between {@link #beginFrame()} and
+ * {@link #endFrame(CollisionListener)}, the listener is notified when a pair
+ * starts colliding, and if it is a {@link CollisionPhaseListener}, also while
+ * it keeps colliding and when it stops. Pairs are keyed by object identity
+ * regardless of order, the collision keeps the objects in the order of the
+ * latest report so its normal pushes the first one out. One pooled
+ * {@link Collision} is used for the whole life of a pair. Box2d contacts are reported through pooled collisions as
+ * well, those are only valid during the listener call.
+ */
+public class CollisionPairCache {
+
+    /**
+     * one colliding pair.
+     */
+    private static class Pair {
+        Collidable objectA;
+        Collidable objectB;
+        final Collision collision = new Collision();
+        int stamp;
+        int index;
+    }
+
+    private final Array<Pair> pairs = new Array<Pair>(false, 32);
+
+    private final IdentityMap<Collidable, Array<Pair>> pairsByObject
+            = new IdentityMap<Collidable, Array<Pair>>();
+
+    private final Pool<Pair> pairPool = new Pool<Pair>() {
+        @Override
+        protected Pair newObject() {
+            return new Pair();
+        }
+    };
+
+    private final Pool<Array<Pair>> listPool = new Pool<Array<Pair>>() {
+        @Override
+        protected Array<Pair> newObject() {
+            return new Array<Pair>(false, 4);
+        }
+    };
+
+    private final Pool<Collision> contactPool = new Pool<Collision>() {
+        @Override
+        protected Collision newObject() {
+            return new Collision();
+        }
+    };
+
+    private int stamp;
+
+    /**
+     * start reporting the colliding pairs of a new frame.
+     */
+    public void beginFrame() {
+        stamp++;
+    }
+
+    /**
+     * report a colliding pair in this frame.
+     *
+     * @param objectA first collidable object.
+     * @param objectB second collidable object.
+     * @param type collision type.
+     * @param normal contact normal.
+     * @param depth contact depth.
+     * @param listener collision listener.
+     */
+    public void report(Collidable objectA, Collidable objectB, int type,
+                       Vector2 normal, float depth, CollisionListener listener) {
+        Pair pair = find(objectA, objectB);
+        if (pair == null) {
+            pair = pairPool.obtain();
+            pair.objectA = objectA;
+            pair.objectB = objectB;
+            pair.stamp = stamp;
+            pair.index = pairs.size;
+            pairs.add(pair);
+            link(objectA, pair);
+            link(objectB, pair);
+            pair.collision.set(objectA, objectB, type, normal, depth);
+            listener.collisionDetected(pair.collision);
+        } else if (pair.stamp != stamp) {
+            pair.stamp = stamp;
+            // keep the order of this report, the normal belongs to it.
+            pair.objectA = objectA;
+            pair.objectB = objectB;
+            pair.collision.set(objectA, objectB, type, normal, depth);
+            if (listener instanceof CollisionPhaseListener) {
+                ((CollisionPhaseListener) listener).collisionPersisted(pair.collision);
+            }
+        }
+    }
+
+    /**
+     * finish the frame, the pairs not reported since {@link #beginFrame()} have
+     * stopped colliding and are removed.
+     *
+     * @param listener collision listener.
+     */
+    public void endFrame(CollisionListener listener) {
+        for (int i = pairs.size - 1; i >= 0; i--) {
+            Pair pair = pairs.get(i);
+            if (pair.stamp != stamp) {
+                removePair(pair);
+                if (listener instanceof CollisionPhaseListener) {
+                    pair.collision.setTouching(false);
+                    ((CollisionPhaseListener) listener).collisionEnded(pair.collision);
+                }
+                pair.objectA = null;
+                pair.objectB = null;
+                pairPool.free(pair);
+            }
+        }
+    }
+
+    /**
+     * report a box2d contact which starts touching.
+     *
+     * @param contact the contact.
+     * @param listener collision listener.
+     */
+    public void beginContact(Contact contact, CollisionListener listener) {
+        Collision collision = contactPool.obtain();
+        collision.set(contact);
+        listener.collisionDetected(collision);
+        collision.clear();
+        contactPool.free(collision);
+    }
+
+    /**
+     * report a box2d contact which stops touching, only listeners which are
+     * a {@link CollisionPhaseListener} are notified.
+     *
+     * @param contact the contact.
+     * @param listener collision listener.
+     */
+    public void endContact(Contact contact, CollisionListener listener) {
+        if (listener instanceof CollisionPhaseListener) {
+            Collision collision = contactPool.obtain();
+            collision.set(contact);
+            ((CollisionPhaseListener) listener).collisionEnded(collision);
+            collision.clear();
+            contactPool.free(collision);
+        }
+    }
+
+    /**
+     * remove all pairs without notification.
+     */
+    public void clear() {
+        for (int i = pairs.size - 1; i >= 0; i--) {
+            Pair pair = pairs.get(i);
+            removePair(pair);
+            pair.objectA = null;
+            pair.objectB = null;
+            pairPool.free(pair);
+        }
+    }
+
+    /**
+     * get the number of colliding pairs.
+     * @return number of colliding pairs.
+     */
+    public int size() {
+        return pairs.size;
+    }
+
+    private Pair find(Collidable objectA, Collidable objectB) {
+        Array<Pair> list = pairsByObject.get(objectA);
+        if (list != null) {
+            for (int i = 0; i < list.size; i++) {
+                Pair pair = list.get(i);
+                if ((pair.objectA == objectA && pair.objectB == objectB)
+                        || (pair.objectA == objectB && pair.objectB == objectA)) {
+                    return pair;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void link(Collidable collidable, Pair pair) {
+        Array<Pair> list = pairsByObject.get(collidable);
+        if (list == null) {
+            list = listPool.obtain();
+            pairsByObject.put(collidable, list);
+        }
+        list.add(pair);
+    }
+
+    private void unlink(Collidable collidable, Pair pair) {
+        Array<Pair> list = pairsByObject.get(collidable);
+        if (list != null) {
+            list.removeValue(pair, true);
+            if (list.size == 0) {
+                pairsByObject.remove(collidable);
+                listPool.free(list);
+            }
+        }
+    }
+
+    private void removePair(Pair pair) {
+        unlink(pair.objectA, pair);
+        if (pair.objectB != pair.objectA) {
+            unlink(pair.objectB, pair);
+        }
+        Pair last = pairs.pop();
+        if (last != pair) {
+            pairs.set(pair.index, last);
+            last.index = pair.index;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+
+package com.guidebee.game.scene.collision;
+//--------------------------------- IMPORTS ------------------------------------
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Collision listener which is also notified while a collision persists and
+ * when it ends. {@link #collisionDetected(Collision)} is called once when two
+ * objects start colliding.
+ */
+public interface CollisionPhaseListener extends CollisionListener {
+
+    /**
+     * collision still exists in this frame.
+     * @param collision collision object, the same instance passed to
+     *                  {@link #collisionDetected(Collision)}.
+     */
+    void collisionPersisted(Collision collision);
+
+    /**
+     * collision ended, the objects no longer collide.
+     * @param collision collision object, the same instance passed to
+     *                  {@link #collisionDetected(Collision)}.
+     */
+    void collisionEnded(Collision collision);
+}
@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.scene.collision;
+
+//--------------------------------- IMPORTS ------------------------------------
+import com.guidebee.game.graphics.TextureRegion;
+import com.guidebee.game.maps.MapProperties;
+import com.guidebee.game.maps.tiled.TiledMapTile;
+import com.guidebee.game.maps.tiled.TiledMapTileLayer;
+import com.guidebee.math.geometry.Circle;
+import com.guidebee.math.geometry.Polygon;
+import com.guidebee.math.geometry.Rectangle;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * A tile placed in one cell of a tile layer. tiles in a tiled map are shared by
+ * all cells using them, this object binds the shared tile to the bounds of one
+ * cell so it can take part in collision checking. all tile methods are
+ * delegated to the shared tile.
+ */
+public class TileCollidable implements TiledMapTile {
+
+    private final TiledMapTileLayer layer;
+    private final int cellX;
+    private final int cellY;
+    private TiledMapTile tile;
+
+    private final Rectangle boundingRect = new Rectangle();
+    private final Polygon boundingPolygon = new Polygon();
+    private final float[] boundingVertices = new float[8];
+    private final Circle boundingCircle = new Circle();
+
+    /**
+     * Constructor.
+     *
+     * @param layer tile layer.
+     * @param cellX cell column.
+     * @param cellY cell row.
+     */
+    public TileCollidable(TiledMapTileLayer layer, int cellX, int cellY) {
+        this.layer = layer;
+        this.cellX = cellX;
+        this.cellY = cellY;
+        float tileWidth = layer.getTileWidth();
+        float tileHeight = layer.getTileHeight();
+        boundingRect.set(cellX * tileWidth, cellY * tileHeight, tileWidth, tileHeight);
+        float[] vertices = boundingVertices;
+        vertices[0] = boundingRect.x;
+        vertices[1] = boundingRect.y;
+        vertices[2] = boundingRect.x + tileWidth;
+        vertices[3] = boundingRect.y;
+        vertices[4] = boundingRect.x + tileWidth;
+        vertices[5] = boundingRect.y + tileHeight;
+        vertices[6] = boundingRect.x;
+        vertices[7] = boundingRect.y + tileHeight;
+        boundingPolygon.setVertices(vertices);
+        boundingCircle.setPosition(boundingRect.x + tileWidth / 2,
+                boundingRect.y + tileHeight / 2);
+        boundingCircle.setRadius(Math.min(tileWidth / 2, tileHeight / 2));
+    }
+
+    /**
+     * get the shared tile placed in the cell.
+     * @return the tile.
+     */
+    public TiledMapTile getTile() {
+        return tile;
+    }
+
+    void setTile(TiledMapTile tile) {
+        this.tile = tile;
+    }
+
+    /**
+     * get the tile layer.
+     * @return the tile layer.
+     */
+    public TiledMapTileLayer getLayer() {
+        return layer;
+    }
+
+    /**
+     * get the cell column.
+     * @return the cell column.
+     */
+    public int getCellX() {
+        return cellX;
+    }
+
+    /**
+     * get the cell row.
+     * @return the cell row.
+     */
+    public int getCellY() {
+        return cellY;
+    }
+
+    @Override
+    public int getId() {
+        return tile.getId();
+    }
+
+    @Override
+    public void setId(int id) {
+        tile.setId(id);
+    }
+
+    @Override
+    public BlendMode getBlendMode() {
+        return tile.getBlendMode();
+    }
+
+    @Override
+    public void setBlendMode(BlendMode blendMode) {
+        tile.setBlendMode(blendMode);
+    }
+
+    @Override
+    public TextureRegion getTextureRegion() {
+        return tile.getTextureRegion();
+    }
+
+    @Override
+    public void setTextureRegion(TextureRegion textureRegion) {
+        tile.setTextureRegion(textureRegion);
+    }
+
+    @Override
+    public float getOffsetX() {
+        return tile.getOffsetX();
+    }
+
+    @Override
+    public void setOffsetX(float offsetX) {
+        tile.setOffsetX(offsetX);
+    }
+
+    @Override
+    public float getOffsetY() {
+        return tile.getOffsetY();
+    }
+
+    @Override
+    public void setOffsetY(float offsetY) {
+        tile.setOffsetY(offsetY);
+    }
+
+    @Override
+    public MapProperties getProperties() {
+        return tile.getProperties();
+    }
+
+    @Override
+    public Object getUserObject() {
+        return tile.getUserObject();
+    }
+
+    @Override
+    public void setUserObject(Object userObject) {
+        tile.setUserObject(userObject);
+    }
+
+    @Override
+    public void setBoundingRect(Rectangle rect) {
+        //bounds are fixed by the cell.
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return tile != null && tile.isEnabled();
+    }
+
+    @Override
+    public String getName() {
+        return tile.getName();
+    }
+
+    @Override
+    public Rectangle getBoundingAABB() {
+        return boundingRect;
+    }
+
+    @Override
+    public Polygon getBoundingPolygon() {
+        return boundingPolygon;
+    }
+
+    @Override
+    public Circle getBoundingCircle() {
+        return boundingCircle;
+    }
+}
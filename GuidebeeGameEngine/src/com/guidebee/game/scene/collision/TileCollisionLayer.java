@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.scene.collision;
+
+//--------------------------------- IMPORTS ------------------------------------
+import com.guidebee.game.Collidable;
+import com.guidebee.game.maps.MapLayer;
+import com.guidebee.game.maps.MapObject;
+import com.guidebee.game.maps.tiled.TiledMap;
+import com.guidebee.game.maps.tiled.TiledMapTile;
+import com.guidebee.game.maps.tiled.TiledMapTileLayer;
+import com.guidebee.math.geometry.Rectangle;
+import com.guidebee.utils.collections.Array;
+import com.guidebee.utils.collections.IntMap;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Static collision layer of a tiled map. the layer is built once when the map
+ * is loaded and is queried with a bounding rectangle, only the cells the
+ * rectangle overlaps are visited so the cost does not depend on the map size.
+ * <p/>
+ * Each collidable cell is reported as a {@link TileCollidable} bound to the
+ * cell, created the first time the cell is queried and reused afterwards. The
+ * tile and its enabled flag are read from the map when queried, so tiles can
+ * be changed with {@link TiledMapTileLayer#setCell(int, int,
+ * TiledMapTileLayer.Cell)} or enabled/disabled without rebuilding the layer,
+ * only adding or removing map layers needs a {@link #rebuild()}.
+ */
+public class TileCollisionLayer {
+
+    /**
+     * one tile layer of the map.
+     */
+    private static class TileLayerEntry {
+        TiledMapTileLayer layer;
+        final IntMap<TileCollidable> cells = new IntMap<TileCollidable>();
+    }
+
+    private final TiledMap tiledMap;
+
+    private final Array<TileLayerEntry> tileLayers = new Array<TileLayerEntry>();
+
+    private final Array<MapObject> mapObjects = new Array<MapObject>(false, 16);
+
+    /**
+     * Constructor.
+     *
+     * @param map tiled map.
+     */
+    public TileCollisionLayer(TiledMap map) {
+        this.tiledMap = map;
+        rebuild();
+    }
+
+    /**
+     * rebuild the layer from the map's layers, needed when map layers or map
+     * objects are added or removed.
+     */
+    public void rebuild() {
+        tileLayers.clear();
+        mapObjects.clear();
+        if (tiledMap != null) {
+            for (MapLayer mapLayer : tiledMap.getLayers()) {
+                if (mapLayer instanceof TiledMapTileLayer) {
+                    TileLayerEntry entry = new TileLayerEntry();
+                    entry.layer = (TiledMapTileLayer) mapLayer;
+                    tileLayers.add(entry);
+                } else {
+                    for (MapObject mapObject : mapLayer.getObjects()) {
+                        mapObjects.add(mapObject);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * get all enabled collidable objects overlapping the given area.
+     *
+     * @param area area to query.
+     * @param collidables array the collidable objects are added to.
+     */
+    public void query(Rectangle area, Array<Collidable> collidables) {
+        for (int i = 0; i < tileLayers.size; i++) {
+            TileLayerEntry entry = tileLayers.get(i);
+            TiledMapTileLayer layer = entry.layer;
+            float tileWidth = layer.getTileWidth();
+            float tileHeight = layer.getTileHeight();
+            int minX = Math.max(0, (int) Math.floor(area.x / tileWidth));
+            int minY = Math.max(0, (int) Math.floor(area.y / tileHeight));
+            int maxX = Math.min(layer.getWidth() - 1,
+                    (int) Math.floor((area.x + area.width) / tileWidth));
+            int maxY = Math.min(layer.getHeight() - 1,
+                    (int) Math.floor((area.y + area.height) / tileHeight));
+            int[] packedCells = layer.getPackedCells();
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    TiledMapTile tile;
+                    if (packedCells != null) {
+                        tile = layer.getTile(packedCells[y * layer.getWidth() + x]);
+                    } else {
+                        TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                        if (cell == null) continue;
+                        tile = cell.getTile();
+                    }
+                    if (tile == null || !tile.isEnabled()) continue;
+                    int key = y * layer.getWidth() + x;
+                    TileCollidable collidable = entry.cells.get(key);
+                    if (collidable == null) {
+                        collidable = new TileCollidable(layer, x, y);
+                        entry.cells.put(key, collidable);
+                    }
+                    collidable.setTile(tile);
+                    collidables.add(collidable);
+                }
+            }
+        }
+        for (int i = 0; i < mapObjects.size; i++) {
+            MapObject mapObject = mapObjects.get(i);
+            if (mapObject.isEnabled()) {
+                Rectangle bounds = mapObject.getBoundingAABB();
+                if (bounds != null && bounds.overlaps(area)) {
+                    collidables.add(mapObject);
+                }
+            }
+        }
+    }
+}
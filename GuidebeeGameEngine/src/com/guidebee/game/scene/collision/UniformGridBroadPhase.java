@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.scene.collision;
+
+//--------------------------------- IMPORTS ------------------------------------
+import com.guidebee.game.Collidable;
+import com.guidebee.math.geometry.Rectangle;
+import com.guidebee.utils.Pool;
+import com.guidebee.utils.collections.Array;
+import com.guidebee.utils.collections.IdentityMap;
+import com.guidebee.utils.collections.LongMap;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * Uniform grid broad phase. the world is divided into square cells of the given
+ * size, each collidable object is registered in all cells its bounding AABB
+ * overlaps, and only objects sharing a cell are reported as candidate pairs.
+ * <p/>
+ * An object is only re-binned when its bounding AABB changes, and only
+ * re-inserted when the range of cells it covers changes, so static objects
+ * (map tiles, map objects) cost nothing after the first frame. Objects
+ * updated in the same order as in the previous frame are found without
+ * hashing.
+ * The cell size should be about the size of a typical moving object, for tiled
+ * maps the tile size is a good choice.
+ */
+public class UniformGridBroadPhase implements BroadPhase {
+
+    /**
+     * entry of one collidable object in the grid.
+     */
+    private static class Proxy {
+        Collidable collidable;
+        float x, y, width, height;
+        int minX, minY, maxX, maxY;
+        int stamp;
+        int index;
+    }
+
+    /**
+     * one non empty cell of the grid.
+     */
+    private static class Cell {
+        int x, y;
+        int index;
+        final Array<Proxy> proxies = new Array<Proxy>(false, 8);
+    }
+
+    private final float invCellSize;
+
+    private final IdentityMap<Collidable, Proxy> proxyMap
+            = new IdentityMap<Collidable, Proxy>();
+
+    private final Array<Proxy> proxies = new Array<Proxy>(false, 64);
+
+    private final LongMap<Cell> cells = new LongMap<Cell>();
+
+    private final Array<Cell> activeCells = new Array<Cell>(false, 64);
+
+    private final Pool<Proxy> proxyPool = new Pool<Proxy>() {
+        @Override
+        protected Proxy newObject() {
+            return new Proxy();
+        }
+    };
+
+    private final Pool<Cell> cellPool = new Pool<Cell>() {
+        @Override
+        protected Cell newObject() {
+            return new Cell();
+        }
+    };
+
+    private int stamp;
+
+    // index of the proxy expected to be updated next.
+    private int cursor;
+
+    /**
+     * Constructor.
+     *
+     * @param cellSize size of one grid cell in world units.
+     */
+    public UniformGridBroadPhase(float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize must be > 0: " + cellSize);
+        }
+        this.invCellSize = 1f / cellSize;
+    }
+
+    @Override
+    public void beginUpdate() {
+        stamp++;
+        cursor = 0;
+    }
+
+    @Override
+    public void update(Collidable collidable) {
+        Rectangle rect = collidable.getBoundingAABB();
+        Proxy proxy;
+        if (cursor < proxies.size && proxies.get(cursor).collidable == collidable) {
+            proxy = proxies.get(cursor);
+        } else {
+            proxy = proxyMap.get(collidable);
+        }
+        if (proxy == null) {
+            proxy = proxyPool.obtain();
+            proxy.collidable = collidable;
+            proxy.index = proxies.size;
+            proxies.add(proxy);
+            proxyMap.put(collidable, proxy);
+            setBounds(proxy, rect);
+            insert(proxy, cellCoordinate(rect.x), cellCoordinate(rect.y),
+                    cellCoordinate(rect.x + rect.width),
+                    cellCoordinate(rect.y + rect.height));
+        } else if (proxy.x != rect.x || proxy.y != rect.y
+                || proxy.width != rect.width || proxy.height != rect.height) {
+            setBounds(proxy, rect);
+            int minX = cellCoordinate(rect.x);
+            int minY = cellCoordinate(rect.y);
+            int maxX = cellCoordinate(rect.x + rect.width);
+            int maxY = cellCoordinate(rect.y + rect.height);
+            if (proxy.minX != minX || proxy.minY != minY
+                    || proxy.maxX != maxX || proxy.maxY != maxY) {
+                removeFromCells(proxy);
+                insert(proxy, minX, minY, maxX, maxY);
+            }
+        }
+        proxy.stamp = stamp;
+        cursor = proxy.index + 1;
+    }
+
+    @Override
+    public void endUpdate() {
+        for (int i = proxies.size - 1; i >= 0; i--) {
+            Proxy proxy = proxies.get(i);
+            if (proxy.stamp != stamp) {
+                removeProxy(proxy);
+            }
+        }
+    }
+
+    @Override
+    public void remove(Collidable collidable) {
+        Proxy proxy = proxyMap.get(collidable);
+        if (proxy != null) {
+            removeProxy(proxy);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = proxies.size - 1; i >= 0; i--) {
+            removeProxy(proxies.get(i));
+        }
+    }
+
+    @Override
+    public int size() {
+        return proxies.size;
+    }
+
+    /**
+     * get the number of non empty cells.
+     * @return number of non empty cells.
+     */
+    public int getCellCount() {
+        return activeCells.size;
+    }
+
+    @Override
+    public int queryPairs(PairListener listener) {
+        int count = 0;
+        for (int c = 0; c < activeCells.size; c++) {
+            Cell cell = activeCells.get(c);
+            Array<Proxy> items = cell.proxies;
+            int size = items.size;
+            for (int i = 0; i < size - 1; i++) {
+                Proxy proxyA = items.get(i);
+                for (int j = i + 1; j < size; j++) {
+                    Proxy proxyB = items.get(j);
+                    //objects sharing several cells are only reported in the
+                    //first cell of their overlapping range.
+                    if (Math.max(proxyA.minX, proxyB.minX) == cell.x
+                            && Math.max(proxyA.minY, proxyB.minY) == cell.y) {
+                        listener.candidatePair(proxyA.collidable, proxyB.collidable);
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private int cellCoordinate(float value) {
+        return (int) Math.floor(value * invCellSize);
+    }
+
+    private static void setBounds(Proxy proxy, Rectangle rect) {
+        proxy.x = rect.x;
+        proxy.y = rect.y;
+        proxy.width = rect.width;
+        proxy.height = rect.height;
+    }
+
+    private static long cellKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    private void insert(Proxy proxy, int minX, int minY, int maxX, int maxY) {
+        proxy.minX = minX;
+        proxy.minY = minY;
+        proxy.maxX = maxX;
+        proxy.maxY = maxY;
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                long key = cellKey(x, y);
+                Cell cell = cells.get(key);
+                if (cell == null) {
+                    cell = cellPool.obtain();
+                    cell.x = x;
+                    cell.y = y;
+                    cell.index = activeCells.size;
+                    activeCells.add(cell);
+                    cells.put(key, cell);
+                }
+                cell.proxies.add(proxy);
+            }
+        }
+    }
+
+    private void removeFromCells(Proxy proxy) {
+        for (int x = proxy.minX; x <= proxy.maxX; x++) {
+            for (int y = proxy.minY; y <= proxy.maxY; y++) {
+                long key = cellKey(x, y);
+                Cell cell = cells.get(key);
+                if (cell != null) {
+                    cell.proxies.removeValue(proxy, true);
+                    if (cell.proxies.size == 0) {
+                        cells.remove(key);
+                        Cell last = activeCells.pop();
+                        if (last != cell) {
+                            activeCells.set(cell.index, last);
+                            last.index = cell.index;
+                        }
+                        cellPool.free(cell);
+                    }
+                }
+            }
+        }
+    }
+
+    private void removeProxy(Proxy proxy) {
+        removeFromCells(proxy);
+        proxyMap.remove(proxy.collidable);
+        Proxy last = proxies.pop();
+        if (last != proxy) {
+            proxies.set(proxy.index, last);
+            last.index = proxy.index;
+        }
+        proxy.collidable = null;
+        proxyPool.free(proxy);
+    }
+}
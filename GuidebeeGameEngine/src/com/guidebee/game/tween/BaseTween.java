@@ -61,6 +61,7 @@ public abstract class BaseTween<T> {
     // Package access
     boolean isAutoRemoveEnabled;
     boolean isAutoStartEnabled;
+    TweenManager manager; // first manager the object was added to
 
     // -------------------------------------------------------------------------
 
@@ -77,6 +78,7 @@ public abstract class BaseTween<T> {
         userData = null;
 
         isAutoRemoveEnabled = isAutoStartEnabled = true;
+        manager = null;
     }
 
     // -------------------------------------------------------------------------
@@ -18,6 +18,8 @@ package com.guidebee.game.tween;
 
 //--------------------------------- IMPORTS ------------------------------------
 
+import com.guidebee.utils.collections.IdentityMap;
+
 import java.util.ArrayList;
 
 //[------------------------------ MAIN CLASS ----------------------------------]
@@ -28,6 +30,7 @@ import java.util.ArrayList;
  */
 abstract class Pool<T> {
     private final ArrayList<T> objects;
+    private final IdentityMap<T, Boolean> pooled = new IdentityMap<T, Boolean>();
     private final Callback<T> callback;
 
     protected abstract T create();
@@ -39,19 +42,22 @@ abstract class Pool<T> {
 
     public T get() {
         T obj = objects.isEmpty() ? create() : objects.remove(objects.size() - 1);
+        pooled.remove(obj);
         if (callback != null) callback.onUnPool(obj);
         return obj;
     }
 
     public void free(T obj) {
-        if (!objects.contains(obj)) {
+        if (!pooled.containsKey(obj)) {
             if (callback != null) callback.onPool(obj);
             objects.add(obj);
+            pooled.put(obj, Boolean.TRUE);
         }
     }
 
     public void clear() {
         objects.clear();
+        pooled.clear();
     }
 
     public int size() {
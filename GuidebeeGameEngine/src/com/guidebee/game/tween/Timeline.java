@@ -256,6 +256,13 @@ public final class Timeline extends BaseTween<Timeline> {
         else return current.children;
     }
 
+    /**
+     * children of the timeline, without the immutable wrapper.
+     */
+    List<BaseTween<?>> children() {
+        return current.children;
+    }
+
     // -------------------------------------------------------------------------
     // Overrides
     // -------------------------------------------------------------------------
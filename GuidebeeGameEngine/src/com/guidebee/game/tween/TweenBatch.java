@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright 2014 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+//--------------------------------- PACKAGE ------------------------------------
+package com.guidebee.game.tween;
+
+//--------------------------------- IMPORTS ------------------------------------
+
+import com.guidebee.game.tween.equations.Quad;
+
+//[------------------------------ MAIN CLASS ----------------------------------]
+
+/**
+ * A batch of tweens animating the values of many targets stored in one
+ * float column, for example the x, y positions of a crowd of sprites. The
+ * tweens are kept in parallel primitive arrays and updated in one loop,
+ * without accessors, tween objects or pooling.
+ * <p/>
+ * Target i owns the values column[i * valuesPerTarget] to
+ * column[i * valuesPerTarget + valuesPerTarget - 1]. A tween starts from
+ * the values found in the column when its delay is over, and writes the
+ * interpolated values back each update. A tween only writes the values it
+ * was given, the first, the first two or all values of the target, the
+ * other values can be animated by other tweens. Finished tweens are
+ * removed, the order of the tweens is not kept.
+ * <pre>
+ * float[] positions = new float[count * 2];
+ * TweenBatch batch = new TweenBatch(positions, 2, count);
+ * batch.add(i, 100, 200, 1.5f);
+ * ...
+ * batch.update(delta);
+ * sprites[i].setPosition(positions[i * 2], positions[i * 2 + 1]);
+ * </pre>
+ *
+ * @see Tween
+ */
+public class TweenBatch {
+
+    private float[] column;
+    private final int valuesPerTarget;
+
+    private int size;
+    private int[] targets;
+    private float[] delays;
+    private float[] durations;
+    private float[] times;
+    private int[] counts;
+    private boolean[] started;
+    private TweenEquation[] equations;
+    private float[] startValues;
+    private float[] endValues;
+
+    private TweenEquation defaultEquation = Quad.INOUT;
+
+    /**
+     * Creates a batch.
+     *
+     * @param column          the values of all targets.
+     * @param valuesPerTarget number of values of one target.
+     * @param capacity        initial number of tweens, the batch grows as needed.
+     */
+    public TweenBatch(float[] column, int valuesPerTarget, int capacity) {
+        if (valuesPerTarget < 1)
+            throw new IllegalArgumentException("valuesPerTarget must be >= 1: " + valuesPerTarget);
+        this.column = column;
+        this.valuesPerTarget = valuesPerTarget;
+        resize(Math.max(capacity, 8));
+    }
+
+    /**
+     * Sets the column the values are read from and written to, for
+     * example after it was grown.
+     */
+    public void setColumn(float[] column) {
+        this.column = column;
+    }
+
+    public float[] getColumn() {
+        return column;
+    }
+
+    public int getValuesPerTarget() {
+        return valuesPerTarget;
+    }
+
+    /**
+     * Sets the equation of the tweens added without one. Default is Quad.INOUT.
+     */
+    public void setDefaultEquation(TweenEquation equation) {
+        this.defaultEquation = equation;
+    }
+
+    /**
+     * Adds a tween of the first value of the target, the other values are
+     * left to other tweens.
+     */
+    public void add(int target, float endValue, float duration) {
+        int index = add(target, 1, duration, 0, defaultEquation);
+        endValues[index * valuesPerTarget] = endValue;
+    }
+
+    /**
+     * Adds a tween of the first two values of the target, the other values
+     * are left to other tweens.
+     */
+    public void add(int target, float endValue1, float endValue2, float duration) {
+        if (valuesPerTarget < 2)
+            throw new IllegalArgumentException("the targets have only one value");
+        int index = add(target, 2, duration, 0, defaultEquation);
+        endValues[index * valuesPerTarget] = endValue1;
+        endValues[index * valuesPerTarget + 1] = endValue2;
+    }
+
+    /**
+     * Adds a tween of the target.
+     *
+     * @param target    index of the target in the column.
+     * @param endValues the end values, valuesPerTarget of them.
+     * @param duration  duration in seconds.
+     * @param delay     delay in seconds before the tween starts.
+     * @param equation  easing equation, null for the default one.
+     */
+    public void add(int target, float[] endValues, float duration, float delay,
+                    TweenEquation equation) {
+        int index = add(target, valuesPerTarget, duration, delay,
+                equation != null ? equation : defaultEquation);
+        System.arraycopy(endValues, 0, this.endValues, index * valuesPerTarget, valuesPerTarget);
+    }
+
+    private int add(int target, int count, float duration, float delay,
+                    TweenEquation equation) {
+        if (size == targets.length) resize((int) (size * 1.75f) + 1);
+        int index = size++;
+        targets[index] = target;
+        durations[index] = duration;
+        delays[index] = delay;
+        times[index] = 0;
+        counts[index] = count;
+        started[index] = false;
+        equations[index] = equation;
+        return index;
+    }
+
+    /**
+     * Updates all tweens. Time only moves forward, a negative delta is
+     * ignored.
+     */
+    public void update(float delta) {
+        if (delta <= 0) return;
+        final float[] column = this.column;
+        final int valuesPerTarget = this.valuesPerTarget;
+        final float[] startValues = this.startValues;
+        final float[] endValues = this.endValues;
+        int i = 0;
+        while (i < size) {
+            float time = times[i] + delta;
+            times[i] = time;
+            float delay = delays[i];
+            if (time < delay) {
+                i++;
+                continue;
+            }
+            int base = i * valuesPerTarget;
+            int targetBase = targets[i] * valuesPerTarget;
+            int count = counts[i];
+            if (!started[i]) {
+                started[i] = true;
+                System.arraycopy(column, targetBase, startValues, base, count);
+            }
+            float duration = durations[i];
+            float t = duration > 0 ? (time - delay) / duration : 1;
+            if (t >= 1) {
+                System.arraycopy(endValues, base, column, targetBase, count);
+                removeIndex(i);
+                continue;
+            }
+            float e = equations[i].compute(t);
+            for (int k = 0; k < count; k++) {
+                float start = startValues[base + k];
+                column[targetBase + k] = start + (endValues[base + k] - start) * e;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Removes the tweens of the target, its values stay where they are.
+     */
+    public void kill(int target) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (targets[i] == target) removeIndex(i);
+        }
+    }
+
+    /**
+     * @return whether a tween of the target is in the batch.
+     */
+    public boolean containsTarget(int target) {
+        for (int i = 0; i < size; i++) {
+            if (targets[i] == target) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes all tweens.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) equations[i] = null;
+        size = 0;
+    }
+
+    /**
+     * @return the number of tweens in the batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void removeIndex(int index) {
+        int last = --size;
+        if (index != last) {
+            targets[index] = targets[last];
+            delays[index] = delays[last];
+            durations[index] = durations[last];
+            times[index] = times[last];
+            counts[index] = counts[last];
+            started[index] = started[last];
+            equations[index] = equations[last];
+            System.arraycopy(startValues, last * valuesPerTarget,
+                    startValues, index * valuesPerTarget, valuesPerTarget);
+            System.arraycopy(endValues, last * valuesPerTarget,
+                    endValues, index * valuesPerTarget, valuesPerTarget);
+        }
+        equations[last] = null;
+    }
+
+    private void resize(int capacity) {
+        int[] targets = new int[capacity];
+        float[] delays = new float[capacity];
+        float[] durations = new float[capacity];
+        float[] times = new float[capacity];
+        int[] counts = new int[capacity];
+        boolean[] started = new boolean[capacity];
+        TweenEquation[] equations = new TweenEquation[capacity];
+        float[] startValues = new float[capacity * valuesPerTarget];
+        float[] endValues = new float[capacity * valuesPerTarget];
+        if (this.targets != null) {
+            System.arraycopy(this.targets, 0, targets, 0, size);
+            System.arraycopy(this.delays, 0, delays, 0, size);
+            System.arraycopy(this.durations, 0, durations, 0, size);
+            System.arraycopy(this.times, 0, times, 0, size);
+            System.arraycopy(this.counts, 0, counts, 0, size);
+            System.arraycopy(this.started, 0, started, 0, size);
+            System.arraycopy(this.equations, 0, equations, 0, size);
+            System.arraycopy(this.startValues, 0, startValues, 0, size * valuesPerTarget);
+            System.arraycopy(this.endValues, 0, endValues, 0, size * valuesPerTarget);
+        }
+        this.targets = targets;
+        this.delays = delays;
+        this.durations = durations;
+        this.times = times;
+        this.counts = counts;
+        this.started = started;
+        this.equations = equations;
+        this.startValues = startValues;
+        this.endValues = endValues;
+    }
+}
@@ -18,6 +18,9 @@ package com.guidebee.game.tween;
 
 //--------------------------------- IMPORTS ------------------------------------
 
+import com.guidebee.utils.collections.Array;
+import com.guidebee.utils.collections.IdentityMap;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -71,13 +74,25 @@ public class TweenManager {
     private final ArrayList<BaseTween<?>> objects = new ArrayList<BaseTween<?>>(20);
     private boolean isPaused = false;
 
+    // managed tweens and timelines by the targets they animate
+    private final IdentityMap<Object, Array<BaseTween<?>>> targets
+            = new IdentityMap<Object, Array<BaseTween<?>>>();
+    private final Array<Array<BaseTween<?>>> freeTargetLists
+            = new Array<Array<BaseTween<?>>>(false, 16);
+
     /**
      * Adds a tween or timeline to the manager and starts or restarts it.
      *
      * @return The manager, for instruction chaining.
      */
     public TweenManager add(BaseTween<?> object) {
-        if (!objects.contains(object)) objects.add(object);
+        boolean contained = object.manager == this
+                || (object.manager != null && objects.contains(object));
+        if (!contained) {
+            objects.add(object);
+            if (object.manager == null) object.manager = this;
+            indexTargets(object, object);
+        }
         if (object.isAutoStartEnabled) object.start();
         return this;
     }
@@ -87,8 +102,10 @@ public class TweenManager {
      * to the given target object.
      */
     public boolean containsTarget(Object target) {
-        for (int i = 0, n = objects.size(); i < n; i++) {
-            BaseTween<?> obj = objects.get(i);
+        Array<BaseTween<?>> objs = targets.get(target);
+        if (objs == null) return false;
+        for (int i = 0, n = objs.size; i < n; i++) {
+            BaseTween<?> obj = objs.get(i);
             if (obj.containsTarget(target)) return true;
         }
         return false;
@@ -99,8 +116,10 @@ public class TweenManager {
      * to the given target object and to the given tween type.
      */
     public boolean containsTarget(Object target, int tweenType) {
-        for (int i = 0, n = objects.size(); i < n; i++) {
-            BaseTween<?> obj = objects.get(i);
+        Array<BaseTween<?>> objs = targets.get(target);
+        if (objs == null) return false;
+        for (int i = 0, n = objs.size; i < n; i++) {
+            BaseTween<?> obj = objs.get(i);
             if (obj.containsTarget(target, tweenType)) return true;
         }
         return false;
@@ -121,8 +140,10 @@ public class TweenManager {
      * timelines containing a tween associated to the given target.
      */
     public void killTarget(Object target) {
-        for (int i = 0, n = objects.size(); i < n; i++) {
-            BaseTween<?> obj = objects.get(i);
+        Array<BaseTween<?>> objs = targets.get(target);
+        if (objs == null) return;
+        for (int i = 0, n = objs.size; i < n; i++) {
+            BaseTween<?> obj = objs.get(i);
             obj.killTarget(target);
         }
     }
@@ -133,8 +154,10 @@ public class TweenManager {
      * target and tween type.
      */
     public void killTarget(Object target, int tweenType) {
-        for (int i = 0, n = objects.size(); i < n; i++) {
-            BaseTween<?> obj = objects.get(i);
+        Array<BaseTween<?>> objs = targets.get(target);
+        if (objs == null) return;
+        for (int i = 0, n = objs.size; i < n; i++) {
+            BaseTween<?> obj = objs.get(i);
             obj.killTarget(target, tweenType);
         }
     }
@@ -173,13 +196,21 @@ public class TweenManager {
      * backward, or by 0.5 to play it twice slower than its normal speed.
      */
     public void update(float delta) {
-        for (int i = objects.size() - 1; i >= 0; i--) {
+        // compact the finished objects away in one pass, keeping the order
+        int size = objects.size();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
             BaseTween<?> obj = objects.get(i);
             if (obj.isFinished() && obj.isAutoRemoveEnabled) {
-                objects.remove(i);
+                unindexTargets(obj, obj);
+                if (obj.manager == this) obj.manager = null;
                 obj.free();
+            } else {
+                if (kept != i) objects.set(kept, obj);
+                kept++;
             }
         }
+        for (int i = size - 1; i >= kept; i--) objects.remove(i);
 
         if (!isPaused) {
             if (delta >= 0) {
@@ -234,6 +265,45 @@ public class TweenManager {
     // Helpers
     // -------------------------------------------------------------------------
 
+    private void indexTargets(BaseTween<?> managed, BaseTween<?> obj) {
+        if (obj instanceof Tween) {
+            Object target = ((Tween) obj).getTarget();
+            if (target == null) return;
+            Array<BaseTween<?>> objs = targets.get(target);
+            if (objs == null) {
+                objs = freeTargetLists.size > 0 ? freeTargetLists.pop()
+                        : new Array<BaseTween<?>>(false, 4);
+                targets.put(target, objs);
+            }
+            // a timeline is listed once per target
+            if (!objs.contains(managed, true)) objs.add(managed);
+        } else {
+            List<BaseTween<?>> children = ((Timeline) obj).children();
+            for (int i = 0, n = children.size(); i < n; i++) {
+                indexTargets(managed, children.get(i));
+            }
+        }
+    }
+
+    private void unindexTargets(BaseTween<?> managed, BaseTween<?> obj) {
+        if (obj instanceof Tween) {
+            Object target = ((Tween) obj).getTarget();
+            if (target == null) return;
+            Array<BaseTween<?>> objs = targets.get(target);
+            if (objs == null) return;
+            objs.removeValue(managed, true);
+            if (objs.size == 0) {
+                targets.remove(target);
+                freeTargetLists.add(objs);
+            }
+        } else {
+            List<BaseTween<?>> children = ((Timeline) obj).children();
+            for (int i = 0, n = children.size(); i < n; i++) {
+                unindexTargets(managed, children.get(i));
+            }
+        }
+    }
+
     private static int getTweensCount(List<BaseTween<?>> objs) {
         int cnt = 0;
         for (int i = 0, n = objs.size(); i < n; i++) {
@@ -236,6 +236,33 @@ public final class GeometryUtils {
         return area;
     }
 
+    /**
+     * Returns true if the polygon defined by the vertices is convex, the
+     * polygon may be wound either way.
+     *
+     * @param offset Starting polygon index.
+     * @param count  Number of array indices to use after offset.
+     */
+    static public boolean isConvexPolygon(float[] polygon, int offset, int count) {
+        if (count < 6) return false;
+        int sign = 0;
+        int end = offset + count;
+        for (int i = offset; i < end; i += 2) {
+            int j = i + 2 < end ? i + 2 : offset + (i + 2 - end);
+            int k = j + 2 < end ? j + 2 : offset + (j + 2 - end);
+            float cross = (polygon[j] - polygon[i]) * (polygon[k + 1] - polygon[j + 1])
+                    - (polygon[j + 1] - polygon[i + 1]) * (polygon[k] - polygon[j]);
+            if (cross > 0) {
+                if (sign < 0) return false;
+                sign = 1;
+            } else if (cross < 0) {
+                if (sign > 0) return false;
+                sign = -1;
+            }
+        }
+        return true;
+    }
+
     static public void ensureCCW(float[] polygon) {
         if (!areVerticesClockwise(polygon, 0, polygon.length)) return;
         int lastX = polygon.length - 2;
@@ -25,6 +25,7 @@ import com.guidebee.math.geometry.Plane;
 import com.guidebee.math.geometry.Polygon;
 import com.guidebee.math.geometry.Rectangle;
 import com.guidebee.utils.collections.Array;
+import com.guidebee.utils.collections.ShortArray;
 
 import java.util.Arrays;
 import java.util.List;
@@ -1229,6 +1230,113 @@ public final class Intersector {
         return true;
     }
 
+    /**
+     * Check whether the simple polygons defined by the given vertex arrays
+     * overlap, no memory is allocated once the calling thread has tested a
+     * polygon of the same size. When both polygons are convex the separating
+     * axis test of
+     * {@link #overlapConvexPolygons(float[], float[], MinimumTranslationVector)}
+     * is used. Otherwise concave polygons are split into triangles and each pair
+     * of convex parts is tested, the mtv is then filled in with the deepest
+     * overlap of the parts, so it may point out of an edge shared by two
+     * triangles of the same polygon.
+     *
+     * @param verts1 Vertices of the first polygon.
+     * @param verts2 Vertices of the second polygon.
+     * @param mtv    A Minimum Translation Vector to fill in the case of a
+     *               collision, or null (optional).
+     * @return Whether polygons overlap.
+     */
+    public static boolean overlapPolygons(float[] verts1, float[] verts2,
+                                          MinimumTranslationVector mtv) {
+        int count1 = verts1.length;
+        int count2 = verts2.length;
+        boolean convex1 = GeometryUtils.isConvexPolygon(verts1, 0, count1);
+        boolean convex2 = GeometryUtils.isConvexPolygon(verts2, 0, count2);
+        if (convex1 && convex2) {
+            return overlapConvexPolygons(verts1, 0, count1, verts2, 0, count2, mtv);
+        }
+
+        PolygonParts parts = polygonParts.get();
+        ShortArray triangles1 = convex1 ? null : parts.triangulator1.computeTriangles(verts1);
+        ShortArray triangles2 = convex2 ? null : parts.triangulator2.computeTriangles(verts2);
+        int parts1 = convex1 ? 1 : triangles1.size / 3;
+        int parts2 = convex2 ? 1 : triangles2.size / 3;
+        boolean overlap = false;
+        float depth = -1;
+        for (int i = 0; i < parts1; i++) {
+            float[] part1 = convex1 ? verts1 : parts.triangle(parts.triangle1, verts1, triangles1, i);
+            int partCount1 = convex1 ? count1 : 6;
+            for (int j = 0; j < parts2; j++) {
+                float[] part2 = convex2 ? verts2 : parts.triangle(parts.triangle2, verts2, triangles2, j);
+                int partCount2 = convex2 ? count2 : 6;
+                if (!overlapConvexPolygons(part1, 0, partCount1, part2, 0, partCount2, parts.mtv)) {
+                    continue;
+                }
+                if (mtv == null) {
+                    return true;
+                }
+                overlap = true;
+                if (parts.mtv.depth > depth) {
+                    depth = parts.mtv.depth;
+                    // orient the normal from the second part towards the first
+                    Vector2 normal = parts.mtv.normal;
+                    float dx = parts.centerX(part1, partCount1) - parts.centerX(part2, partCount2);
+                    float dy = parts.centerY(part1, partCount1) - parts.centerY(part2, partCount2);
+                    if (normal.x * dx + normal.y * dy < 0) {
+                        normal.scl(-1);
+                    }
+                    mtv.normal.set(normal);
+                    mtv.depth = depth;
+                }
+            }
+        }
+        return overlap;
+    }
+
+    private static final ThreadLocal<PolygonParts> polygonParts = new ThreadLocal<PolygonParts>() {
+        @Override
+        protected PolygonParts initialValue() {
+            return new PolygonParts();
+        }
+    };
+
+    /**
+     * Per thread scratch space splitting concave polygons into triangles.
+     */
+    private static class PolygonParts {
+        final EarClippingTriangulator triangulator1 = new EarClippingTriangulator();
+        final EarClippingTriangulator triangulator2 = new EarClippingTriangulator();
+        final float[] triangle1 = new float[6];
+        final float[] triangle2 = new float[6];
+        final MinimumTranslationVector mtv = new MinimumTranslationVector();
+
+        float[] triangle(float[] triangle, float[] vertices, ShortArray triangles, int index) {
+            for (int k = 0; k < 3; k++) {
+                int vertex = triangles.get(index * 3 + k) * 2;
+                triangle[k * 2] = vertices[vertex];
+                triangle[k * 2 + 1] = vertices[vertex + 1];
+            }
+            return triangle;
+        }
+
+        float centerX(float[] vertices, int count) {
+            float x = 0;
+            for (int k = 0; k < count; k += 2) {
+                x += vertices[k];
+            }
+            return x * 2 / count;
+        }
+
+        float centerY(float[] vertices, int count) {
+            float y = 0;
+            for (int k = 1; k < count; k += 2) {
+                y += vertices[k];
+            }
+            return y * 2 / count;
+        }
+    }
+
     /**
      * Splits the triangle by the plane. The result is stored in the SplitTriangle
      * instance. Depending on where the triangle is